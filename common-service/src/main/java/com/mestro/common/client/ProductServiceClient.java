@@ -1,6 +1,7 @@
 package com.mestro.common.client;
 
 import com.mestro.common.dto.ApiResponse;
+import com.mestro.common.dto.InventoryAllocationResponse;
 import com.mestro.common.dto.InventoryResponse;
 import com.mestro.common.dto.ProductResponse;
 import java.util.List;
@@ -16,6 +17,9 @@ public interface ProductServiceClient {
     @GetMapping("/api/v1/products/{id}")
     ApiResponse<ProductResponse> getProductById(@PathVariable("id") Long id);
 
+    @GetMapping("/api/v1/products/batch")
+    ApiResponse<List<ProductResponse>> getProductsByIds(@RequestParam("ids") List<Long> ids);
+
     @GetMapping("/api/v1/products/sku/{sku}")
     ApiResponse<ProductResponse> getProductBySku(@PathVariable("sku") String sku);
 
@@ -33,19 +37,35 @@ public interface ProductServiceClient {
     ApiResponse<InventoryResponse> reserveByProductId(
             @PathVariable("productId") Long productId, @RequestParam("quantity") Integer quantity);
 
+    @PutMapping("/api/v1/inventories/product/{productId}/allocate")
+    ApiResponse<InventoryAllocationResponse> allocateByProductId(
+            @PathVariable("productId") Long productId,
+            @RequestParam("quantity") Integer quantity,
+            @RequestParam("strategy") String strategy,
+            @RequestParam(value = "shipTo", required = false) String shipTo,
+            @RequestParam(value = "reference", required = false) String reference);
+
     @PutMapping("/api/v1/inventories/product/{productId}/warehouse/{warehouseId}/reserve")
     ApiResponse<InventoryResponse> reserveByProductAndWarehouse(
             @PathVariable("productId") Long productId,
             @PathVariable("warehouseId") Long warehouseId,
-            @RequestParam("quantity") Integer quantity);
+            @RequestParam("quantity") Integer quantity,
+            @RequestParam(value = "reference", required = false) String reference,
+            @RequestParam(value = "customerId", required = false) Long customerId);
 
     @PutMapping("/api/v1/inventories/product/{productId}/release")
     ApiResponse<InventoryResponse> releaseByProductId(
-            @PathVariable("productId") Long productId, @RequestParam("quantity") Integer quantity);
+            @PathVariable("productId") Long productId,
+            @RequestParam("quantity") Integer quantity,
+            @RequestParam(value = "reference", required = false) String reference);
 
     @PutMapping("/api/v1/inventories/product/{productId}/warehouse/{warehouseId}/release")
     ApiResponse<InventoryResponse> releaseByProductAndWarehouse(
             @PathVariable("productId") Long productId,
             @PathVariable("warehouseId") Long warehouseId,
-            @RequestParam("quantity") Integer quantity);
+            @RequestParam("quantity") Integer quantity,
+            @RequestParam(value = "reference", required = false) String reference);
+
+    @PutMapping("/api/v1/inventories/release")
+    ApiResponse<List<InventoryResponse>> releaseByReference(@RequestParam("reference") String reference);
 }
@@ -6,7 +6,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 
 @Configuration
-@Import({ModelMapperConfig.class, OpenApiConfig.class})
+@Import({ModelMapperConfig.class, OpenApiConfig.class, ReplicaDataSourceConfig.class})
 public class CommonAutoConfiguration {
     @Bean
     public GlobalExceptionHandler globalExceptionHandler() {
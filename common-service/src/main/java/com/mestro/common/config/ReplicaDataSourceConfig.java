@@ -0,0 +1,88 @@
+package com.mestro.common.config;
+
+import com.mestro.common.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Replaces the auto-configured data source with a {@link ReplicaRoutingDataSource} when
+ * {@code spring.datasource.replica.enabled} is set. The primary pool keeps its usual
+ * {@code spring.datasource.*} settings; the replica pool is configured the same way under
+ * {@code spring.datasource.replica.*}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spring.datasource.replica", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    // Milliseconds behind the primary; 0 when the server is not replaying WAL or has replayed all it received
+    static final String POSTGRES_LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery()"
+            + " OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+            + " ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END";
+
+    @Value("${spring.datasource.replica.lag-query:" + POSTGRES_LAG_QUERY + "}")
+    private String lagQuery;
+
+    @Value("${spring.datasource.replica.max-lag:PT5S}")
+    private Duration maxLag;
+
+    @Value("${spring.datasource.replica.check-interval:PT1S}")
+    private Duration checkInterval;
+
+    @Value("${spring.datasource.replica.read-your-writes-window:PT5S}")
+    private Duration readYourWritesWindow;
+
+    @Value("${spring.datasource.replica.client-header:X-Client-Id}")
+    private String clientHeader;
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties, Environment environment) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = pool(properties, binder, "spring.datasource.hikari", "primary");
+        DataSourceProperties replicaProperties = binder.bind("spring.datasource.replica", DataSourceProperties.class)
+                .orElseThrow(() -> new IllegalStateException("spring.datasource.replica.url is not set"));
+        HikariDataSource replica = pool(replicaProperties, binder, "spring.datasource.replica.hikari", "replica");
+        replica.setReadOnly(true);
+        return new ReplicaRoutingDataSource(
+                primary, replica, lagQuery, maxLag, checkInterval, readYourWritesWindow, clientHeader);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    /**
+     * Hands the connection back after every transaction instead of holding it for the whole
+     * request, so a read-only and a read-write transaction in one request are routed separately.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer replicaConnectionHandling() {
+        return hibernateProperties -> hibernateProperties.put(
+                AvailableSettings.CONNECTION_HANDLING, "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+    }
+
+    private static HikariDataSource pool(
+            DataSourceProperties properties, Binder binder, String hikariPrefix, String poolName) {
+        HikariDataSource pool = properties
+                .initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        pool.setPoolName(poolName);
+        binder.bind(hikariPrefix, Bindable.ofInstance(pool));
+        return pool;
+    }
+}
@@ -0,0 +1,203 @@
+package com.mestro.common.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Sends connections for read-only transactions to a replica and everything else to the primary.
+ * <p>
+ * The decision is made when a connection is requested, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: transaction managers ask
+ * for the connection before the read-only flag of the transaction is bound. A read is kept on the
+ * primary when
+ * <ul>
+ *   <li>the replica's last lag check failed or reported more than {@code maxLag},</li>
+ *   <li>the same client committed a write within the last {@code readYourWritesWindow}, or</li>
+ *   <li>the replica pool could not hand out a connection.</li>
+ * </ul>
+ * Clients are told apart by the {@code clientHeader} request header, falling back to the remote
+ * address. The write window is tracked per instance.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final int MAX_TRACKED_CLIENTS = 100_000;
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final String lagQuery;
+    private final long maxLagMillis;
+    private final long readYourWritesNanos;
+    private final String clientHeader;
+
+    // Client key -> System.nanoTime() until which its reads stay on the primary
+    private final Map<String, Long> recentWriters = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService lagMonitor;
+
+    // Reads go to the primary until the first lag check passes
+    private volatile boolean replicaHealthy;
+
+    public ReplicaRoutingDataSource(
+            DataSource primary,
+            DataSource replica,
+            String lagQuery,
+            Duration maxLag,
+            Duration checkInterval,
+            Duration readYourWritesWindow,
+            String clientHeader) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLagMillis = maxLag.toMillis();
+        this.readYourWritesNanos = readYourWritesWindow.toNanos();
+        this.clientHeader = clientHeader;
+        if (checkInterval.isPositive()) {
+            lagMonitor = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("replica-lag-monitor").daemon(true).factory());
+            lagMonitor.scheduleWithFixedDelay(this::checkReplica, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            lagMonitor = null;
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (routeToReplica()) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                markReplica(false, "connection failed: " + e.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    public boolean isReplicaHealthy() {
+        return replicaHealthy;
+    }
+
+    /** Runs the lag query on the replica and updates its health; called on every check interval. */
+    public void checkReplica() {
+        try (Connection connection = replica.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(Math.max(1, (int) (maxLagMillis / 1000)));
+            try (ResultSet rs = statement.executeQuery(lagQuery)) {
+                long lagMillis = rs.next() ? Math.round(rs.getDouble(1)) : Long.MAX_VALUE;
+                markReplica(lagMillis <= maxLagMillis, "lag " + lagMillis + " ms");
+            }
+        } catch (SQLException | RuntimeException e) {
+            markReplica(false, "lag check failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        if (lagMonitor != null) {
+            lagMonitor.shutdownNow();
+        }
+        closeQuietly(replica);
+        closeQuietly(primary);
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private boolean routeToReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            trackWrite();
+            return false;
+        }
+        if (!replicaHealthy) {
+            return false;
+        }
+        String client = currentClient();
+        if (client == null) {
+            return true;
+        }
+        Long stickyUntil = recentWriters.get(client);
+        if (stickyUntil == null) {
+            return true;
+        }
+        if (System.nanoTime() - stickyUntil < 0) {
+            return false;
+        }
+        recentWriters.remove(client, stickyUntil);
+        return true;
+    }
+
+    /** Starts the client's read-your-writes window once the read-write transaction commits. */
+    private void trackWrite() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        String client = currentClient();
+        if (client == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (recentWriters.size() >= MAX_TRACKED_CLIENTS) {
+                    long now = System.nanoTime();
+                    recentWriters.values().removeIf(until -> now - until >= 0);
+                }
+                recentWriters.put(client, System.nanoTime() + readYourWritesNanos);
+            }
+        });
+    }
+
+    private String currentClient() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return null;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        String client = request.getHeader(clientHeader);
+        return client != null && !client.isBlank() ? client : request.getRemoteAddr();
+    }
+
+    private void markReplica(boolean healthy, String reason) {
+        if (replicaHealthy != healthy) {
+            if (healthy) {
+                log.info("Replica available for reads ({})", reason);
+            } else {
+                log.warn("Routing reads to the primary, replica unavailable ({})", reason);
+            }
+        }
+        replicaHealthy = healthy;
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn("Failed to close data source", e);
+            }
+        }
+    }
+}
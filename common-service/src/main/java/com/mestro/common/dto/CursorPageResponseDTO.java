@@ -0,0 +1,22 @@
+package com.mestro.common.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One keyset page of a list in ID order. Pass {@link #nextAfterId} back as {@code afterId} to get
+ * the next page; it is {@code null} on the last page.
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponseDTO<E> {
+    private List<E> content;
+    private int size;
+    private Long nextAfterId;
+    private Boolean last;
+}
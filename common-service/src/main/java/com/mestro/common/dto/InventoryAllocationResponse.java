@@ -0,0 +1,18 @@
+package com.mestro.common.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryAllocationResponse {
+    private Long productId;
+    private Integer quantity;
+    private String strategy;
+    private List<WarehouseAllocationResponse> allocations;
+}
@@ -1,6 +1,7 @@
 package com.mestro.common.dto;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -16,5 +17,9 @@ public class ProductResponse {
     private String name;
     private String brand;
     private BigDecimal price;
+    private BigDecimal discountPercentage;
+    private BigDecimal taxRate;
+    private BigDecimal effectivePrice;
     private Boolean isActive;
+    private LocalDateTime updatedAt;
 }
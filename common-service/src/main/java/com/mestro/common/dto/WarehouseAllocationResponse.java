@@ -0,0 +1,18 @@
+package com.mestro.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarehouseAllocationResponse {
+    private Long inventoryId;
+    private Long warehouseId;
+    private String warehouseName;
+    private Integer quantity;
+    private Integer quantityAvailable;
+}
@@ -0,0 +1,142 @@
+package com.mestro.common.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Immutable amount held as a {@code long} count of minor units (cents).
+ * <p>
+ * Rounding rules: an amount enters the type once, through {@link #of(BigDecimal)} or
+ * {@link #toMinorUnits(BigDecimal)}, and is rounded HALF_UP to {@value #SCALE} decimal places at
+ * that point. Addition, subtraction and multiplication by a quantity are then exact; anything that
+ * would overflow a {@code long} throws {@link ArithmeticException} instead of wrapping.
+ * <p>
+ * Hot loops should work on the static {@code long} helpers and convert back to {@link BigDecimal}
+ * once at the end, which avoids an allocation per operation.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    public static final RoundingMode ROUNDING = RoundingMode.HALF_UP;
+    public static final Money ZERO = new Money(0L);
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0L ? ZERO : new Money(minorUnits);
+    }
+
+    public static Money of(BigDecimal amount) {
+        return ofMinor(toMinorUnits(amount));
+    }
+
+    public static Money of(String amount) {
+        return of(new BigDecimal(amount));
+    }
+
+    // -------------------------------------------------------------------------
+    // Allocation-free helpers on raw minor units
+    // -------------------------------------------------------------------------
+
+    /** Rounds HALF_UP to cents and returns the amount in minor units; {@code null} is treated as zero. */
+    public static long toMinorUnits(BigDecimal amount) {
+        if (amount == null) {
+            return 0L;
+        }
+        if (amount.scale() == 0) {
+            return Math.multiplyExact(amount.longValueExact(), 100L);
+        }
+        if (amount.scale() == SCALE) {
+            // Already in cents: no rescale needed
+            return amount.unscaledValue().longValueExact();
+        }
+        return amount.setScale(SCALE, ROUNDING).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    public static long multiplyMinor(long minorUnits, long quantity) {
+        return Math.multiplyExact(minorUnits, quantity);
+    }
+
+    /**
+     * Applies a percentage (e.g. {@code 12.5} for 12.5%) to an amount, rounding the result
+     * HALF_UP to the nearest minor unit.
+     */
+    public static long percentageOfMinor(long minorUnits, BigDecimal percentage) {
+        if (percentage == null || percentage.signum() == 0 || minorUnits == 0L) {
+            return 0L;
+        }
+        return BigDecimal.valueOf(minorUnits)
+                .multiply(percentage)
+                .movePointLeft(2)
+                .setScale(0, ROUNDING)
+                .longValueExact();
+    }
+
+    // -------------------------------------------------------------------------
+    // Value operations
+    // -------------------------------------------------------------------------
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money times(long quantity) {
+        return ofMinor(multiplyMinor(minorUnits, quantity));
+    }
+
+    public Money percentage(BigDecimal percentage) {
+        return ofMinor(percentageOfMinor(minorUnits, percentage));
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minorUnits));
+    }
+
+    public boolean isZero() {
+        return minorUnits == 0L;
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0L;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return toBigDecimal(minorUnits);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || (other instanceof Money money && money.minorUnits == minorUnits);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
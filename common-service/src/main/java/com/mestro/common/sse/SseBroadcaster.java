@@ -0,0 +1,271 @@
+package com.mestro.common.sse;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Topic based fan-out of Server-Sent Events.
+ * <p>
+ * Subscribers are {@link SseEmitter}s parked on async requests, so an idle subscriber holds no
+ * thread. Publishing never writes to a socket: the payload is serialised once and appended to each
+ * subscriber's outbox, which is drained on a virtual thread. A subscriber whose outbox overflows is
+ * disconnected and can resume with {@code Last-Event-ID} from the bounded replay buffer.
+ */
+@Slf4j
+public class SseBroadcaster implements AutoCloseable {
+
+    private static final BroadcastEvent HEARTBEAT = new BroadcastEvent(-1L, null, null, List.of());
+
+    private final String name;
+    private final ObjectMapper objectMapper;
+    private final long emitterTimeoutMillis;
+    private final int maxPendingPerSubscriber;
+
+    private final Map<String, Set<Subscriber>> topics = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    // Guarded by "this": publishing and subscribing are serialised so replay and live delivery never
+    // interleave out of order. Both only enqueue, so the critical section stays short.
+    private final BroadcastEvent[] replayBuffer;
+    private long published;
+    // Seeded from the clock so IDs handed out before a restart stay below the new ones
+    private long sequence = System.currentTimeMillis() * 1000;
+
+    private final ExecutorService dispatcher = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeat;
+
+    public SseBroadcaster(
+            String name,
+            ObjectMapper objectMapper,
+            int replayCapacity,
+            int maxPendingPerSubscriber,
+            Duration emitterTimeout,
+            Duration heartbeatInterval) {
+        this.name = name;
+        this.objectMapper = objectMapper;
+        this.replayBuffer = new BroadcastEvent[Math.max(1, replayCapacity)];
+        this.maxPendingPerSubscriber = maxPendingPerSubscriber;
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-sse-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = heartbeatInterval.toMillis();
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a stream on a topic.
+     *
+     * @param lastEventId value of the {@code Last-Event-ID} header, or {@code null} for live events only
+     */
+    public SseEmitter subscribe(String topic, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(topic, emitter);
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onTimeout(() -> disconnect(subscriber));
+        emitter.onError(error -> unregister(subscriber));
+
+        // Flushes the response headers so the client sees the stream open straight away
+        enqueue(subscriber, HEARTBEAT);
+
+        Long resumeAfter = parseEventId(lastEventId);
+        synchronized (this) {
+            if (resumeAfter != null) {
+                replay(subscriber, resumeAfter);
+            }
+            topics.compute(topic, (key, subscribers) -> {
+                Set<Subscriber> target = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+                if (!subscriber.closed && target.add(subscriber)) {
+                    subscriberCount.incrementAndGet();
+                }
+                return target.isEmpty() ? null : target;
+            });
+        }
+        return emitter;
+    }
+
+    /**
+     * Publishes an event to every subscriber of the given topics.
+     *
+     * @return the ID assigned to the event
+     */
+    public long publish(String eventName, Object payload, String... eventTopics) {
+        String data = serialise(payload);
+        synchronized (this) {
+            BroadcastEvent event = new BroadcastEvent(++sequence, eventName, data, List.of(eventTopics));
+            replayBuffer[(int) (published++ % replayBuffer.length)] = event;
+            for (String topic : event.topics()) {
+                Set<Subscriber> subscribers = topics.get(topic);
+                if (subscribers != null) {
+                    subscribers.forEach(subscriber -> enqueue(subscriber, event));
+                }
+            }
+            return event.id();
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @Override
+    public void close() {
+        heartbeat.shutdownNow();
+        List<Subscriber> all = new ArrayList<>();
+        topics.values().forEach(all::addAll);
+        all.forEach(this::disconnect);
+        dispatcher.shutdownNow();
+    }
+
+    // -------------------------------------------------------------------------
+    // Delivery
+    // -------------------------------------------------------------------------
+
+    private void replay(Subscriber subscriber, long resumeAfter) {
+        int buffered = (int) Math.min(published, replayBuffer.length);
+        for (long i = published - buffered; i < published; i++) {
+            BroadcastEvent event = replayBuffer[(int) (i % replayBuffer.length)];
+            if (event.id() > resumeAfter && event.topics().contains(subscriber.topic)) {
+                enqueue(subscriber, event);
+            }
+        }
+    }
+
+    private void sendHeartbeats() {
+        topics.values().forEach(subscribers -> subscribers.forEach(subscriber -> enqueue(subscriber, HEARTBEAT)));
+    }
+
+    private void enqueue(Subscriber subscriber, BroadcastEvent event) {
+        if (subscriber.closed) {
+            return;
+        }
+        if (subscriber.pending.incrementAndGet() > maxPendingPerSubscriber) {
+            log.warn("Disconnecting slow {} subscriber on topic: {}", name, subscriber.topic);
+            disconnect(subscriber);
+            return;
+        }
+        subscriber.outbox.add(event);
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            BroadcastEvent event;
+            while (!subscriber.closed && (event = subscriber.outbox.poll()) != null) {
+                subscriber.pending.decrementAndGet();
+                subscriber.emitter.send(toSse(event));
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("{} subscriber on topic {} went away: {}", name, subscriber.topic, e.getMessage());
+            unregister(subscriber);
+        } finally {
+            subscriber.draining.set(false);
+            if (!subscriber.closed && !subscriber.outbox.isEmpty()) {
+                scheduleDrain(subscriber);
+            }
+        }
+    }
+
+    private SseEmitter.SseEventBuilder toSse(BroadcastEvent event) {
+        if (event == HEARTBEAT) {
+            return SseEmitter.event().comment("heartbeat");
+        }
+        return SseEmitter.event()
+                .id(String.valueOf(event.id()))
+                .name(event.name())
+                .data(event.data(), MediaType.APPLICATION_JSON);
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        unregister(subscriber);
+        try {
+            subscriber.emitter.complete();
+        } catch (Exception e) {
+            log.debug("Error completing {} subscriber on topic {}", name, subscriber.topic, e);
+        }
+    }
+
+    private void unregister(Subscriber subscriber) {
+        if (subscriber.closed) {
+            return;
+        }
+        subscriber.closed = true;
+        subscriber.outbox.clear();
+        topics.computeIfPresent(subscriber.topic, (key, subscribers) -> {
+            if (subscribers.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private String serialise(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unable to serialise " + name + " event", e);
+        }
+    }
+
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private record BroadcastEvent(long id, String name, String data, List<String> topics) {}
+
+    private static final class Subscriber {
+        private final String topic;
+        private final SseEmitter emitter;
+        private final Queue<BroadcastEvent> outbox = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(String topic, SseEmitter emitter) {
+            this.topic = topic;
+            this.emitter = emitter;
+        }
+    }
+}
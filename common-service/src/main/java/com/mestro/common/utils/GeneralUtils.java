@@ -1,12 +1,17 @@
 package com.mestro.common.utils;
 
+import com.mestro.common.dto.CursorPageResponseDTO;
 import com.mestro.common.dto.PageResponseDTO;
 import com.mestro.common.dto.PageableDTO;
 import java.util.List;
+import java.util.function.Function;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 public class GeneralUtils {
 
+    public static final int MAX_CURSOR_PAGE_SIZE = 1000;
+
     public static <T> PageResponseDTO<T> pageableResponse(
             List<T> content,
             int number,
@@ -34,4 +39,31 @@ public class GeneralUtils {
                         .build())
                 .build();
     }
+
+    /**
+     * The request for one keyset page of {@code size} rows: it asks for one row more, which only
+     * tells {@link #cursorResponse} whether another page follows.
+     */
+    public static Pageable cursorPageRequest(int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        return PageRequest.of(0, size + 1);
+    }
+
+    /**
+     * Builds a keyset page from up to {@code size + 1} rows read in ID order after the cursor; the
+     * extra row, if present, is dropped and marks that another page follows.
+     */
+    public static <E, T> CursorPageResponseDTO<T> cursorResponse(
+            List<E> rows, int size, Function<E, Long> idOf, Function<List<E>, List<T>> toContent) {
+        boolean last = rows.size() <= size;
+        List<E> page = last ? rows : rows.subList(0, size);
+        return CursorPageResponseDTO.<T>builder()
+                .content(toContent.apply(page))
+                .size(size)
+                .nextAfterId(last || page.isEmpty() ? null : idOf.apply(page.get(page.size() - 1)))
+                .last(last)
+                .build();
+    }
 }
@@ -0,0 +1,33 @@
+package com.mestro.common.utils;
+
+import com.mestro.common.model.Money;
+import java.math.BigDecimal;
+
+/**
+ * Catalog price rules shared by the services, in minor units.
+ * <p>
+ * Discount and tax are applied per unit and rounded HALF_UP to the cent, so a line total is
+ * always {@code unit price × quantity} and matches what {@code Order.calculateTotalAmount}
+ * produces from the stored unit price.
+ */
+public final class PricingUtils {
+
+    private PricingUtils() {}
+
+    /** List price less the discount percentage. */
+    public static long discountedUnitPriceMinor(BigDecimal price, BigDecimal discountPercentage) {
+        long priceMinor = Money.toMinorUnits(price);
+        return priceMinor - Money.percentageOfMinor(priceMinor, discountPercentage);
+    }
+
+    /** Tax due on one unit at its discounted price. */
+    public static long unitTaxMinor(long discountedUnitPriceMinor, BigDecimal taxRate) {
+        return Money.percentageOfMinor(discountedUnitPriceMinor, taxRate);
+    }
+
+    /** Discounted unit price including tax: the price a customer pays per unit. */
+    public static long effectiveUnitPriceMinor(BigDecimal price, BigDecimal discountPercentage, BigDecimal taxRate) {
+        long discounted = discountedUnitPriceMinor(price, discountPercentage);
+        return Math.addExact(discounted, unitTaxMinor(discounted, taxRate));
+    }
+}
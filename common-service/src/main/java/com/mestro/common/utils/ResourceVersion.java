@@ -0,0 +1,52 @@
+package com.mestro.common.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Validators for HTTP conditional requests.
+ * <p>
+ * Built from a cheap version lookup (IDs, row counts and {@code updatedAt} timestamps) rather than
+ * the full resource, so a controller can answer {@code If-None-Match} / {@code If-Modified-Since}
+ * with a 304 before loading and mapping anything. The ETag is weak because it identifies the state
+ * of the underlying rows, not the exact bytes of the response.
+ *
+ * @param eTag weak entity tag, quoted
+ * @param lastModified newest timestamp among the parts in epoch millis (UTC), or -1 if there is none
+ */
+public record ResourceVersion(String eTag, long lastModified) {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Derives a version from the given parts. Any part may be {@code null}; {@link LocalDateTime}
+     * parts, which {@code BaseEntity} stores in UTC, also feed the last-modified time.
+     */
+    public static ResourceVersion of(Object... parts) {
+        long hash = FNV_OFFSET_BASIS;
+        long lastModified = -1L;
+        for (Object part : parts) {
+            for (byte b : (String.valueOf(part) + '|').getBytes(StandardCharsets.UTF_8)) {
+                hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+            }
+            if (part instanceof LocalDateTime timestamp) {
+                lastModified = Math.max(
+                        lastModified, timestamp.toInstant(ZoneOffset.UTC).toEpochMilli());
+            }
+        }
+        return new ResourceVersion("W/\"" + Long.toHexString(hash) + "\"", lastModified);
+    }
+
+    /**
+     * Evaluates the request's conditional headers and sets {@code ETag} and {@code Last-Modified} on
+     * the response.
+     *
+     * @return {@code true} if the client's copy is current and the caller should answer 304
+     */
+    public boolean checkNotModified(WebRequest request) {
+        return request.checkNotModified(eTag, lastModified);
+    }
+}
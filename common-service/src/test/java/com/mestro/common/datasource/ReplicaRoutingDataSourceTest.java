@@ -0,0 +1,183 @@
+package com.mestro.common.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+@DisplayName("ReplicaRoutingDataSource Tests")
+class ReplicaRoutingDataSourceTest {
+
+    private static final Duration MAX_LAG = Duration.ofSeconds(5);
+
+    private DataSource primary;
+    private DataSource replica;
+    private ReplicaRoutingDataSource router;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        new JdbcTemplate(replica).execute("CREATE TABLE replica_lag (ms BIGINT)");
+        new JdbcTemplate(replica).update("INSERT INTO replica_lag VALUES (0)");
+        router = router(Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Routing
+    // ─────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("Should keep reads on the primary until the first lag check passes")
+    void read_BeforeFirstCheck_UsesPrimary() {
+        assertThat(router.isReplicaHealthy()).isFalse();
+        assertThat(read(router)).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Should send read-only transactions to the replica and read-write ones to the primary")
+    void readAndWrite_HealthyReplica_RoutedByTransaction() {
+        router.checkReplica();
+
+        assertThat(read(router)).isEqualTo("replica");
+        assertThat(write(router)).isEqualTo("primary");
+        assertThat(new JdbcTemplate(new LazyConnectionDataSourceProxy(router))
+                        .queryForObject("SELECT name FROM node", String.class))
+                .isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Should fall back to the primary while the replica lags")
+    void read_ReplicaLagging_UsesPrimary() {
+        router.checkReplica();
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET ms = ?", MAX_LAG.toMillis() + 1);
+
+        router.checkReplica();
+        assertThat(read(router)).isEqualTo("primary");
+
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET ms = 10");
+        router.checkReplica();
+        assertThat(read(router)).isEqualTo("replica");
+    }
+
+    @Test
+    @DisplayName("Should fall back to the primary when the lag check fails")
+    void read_LagCheckFails_UsesPrimary() {
+        router.checkReplica();
+        new JdbcTemplate(replica).execute("DROP TABLE replica_lag");
+
+        router.checkReplica();
+
+        assertThat(router.isReplicaHealthy()).isFalse();
+        assertThat(read(router)).isEqualTo("primary");
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Read-your-writes
+    // ─────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("Should keep a client's reads on the primary after its own write")
+    void read_AfterOwnWrite_UsesPrimaryForThatClientOnly() {
+        router.checkReplica();
+
+        asClient("alice");
+        write(router);
+        assertThat(read(router)).isEqualTo("primary");
+
+        asClient("bob");
+        assertThat(read(router)).isEqualTo("replica");
+    }
+
+    @Test
+    @DisplayName("Should not pin a client whose write rolled back")
+    void read_AfterRolledBackWrite_UsesReplica() {
+        router.checkReplica();
+        asClient("alice");
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(router);
+        TransactionTemplate template = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        template.executeWithoutResult(status -> {
+            new JdbcTemplate(dataSource).update("UPDATE node SET name = 'changed'");
+            status.setRollbackOnly();
+        });
+
+        assertThat(read(router)).isEqualTo("replica");
+    }
+
+    @Test
+    @DisplayName("Should return a client's reads to the replica once the window has passed")
+    void read_WindowElapsed_UsesReplica() {
+        ReplicaRoutingDataSource noWindow = router(Duration.ZERO);
+        noWindow.checkReplica();
+        asClient("alice");
+
+        write(noWindow);
+
+        assertThat(read(noWindow)).isEqualTo("replica");
+    }
+
+    // ─────────────────────────────────────────────────────────────
+    // Helpers
+    // ─────────────────────────────────────────────────────────────
+
+    private ReplicaRoutingDataSource router(Duration readYourWritesWindow) {
+        return new ReplicaRoutingDataSource(
+                primary,
+                replica,
+                "SELECT ms FROM replica_lag",
+                MAX_LAG,
+                Duration.ZERO,
+                readYourWritesWindow,
+                "X-Client-Id");
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static String read(ReplicaRoutingDataSource router) {
+        return inTransaction(router, true);
+    }
+
+    private static String write(ReplicaRoutingDataSource router) {
+        return inTransaction(router, false);
+    }
+
+    private static String inTransaction(ReplicaRoutingDataSource router, boolean readOnly) {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(router);
+        TransactionTemplate template = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        template.setReadOnly(readOnly);
+        return template.execute(
+                status -> new JdbcTemplate(dataSource).queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private static void asClient(String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Client-Id", client);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
@@ -0,0 +1,90 @@
+package com.mestro.common.model;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Order total computation: the previous BigDecimal stream/reduce against long minor units.
+ * <p>
+ * Not part of the test run. After {@code mvn test-compile}, run {@link #main} from the IDE or
+ * {@code org.openjdk.jmh.Main MoneyBenchmark -prof gc} on the test classpath to compare
+ * allocation rates as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    @Param({"5", "50", "500"})
+    private int items;
+
+    private BigDecimal[] unitPrices;
+    private long[] unitPricesMinor;
+    private int[] quantities;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        unitPrices = new BigDecimal[items];
+        unitPricesMinor = new long[items];
+        quantities = new int[items];
+        for (int i = 0; i < items; i++) {
+            unitPrices[i] = BigDecimal.valueOf(100 + random.nextInt(1_000_000), 2);
+            unitPricesMinor[i] = Money.toMinorUnits(unitPrices[i]);
+            quantities[i] = 1 + random.nextInt(10);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalTotal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < items; i++) {
+            total = total.add(unitPrices[i].multiply(BigDecimal.valueOf(quantities[i])));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal minorUnitTotal() {
+        long total = 0L;
+        for (int i = 0; i < items; i++) {
+            total = Math.addExact(total, Money.multiplyMinor(unitPricesMinor[i], quantities[i]));
+        }
+        return Money.toBigDecimal(total);
+    }
+
+    /** Includes the one-off BigDecimal to minor unit conversion of each unit price. */
+    @Benchmark
+    public BigDecimal minorUnitTotalWithConversion() {
+        long total = 0L;
+        for (int i = 0; i < items; i++) {
+            total = Math.addExact(total, Money.multiplyMinor(Money.toMinorUnits(unitPrices[i]), quantities[i]));
+        }
+        return Money.toBigDecimal(total);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                        .include(MoneyBenchmark.class.getSimpleName())
+                        .build())
+                .run();
+    }
+}
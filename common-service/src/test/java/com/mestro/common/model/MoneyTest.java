@@ -0,0 +1,114 @@
+package com.mestro.common.model;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigDecimal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Money Tests")
+class MoneyTest {
+
+    @Nested
+    @DisplayName("Conversion")
+    class ConversionTests {
+
+        @Test
+        @DisplayName("Should keep amounts already in cents exact")
+        void of_TwoDecimalPlaces_Exact() {
+            assertThat(Money.of("999.99").getMinorUnits()).isEqualTo(99999L);
+            assertThat(Money.of("-0.01").getMinorUnits()).isEqualTo(-1L);
+        }
+
+        @Test
+        @DisplayName("Should round HALF_UP to cents on the way in")
+        void of_MoreDecimalPlaces_RoundsHalfUp() {
+            assertThat(Money.of("10.005").getMinorUnits()).isEqualTo(1001L);
+            assertThat(Money.of("10.004").getMinorUnits()).isEqualTo(1000L);
+            assertThat(Money.of("-10.005").getMinorUnits()).isEqualTo(-1001L);
+        }
+
+        @Test
+        @DisplayName("Should scale whole and one-decimal amounts")
+        void of_FewerDecimalPlaces_Scales() {
+            assertThat(Money.of("12").getMinorUnits()).isEqualTo(1200L);
+            assertThat(Money.of("12.5").getMinorUnits()).isEqualTo(1250L);
+            assertThat(Money.of(new BigDecimal("1E+3")).getMinorUnits()).isEqualTo(100000L);
+        }
+
+        @Test
+        @DisplayName("Should treat null as zero")
+        void toMinorUnits_Null_ReturnsZero() {
+            assertThat(Money.toMinorUnits(null)).isZero();
+        }
+
+        @Test
+        @DisplayName("Should convert back to a BigDecimal with scale 2")
+        void toBigDecimal_ReturnsScaleTwo() {
+            BigDecimal amount = Money.of("5").toBigDecimal();
+
+            assertThat(amount).isEqualTo(new BigDecimal("5.00"));
+            assertThat(amount.scale()).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("Arithmetic")
+    class ArithmeticTests {
+
+        @Test
+        @DisplayName("Should add, subtract and multiply exactly")
+        void arithmetic_Exact() {
+            Money price = Money.of("0.10");
+
+            assertThat(price.times(3)).isEqualTo(Money.of("0.30"));
+            assertThat(price.plus(Money.of("0.20"))).isEqualTo(Money.of("0.30"));
+            assertThat(price.minus(Money.of("0.25"))).isEqualTo(Money.of("-0.15"));
+        }
+
+        @Test
+        @DisplayName("Should round percentages HALF_UP to the nearest cent")
+        void percentage_RoundsHalfUp() {
+            // 12.5% of 0.99 = 0.12375
+            assertThat(Money.of("0.99").percentage(new BigDecimal("12.5"))).isEqualTo(Money.of("0.12"));
+            // 10% of 0.25 = 0.025
+            assertThat(Money.of("0.25").percentage(BigDecimal.TEN)).isEqualTo(Money.of("0.03"));
+            assertThat(Money.of("100.00").percentage(null)).isEqualTo(Money.ZERO);
+        }
+
+        @Test
+        @DisplayName("Should throw instead of overflowing")
+        void times_Overflow_Throws() {
+            Money large = Money.ofMinor(Long.MAX_VALUE / 2 + 1);
+
+            assertThatThrownBy(() -> large.times(2)).isInstanceOf(ArithmeticException.class);
+        }
+
+        @Test
+        @DisplayName("Should compare and hash by value")
+        void equality_ByValue() {
+            assertThat(Money.of("1.50")).isEqualTo(Money.of(new BigDecimal("1.5")));
+            assertThat(Money.of("1.50").hashCode()).isEqualTo(Money.ofMinor(150).hashCode());
+            assertThat(Money.of("1.49")).isLessThan(Money.of("1.50"));
+        }
+    }
+
+    @Nested
+    @DisplayName("MoneyConverter")
+    class ConverterTests {
+
+        private final MoneyConverter converter = new MoneyConverter();
+
+        @Test
+        @DisplayName("Should round-trip through the database column type")
+        void converter_RoundTrip() {
+            BigDecimal column = converter.convertToDatabaseColumn(Money.of("42.10"));
+
+            assertThat(column).isEqualTo(new BigDecimal("42.10"));
+            assertThat(converter.convertToEntityAttribute(column)).isEqualTo(Money.of("42.10"));
+            assertThat(converter.convertToDatabaseColumn(null)).isNull();
+            assertThat(converter.convertToEntityAttribute(null)).isNull();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.mestro.common.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.mestro.common.dto.CursorPageResponseDTO;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("GeneralUtils Tests")
+class GeneralUtilsTest {
+
+    @Test
+    @DisplayName("Should request one row more than the page size")
+    void cursorPageRequest_OneExtraRow() {
+        assertThat(GeneralUtils.cursorPageRequest(100).getPageSize()).isEqualTo(101);
+        assertThat(GeneralUtils.cursorPageRequest(100).getPageNumber()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject page sizes outside the allowed range")
+    void cursorPageRequest_SizeOutOfRange_Throws() {
+        assertThatThrownBy(() -> GeneralUtils.cursorPageRequest(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> GeneralUtils.cursorPageRequest(GeneralUtils.MAX_CURSOR_PAGE_SIZE + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should trim the extra row and point the cursor at the last returned row")
+    void cursorResponse_MoreRows_TrimsAndSetsCursor() {
+        CursorPageResponseDTO<Long> page =
+                GeneralUtils.cursorResponse(List.of(3L, 5L, 8L), 2, Function.identity(), Function.identity());
+
+        assertThat(page.getContent()).containsExactly(3L, 5L);
+        assertThat(page.getNextAfterId()).isEqualTo(5L);
+        assertThat(page.getLast()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should mark the final page as last with no cursor")
+    void cursorResponse_FinalPage_NoCursor() {
+        CursorPageResponseDTO<Long> page =
+                GeneralUtils.cursorResponse(List.of(3L, 5L), 2, Function.identity(), Function.identity());
+
+        assertThat(page.getContent()).containsExactly(3L, 5L);
+        assertThat(page.getNextAfterId()).isNull();
+        assertThat(page.getLast()).isTrue();
+    }
+}
@@ -0,0 +1,34 @@
+package com.mestro.common.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("PricingUtils Tests")
+class PricingUtilsTest {
+
+    @Test
+    @DisplayName("Should apply the discount to the list price")
+    void discountedUnitPriceMinor_AppliesDiscount() {
+        assertThat(PricingUtils.discountedUnitPriceMinor(new BigDecimal("999.99"), new BigDecimal("10")))
+                .isEqualTo(89999L); // 999.99 - 100.00 (99.999 rounded)
+    }
+
+    @Test
+    @DisplayName("Should apply tax to the discounted unit price")
+    void effectiveUnitPriceMinor_DiscountThenTax() {
+        // 20.00 - 15% = 17.00, + 8.25% tax (1.4025 -> 1.40) = 18.40
+        assertThat(PricingUtils.effectiveUnitPriceMinor(
+                        new BigDecimal("20.00"), new BigDecimal("15"), new BigDecimal("8.25")))
+                .isEqualTo(1840L);
+    }
+
+    @Test
+    @DisplayName("Should treat missing discount and tax as zero")
+    void effectiveUnitPriceMinor_NullRates_ListPrice() {
+        assertThat(PricingUtils.effectiveUnitPriceMinor(new BigDecimal("49.95"), null, null))
+                .isEqualTo(4995L);
+    }
+}
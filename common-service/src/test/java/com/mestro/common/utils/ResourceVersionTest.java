@@ -0,0 +1,66 @@
+package com.mestro.common.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+@DisplayName("ResourceVersion Tests")
+class ResourceVersionTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 3, 1, 12, 30, 15);
+
+    @Test
+    @DisplayName("Should derive a stable weak ETag that changes with any part")
+    void of_StableWeakETag() {
+        ResourceVersion version = ResourceVersion.of(1L, UPDATED_AT, 2L);
+
+        assertThat(version.eTag()).startsWith("W/\"").endsWith("\"");
+        assertThat(ResourceVersion.of(1L, UPDATED_AT, 2L)).isEqualTo(version);
+        assertThat(ResourceVersion.of(1L, UPDATED_AT, 3L).eTag()).isNotEqualTo(version.eTag());
+        assertThat(ResourceVersion.of(1L, UPDATED_AT.plusNanos(1000), 2L).eTag())
+                .isNotEqualTo(version.eTag());
+    }
+
+    @Test
+    @DisplayName("Should use the newest timestamp as the last-modified time")
+    void of_NewestTimestamp() {
+        ResourceVersion version = ResourceVersion.of(1L, UPDATED_AT, null, UPDATED_AT.minusDays(1));
+
+        assertThat(version.lastModified()).isEqualTo(1709296215000L);
+        assertThat(ResourceVersion.of(1L, null).lastModified()).isEqualTo(-1L);
+    }
+
+    @Test
+    @DisplayName("Should report not modified for a matching If-None-Match")
+    void checkNotModified_MatchingETag() {
+        ResourceVersion version = ResourceVersion.of(1L, UPDATED_AT);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/things/1");
+        request.addHeader("If-None-Match", version.eTag());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(version.checkNotModified(new ServletWebRequest(request, response)))
+                .isTrue();
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeader("ETag")).isEqualTo(version.eTag());
+    }
+
+    @Test
+    @DisplayName("Should set validators and report modified for a stale ETag")
+    void checkNotModified_StaleETag() {
+        ResourceVersion version = ResourceVersion.of(1L, UPDATED_AT);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/things/1");
+        request.addHeader(
+                "If-None-Match", ResourceVersion.of(1L, UPDATED_AT.minusDays(1)).eTag());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(version.checkNotModified(new ServletWebRequest(request, response)))
+                .isFalse();
+        assertThat(response.getHeader("ETag")).isEqualTo(version.eTag());
+        assertThat(response.getDateHeader("Last-Modified")).isEqualTo(1709296215000L);
+    }
+}
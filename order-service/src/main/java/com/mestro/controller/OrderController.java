@@ -2,8 +2,11 @@ package com.mestro.controller;
 
 import com.mestro.common.dto.ApiResponse;
 import com.mestro.common.dto.PageResponseDTO;
+import com.mestro.dto.CustomerOrderSummaryDTO;
 import com.mestro.dto.OrderDTO;
 import com.mestro.enums.OrderStatus;
+import com.mestro.service.CustomerOrderSummaryService;
+import com.mestro.service.OrderEventService;
 import com.mestro.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -15,8 +18,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @Slf4j
 @RestController
@@ -26,6 +32,8 @@ import org.springframework.web.bind.annotation.*;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderEventService orderEventService;
+    private final CustomerOrderSummaryService customerOrderSummaryService;
 
     @PostMapping
     @Operation(summary = "Create a new order", description = "Creates a new order with order items")
@@ -38,8 +46,11 @@ public class OrderController {
 
     @GetMapping("/{orderId}")
     @Operation(summary = "Get order by ID", description = "Retrieves order details by order ID")
-    public ResponseEntity<ApiResponse<OrderDTO>> getOrderById(@PathVariable Long orderId) {
+    public ResponseEntity<ApiResponse<OrderDTO>> getOrderById(@PathVariable Long orderId, WebRequest request) {
         log.info("REST request to get order: {}", orderId);
+        if (orderService.getOrderVersion(orderId).checkNotModified(request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         OrderDTO order = orderService.getOrderById(orderId);
         return ResponseEntity.ok(ApiResponse.success("Order retrieved successfully", order));
     }
@@ -52,6 +63,16 @@ public class OrderController {
         return ResponseEntity.ok(ApiResponse.success("Orders retrieved successfully", orders));
     }
 
+    @GetMapping(value = "/{orderId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream order status changes",
+            description = "Server-Sent Events stream of status transitions for an order; resumes from Last-Event-ID")
+    public SseEmitter streamOrderEvents(
+            @PathVariable Long orderId, @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.info("REST request to stream status events for order: {}", orderId);
+        return orderEventService.subscribeToOrder(orderId, lastEventId);
+    }
+
     @GetMapping("/customer/{customerId}")
     @Operation(summary = "Get orders by customer ID", description = "Retrieves all orders for a specific customer")
     public ResponseEntity<ApiResponse<PageResponseDTO<OrderDTO>>> getOrdersByCustomerId(
@@ -61,6 +82,17 @@ public class OrderController {
         return ResponseEntity.ok(ApiResponse.success("Customer orders retrieved successfully", orders));
     }
 
+    @GetMapping(value = "/customer/{customerId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream customer order status changes",
+            description = "Server-Sent Events stream of status transitions for all orders of a customer")
+    public SseEmitter streamCustomerOrderEvents(
+            @PathVariable Long customerId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.info("REST request to stream order status events for customer: {}", customerId);
+        return orderEventService.subscribeToCustomer(customerId, lastEventId);
+    }
+
     @GetMapping("/status/{status}")
     @Operation(summary = "Get orders by status", description = "Retrieves all orders with a specific status")
     public ResponseEntity<ApiResponse<List<OrderDTO>>> getOrdersByStatus(@PathVariable OrderStatus status) {
@@ -112,4 +144,14 @@ public class OrderController {
         Long count = orderService.getOrderCountByCustomerId(customerId);
         return ResponseEntity.ok(ApiResponse.success("Order count retrieved successfully", count));
     }
+
+    @GetMapping("/customer/{customerId}/summary")
+    @Operation(
+            summary = "Get customer order summary",
+            description = "Gets order counts by status, lifetime value and last order date for a customer")
+    public ResponseEntity<ApiResponse<CustomerOrderSummaryDTO>> getCustomerOrderSummary(@PathVariable Long customerId) {
+        log.info("REST request to get order summary for customer: {}", customerId);
+        CustomerOrderSummaryDTO summary = customerOrderSummaryService.getSummary(customerId);
+        return ResponseEntity.ok(ApiResponse.success("Customer order summary retrieved successfully", summary));
+    }
 }
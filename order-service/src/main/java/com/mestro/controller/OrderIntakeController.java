@@ -0,0 +1,62 @@
+package com.mestro.controller;
+
+import com.mestro.common.dto.ApiResponse;
+import com.mestro.dto.OrderDTO;
+import com.mestro.dto.OrderIntakeDTO;
+import com.mestro.enums.OrderErrorCode;
+import com.mestro.service.OrderIntakeService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/orders/intake")
+@RequiredArgsConstructor
+@Tag(name = "Order Intake", description = "APIs for asynchronous order submission")
+public class OrderIntakeController {
+
+    private final OrderIntakeService orderIntakeService;
+
+    @Value("${order.intake.retry-after-seconds:5}")
+    private long retryAfterSeconds;
+
+    @PostMapping
+    @Operation(
+            summary = "Submit an order asynchronously",
+            description = "Accepts an order for background processing and returns a tracking ID")
+    public ResponseEntity<ApiResponse<OrderIntakeDTO>> submitOrder(@Valid @RequestBody OrderDTO orderDTO) {
+        log.info("REST request to submit order asynchronously for customer: {}", orderDTO.getCustomerId());
+        Optional<OrderIntakeDTO> intake = orderIntakeService.submit(orderDTO);
+
+        if (intake.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .body(ApiResponse.error(
+                            OrderErrorCode.ORDER_INTAKE_OVERLOADED,
+                            "Order intake is at capacity. Please retry later."));
+        }
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(
+                        HttpHeaders.LOCATION,
+                        "/api/v1/orders/intake/" + intake.get().getTrackingId())
+                .body(ApiResponse.success("Order accepted for processing", intake.get()));
+    }
+
+    @GetMapping("/{trackingId}")
+    @Operation(summary = "Get intake status", description = "Retrieves the processing status of a submitted order")
+    public ResponseEntity<ApiResponse<OrderIntakeDTO>> getIntakeStatus(@PathVariable String trackingId) {
+        log.info("REST request to get order intake status: {}", trackingId);
+        OrderIntakeDTO intake = orderIntakeService.getIntakeStatus(trackingId);
+        return ResponseEntity.ok(ApiResponse.success("Order intake status retrieved successfully", intake));
+    }
+}
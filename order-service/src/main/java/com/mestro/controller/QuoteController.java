@@ -0,0 +1,33 @@
+package com.mestro.controller;
+
+import com.mestro.common.dto.ApiResponse;
+import com.mestro.dto.QuoteDTO;
+import com.mestro.dto.QuoteRequestDTO;
+import com.mestro.service.QuoteService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/quotes")
+@RequiredArgsConstructor
+@Tag(name = "Quotes", description = "APIs for pricing a cart before checkout")
+public class QuoteController {
+
+    private final QuoteService quoteService;
+
+    @PostMapping
+    @Operation(
+            summary = "Calculate a price quote",
+            description = "Prices the items from the cached catalog and returns a token that createOrder accepts")
+    public ResponseEntity<ApiResponse<QuoteDTO>> createQuote(@Valid @RequestBody QuoteRequestDTO quoteRequest) {
+        log.info("REST request to calculate quote for customer: {}", quoteRequest.getCustomerId());
+        QuoteDTO quote = quoteService.quote(quoteRequest);
+        return ResponseEntity.ok(ApiResponse.success("Quote calculated successfully", quote));
+    }
+}
@@ -0,0 +1,23 @@
+package com.mestro.dto;
+
+import com.mestro.enums.OrderStatus;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerOrderSummaryDTO {
+    private Long customerId;
+    private Long totalOrders;
+    private Map<OrderStatus, Long> ordersByStatus;
+    private BigDecimal lifetimeValue;
+    private LocalDateTime lastOrderAt;
+    private LocalDateTime updatedAt;
+}
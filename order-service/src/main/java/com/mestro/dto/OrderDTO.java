@@ -36,6 +36,9 @@ public class OrderDTO {
 
     private String notes;
 
+    // Token from POST /api/v1/quotes; when still valid the product checks are skipped
+    private String quoteToken;
+
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
@@ -0,0 +1,28 @@
+package com.mestro.dto;
+
+import com.mestro.enums.OrderIntakeStatus;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderIntakeDTO {
+    private String trackingId;
+
+    private Long customerId;
+
+    private OrderIntakeStatus status;
+
+    private Long orderId;
+
+    private String errorMessage;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,20 @@
+package com.mestro.dto;
+
+import com.mestro.enums.OrderStatus;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusEventDTO {
+    private Long orderId;
+    private Long customerId;
+    private OrderStatus previousStatus;
+    private OrderStatus status;
+    private LocalDateTime occurredAt;
+}
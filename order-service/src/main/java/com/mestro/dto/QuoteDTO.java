@@ -0,0 +1,24 @@
+package com.mestro.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteDTO {
+    private Long customerId;
+    private List<QuoteLineDTO> lines;
+    private BigDecimal subtotal;
+    private BigDecimal discountTotal;
+    private BigDecimal taxTotal;
+    private BigDecimal total;
+    private String quoteToken;
+    private Instant expiresAt;
+}
@@ -0,0 +1,27 @@
+package com.mestro.dto;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteLineDTO {
+    private Long productId;
+    private Long warehouseId;
+    private String productName;
+    private Integer quantity;
+    private BigDecimal listPrice;
+    private BigDecimal discountPercentage;
+    private BigDecimal taxRate;
+    // Discounted unit price including tax; use it as OrderItemDTO.unitPrice
+    private BigDecimal unitPrice;
+    private BigDecimal lineDiscount;
+    private BigDecimal lineTax;
+    private BigDecimal lineTotal;
+    private Long productVersion;
+}
@@ -0,0 +1,22 @@
+package com.mestro.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteRequestDTO {
+
+    private Long customerId;
+
+    @NotEmpty(message = "Quote must contain at least one item")
+    @Valid
+    private List<QuoteItemRequestDTO> items;
+}
@@ -12,6 +12,9 @@ public enum OrderErrorCode implements ErrorCode {
     ORDER_CANNOT_BE_UPDATED("ORD_003", "Order cannot be updated"),
     ORDER_CANNOT_BE_DELETED("ORD_004", "Order cannot be deleted"),
     INVALID_ORDER_STATUS("ORD_005", "Invalid order status"),
+    ORDER_INTAKE_DISABLED("ORD_006", "Asynchronous order intake is disabled"),
+    ORDER_INTAKE_OVERLOADED("ORD_007", "Order intake queue is full"),
+    ORDER_INTAKE_NOT_FOUND("ORD_008", "Order intake not found"),
     ORDER_ITEM_NOT_FOUND("ORI_001", "Order item not found"),
     INVALID_QUANTITY("ORI_002", "Invalid quantity"),
     INVALID_PRICE("ORI_003", "Invalid price"),
@@ -0,0 +1,8 @@
+package com.mestro.enums;
+
+public enum OrderIntakeStatus {
+    QUEUED,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,124 @@
+package com.mestro.model;
+
+import com.mestro.common.model.Money;
+import com.mestro.common.model.MoneyConverter;
+import com.mestro.enums.OrderStatus;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-customer projection of the {@code orders} table, maintained in the same transaction as the
+ * order writes so the account page is a single primary-key lookup.
+ * Lifetime value excludes cancelled orders.
+ */
+@Entity
+@Table(name = "customer_order_summary")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerOrderSummary {
+
+    @Id
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Column(name = "total_orders", nullable = false)
+    @Builder.Default
+    private long totalOrders = 0L;
+
+    @Column(name = "pending_orders", nullable = false)
+    @Builder.Default
+    private long pendingOrders = 0L;
+
+    @Column(name = "confirmed_orders", nullable = false)
+    @Builder.Default
+    private long confirmedOrders = 0L;
+
+    @Column(name = "processing_orders", nullable = false)
+    @Builder.Default
+    private long processingOrders = 0L;
+
+    @Column(name = "shipped_orders", nullable = false)
+    @Builder.Default
+    private long shippedOrders = 0L;
+
+    @Column(name = "delivered_orders", nullable = false)
+    @Builder.Default
+    private long deliveredOrders = 0L;
+
+    @Column(name = "cancelled_orders", nullable = false)
+    @Builder.Default
+    private long cancelledOrders = 0L;
+
+    @Column(name = "returned_orders", nullable = false)
+    @Builder.Default
+    private long returnedOrders = 0L;
+
+    @Convert(converter = MoneyConverter.class)
+    @Column(name = "lifetime_value", nullable = false, precision = 19, scale = 2)
+    @Builder.Default
+    private Money lifetimeValue = Money.ZERO;
+
+    @Column(name = "last_order_at")
+    private LocalDateTime lastOrderAt;
+
+    /**
+     * False until the row has been built from the orders table. The first writer to lock an
+     * uninitialised row rebuilds it from an aggregate instead of applying its delta.
+     */
+    @Column(name = "initialized", nullable = false)
+    @Builder.Default
+    private boolean initialized = false;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        updatedAt = LocalDateTime.now(ZoneId.of("UTC"));
+    }
+
+    public void adjustStatusCount(OrderStatus status, long delta) {
+        switch (status) {
+            case PENDING -> pendingOrders += delta;
+            case CONFIRMED -> confirmedOrders += delta;
+            case PROCESSING -> processingOrders += delta;
+            case SHIPPED -> shippedOrders += delta;
+            case DELIVERED -> deliveredOrders += delta;
+            case CANCELLED -> cancelledOrders += delta;
+            case RETURNED -> returnedOrders += delta;
+        }
+    }
+
+    public void adjustLifetimeValue(Money delta) {
+        lifetimeValue = lifetimeValue.plus(delta);
+    }
+
+    public void reset() {
+        totalOrders = 0L;
+        for (OrderStatus status : OrderStatus.values()) {
+            adjustStatusCount(status, -getStatusCount(status));
+        }
+        lifetimeValue = Money.ZERO;
+        lastOrderAt = null;
+    }
+
+    public long getStatusCount(OrderStatus status) {
+        return switch (status) {
+            case PENDING -> pendingOrders;
+            case CONFIRMED -> confirmedOrders;
+            case PROCESSING -> processingOrders;
+            case SHIPPED -> shippedOrders;
+            case DELIVERED -> deliveredOrders;
+            case CANCELLED -> cancelledOrders;
+            case RETURNED -> returnedOrders;
+        };
+    }
+}
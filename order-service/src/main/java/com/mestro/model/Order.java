@@ -1,6 +1,7 @@
 package com.mestro.model;
 
 import com.mestro.common.model.BaseEntity;
+import com.mestro.common.model.Money;
 import com.mestro.enums.OrderStatus;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
@@ -59,7 +60,10 @@ public class Order extends BaseEntity {
     }
 
     public void calculateTotalAmount() {
-        this.totalAmount =
-                orderItems.stream().map(OrderItem::getSubTotalValue).reduce(BigDecimal.ZERO, BigDecimal::add);
+        long totalMinorUnits = 0L;
+        for (OrderItem item : orderItems) {
+            totalMinorUnits = Math.addExact(totalMinorUnits, item.getSubtotalMinorUnits());
+        }
+        this.totalAmount = Money.toBigDecimal(totalMinorUnits);
     }
 }
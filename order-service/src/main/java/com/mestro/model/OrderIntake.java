@@ -0,0 +1,44 @@
+package com.mestro.model;
+
+import com.mestro.common.model.BaseEntity;
+import com.mestro.enums.OrderIntakeStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Journal row for an order accepted through the asynchronous intake.
+ * The row is written before the request is acknowledged, so anything still
+ * QUEUED or PROCESSING after a restart is picked up again.
+ */
+@Entity
+@Table(name = "order_intake", indexes = @Index(name = "idx_order_intake_status", columnList = "status"))
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderIntake extends BaseEntity {
+
+    @Column(name = "tracking_id", nullable = false, unique = true, length = 36)
+    private String trackingId;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private OrderIntakeStatus status = OrderIntakeStatus.QUEUED;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+}
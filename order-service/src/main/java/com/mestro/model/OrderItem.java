@@ -1,11 +1,13 @@
 package com.mestro.model;
 
 import com.mestro.common.model.BaseEntity;
+import com.mestro.common.model.Money;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import lombok.experimental.SuperBuilder;
 
 @Entity
@@ -38,18 +40,40 @@ public class OrderItem extends BaseEntity {
     @Column(name = "subtotal", nullable = false, precision = 19, scale = 2)
     private BigDecimal subtotal = BigDecimal.ZERO;
 
+    // Unit price in minor units, cached against the BigDecimal it was derived from
+    @ToString.Exclude
+    private transient BigDecimal minorUnitsSource;
+
+    @ToString.Exclude
+    private transient long unitPriceMinorUnits;
+
     @PrePersist
     @PreUpdate
     public void calculateSubtotal() {
         if (quantity != null && unitPrice != null) {
-            this.subtotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
+            this.subtotal = Money.toBigDecimal(getSubtotalMinorUnits());
         }
     }
 
     public BigDecimal getSubTotalValue() {
         if (quantity != null && unitPrice != null) {
-            return unitPrice.multiply(BigDecimal.valueOf(quantity));
+            return Money.toBigDecimal(getSubtotalMinorUnits());
         }
         return BigDecimal.ZERO;
     }
+
+    /**
+     * Line subtotal in minor units. The unit price is rounded HALF_UP to cents before it is
+     * multiplied by the quantity (see {@link Money}).
+     */
+    public long getSubtotalMinorUnits() {
+        if (quantity == null || unitPrice == null) {
+            return 0L;
+        }
+        if (minorUnitsSource != unitPrice) {
+            unitPriceMinorUnits = Money.toMinorUnits(unitPrice);
+            minorUnitsSource = unitPrice;
+        }
+        return Money.multiplyMinor(unitPriceMinorUnits, quantity);
+    }
 }
@@ -0,0 +1,33 @@
+package com.mestro.repository;
+
+import com.mestro.model.CustomerOrderSummary;
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CustomerOrderSummaryRepository extends JpaRepository<CustomerOrderSummary, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CustomerOrderSummary s WHERE s.customerId = :customerId")
+    Optional<CustomerOrderSummary> findByCustomerIdForUpdate(@Param("customerId") Long customerId);
+
+    /**
+     * Inserts an empty, uninitialised row unless the customer already has one. A concurrent insert
+     * of the same row makes this wait for that transaction instead of failing.
+     */
+    @Modifying
+    @Query(
+            value = "INSERT INTO customer_order_summary (customer_id, total_orders, pending_orders, confirmed_orders,"
+                    + " processing_orders, shipped_orders, delivered_orders, cancelled_orders, returned_orders,"
+                    + " lifetime_value, initialized, updated_at) VALUES (:customerId, 0, 0, 0, 0, 0, 0, 0, 0, 0, false,"
+                    + " :now) ON CONFLICT (customer_id) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("customerId") Long customerId, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,17 @@
+package com.mestro.repository;
+
+import com.mestro.enums.OrderIntakeStatus;
+import com.mestro.model.OrderIntake;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrderIntakeRepository extends JpaRepository<OrderIntake, Long> {
+
+    Optional<OrderIntake> findByTrackingId(String trackingId);
+
+    List<OrderIntake> findByStatusInOrderByIdAsc(Collection<OrderIntakeStatus> statuses);
+}
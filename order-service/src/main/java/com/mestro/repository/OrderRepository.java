@@ -27,6 +27,24 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT o FROM Order o JOIN FETCH o.orderItems WHERE o.id = :orderId")
     Order findByIdWithItems(@Param("orderId") Long orderId);
 
+    /**
+     * Everything an order response depends on, for conditional GETs. Zero or one row of
+     * {@code [Long id, LocalDateTime updatedAt, Long itemCount, LocalDateTime itemsUpdatedAt]}.
+     */
+    @Query("SELECT o.id, o.updatedAt, "
+            + "(SELECT COUNT(i) FROM OrderItem i WHERE i.order = o), "
+            + "(SELECT MAX(i.updatedAt) FROM OrderItem i WHERE i.order = o) "
+            + "FROM Order o WHERE o.id = :orderId")
+    List<Object[]> findVersionById(@Param("orderId") Long orderId);
+
     @Query("SELECT COUNT(o) FROM Order o WHERE o.customerId = :customerId")
     Long countByCustomerId(@Param("customerId") Long customerId);
+
+    /**
+     * Per-status aggregate used to (re)build a customer's order summary.
+     * Each row is {@code [OrderStatus status, Long count, BigDecimal totalAmount, LocalDateTime lastCreatedAt]}.
+     */
+    @Query("SELECT o.status, COUNT(o), COALESCE(SUM(o.totalAmount), 0), MAX(o.createdAt) FROM Order o "
+            + "WHERE o.customerId = :customerId GROUP BY o.status")
+    List<Object[]> aggregateByCustomerIdGroupByStatus(@Param("customerId") Long customerId);
 }
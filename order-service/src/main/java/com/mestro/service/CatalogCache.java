@@ -0,0 +1,136 @@
+package com.mestro.service;
+
+import com.mestro.common.client.ProductServiceClient;
+import com.mestro.common.dto.ApiResponse;
+import com.mestro.common.dto.ProductResponse;
+import com.mestro.common.enums.CommonErrorCode;
+import com.mestro.common.exception.BusinessException;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Local, time-bounded copy of the product fields needed for pricing.
+ * <p>
+ * Misses and expired entries are loaded with a single batch call to product-service, so pricing
+ * a cart costs at most one remote call however many lines it has. Each entry carries a version
+ * stamp derived from the product's {@code updatedAt}; callers that must not act on a changed
+ * product use {@link #refreshProducts} instead.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CatalogCache {
+
+    // Matches the batch limit of GET /api/v1/products/batch
+    private static final int FETCH_BATCH_SIZE = 200;
+
+    private final ProductServiceClient productServiceClient;
+
+    @Value("${order.quote.catalog-ttl:60s}")
+    private Duration ttl;
+
+    @Value("${order.quote.catalog-max-entries:50000}")
+    private int maxEntries;
+
+    private final Map<Long, CatalogEntry> entries = new ConcurrentHashMap<>();
+
+    public record CatalogEntry(ProductResponse product, long version, long expiresAtNanos) {
+
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+
+    /**
+     * Returns the cached entries for the given products, loading any that are missing or stale.
+     * Products unknown to product-service are absent from the result.
+     */
+    public Map<Long, CatalogEntry> getProducts(Collection<Long> productIds) {
+        long now = System.nanoTime();
+        Map<Long, CatalogEntry> result = new HashMap<>();
+        List<Long> toLoad = new ArrayList<>();
+
+        for (Long productId : new LinkedHashSet<>(productIds)) {
+            CatalogEntry entry = entries.get(productId);
+            if (entry == null || entry.isExpired(now)) {
+                toLoad.add(productId);
+            } else {
+                result.put(productId, entry);
+            }
+        }
+
+        if (!toLoad.isEmpty()) {
+            result.putAll(load(toLoad, now));
+        }
+        return result;
+    }
+
+    /**
+     * Loads the given products from product-service whatever the state of their cached entries,
+     * and caches the result. Use when a stale entry could let a changed product through.
+     */
+    public Map<Long, CatalogEntry> refreshProducts(Collection<Long> productIds) {
+        return load(new ArrayList<>(new LinkedHashSet<>(productIds)), System.nanoTime());
+    }
+
+    public static long versionOf(ProductResponse product) {
+        return product.getUpdatedAt() == null
+                ? 0L
+                : product.getUpdatedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private Map<Long, CatalogEntry> load(List<Long> productIds, long now) {
+        log.debug("Loading {} products into the catalog cache", productIds.size());
+        Map<Long, CatalogEntry> loaded = new HashMap<>();
+        long expiresAt = now + ttl.toNanos();
+
+        for (int from = 0; from < productIds.size(); from += FETCH_BATCH_SIZE) {
+            List<Long> batch = productIds.subList(from, Math.min(from + FETCH_BATCH_SIZE, productIds.size()));
+            List<ProductResponse> products = fetch(batch);
+            for (ProductResponse product : products) {
+                CatalogEntry entry = new CatalogEntry(product, versionOf(product), expiresAt);
+                loaded.put(product.getId(), entry);
+            }
+        }
+
+        // Products that no longer exist must not keep answering from the cache
+        productIds.stream().filter(id -> !loaded.containsKey(id)).forEach(entries::remove);
+
+        if (entries.size() + loaded.size() > maxEntries) {
+            entries.values().removeIf(entry -> entry.isExpired(now));
+        }
+        if (entries.size() + loaded.size() <= maxEntries) {
+            entries.putAll(loaded);
+        }
+        return loaded;
+    }
+
+    private List<ProductResponse> fetch(List<Long> productIds) {
+        try {
+            ApiResponse<List<ProductResponse>> response = productServiceClient.getProductsByIds(productIds);
+            if (!response.isSuccess() || response.getData() == null) {
+                throw new BusinessException(
+                        CommonErrorCode.VALIDATION_ERROR, "Unable to load products: " + response.getMessage());
+            }
+            return response.getData();
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error loading products {} into the catalog cache", productIds, e);
+            throw new BusinessException(
+                    CommonErrorCode.VALIDATION_ERROR,
+                    "Unable to load product catalog. Product service may be unavailable.");
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.mestro.service;
+
+import com.mestro.common.model.Money;
+import com.mestro.dto.CustomerOrderSummaryDTO;
+import com.mestro.enums.OrderStatus;
+import com.mestro.model.CustomerOrderSummary;
+import com.mestro.model.Order;
+import com.mestro.repository.CustomerOrderSummaryRepository;
+import com.mestro.repository.OrderRepository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Maintains the {@code customer_order_summary} projection.
+ * <p>
+ * The write methods are called from {@link OrderService} inside the order's transaction and apply a
+ * delta under a row lock, so the projection commits or rolls back together with the order. A
+ * missing row (first order, or data written before the projection existed) is created empty in the
+ * same transaction and rebuilt from a single aggregate query by whichever writer locks it first.
+ * A read that finds no row builds and stores it the same way, so the aggregate runs once per
+ * customer.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CustomerOrderSummaryService {
+
+    private final CustomerOrderSummaryRepository summaryRepository;
+    private final OrderRepository orderRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Reads the row outside a write transaction; only a customer without an initialised row opens
+     * one, to build and store it.
+     */
+    public CustomerOrderSummaryDTO getSummary(Long customerId) {
+        log.info("Fetching order summary for customer ID: {}", customerId);
+        CustomerOrderSummary summary = summaryRepository
+                .findById(customerId)
+                .filter(CustomerOrderSummary::isInitialized)
+                .orElseGet(() -> new TransactionTemplate(transactionManager).execute(status -> {
+                    CustomerOrderSummary locked = lockOrCreate(customerId);
+                    if (!locked.isInitialized()) {
+                        initialize(locked);
+                        summaryRepository.save(locked);
+                    }
+                    return locked;
+                }));
+        return convertToDTO(summary);
+    }
+
+    @Transactional(readOnly = true)
+    public Long getOrderCount(Long customerId) {
+        return summaryRepository
+                .findById(customerId)
+                .filter(CustomerOrderSummary::isInitialized)
+                .map(CustomerOrderSummary::getTotalOrders)
+                .orElseGet(() -> orderRepository.countByCustomerId(customerId));
+    }
+
+    @Transactional
+    public void onOrderCreated(Order order) {
+        apply(order.getCustomerId(), summary -> {
+            summary.setTotalOrders(summary.getTotalOrders() + 1);
+            summary.adjustStatusCount(order.getStatus(), 1);
+            if (order.getStatus() != OrderStatus.CANCELLED) {
+                summary.adjustLifetimeValue(Money.of(order.getTotalAmount()));
+            }
+            if (summary.getLastOrderAt() == null
+                    || (order.getCreatedAt() != null && order.getCreatedAt().isAfter(summary.getLastOrderAt()))) {
+                summary.setLastOrderAt(order.getCreatedAt());
+            }
+        });
+    }
+
+    @Transactional
+    public void onOrderStatusChanged(Order order, OrderStatus previousStatus) {
+        apply(order.getCustomerId(), summary -> {
+            summary.adjustStatusCount(previousStatus, -1);
+            summary.adjustStatusCount(order.getStatus(), 1);
+            if (order.getStatus() == OrderStatus.CANCELLED && previousStatus != OrderStatus.CANCELLED) {
+                summary.adjustLifetimeValue(Money.of(order.getTotalAmount()).negate());
+            } else if (previousStatus == OrderStatus.CANCELLED && order.getStatus() != OrderStatus.CANCELLED) {
+                summary.adjustLifetimeValue(Money.of(order.getTotalAmount()));
+            }
+        });
+    }
+
+    @Transactional
+    public void onOrderTotalChanged(Order order, BigDecimal previousTotal) {
+        if (order.getStatus() == OrderStatus.CANCELLED) {
+            return;
+        }
+        apply(
+                order.getCustomerId(),
+                summary -> summary.adjustLifetimeValue(
+                        Money.of(order.getTotalAmount()).minus(Money.of(previousTotal))));
+    }
+
+    /** Deletes are rare, and may remove the latest order, so the row is simply rebuilt. */
+    @Transactional
+    public void onOrderDeleted(Order order) {
+        apply(order.getCustomerId(), this::rebuild);
+    }
+
+    // Helper methods
+    private void apply(Long customerId, Consumer<CustomerOrderSummary> delta) {
+        CustomerOrderSummary summary = lockOrCreate(customerId);
+
+        if (summary.isInitialized()) {
+            delta.accept(summary);
+        } else {
+            // The aggregate already sees this transaction's own order change
+            initialize(summary);
+        }
+        summaryRepository.save(summary);
+    }
+
+    /**
+     * Locks the customer's row, inserting it first if missing. The insert runs in the caller's
+     * transaction: concurrent first writers wait on each other's insert instead of needing a second
+     * connection.
+     */
+    private CustomerOrderSummary lockOrCreate(Long customerId) {
+        return summaryRepository.findByCustomerIdForUpdate(customerId).orElseGet(() -> {
+            summaryRepository.insertIfAbsent(customerId, LocalDateTime.now(ZoneId.of("UTC")));
+            return summaryRepository
+                    .findByCustomerIdForUpdate(customerId)
+                    .orElseThrow(
+                            () -> new IllegalStateException("Order summary missing for customer ID: " + customerId));
+        });
+    }
+
+    private void initialize(CustomerOrderSummary summary) {
+        rebuild(summary);
+        summary.setInitialized(true);
+    }
+
+    private void rebuild(CustomerOrderSummary summary) {
+        log.info("Rebuilding order summary for customer ID: {}", summary.getCustomerId());
+        summary.reset();
+        List<Object[]> rows = orderRepository.aggregateByCustomerIdGroupByStatus(summary.getCustomerId());
+        for (Object[] row : rows) {
+            OrderStatus status = (OrderStatus) row[0];
+            long count = ((Number) row[1]).longValue();
+            Money total = Money.of(toBigDecimal(row[2]));
+            LocalDateTime lastCreatedAt = (LocalDateTime) row[3];
+
+            summary.setTotalOrders(summary.getTotalOrders() + count);
+            summary.adjustStatusCount(status, count);
+            if (status != OrderStatus.CANCELLED) {
+                summary.adjustLifetimeValue(total);
+            }
+            if (lastCreatedAt != null
+                    && (summary.getLastOrderAt() == null || lastCreatedAt.isAfter(summary.getLastOrderAt()))) {
+                summary.setLastOrderAt(lastCreatedAt);
+            }
+        }
+    }
+
+    private BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        return value == null ? BigDecimal.ZERO : new BigDecimal(value.toString());
+    }
+
+    private CustomerOrderSummaryDTO convertToDTO(CustomerOrderSummary summary) {
+        Map<OrderStatus, Long> ordersByStatus = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            ordersByStatus.put(status, summary.getStatusCount(status));
+        }
+        return CustomerOrderSummaryDTO.builder()
+                .customerId(summary.getCustomerId())
+                .totalOrders(summary.getTotalOrders())
+                .ordersByStatus(ordersByStatus)
+                .lifetimeValue(summary.getLifetimeValue().toBigDecimal())
+                .lastOrderAt(summary.getLastOrderAt())
+                .updatedAt(summary.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.mestro.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mestro.common.exception.ResourceNotFoundException;
+import com.mestro.common.sse.SseBroadcaster;
+import com.mestro.dto.OrderStatusEventDTO;
+import com.mestro.enums.OrderErrorCode;
+import com.mestro.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes order status transitions to Server-Sent Event subscribers, per order or per customer.
+ * <p>
+ * Events are raised by {@link OrderService} and only forwarded once the transaction that produced
+ * them has committed, so subscribers never see a status that was rolled back.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderEventService {
+
+    static final String STATUS_EVENT = "order-status";
+
+    private final OrderRepository orderRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${order.events.replay-capacity:10000}")
+    private int replayCapacity;
+
+    @Value("${order.events.max-pending-per-subscriber:64}")
+    private int maxPendingPerSubscriber;
+
+    @Value("${order.events.emitter-timeout:30m}")
+    private Duration emitterTimeout;
+
+    @Value("${order.events.heartbeat-interval:25s}")
+    private Duration heartbeatInterval;
+
+    private SseBroadcaster broadcaster;
+
+    @PostConstruct
+    public void start() {
+        broadcaster = new SseBroadcaster(
+                "order-events",
+                objectMapper,
+                replayCapacity,
+                maxPendingPerSubscriber,
+                emitterTimeout,
+                heartbeatInterval);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (broadcaster != null) {
+            broadcaster.close();
+        }
+    }
+
+    public SseEmitter subscribeToOrder(Long orderId, String lastEventId) {
+        log.info("Opening status stream for order ID: {}", orderId);
+        if (!orderRepository.existsById(orderId)) {
+            throw new ResourceNotFoundException(OrderErrorCode.ORDER_NOT_FOUND, "Order not found with ID: " + orderId);
+        }
+        return broadcaster.subscribe(orderTopic(orderId), lastEventId);
+    }
+
+    public SseEmitter subscribeToCustomer(Long customerId, String lastEventId) {
+        log.info("Opening status stream for customer ID: {}", customerId);
+        return broadcaster.subscribe(customerTopic(customerId), lastEventId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusEventDTO event) {
+        log.debug("Broadcasting status {} for order ID: {}", event.getStatus(), event.getOrderId());
+        broadcaster.publish(STATUS_EVENT, event, orderTopic(event.getOrderId()), customerTopic(event.getCustomerId()));
+    }
+
+    public int getSubscriberCount() {
+        return broadcaster.getSubscriberCount();
+    }
+
+    private static String orderTopic(Long orderId) {
+        return "order:" + orderId;
+    }
+
+    private static String customerTopic(Long customerId) {
+        return "customer:" + customerId;
+    }
+}
@@ -0,0 +1,304 @@
+package com.mestro.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mestro.common.enums.CommonErrorCode;
+import com.mestro.common.exception.BusinessException;
+import com.mestro.common.exception.ResourceNotFoundException;
+import com.mestro.dto.OrderDTO;
+import com.mestro.dto.OrderIntakeDTO;
+import com.mestro.enums.OrderErrorCode;
+import com.mestro.enums.OrderIntakeStatus;
+import com.mestro.model.OrderIntake;
+import com.mestro.repository.OrderIntakeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Opt-in "accept and process" order intake.
+ * <p>
+ * Requests are journaled to {@code order_intake} and their IDs handed to a bounded in-process
+ * queue. A small pool of consumers drains the queue in micro-batches and runs the regular
+ * {@link OrderService#createOrder} path for each entry. When the queue is full the request is
+ * rejected straight away so callers can back off instead of piling up behind the database.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderIntakeService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final String RESERVATION_REFERENCE_PREFIX = "order-intake-";
+
+    private final OrderIntakeRepository orderIntakeRepository;
+    private final OrderService orderService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${order.intake.enabled:false}")
+    private boolean enabled;
+
+    @Value("${order.intake.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${order.intake.consumers:4}")
+    private int consumers;
+
+    @Value("${order.intake.batch-size:20}")
+    private int batchSize;
+
+    private BlockingQueue<Long> queue;
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    // -------------------------------------------------------------------------
+    // Lifecycle
+    // -------------------------------------------------------------------------
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger threadCounter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(consumers + 1, runnable -> {
+            Thread thread = new Thread(runnable, "order-intake-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+
+        for (int i = 0; i < consumers; i++) {
+            executor.execute(this::consume);
+        }
+        executor.execute(this::recoverPending);
+
+        log.info(
+                "Order intake started — capacity: {}, consumers: {}, batch size: {}",
+                queueCapacity,
+                consumers,
+                batchSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Intake
+    // -------------------------------------------------------------------------
+
+    /**
+     * Journals the order and enqueues it for processing.
+     *
+     * @return the tracking record, or empty when the queue is full and the request was shed
+     */
+    public Optional<OrderIntakeDTO> submit(OrderDTO orderDTO) {
+        if (!enabled) {
+            throw new BusinessException(OrderErrorCode.ORDER_INTAKE_DISABLED, "Asynchronous order intake is disabled");
+        }
+        if (orderDTO.getOrderItems() == null || orderDTO.getOrderItems().isEmpty()) {
+            throw new BusinessException(CommonErrorCode.VALIDATION_ERROR, "Order must contain at least one item");
+        }
+
+        // Cheap pre-check so an overloaded server does not pay for the journal write
+        if (queue.remainingCapacity() == 0) {
+            log.warn("Order intake queue full, shedding order for customer: {}", orderDTO.getCustomerId());
+            return Optional.empty();
+        }
+
+        OrderIntake intake = orderIntakeRepository.save(OrderIntake.builder()
+                .trackingId(UUID.randomUUID().toString())
+                .customerId(orderDTO.getCustomerId())
+                .status(OrderIntakeStatus.QUEUED)
+                .payload(writePayload(orderDTO))
+                .build());
+
+        if (!queue.offer(intake.getId())) {
+            orderIntakeRepository.delete(intake);
+            log.warn("Order intake queue full, shedding order for customer: {}", orderDTO.getCustomerId());
+            return Optional.empty();
+        }
+
+        log.info(
+                "Order accepted for customer: {} with tracking ID: {}", intake.getCustomerId(), intake.getTrackingId());
+        return Optional.of(convertToDTO(intake));
+    }
+
+    public OrderIntakeDTO getIntakeStatus(String trackingId) {
+        return orderIntakeRepository
+                .findByTrackingId(trackingId)
+                .map(this::convertToDTO)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        OrderErrorCode.ORDER_INTAKE_NOT_FOUND,
+                        "Order intake not found with tracking ID: " + trackingId));
+    }
+
+    // -------------------------------------------------------------------------
+    // Consumers
+    // -------------------------------------------------------------------------
+
+    private void consume() {
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Long first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                processBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Unexpected error while processing order intake batch {}", batch, e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Processes one micro-batch. The journal rows are loaded and flagged PROCESSING together;
+     * each order is then created in its own transaction together with its COMPLETED update, so a
+     * committed order is never replayed. Stock is reserved remotely under a reference derived from
+     * the tracking ID, outside that transaction: an entry found PROCESSING again was interrupted
+     * before its commit, so whatever it still holds under the reference is released before the
+     * retry, and a failed entry releases it as well. If product-service cannot be reached for that
+     * release the entry stays PROCESSING and is retried on the next start.
+     */
+    void processBatch(List<Long> intakeIds) {
+        List<OrderIntake> intakes = orderIntakeRepository.findAllById(intakeIds).stream()
+                .filter(intake -> intake.getStatus() == OrderIntakeStatus.QUEUED
+                        || intake.getStatus() == OrderIntakeStatus.PROCESSING)
+                .toList();
+        if (intakes.isEmpty()) {
+            return;
+        }
+
+        Set<Long> interrupted = intakes.stream()
+                .filter(intake -> intake.getStatus() == OrderIntakeStatus.PROCESSING)
+                .map(OrderIntake::getId)
+                .collect(Collectors.toSet());
+        intakes.forEach(intake -> intake.setStatus(OrderIntakeStatus.PROCESSING));
+        List<OrderIntake> processing = orderIntakeRepository.saveAll(intakes);
+
+        for (OrderIntake intake : processing) {
+            String reference = RESERVATION_REFERENCE_PREFIX + intake.getTrackingId();
+            if (interrupted.contains(intake.getId()) && !releaseReservations(intake, reference)) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    OrderDTO createdOrder = orderService.createOrder(readPayload(intake), reference);
+                    intake.setStatus(OrderIntakeStatus.COMPLETED);
+                    intake.setOrderId(createdOrder.getId());
+                    intake.setErrorMessage(null);
+                    orderIntakeRepository.save(intake);
+                });
+                log.info("Order intake {} completed as order ID: {}", intake.getTrackingId(), intake.getOrderId());
+            } catch (Exception e) {
+                log.error("Order intake {} failed: {}", intake.getTrackingId(), e.getMessage());
+                releaseReservations(intake, reference);
+                intake.setStatus(OrderIntakeStatus.FAILED);
+                intake.setOrderId(null);
+                intake.setErrorMessage(truncate(e.getMessage()));
+                orderIntakeRepository.save(intake);
+            }
+        }
+    }
+
+    /** Re-enqueues journal entries left over from a previous run, waiting for room as needed. */
+    private void recoverPending() {
+        List<OrderIntake> pending = orderIntakeRepository.findByStatusInOrderByIdAsc(
+                List.of(OrderIntakeStatus.QUEUED, OrderIntakeStatus.PROCESSING));
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        log.info("Recovering {} pending order intake entries", pending.size());
+        try {
+            for (OrderIntake intake : pending) {
+                queue.put(intake.getId());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    /** Releases what an uncommitted attempt still holds reserved; false if that failed. */
+    private boolean releaseReservations(OrderIntake intake, String reference) {
+        try {
+            orderService.releaseReservations(reference);
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to release reservations of order intake {}: {}", intake.getTrackingId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private String writePayload(OrderDTO orderDTO) {
+        try {
+            return objectMapper.writeValueAsString(orderDTO);
+        } catch (JsonProcessingException e) {
+            throw new BusinessException(CommonErrorCode.BAD_REQUEST, "Unable to serialise order request");
+        }
+    }
+
+    private OrderDTO readPayload(OrderIntake intake) {
+        try {
+            return objectMapper.readValue(intake.getPayload(), OrderDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new BusinessException(
+                    CommonErrorCode.INTERNAL_SERVER_ERROR, "Corrupt order intake payload: " + intake.getTrackingId());
+        }
+    }
+
+    private String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private OrderIntakeDTO convertToDTO(OrderIntake intake) {
+        return OrderIntakeDTO.builder()
+                .trackingId(intake.getTrackingId())
+                .customerId(intake.getCustomerId())
+                .status(intake.getStatus())
+                .orderId(intake.getOrderId())
+                .errorMessage(intake.getErrorMessage())
+                .createdAt(intake.getCreatedAt())
+                .updatedAt(intake.getUpdatedAt())
+                .build();
+    }
+}
@@ -2,20 +2,25 @@ package com.mestro.service;
 
 import com.mestro.common.client.ProductServiceClient;
 import com.mestro.common.dto.ApiResponse;
+import com.mestro.common.dto.InventoryAllocationResponse;
 import com.mestro.common.dto.InventoryResponse;
 import com.mestro.common.dto.PageResponseDTO;
 import com.mestro.common.dto.ProductResponse;
+import com.mestro.common.dto.WarehouseAllocationResponse;
 import com.mestro.common.enums.CommonErrorCode;
 import com.mestro.common.exception.BusinessException;
 import com.mestro.common.exception.ResourceNotFoundException;
 import com.mestro.common.utils.GeneralUtils;
+import com.mestro.common.utils.ResourceVersion;
 import com.mestro.dto.OrderDTO;
 import com.mestro.dto.OrderItemDTO;
+import com.mestro.dto.OrderStatusEventDTO;
 import com.mestro.enums.OrderErrorCode;
 import com.mestro.enums.OrderStatus;
 import com.mestro.model.Order;
 import com.mestro.model.OrderItem;
 import com.mestro.repository.OrderRepository;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -23,6 +28,8 @@ import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -36,9 +43,24 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final ModelMapper modelMapper;
     private final ProductServiceClient productServiceClient;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CustomerOrderSummaryService customerOrderSummaryService;
+    private final QuoteService quoteService;
+
+    @Value("${order.allocation.strategy:FEWEST_SHIPMENTS}")
+    private String allocationStrategy;
 
     @Transactional
     public OrderDTO createOrder(OrderDTO orderDTO) {
+        return createOrder(orderDTO, null);
+    }
+
+    /**
+     * Creates the order, recording its stock reservations under {@code reservationReference} if
+     * given, so that a caller can release them by reference when the order is not committed.
+     */
+    @Transactional
+    public OrderDTO createOrder(OrderDTO orderDTO, String reservationReference) {
         log.info("Creating new order for customer: {}", orderDTO.getCustomerId());
 
         // Validate order items
@@ -46,8 +68,11 @@ public class OrderService {
             throw new BusinessException(CommonErrorCode.VALIDATION_ERROR, "Order must contain at least one item");
         }
 
-        // Validate products and check inventory via Feign
-        validateProductsAndInventory(orderDTO.getOrderItems());
+        // Validate products and check inventory via Feign, unless the items match a still-valid quote.
+        // Stock is enforced by the reservation either way.
+        if (!quoteService.applyQuote(orderDTO)) {
+            validateProductsAndInventory(orderDTO.getOrderItems());
+        }
 
         // Create order entity
         Order order = Order.builder()
@@ -76,8 +101,26 @@ public class OrderService {
         // Save order
         Order savedOrder = orderRepository.save(order);
 
-        // Reserve inventory for each order item
-        reserveInventoryForOrder(orderDTO.getOrderItems());
+        // Reserve inventory for each order item; items without a warehouse come back split per warehouse
+        List<OrderItemDTO> reservedItems = reserveInventoryForOrder(
+                orderDTO.getOrderItems(),
+                orderDTO.getShippingAddress(),
+                orderDTO.getCustomerId(),
+                reservationReference);
+        if (orderDTO.getOrderItems().stream().anyMatch(item -> item.getWarehouseId() == null)) {
+            savedOrder.getOrderItems().clear();
+            reservedItems.forEach(item -> savedOrder.addOrderItem(OrderItem.builder()
+                    .productId(item.getProductId())
+                    .warehouseId(item.getWarehouseId())
+                    .productName(item.getProductName())
+                    .quantity(item.getQuantity())
+                    .unitPrice(item.getUnitPrice())
+                    .build()));
+            savedOrder.calculateTotalAmount();
+        }
+
+        customerOrderSummaryService.onOrderCreated(savedOrder);
+        publishStatusChange(savedOrder, null);
 
         log.info("Order created successfully with ID: {}", savedOrder.getId());
         return convertToDTO(savedOrder);
@@ -93,6 +136,16 @@ public class OrderService {
         return convertToDTO(order);
     }
 
+    /** Version of the order and its items for conditional GETs, without loading or mapping them. */
+    @Transactional(readOnly = true)
+    public ResourceVersion getOrderVersion(Long orderId) {
+        return orderRepository.findVersionById(orderId).stream()
+                .findFirst()
+                .map(ResourceVersion::of)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        OrderErrorCode.ORDER_NOT_FOUND, "Order not found with ID: " + orderId));
+    }
+
     @Transactional(readOnly = true)
     public PageResponseDTO<OrderDTO> getAllOrders(Pageable pageable) {
         log.info("Fetching all orders");
@@ -166,6 +219,7 @@ public class OrderService {
         existingOrder.setNotes(orderDTO.getNotes());
 
         // Update order items if provided
+        BigDecimal previousTotal = existingOrder.getTotalAmount();
         if (orderDTO.getOrderItems() != null && !orderDTO.getOrderItems().isEmpty()) {
             existingOrder.getOrderItems().clear();
 
@@ -184,6 +238,9 @@ public class OrderService {
         }
 
         Order updatedOrder = orderRepository.save(existingOrder);
+        if (previousTotal != null && updatedOrder.getTotalAmount().compareTo(previousTotal) != 0) {
+            customerOrderSummaryService.onOrderTotalChanged(updatedOrder, previousTotal);
+        }
         log.info("Order updated successfully: {}", orderId);
 
         return convertToDTO(updatedOrder);
@@ -206,8 +263,13 @@ public class OrderService {
             releaseInventoryForOrder(order);
         }
 
+        OrderStatus previousStatus = order.getStatus();
         order.setStatus(status);
         Order updatedOrder = orderRepository.save(order);
+        if (previousStatus != status) {
+            customerOrderSummaryService.onOrderStatusChanged(updatedOrder, previousStatus);
+            publishStatusChange(updatedOrder, previousStatus);
+        }
         log.info("Order status updated successfully: {}", orderId);
 
         return convertToDTO(updatedOrder);
@@ -229,13 +291,14 @@ public class OrderService {
         }
 
         orderRepository.delete(order);
+        customerOrderSummaryService.onOrderDeleted(order);
         log.info("Order deleted successfully: {}", orderId);
     }
 
     @Transactional(readOnly = true)
     public Long getOrderCountByCustomerId(Long customerId) {
         log.info("Counting orders for customer ID: {}", customerId);
-        return orderRepository.countByCustomerId(customerId);
+        return customerOrderSummaryService.getOrderCount(customerId);
     }
 
     // Feign integration methods
@@ -312,17 +375,40 @@ public class OrderService {
         }
     }
 
-    private void reserveInventoryForOrder(List<OrderItemDTO> orderItems) {
+    /**
+     * Reserves stock for every item and returns what was reserved, one entry per warehouse: items
+     * that name a warehouse are reserved there, the rest are split across warehouses by the
+     * product service's allocation engine. Warehouse reservations carry the customer, whom the
+     * product service queues fairly against other customers when the item is in demand.
+     */
+    private List<OrderItemDTO> reserveInventoryForOrder(
+            List<OrderItemDTO> orderItems, String shippingAddress, Long customerId, String reference) {
         List<OrderItemDTO> reserved = new ArrayList<>();
         try {
             for (OrderItemDTO item : orderItems) {
                 if (item.getWarehouseId() != null) {
                     productServiceClient.reserveByProductAndWarehouse(
-                            item.getProductId(), item.getWarehouseId(), item.getQuantity());
+                            item.getProductId(), item.getWarehouseId(), item.getQuantity(), reference, customerId);
+                    reserved.add(item);
                 } else {
-                    productServiceClient.reserveByProductId(item.getProductId(), item.getQuantity());
+                    InventoryAllocationResponse allocation = productServiceClient
+                            .allocateByProductId(
+                                    item.getProductId(),
+                                    item.getQuantity(),
+                                    allocationStrategy,
+                                    shippingAddress,
+                                    reference)
+                            .getData();
+                    for (WarehouseAllocationResponse line : allocation.getAllocations()) {
+                        reserved.add(OrderItemDTO.builder()
+                                .productId(item.getProductId())
+                                .warehouseId(line.getWarehouseId())
+                                .productName(item.getProductName())
+                                .quantity(line.getQuantity())
+                                .unitPrice(item.getUnitPrice())
+                                .build());
+                    }
                 }
-                reserved.add(item);
                 log.info(
                         "Inventory reserved for product ID: {}, warehouse ID: {}, quantity: {}",
                         item.getProductId(),
@@ -336,10 +422,13 @@ public class OrderService {
                 try {
                     if (reservedItem.getWarehouseId() != null) {
                         productServiceClient.releaseByProductAndWarehouse(
-                                reservedItem.getProductId(), reservedItem.getWarehouseId(), reservedItem.getQuantity());
+                                reservedItem.getProductId(),
+                                reservedItem.getWarehouseId(),
+                                reservedItem.getQuantity(),
+                                reference);
                     } else {
                         productServiceClient.releaseByProductId(
-                                reservedItem.getProductId(), reservedItem.getQuantity());
+                                reservedItem.getProductId(), reservedItem.getQuantity(), reference);
                     }
                 } catch (Exception rollbackEx) {
                     log.error(
@@ -352,6 +441,21 @@ public class OrderService {
             throw new BusinessException(
                     CommonErrorCode.INTERNAL_SERVER_ERROR, "Failed to reserve inventory: " + e.getMessage());
         }
+        return reserved;
+    }
+
+    /** Releases whatever the reservations recorded under {@code reference} still hold. */
+    public void releaseReservations(String reference) {
+        ApiResponse<List<InventoryResponse>> response = productServiceClient.releaseByReference(reference);
+        if (!response.isSuccess()) {
+            throw new BusinessException(
+                    CommonErrorCode.INTERNAL_SERVER_ERROR,
+                    "Failed to release reservations under reference " + reference + ": " + response.getMessage());
+        }
+        log.info(
+                "Released reservations under reference: {} from {} inventories",
+                reference,
+                response.getData() != null ? response.getData().size() : 0);
     }
 
     private void releaseInventoryForOrder(Order order) {
@@ -360,9 +464,9 @@ public class OrderService {
                 try {
                     if (item.getWarehouseId() != null) {
                         productServiceClient.releaseByProductAndWarehouse(
-                                item.getProductId(), item.getWarehouseId(), item.getQuantity());
+                                item.getProductId(), item.getWarehouseId(), item.getQuantity(), null);
                     } else {
-                        productServiceClient.releaseByProductId(item.getProductId(), item.getQuantity());
+                        productServiceClient.releaseByProductId(item.getProductId(), item.getQuantity(), null);
                     }
                     log.info(
                             "Inventory released for product ID: {}, warehouse ID: {}, quantity: {}",
@@ -381,6 +485,16 @@ public class OrderService {
     }
 
     // Helper methods
+    private void publishStatusChange(Order order, OrderStatus previousStatus) {
+        eventPublisher.publishEvent(OrderStatusEventDTO.builder()
+                .orderId(order.getId())
+                .customerId(order.getCustomerId())
+                .previousStatus(previousStatus)
+                .status(order.getStatus())
+                .occurredAt(LocalDateTime.now())
+                .build());
+    }
+
     private OrderDTO convertToDTO(Order order) {
         OrderDTO dto = modelMapper.map(order, OrderDTO.class);
 
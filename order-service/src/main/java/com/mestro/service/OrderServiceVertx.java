@@ -17,6 +17,7 @@ import com.mestro.model.Order;
 import com.mestro.model.OrderItem;
 import com.mestro.repository.OrderRepository;
 import io.vertx.core.Future;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -37,6 +38,7 @@ public class OrderServiceVertx {
     private final OrderRepository orderRepository;
     private final ModelMapper modelMapper;
     private final ProductWebClient productWebClient;
+    private final CustomerOrderSummaryService customerOrderSummaryService;
 
     // -------------------------------------------------------------------------
     // Create
@@ -77,6 +79,7 @@ public class OrderServiceVertx {
 
             // Reserve inventory then return the DTO
             return reserveInventoryForOrder(orderDTO.getOrderItems()).map(v -> {
+                customerOrderSummaryService.onOrderCreated(savedOrder);
                 log.info("Order created successfully with ID: {}", savedOrder.getId());
                 return convertToDTO(savedOrder);
             });
@@ -152,7 +155,7 @@ public class OrderServiceVertx {
     @Transactional(readOnly = true)
     public Future<Long> getOrderCountByCustomerId(Long customerId) {
         log.info("Counting orders for customer ID: {}", customerId);
-        return Future.succeededFuture(orderRepository.countByCustomerId(customerId));
+        return Future.succeededFuture(customerOrderSummaryService.getOrderCount(customerId));
     }
 
     // -------------------------------------------------------------------------
@@ -183,6 +186,7 @@ public class OrderServiceVertx {
         existingOrder.setBillingAddress(orderDTO.getBillingAddress());
         existingOrder.setNotes(orderDTO.getNotes());
 
+        BigDecimal previousTotal = existingOrder.getTotalAmount();
         if (orderDTO.getOrderItems() != null && !orderDTO.getOrderItems().isEmpty()) {
             existingOrder.getOrderItems().clear();
             for (OrderItemDTO itemDTO : orderDTO.getOrderItems()) {
@@ -198,6 +202,9 @@ public class OrderServiceVertx {
         }
 
         Order updatedOrder = orderRepository.save(existingOrder);
+        if (previousTotal != null && updatedOrder.getTotalAmount().compareTo(previousTotal) != 0) {
+            customerOrderSummaryService.onOrderTotalChanged(updatedOrder, previousTotal);
+        }
         log.info("Order updated successfully: {}", orderId);
         return Future.succeededFuture(convertToDTO(updatedOrder));
     }
@@ -225,15 +232,23 @@ public class OrderServiceVertx {
         if (status == OrderStatus.CANCELLED) {
             // Release inventory async, then update status
             return releaseInventoryForOrder(order).compose(ignored -> {
+                OrderStatus previousStatus = order.getStatus();
                 order.setStatus(status);
                 Order updated = orderRepository.save(order);
+                if (previousStatus != status) {
+                    customerOrderSummaryService.onOrderStatusChanged(updated, previousStatus);
+                }
                 log.info("Order status updated to CANCELLED: {}", orderId);
                 return Future.succeededFuture(convertToDTO(updated));
             });
         }
 
+        OrderStatus previousStatus = order.getStatus();
         order.setStatus(status);
         Order updatedOrder = orderRepository.save(order);
+        if (previousStatus != status) {
+            customerOrderSummaryService.onOrderStatusChanged(updatedOrder, previousStatus);
+        }
         log.info("Order status updated successfully: {}", orderId);
         return Future.succeededFuture(convertToDTO(updatedOrder));
     }
@@ -262,6 +277,7 @@ public class OrderServiceVertx {
         }
 
         orderRepository.delete(order);
+        customerOrderSummaryService.onOrderDeleted(order);
         log.info("Order deleted successfully: {}", orderId);
         return Future.succeededFuture();
     }
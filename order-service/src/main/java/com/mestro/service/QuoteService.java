@@ -0,0 +1,264 @@
+package com.mestro.service;
+
+import com.mestro.common.dto.ProductResponse;
+import com.mestro.common.enums.CommonErrorCode;
+import com.mestro.common.exception.BusinessException;
+import com.mestro.common.model.Money;
+import com.mestro.common.utils.PricingUtils;
+import com.mestro.dto.OrderDTO;
+import com.mestro.dto.OrderItemDTO;
+import com.mestro.dto.QuoteDTO;
+import com.mestro.dto.QuoteItemRequestDTO;
+import com.mestro.dto.QuoteLineDTO;
+import com.mestro.dto.QuoteRequestDTO;
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Prices carts from the {@link CatalogCache} without touching the database.
+ * <p>
+ * Every quote carries an HMAC-signed token listing the quoted lines, their unit prices and the
+ * product versions they were priced at. {@link #applyQuote} lets order creation reuse a quote as
+ * long as the token is genuine, unexpired, matches the ordered items and no quoted product has
+ * changed since; the versions are checked against a fresh read, not the cache.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QuoteService {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String TOKEN_VERSION = "1";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final CatalogCache catalogCache;
+
+    @Value("${order.quote.secret:}")
+    private String secret;
+
+    @Value("${order.quote.token-ttl:15m}")
+    private Duration tokenTtl;
+
+    private SecretKeySpec signingKey;
+
+    private record QuotedLine(Long productId, Long warehouseId, int quantity, long unitPriceMinor, long version) {}
+
+    @PostConstruct
+    public void init() {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            log.warn("order.quote.secret is not set; quote tokens will only be accepted by this instance");
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        signingKey = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+    }
+
+    public QuoteDTO quote(QuoteRequestDTO request) {
+        log.info("Calculating quote for {} items", request.getItems().size());
+
+        Map<Long, CatalogCache.CatalogEntry> catalog = catalogCache.getProducts(request.getItems().stream()
+                .map(QuoteItemRequestDTO::getProductId)
+                .toList());
+
+        List<QuoteLineDTO> lines = new ArrayList<>(request.getItems().size());
+        List<QuotedLine> quotedLines = new ArrayList<>(request.getItems().size());
+        long subtotal = 0L;
+        long discountTotal = 0L;
+        long taxTotal = 0L;
+
+        for (QuoteItemRequestDTO item : request.getItems()) {
+            CatalogCache.CatalogEntry entry = catalog.get(item.getProductId());
+            if (entry == null) {
+                throw new BusinessException(
+                        CommonErrorCode.VALIDATION_ERROR, "Product not found with ID: " + item.getProductId());
+            }
+            ProductResponse product = entry.product();
+            if (!Boolean.TRUE.equals(product.getIsActive())) {
+                throw new BusinessException(
+                        CommonErrorCode.VALIDATION_ERROR, "Product is not active: " + product.getName());
+            }
+
+            int quantity = item.getQuantity();
+            long listPrice = Money.toMinorUnits(product.getPrice());
+            long discountedUnit =
+                    PricingUtils.discountedUnitPriceMinor(product.getPrice(), product.getDiscountPercentage());
+            long unitTax = PricingUtils.unitTaxMinor(discountedUnit, product.getTaxRate());
+            long unitPrice = discountedUnit + unitTax;
+
+            long lineDiscount = Money.multiplyMinor(listPrice - discountedUnit, quantity);
+            long lineNet = Money.multiplyMinor(discountedUnit, quantity);
+            long lineTax = Money.multiplyMinor(unitTax, quantity);
+
+            subtotal = Math.addExact(subtotal, lineNet);
+            discountTotal = Math.addExact(discountTotal, lineDiscount);
+            taxTotal = Math.addExact(taxTotal, lineTax);
+
+            lines.add(QuoteLineDTO.builder()
+                    .productId(product.getId())
+                    .warehouseId(item.getWarehouseId())
+                    .productName(product.getName())
+                    .quantity(quantity)
+                    .listPrice(Money.toBigDecimal(listPrice))
+                    .discountPercentage(product.getDiscountPercentage())
+                    .taxRate(product.getTaxRate())
+                    .unitPrice(Money.toBigDecimal(unitPrice))
+                    .lineDiscount(Money.toBigDecimal(lineDiscount))
+                    .lineTax(Money.toBigDecimal(lineTax))
+                    .lineTotal(Money.toBigDecimal(Math.addExact(lineNet, lineTax)))
+                    .productVersion(entry.version())
+                    .build());
+            quotedLines.add(
+                    new QuotedLine(product.getId(), item.getWarehouseId(), quantity, unitPrice, entry.version()));
+        }
+
+        Instant expiresAt = Instant.now().plus(tokenTtl);
+        return QuoteDTO.builder()
+                .customerId(request.getCustomerId())
+                .lines(lines)
+                .subtotal(Money.toBigDecimal(subtotal))
+                .discountTotal(Money.toBigDecimal(discountTotal))
+                .taxTotal(Money.toBigDecimal(taxTotal))
+                .total(Money.toBigDecimal(Math.addExact(subtotal, taxTotal)))
+                .quoteToken(sign(quotedLines, expiresAt))
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    /**
+     * Reuses a quote for order creation. When the token is valid for the ordered items and every
+     * quoted product is unchanged, the items are priced from the quote and {@code true} is
+     * returned; otherwise the order is left untouched and the caller must validate it normally.
+     */
+    public boolean applyQuote(OrderDTO orderDTO) {
+        if (orderDTO.getQuoteToken() == null || orderDTO.getQuoteToken().isBlank()) {
+            return false;
+        }
+
+        Optional<List<QuotedLine>> verified = verify(orderDTO.getQuoteToken());
+        if (verified.isEmpty()) {
+            log.info("Quote token rejected for customer: {}", orderDTO.getCustomerId());
+            return false;
+        }
+
+        List<QuotedLine> quotedLines = verified.get();
+        List<OrderItemDTO> items = orderDTO.getOrderItems();
+        if (items.size() != quotedLines.size()) {
+            log.info("Quote does not match ordered items for customer: {}", orderDTO.getCustomerId());
+            return false;
+        }
+        for (int i = 0; i < items.size(); i++) {
+            OrderItemDTO item = items.get(i);
+            QuotedLine line = quotedLines.get(i);
+            if (!line.productId().equals(item.getProductId())
+                    || !Objects.equals(line.warehouseId(), item.getWarehouseId())
+                    || !Objects.equals(line.quantity(), item.getQuantity())) {
+                log.info("Quote does not match ordered items for customer: {}", orderDTO.getCustomerId());
+                return false;
+            }
+        }
+
+        // A cached entry may predate a price change, so compare against product-service itself
+        Map<Long, CatalogCache.CatalogEntry> catalog = catalogCache.refreshProducts(
+                quotedLines.stream().map(QuotedLine::productId).toList());
+        for (QuotedLine line : quotedLines) {
+            CatalogCache.CatalogEntry entry = catalog.get(line.productId());
+            if (entry == null
+                    || entry.version() != line.version()
+                    || !Boolean.TRUE.equals(entry.product().getIsActive())) {
+                log.info("Quoted product ID: {} changed since the quote was issued", line.productId());
+                return false;
+            }
+        }
+
+        for (int i = 0; i < items.size(); i++) {
+            OrderItemDTO item = items.get(i);
+            QuotedLine line = quotedLines.get(i);
+            item.setUnitPrice(Money.toBigDecimal(line.unitPriceMinor()));
+            if (item.getProductName() == null || item.getProductName().isBlank()) {
+                item.setProductName(catalog.get(line.productId()).product().getName());
+            }
+        }
+        log.info("Order for customer: {} priced from quote", orderDTO.getCustomerId());
+        return true;
+    }
+
+    // Helper methods
+    private String sign(List<QuotedLine> lines, Instant expiresAt) {
+        String payload = TOKEN_VERSION + "|" + expiresAt.getEpochSecond() + "|"
+                + lines.stream()
+                        .map(line -> line.productId() + ","
+                                + (line.warehouseId() == null ? "" : line.warehouseId()) + ","
+                                + line.quantity() + "," + line.unitPriceMinor() + "," + line.version())
+                        .collect(Collectors.joining(";"));
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(hmac(payloadBytes));
+    }
+
+    private Optional<List<QuotedLine>> verify(String token) {
+        try {
+            int separator = token.indexOf('.');
+            if (separator < 0) {
+                return Optional.empty();
+            }
+            byte[] payloadBytes = DECODER.decode(token.substring(0, separator));
+            byte[] signature = DECODER.decode(token.substring(separator + 1));
+            if (!MessageDigest.isEqual(signature, hmac(payloadBytes))) {
+                return Optional.empty();
+            }
+
+            String[] parts = new String(payloadBytes, StandardCharsets.UTF_8).split("\\|", -1);
+            if (parts.length != 3 || !TOKEN_VERSION.equals(parts[0])) {
+                return Optional.empty();
+            }
+            if (Instant.now().getEpochSecond() > Long.parseLong(parts[1])) {
+                return Optional.empty();
+            }
+
+            List<QuotedLine> lines = new ArrayList<>();
+            for (String encodedLine : parts[2].split(";")) {
+                String[] fields = encodedLine.split(",", -1);
+                lines.add(new QuotedLine(
+                        Long.parseLong(fields[0]),
+                        fields[1].isEmpty() ? null : Long.parseLong(fields[1]),
+                        Integer.parseInt(fields[2]),
+                        Long.parseLong(fields[3]),
+                        Long.parseLong(fields[4])));
+            }
+            return Optional.of(lines);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] hmac(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign quote token", e);
+        }
+    }
+}
@@ -2,23 +2,34 @@ package com.mestro.controller;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.mestro.common.dto.PageResponseDTO;
+import com.mestro.common.exception.ResourceNotFoundException;
+import com.mestro.common.utils.ResourceVersion;
+import com.mestro.dto.CustomerOrderSummaryDTO;
 import com.mestro.dto.OrderDTO;
 import com.mestro.dto.OrderItemDTO;
+import com.mestro.enums.OrderErrorCode;
 import com.mestro.enums.OrderStatus;
+import com.mestro.service.CustomerOrderSummaryService;
+import com.mestro.service.OrderEventService;
 import com.mestro.service.OrderService;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -29,6 +40,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @WebMvcTest(OrderController.class)
 @DisplayName("OrderController Tests")
@@ -40,6 +52,12 @@ class OrderControllerTest {
     @MockitoBean
     private OrderService orderService;
 
+    @MockitoBean
+    private OrderEventService orderEventService;
+
+    @MockitoBean
+    private CustomerOrderSummaryService customerOrderSummaryService;
+
     private ObjectMapper objectMapper;
     private OrderDTO sampleOrderDTO;
     private OrderItemDTO sampleOrderItemDTO;
@@ -161,6 +179,13 @@ class OrderControllerTest {
     @DisplayName("GET /api/v1/orders/{orderId} - Get Order By ID")
     class GetOrderByIdTests {
 
+        private final ResourceVersion version = ResourceVersion.of(1L, LocalDateTime.of(2024, 1, 15, 10, 30), 1L);
+
+        @BeforeEach
+        void stubVersion() {
+            when(orderService.getOrderVersion(anyLong())).thenReturn(version);
+        }
+
         @Test
         @DisplayName("Should return 200 and order details for a valid ID")
         void getOrderById_ValidId_Returns200() throws Exception {
@@ -195,6 +220,37 @@ class OrderControllerTest {
                     .andExpect(jsonPath("$.data.id").value(2L))
                     .andExpect(jsonPath("$.data.customerId").value(600L));
         }
+
+        @Test
+        @DisplayName("Should send ETag and Last-Modified validators")
+        void getOrderById_SetsValidators() throws Exception {
+            when(orderService.getOrderById(1L)).thenReturn(sampleOrderDTO);
+
+            mockMvc.perform(get("/api/v1/orders/1"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", version.eTag()))
+                    .andExpect(header().exists("Last-Modified"));
+        }
+
+        @Test
+        @DisplayName("Should return 304 without loading the order when the ETag matches")
+        void getOrderById_MatchingETag_Returns304() throws Exception {
+            mockMvc.perform(get("/api/v1/orders/1").header("If-None-Match", version.eTag()))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+
+            verify(orderService, never()).getOrderById(anyLong());
+        }
+
+        @Test
+        @DisplayName("Should return 404 when the order does not exist")
+        void getOrderById_NotFound_Returns404() throws Exception {
+            when(orderService.getOrderVersion(99L))
+                    .thenThrow(new ResourceNotFoundException(
+                            OrderErrorCode.ORDER_NOT_FOUND, "Order not found with ID: 99"));
+
+            mockMvc.perform(get("/api/v1/orders/99")).andExpect(status().isNotFound());
+        }
     }
 
     // ─────────────────────────────────────────────
@@ -449,4 +505,75 @@ class OrderControllerTest {
                     .andExpect(jsonPath("$.data").value(0));
         }
     }
+
+    // ─────────────────────────────────────────────
+    // GET /api/v1/orders/customer/{customerId}/summary
+    // ─────────────────────────────────────────────
+    @Nested
+    @DisplayName("GET /api/v1/orders/customer/{customerId}/summary - Get Customer Order Summary")
+    class GetCustomerOrderSummaryTests {
+
+        @Test
+        @DisplayName("Should return 200 with the customer order summary")
+        void getCustomerOrderSummary_ValidCustomerId_Returns200() throws Exception {
+            CustomerOrderSummaryDTO summary = CustomerOrderSummaryDTO.builder()
+                    .customerId(500L)
+                    .totalOrders(3L)
+                    .ordersByStatus(Map.of(OrderStatus.PENDING, 1L, OrderStatus.DELIVERED, 2L))
+                    .lifetimeValue(new BigDecimal("4999.95"))
+                    .build();
+            when(customerOrderSummaryService.getSummary(500L)).thenReturn(summary);
+
+            mockMvc.perform(get("/api/v1/orders/customer/500/summary"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.totalOrders").value(3))
+                    .andExpect(jsonPath("$.data.ordersByStatus.DELIVERED").value(2))
+                    .andExpect(jsonPath("$.data.lifetimeValue").value(4999.95))
+                    .andExpect(jsonPath("$.message").value("Customer order summary retrieved successfully"));
+
+            verify(customerOrderSummaryService, times(1)).getSummary(500L);
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // GET /api/v1/orders/{orderId}/events
+    // ─────────────────────────────────────────────
+    @Nested
+    @DisplayName("GET /api/v1/orders/{orderId}/events - Stream Order Events")
+    class StreamOrderEventsTests {
+
+        @Test
+        @DisplayName("Should open an event stream and pass Last-Event-ID through")
+        void streamOrderEvents_ExistingOrder_StartsAsync() throws Exception {
+            when(orderEventService.subscribeToOrder(1L, "42")).thenReturn(new SseEmitter());
+
+            mockMvc.perform(get("/api/v1/orders/1/events")
+                            .header("Last-Event-ID", "42")
+                            .accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(request().asyncStarted());
+
+            verify(orderEventService, times(1)).subscribeToOrder(1L, "42");
+        }
+
+        @Test
+        @DisplayName("Should return 404 when the order does not exist")
+        void streamOrderEvents_OrderNotFound_Returns404() throws Exception {
+            when(orderEventService.subscribeToOrder(999L, null))
+                    .thenThrow(new ResourceNotFoundException(
+                            OrderErrorCode.ORDER_NOT_FOUND, "Order not found with ID: 999"));
+
+            mockMvc.perform(get("/api/v1/orders/999/events")).andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("Should open an event stream for a customer")
+        void streamCustomerOrderEvents_StartsAsync() throws Exception {
+            when(orderEventService.subscribeToCustomer(500L, null)).thenReturn(new SseEmitter());
+
+            mockMvc.perform(get("/api/v1/orders/customer/500/events").accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(request().asyncStarted());
+
+            verify(orderEventService, times(1)).subscribeToCustomer(500L, null);
+        }
+    }
 }
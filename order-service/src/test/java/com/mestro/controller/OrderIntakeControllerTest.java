@@ -0,0 +1,103 @@
+package com.mestro.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mestro.dto.OrderDTO;
+import com.mestro.dto.OrderIntakeDTO;
+import com.mestro.dto.OrderItemDTO;
+import com.mestro.enums.OrderIntakeStatus;
+import com.mestro.service.OrderIntakeService;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(OrderIntakeController.class)
+@DisplayName("OrderIntakeController Tests")
+class OrderIntakeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private OrderIntakeService orderIntakeService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private OrderDTO sampleOrderDTO;
+
+    @BeforeEach
+    void setUp() {
+        sampleOrderDTO = OrderDTO.builder()
+                .customerId(500L)
+                .orderItems(List.of(OrderItemDTO.builder()
+                        .productId(101L)
+                        .quantity(2)
+                        .unitPrice(new BigDecimal("999.99"))
+                        .build()))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should return 202 Accepted with a tracking ID when the order is queued")
+    void submitOrder_Queued_Returns202() throws Exception {
+        OrderIntakeDTO intake = OrderIntakeDTO.builder()
+                .trackingId("abc-123")
+                .customerId(500L)
+                .status(OrderIntakeStatus.QUEUED)
+                .build();
+        when(orderIntakeService.submit(any(OrderDTO.class))).thenReturn(Optional.of(intake));
+
+        mockMvc.perform(post("/api/v1/orders/intake")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sampleOrderDTO)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/v1/orders/intake/abc-123"))
+                .andExpect(jsonPath("$.data.trackingId").value("abc-123"))
+                .andExpect(jsonPath("$.data.status").value("QUEUED"));
+    }
+
+    @Test
+    @DisplayName("Should return 503 with Retry-After when the queue is full")
+    void submitOrder_QueueFull_Returns503() throws Exception {
+        when(orderIntakeService.submit(any(OrderDTO.class))).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/api/v1/orders/intake")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sampleOrderDTO)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.error.errorCode").value("ORD_007"));
+    }
+
+    @Test
+    @DisplayName("Should return the current status for a tracking ID")
+    void getIntakeStatus_Completed_Returns200() throws Exception {
+        OrderIntakeDTO intake = OrderIntakeDTO.builder()
+                .trackingId("abc-123")
+                .status(OrderIntakeStatus.COMPLETED)
+                .orderId(42L)
+                .build();
+        when(orderIntakeService.getIntakeStatus("abc-123")).thenReturn(intake);
+
+        mockMvc.perform(get("/api/v1/orders/intake/abc-123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.data.orderId").value(42L));
+
+        verify(orderIntakeService, times(1)).getIntakeStatus("abc-123");
+    }
+}
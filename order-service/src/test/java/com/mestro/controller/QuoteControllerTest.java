@@ -0,0 +1,74 @@
+package com.mestro.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mestro.dto.QuoteDTO;
+import com.mestro.dto.QuoteItemRequestDTO;
+import com.mestro.dto.QuoteRequestDTO;
+import com.mestro.service.QuoteService;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(QuoteController.class)
+@DisplayName("QuoteController Tests")
+class QuoteControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private QuoteService quoteService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should return 200 with the quote and its token")
+    void createQuote_ValidRequest_Returns200() throws Exception {
+        QuoteRequestDTO request = QuoteRequestDTO.builder()
+                .customerId(500L)
+                .items(List.of(QuoteItemRequestDTO.builder()
+                        .productId(101L)
+                        .quantity(2)
+                        .build()))
+                .build();
+        when(quoteService.quote(any(QuoteRequestDTO.class)))
+                .thenReturn(QuoteDTO.builder()
+                        .total(new BigDecimal("1948.50"))
+                        .quoteToken("token")
+                        .build());
+
+        mockMvc.perform(post("/api/v1/quotes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.total").value(1948.50))
+                .andExpect(jsonPath("$.data.quoteToken").value("token"))
+                .andExpect(jsonPath("$.message").value("Quote calculated successfully"));
+    }
+
+    @Test
+    @DisplayName("Should return 400 when the quote has no items")
+    void createQuote_NoItems_Returns400() throws Exception {
+        QuoteRequestDTO request =
+                QuoteRequestDTO.builder().customerId(500L).items(List.of()).build();
+
+        mockMvc.perform(post("/api/v1/quotes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verify(quoteService, never()).quote(any());
+    }
+}
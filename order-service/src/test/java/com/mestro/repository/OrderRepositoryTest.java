@@ -423,6 +423,41 @@ class OrderRepositoryTest {
         }
     }
 
+    // ─────────────────────────────────────────────
+    // aggregateByCustomerIdGroupByStatus (@Query)
+    // ─────────────────────────────────────────────
+    @Nested
+    @DisplayName("aggregateByCustomerIdGroupByStatus() [@Query]")
+    class AggregateByCustomerIdTests {
+
+        @Test
+        @DisplayName("Should return count, total and latest creation time per status")
+        void aggregateByCustomerIdGroupByStatus_MixedStatuses_GroupsPerStatus() {
+            persistOrder(700L, OrderStatus.PENDING);
+            persistOrder(700L, OrderStatus.PENDING);
+            persistOrder(700L, OrderStatus.CANCELLED);
+            persistOrder(800L, OrderStatus.PENDING); // different customer
+
+            List<Object[]> rows = orderRepository.aggregateByCustomerIdGroupByStatus(700L);
+
+            assertThat(rows).hasSize(2);
+            Object[] pending = rows.stream()
+                    .filter(row -> row[0] == OrderStatus.PENDING)
+                    .findFirst()
+                    .orElseThrow();
+            assertThat(((Number) pending[1]).longValue()).isEqualTo(2L);
+            assertThat(new BigDecimal(pending[2].toString())).isEqualByComparingTo("399.98");
+            assertThat(pending[3]).isNotNull();
+        }
+
+        @Test
+        @DisplayName("Should return no rows for a customer with no orders")
+        void aggregateByCustomerIdGroupByStatus_NoOrders_ReturnsEmpty() {
+            assertThat(orderRepository.aggregateByCustomerIdGroupByStatus(99999L))
+                    .isEmpty();
+        }
+    }
+
     // ─────────────────────────────────────────────
     // Order-Item cascade behaviour
     // ─────────────────────────────────────────────
@@ -444,4 +479,49 @@ class OrderRepositoryTest {
             assertThat(loaded.getOrderItems().get(0).getId()).isNotNull();
         }
     }
+
+    // ─────────────────────────────────────────────
+    // findVersionById — conditional GET support
+    // ─────────────────────────────────────────────
+    @Nested
+    @DisplayName("findVersionById")
+    class FindVersionByIdTests {
+
+        @Test
+        @DisplayName("Should return the order timestamp and item count in one row")
+        void findVersionById_ExistingOrder_ReturnsRow() {
+            Order order = persistOrder(500L, OrderStatus.PENDING);
+
+            List<Object[]> rows = orderRepository.findVersionById(order.getId());
+
+            assertThat(rows).hasSize(1);
+            assertThat(rows.get(0)[0]).isEqualTo(order.getId());
+            assertThat(rows.get(0)[1]).isNotNull();
+            assertThat(rows.get(0)[2]).isEqualTo(1L);
+            assertThat(rows.get(0)[3]).isNotNull();
+        }
+
+        @Test
+        @DisplayName("Should change when an item is added")
+        void findVersionById_ItemAdded_RowChanges() {
+            Order order = persistOrder(500L, OrderStatus.PENDING);
+            Object[] before = orderRepository.findVersionById(order.getId()).get(0);
+
+            order.addOrderItem(OrderItem.builder()
+                    .productId(102L)
+                    .productName("Second Product")
+                    .quantity(2)
+                    .unitPrice(new BigDecimal("5.00"))
+                    .build());
+            entityManager.persistAndFlush(order);
+
+            assertThat(orderRepository.findVersionById(order.getId()).get(0)).isNotEqualTo(before);
+        }
+
+        @Test
+        @DisplayName("Should return no rows for a non-existent order")
+        void findVersionById_NonExistentId_ReturnsEmpty() {
+            assertThat(orderRepository.findVersionById(99999L)).isEmpty();
+        }
+    }
 }
@@ -0,0 +1,116 @@
+package com.mestro.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.mestro.common.client.ProductServiceClient;
+import com.mestro.common.dto.ApiResponse;
+import com.mestro.common.dto.ProductResponse;
+import com.mestro.common.exception.BusinessException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CatalogCache Tests")
+class CatalogCacheTest {
+
+    @Mock
+    private ProductServiceClient productServiceClient;
+
+    @InjectMocks
+    private CatalogCache catalogCache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(catalogCache, "ttl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(catalogCache, "maxEntries", 100);
+    }
+
+    private ProductResponse product(Long id) {
+        return ProductResponse.builder()
+                .id(id)
+                .name("Product " + id)
+                .price(new BigDecimal("10.00"))
+                .isActive(true)
+                .updatedAt(LocalDateTime.of(2025, 1, 1, 0, 0))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should load all misses with a single batch call")
+    void getProducts_Misses_LoadsInOneCall() {
+        when(productServiceClient.getProductsByIds(List.of(1L, 2L)))
+                .thenReturn(ApiResponse.success("ok", List.of(product(1L), product(2L))));
+
+        Map<Long, CatalogCache.CatalogEntry> result = catalogCache.getProducts(List.of(1L, 2L, 1L));
+
+        assertThat(result).containsOnlyKeys(1L, 2L);
+        assertThat(result.get(1L).version()).isPositive();
+        verify(productServiceClient, times(1)).getProductsByIds(anyList());
+    }
+
+    @Test
+    @DisplayName("Should serve fresh entries without calling product-service")
+    void getProducts_CachedEntries_NoRemoteCall() {
+        when(productServiceClient.getProductsByIds(List.of(1L)))
+                .thenReturn(ApiResponse.success("ok", List.of(product(1L))));
+        catalogCache.getProducts(List.of(1L));
+
+        catalogCache.getProducts(List.of(1L));
+
+        verify(productServiceClient, times(1)).getProductsByIds(anyList());
+    }
+
+    @Test
+    @DisplayName("Should reload entries once the TTL has passed")
+    void getProducts_Expired_Reloads() {
+        ReflectionTestUtils.setField(catalogCache, "ttl", Duration.ZERO);
+        when(productServiceClient.getProductsByIds(List.of(1L)))
+                .thenReturn(ApiResponse.success("ok", List.of(product(1L))));
+
+        catalogCache.getProducts(List.of(1L));
+        catalogCache.getProducts(List.of(1L));
+
+        verify(productServiceClient, times(2)).getProductsByIds(anyList());
+    }
+
+    @Test
+    @DisplayName("Should bypass fresh entries on refresh and cache the reloaded product")
+    void refreshProducts_CachedEntries_ReloadsAndCaches() {
+        ProductResponse repriced = product(1L);
+        repriced.setUpdatedAt(LocalDateTime.of(2025, 1, 2, 0, 0));
+        when(productServiceClient.getProductsByIds(List.of(1L)))
+                .thenReturn(ApiResponse.success("ok", List.of(product(1L))))
+                .thenReturn(ApiResponse.success("ok", List.of(repriced)));
+        long cachedVersion = catalogCache.getProducts(List.of(1L)).get(1L).version();
+
+        long refreshedVersion =
+                catalogCache.refreshProducts(List.of(1L)).get(1L).version();
+
+        assertThat(refreshedVersion).isGreaterThan(cachedVersion);
+        assertThat(catalogCache.getProducts(List.of(1L)).get(1L).version()).isEqualTo(refreshedVersion);
+        verify(productServiceClient, times(2)).getProductsByIds(anyList());
+    }
+
+    @Test
+    @DisplayName("Should throw BusinessException when product-service is unavailable")
+    void getProducts_ServiceDown_ThrowsBusinessException() {
+        when(productServiceClient.getProductsByIds(anyList())).thenThrow(new RuntimeException("Connection refused"));
+
+        assertThatThrownBy(() -> catalogCache.getProducts(List.of(1L)))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("Product service may be unavailable");
+    }
+}
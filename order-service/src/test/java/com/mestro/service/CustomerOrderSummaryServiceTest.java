@@ -0,0 +1,238 @@
+package com.mestro.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.mestro.common.model.Money;
+import com.mestro.dto.CustomerOrderSummaryDTO;
+import com.mestro.enums.OrderStatus;
+import com.mestro.model.CustomerOrderSummary;
+import com.mestro.model.Order;
+import com.mestro.repository.CustomerOrderSummaryRepository;
+import com.mestro.repository.OrderRepository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CustomerOrderSummaryService Tests")
+class CustomerOrderSummaryServiceTest {
+
+    @Mock
+    private CustomerOrderSummaryRepository summaryRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private CustomerOrderSummaryService customerOrderSummaryService;
+
+    private CustomerOrderSummary existingSummary;
+    private Order sampleOrder;
+
+    @BeforeEach
+    void setUp() {
+        existingSummary = CustomerOrderSummary.builder()
+                .customerId(500L)
+                .totalOrders(2L)
+                .pendingOrders(1L)
+                .deliveredOrders(1L)
+                .lifetimeValue(Money.of("300.00"))
+                .lastOrderAt(LocalDateTime.of(2025, 1, 1, 10, 0))
+                .initialized(true)
+                .build();
+
+        sampleOrder = Order.builder()
+                .id(10L)
+                .customerId(500L)
+                .status(OrderStatus.PENDING)
+                .totalAmount(new BigDecimal("199.99"))
+                .orderItems(new ArrayList<>())
+                .build();
+        sampleOrder.setCreatedAt(LocalDateTime.of(2025, 2, 1, 10, 0));
+    }
+
+    // ─────────────────────────────────────────────
+    // Write path
+    // ─────────────────────────────────────────────
+    @Nested
+    @DisplayName("Order writes")
+    class WriteTests {
+
+        @Test
+        @DisplayName("Should apply a new order as a delta on the locked summary row")
+        void onOrderCreated_ExistingSummary_AppliesDelta() {
+            when(summaryRepository.findByCustomerIdForUpdate(500L)).thenReturn(Optional.of(existingSummary));
+
+            customerOrderSummaryService.onOrderCreated(sampleOrder);
+
+            assertThat(existingSummary.getTotalOrders()).isEqualTo(3L);
+            assertThat(existingSummary.getPendingOrders()).isEqualTo(2L);
+            assertThat(existingSummary.getLifetimeValue()).isEqualTo(Money.of("499.99"));
+            assertThat(existingSummary.getLastOrderAt()).isEqualTo(sampleOrder.getCreatedAt());
+            verify(summaryRepository, times(1)).save(existingSummary);
+            verify(orderRepository, never()).aggregateByCustomerIdGroupByStatus(any());
+        }
+
+        @Test
+        @DisplayName("Should move the count between statuses and drop the value on cancellation")
+        void onOrderStatusChanged_Cancelled_SubtractsLifetimeValue() {
+            when(summaryRepository.findByCustomerIdForUpdate(500L)).thenReturn(Optional.of(existingSummary));
+            sampleOrder.setStatus(OrderStatus.CANCELLED);
+            sampleOrder.setTotalAmount(new BigDecimal("100.00"));
+
+            customerOrderSummaryService.onOrderStatusChanged(sampleOrder, OrderStatus.PENDING);
+
+            assertThat(existingSummary.getPendingOrders()).isZero();
+            assertThat(existingSummary.getCancelledOrders()).isEqualTo(1L);
+            assertThat(existingSummary.getTotalOrders()).isEqualTo(2L);
+            assertThat(existingSummary.getLifetimeValue()).isEqualTo(Money.of("200.00"));
+        }
+
+        @Test
+        @DisplayName("Should apply the difference when an order total changes")
+        void onOrderTotalChanged_AppliesDifference() {
+            when(summaryRepository.findByCustomerIdForUpdate(500L)).thenReturn(Optional.of(existingSummary));
+
+            customerOrderSummaryService.onOrderTotalChanged(sampleOrder, new BigDecimal("150.00"));
+
+            assertThat(existingSummary.getLifetimeValue()).isEqualTo(Money.of("349.99"));
+        }
+
+        @Test
+        @DisplayName("Should create and rebuild the row from the orders table on first write")
+        void onOrderCreated_MissingSummary_RebuildsFromAggregate() {
+            CustomerOrderSummary created =
+                    CustomerOrderSummary.builder().customerId(500L).build();
+            when(summaryRepository.findByCustomerIdForUpdate(500L))
+                    .thenReturn(Optional.empty())
+                    .thenReturn(Optional.of(created));
+            when(orderRepository.aggregateByCustomerIdGroupByStatus(500L))
+                    .thenReturn(List.of(
+                            new Object[] {OrderStatus.PENDING, 1L, new BigDecimal("199.99"), sampleOrder.getCreatedAt()
+                            },
+                            new Object[] {
+                                OrderStatus.CANCELLED, 2L, new BigDecimal("50.00"), LocalDateTime.of(2024, 5, 1, 0, 0)
+                            }));
+
+            customerOrderSummaryService.onOrderCreated(sampleOrder);
+
+            verify(summaryRepository).insertIfAbsent(eq(500L), any());
+            verify(summaryRepository).save(created);
+            assertThat(created.isInitialized()).isTrue();
+            assertThat(created.getTotalOrders()).isEqualTo(3L);
+            assertThat(created.getPendingOrders()).isEqualTo(1L);
+            assertThat(created.getCancelledOrders()).isEqualTo(2L);
+            // Cancelled orders do not count towards lifetime value
+            assertThat(created.getLifetimeValue()).isEqualTo(Money.of("199.99"));
+            assertThat(created.getLastOrderAt()).isEqualTo(sampleOrder.getCreatedAt());
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // Read path
+    // ─────────────────────────────────────────────
+    @Nested
+    @DisplayName("Summary reads")
+    class ReadTests {
+
+        @Test
+        @DisplayName("Should serve the summary from the projection row")
+        void getSummary_ExistingSummary_ReturnsProjection() {
+            when(summaryRepository.findById(500L)).thenReturn(Optional.of(existingSummary));
+
+            CustomerOrderSummaryDTO result = customerOrderSummaryService.getSummary(500L);
+
+            assertThat(result.getTotalOrders()).isEqualTo(2L);
+            assertThat(result.getOrdersByStatus())
+                    .containsEntry(OrderStatus.PENDING, 1L)
+                    .containsEntry(OrderStatus.DELIVERED, 1L)
+                    .containsEntry(OrderStatus.SHIPPED, 0L);
+            assertThat(result.getLifetimeValue()).isEqualByComparingTo("300.00");
+            verify(orderRepository, never()).aggregateByCustomerIdGroupByStatus(any());
+        }
+
+        @Test
+        @DisplayName("Should return an empty summary for a customer with no orders")
+        void getSummary_NoOrders_ReturnsZeros() {
+            when(summaryRepository.findById(999L)).thenReturn(Optional.empty());
+            when(summaryRepository.findByCustomerIdForUpdate(999L))
+                    .thenReturn(Optional.empty())
+                    .thenReturn(Optional.of(
+                            CustomerOrderSummary.builder().customerId(999L).build()));
+            when(orderRepository.aggregateByCustomerIdGroupByStatus(999L)).thenReturn(List.of());
+
+            CustomerOrderSummaryDTO result = customerOrderSummaryService.getSummary(999L);
+
+            assertThat(result.getTotalOrders()).isZero();
+            assertThat(result.getLifetimeValue()).isEqualByComparingTo("0");
+            assertThat(result.getLastOrderAt()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should store the summary it builds for a customer without a row")
+        void getSummary_MissingSummary_StoresRebuild() {
+            CustomerOrderSummary created =
+                    CustomerOrderSummary.builder().customerId(500L).build();
+            when(summaryRepository.findById(500L)).thenReturn(Optional.empty());
+            when(summaryRepository.findByCustomerIdForUpdate(500L))
+                    .thenReturn(Optional.empty())
+                    .thenReturn(Optional.of(created));
+            when(orderRepository.aggregateByCustomerIdGroupByStatus(500L)).thenReturn(List.<Object[]>of(new Object[] {
+                OrderStatus.DELIVERED, 2L, new BigDecimal("80.00"), sampleOrder.getCreatedAt()
+            }));
+
+            CustomerOrderSummaryDTO result = customerOrderSummaryService.getSummary(500L);
+
+            assertThat(result.getTotalOrders()).isEqualTo(2L);
+            assertThat(created.isInitialized()).isTrue();
+            verify(summaryRepository).insertIfAbsent(eq(500L), any());
+            verify(summaryRepository).save(created);
+        }
+
+        @Test
+        @DisplayName("Should not rebuild a row another reader initialised first")
+        void getSummary_InitialisedConcurrently_SkipsRebuild() {
+            when(summaryRepository.findById(500L)).thenReturn(Optional.empty());
+            when(summaryRepository.findByCustomerIdForUpdate(500L)).thenReturn(Optional.of(existingSummary));
+
+            assertThat(customerOrderSummaryService.getSummary(500L).getTotalOrders())
+                    .isEqualTo(2L);
+            verify(orderRepository, never()).aggregateByCustomerIdGroupByStatus(any());
+            verify(summaryRepository, never()).insertIfAbsent(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should fall back to COUNT when no summary row exists yet")
+        void getOrderCount_MissingSummary_FallsBackToCount() {
+            when(summaryRepository.findById(500L)).thenReturn(Optional.empty());
+            when(orderRepository.countByCustomerId(500L)).thenReturn(4L);
+
+            assertThat(customerOrderSummaryService.getOrderCount(500L)).isEqualTo(4L);
+        }
+
+        @Test
+        @DisplayName("Should read the count from the summary row without COUNT")
+        void getOrderCount_ExistingSummary_UsesProjection() {
+            when(summaryRepository.findById(500L)).thenReturn(Optional.of(existingSummary));
+
+            assertThat(customerOrderSummaryService.getOrderCount(500L)).isEqualTo(2L);
+            verify(orderRepository, never()).countByCustomerId(any());
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.mestro.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mestro.common.exception.ResourceNotFoundException;
+import com.mestro.controller.OrderController;
+import com.mestro.dto.OrderStatusEventDTO;
+import com.mestro.enums.OrderStatus;
+import com.mestro.repository.OrderRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderEventService Tests")
+class OrderEventServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private CustomerOrderSummaryService customerOrderSummaryService;
+
+    private OrderEventService orderEventService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        orderEventService =
+                new OrderEventService(orderRepository, new ObjectMapper().registerModule(new JavaTimeModule()));
+        ReflectionTestUtils.setField(orderEventService, "replayCapacity", 100);
+        ReflectionTestUtils.setField(orderEventService, "maxPendingPerSubscriber", 16);
+        ReflectionTestUtils.setField(orderEventService, "emitterTimeout", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(orderEventService, "heartbeatInterval", Duration.ofMinutes(1));
+        orderEventService.start();
+
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                        new OrderController(orderService, orderEventService, customerOrderSummaryService))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderEventService.stop();
+    }
+
+    private OrderStatusEventDTO statusEvent(Long orderId, OrderStatus previous, OrderStatus status) {
+        return OrderStatusEventDTO.builder()
+                .orderId(orderId)
+                .customerId(500L)
+                .previousStatus(previous)
+                .status(status)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    private String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = response.getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = response.getContentAsString();
+        }
+        return content;
+    }
+
+    @Test
+    @DisplayName("Should push status changes to order subscribers")
+    void onOrderStatusChanged_OrderSubscriber_ReceivesEvent() throws Exception {
+        when(orderRepository.existsById(1L)).thenReturn(true);
+
+        MockHttpServletResponse response = mockMvc.perform(get("/api/v1/orders/1/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+        assertThat(orderEventService.getSubscriberCount()).isEqualTo(1);
+
+        orderEventService.onOrderStatusChanged(statusEvent(1L, OrderStatus.PENDING, OrderStatus.CONFIRMED));
+
+        String content = awaitContent(response, "CONFIRMED");
+        assertThat(content).contains("event:order-status");
+        assertThat(content).contains("\"previousStatus\":\"PENDING\"");
+    }
+
+    @Test
+    @DisplayName("Should push every order of a customer to customer subscribers")
+    void onOrderStatusChanged_CustomerSubscriber_ReceivesAllOrders() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/api/v1/orders/customer/500/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+
+        orderEventService.onOrderStatusChanged(statusEvent(1L, null, OrderStatus.PENDING));
+        orderEventService.onOrderStatusChanged(statusEvent(2L, null, OrderStatus.PENDING));
+
+        String content = awaitContent(response, "\"orderId\":2");
+        assertThat(content).contains("\"orderId\":1");
+    }
+
+    @Test
+    @DisplayName("Should replay events published after Last-Event-ID")
+    void subscribeToOrder_WithLastEventId_ReplaysMissedEvents() throws Exception {
+        when(orderRepository.existsById(1L)).thenReturn(true);
+        orderEventService.onOrderStatusChanged(statusEvent(1L, null, OrderStatus.PENDING));
+
+        // Discover the ID of the first event through a customer stream replay
+        MockHttpServletResponse first = mockMvc.perform(
+                        get("/api/v1/orders/customer/500/events").header("Last-Event-ID", "0"))
+                .andReturn()
+                .getResponse();
+        String firstContent = awaitContent(first, "PENDING");
+        String firstId = firstContent
+                .lines()
+                .filter(line -> line.startsWith("id:"))
+                .findFirst()
+                .orElseThrow()
+                .substring(3);
+
+        orderEventService.onOrderStatusChanged(statusEvent(1L, OrderStatus.PENDING, OrderStatus.CONFIRMED));
+
+        MockHttpServletResponse resumed = mockMvc.perform(
+                        get("/api/v1/orders/1/events").header("Last-Event-ID", firstId))
+                .andReturn()
+                .getResponse();
+
+        String content = awaitContent(resumed, "CONFIRMED");
+        assertThat(content).contains("\"status\":\"CONFIRMED\"");
+        assertThat(content).doesNotContain("\"status\":\"PENDING\"");
+    }
+
+    @Test
+    @DisplayName("Should throw ResourceNotFoundException when the order does not exist")
+    void subscribeToOrder_OrderNotFound_ThrowsResourceNotFoundException() {
+        when(orderRepository.existsById(999L)).thenReturn(false);
+
+        assertThatThrownBy(() -> orderEventService.subscribeToOrder(999L, null))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("999");
+        assertThat(orderEventService.getSubscriberCount()).isZero();
+    }
+}
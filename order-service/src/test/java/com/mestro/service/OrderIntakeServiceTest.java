@@ -0,0 +1,240 @@
+package com.mestro.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mestro.common.exception.BusinessException;
+import com.mestro.dto.OrderDTO;
+import com.mestro.dto.OrderIntakeDTO;
+import com.mestro.dto.OrderItemDTO;
+import com.mestro.enums.OrderIntakeStatus;
+import com.mestro.model.OrderIntake;
+import com.mestro.repository.OrderIntakeRepository;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderIntakeService Tests")
+class OrderIntakeServiceTest {
+
+    @Mock
+    private OrderIntakeRepository orderIntakeRepository;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private OrderIntakeService orderIntakeService;
+    private OrderDTO sampleOrderDTO;
+
+    @BeforeEach
+    void setUp() {
+        orderIntakeService =
+                new OrderIntakeService(orderIntakeRepository, orderService, objectMapper, transactionTemplate);
+        ReflectionTestUtils.setField(orderIntakeService, "enabled", true);
+        ReflectionTestUtils.setField(orderIntakeService, "queueCapacity", 1);
+        // No consumer threads: the tests drive processBatch directly
+        ReflectionTestUtils.setField(orderIntakeService, "consumers", 0);
+        ReflectionTestUtils.setField(orderIntakeService, "batchSize", 10);
+
+        sampleOrderDTO = OrderDTO.builder()
+                .customerId(500L)
+                .orderItems(List.of(OrderItemDTO.builder()
+                        .productId(101L)
+                        .quantity(2)
+                        .unitPrice(new BigDecimal("999.99"))
+                        .build()))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderIntakeService.stop();
+    }
+
+    private OrderIntake journaled(Long id, OrderIntakeStatus status) throws Exception {
+        return OrderIntake.builder()
+                .id(id)
+                .trackingId("tracking-" + id)
+                .customerId(500L)
+                .status(status)
+                .payload(objectMapper.writeValueAsString(sampleOrderDTO))
+                .build();
+    }
+
+    // ─────────────────────────────────────────────
+    // submit
+    // ─────────────────────────────────────────────
+    @Nested
+    @DisplayName("submit()")
+    class SubmitTests {
+
+        @Test
+        @DisplayName("Should journal and accept the order when the queue has room")
+        void submit_QueueHasRoom_ReturnsTrackingRecord() throws Exception {
+            orderIntakeService.start();
+            when(orderIntakeRepository.save(any(OrderIntake.class))).thenAnswer(inv -> {
+                OrderIntake intake = inv.getArgument(0);
+                intake.setId(1L);
+                return intake;
+            });
+
+            Optional<OrderIntakeDTO> result = orderIntakeService.submit(sampleOrderDTO);
+
+            assertThat(result).isPresent();
+            assertThat(result.get().getStatus()).isEqualTo(OrderIntakeStatus.QUEUED);
+            assertThat(result.get().getTrackingId()).isNotBlank();
+            verify(orderIntakeRepository, times(1)).save(any(OrderIntake.class));
+        }
+
+        @Test
+        @DisplayName("Should shed the order without journaling when the queue is full")
+        void submit_QueueFull_ReturnsEmpty() throws Exception {
+            orderIntakeService.start();
+            when(orderIntakeRepository.save(any(OrderIntake.class))).thenAnswer(inv -> {
+                OrderIntake intake = inv.getArgument(0);
+                intake.setId(1L);
+                return intake;
+            });
+            orderIntakeService.submit(sampleOrderDTO);
+
+            Optional<OrderIntakeDTO> result = orderIntakeService.submit(sampleOrderDTO);
+
+            assertThat(result).isEmpty();
+            verify(orderIntakeRepository, times(1)).save(any(OrderIntake.class));
+        }
+
+        @Test
+        @DisplayName("Should throw BusinessException when intake is disabled")
+        void submit_Disabled_ThrowsBusinessException() {
+            ReflectionTestUtils.setField(orderIntakeService, "enabled", false);
+
+            assertThatThrownBy(() -> orderIntakeService.submit(sampleOrderDTO))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("disabled");
+            verify(orderIntakeRepository, never()).save(any());
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // processBatch
+    // ─────────────────────────────────────────────
+    @Nested
+    @DisplayName("processBatch()")
+    class ProcessBatchTests {
+
+        @BeforeEach
+        void runCallbacksInline() {
+            lenient()
+                    .doAnswer(inv -> {
+                        Consumer<TransactionStatus> callback = inv.getArgument(0);
+                        callback.accept(null);
+                        return null;
+                    })
+                    .when(transactionTemplate)
+                    .executeWithoutResult(any());
+        }
+
+        @Test
+        @DisplayName("Should mark the intake COMPLETED with the created order ID")
+        void processBatch_OrderCreated_MarksCompleted() throws Exception {
+            OrderIntake intake = journaled(1L, OrderIntakeStatus.QUEUED);
+            when(orderIntakeRepository.findAllById(List.of(1L))).thenReturn(List.of(intake));
+            when(orderIntakeRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+            when(orderService.createOrder(any(OrderDTO.class), eq("order-intake-tracking-1")))
+                    .thenReturn(OrderDTO.builder().id(42L).build());
+
+            orderIntakeService.processBatch(List.of(1L));
+
+            assertThat(intake.getStatus()).isEqualTo(OrderIntakeStatus.COMPLETED);
+            assertThat(intake.getOrderId()).isEqualTo(42L);
+            verify(orderIntakeRepository, times(1)).save(intake);
+            verify(orderService, never()).releaseReservations(any());
+        }
+
+        @Test
+        @DisplayName("Should release an interrupted attempt's reservations before replaying it")
+        void processBatch_Interrupted_ReleasesBeforeRetry() throws Exception {
+            OrderIntake intake = journaled(1L, OrderIntakeStatus.PROCESSING);
+            when(orderIntakeRepository.findAllById(List.of(1L))).thenReturn(List.of(intake));
+            when(orderIntakeRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+            when(orderService.createOrder(any(OrderDTO.class), eq("order-intake-tracking-1")))
+                    .thenReturn(OrderDTO.builder().id(42L).build());
+
+            orderIntakeService.processBatch(List.of(1L));
+
+            var order = inOrder(orderService);
+            order.verify(orderService).releaseReservations("order-intake-tracking-1");
+            order.verify(orderService).createOrder(any(OrderDTO.class), eq("order-intake-tracking-1"));
+            assertThat(intake.getStatus()).isEqualTo(OrderIntakeStatus.COMPLETED);
+        }
+
+        @Test
+        @DisplayName("Should leave an interrupted entry in progress when its reservations cannot be released")
+        void processBatch_ReleaseFails_SkipsRetry() throws Exception {
+            OrderIntake intake = journaled(1L, OrderIntakeStatus.PROCESSING);
+            when(orderIntakeRepository.findAllById(List.of(1L))).thenReturn(List.of(intake));
+            when(orderIntakeRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+            doThrow(new BusinessException("Product service unavailable"))
+                    .when(orderService)
+                    .releaseReservations("order-intake-tracking-1");
+
+            orderIntakeService.processBatch(List.of(1L));
+
+            verify(orderService, never()).createOrder(any(), any());
+            assertThat(intake.getStatus()).isEqualTo(OrderIntakeStatus.PROCESSING);
+            verify(orderIntakeRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should mark the intake FAILED with the error message when creation fails")
+        void processBatch_CreationFails_MarksFailed() throws Exception {
+            OrderIntake intake = journaled(1L, OrderIntakeStatus.QUEUED);
+            when(orderIntakeRepository.findAllById(List.of(1L))).thenReturn(List.of(intake));
+            when(orderIntakeRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+            when(orderService.createOrder(any(OrderDTO.class), eq("order-intake-tracking-1")))
+                    .thenThrow(new BusinessException("Insufficient stock for product ID: 101"));
+
+            orderIntakeService.processBatch(List.of(1L));
+
+            verify(orderService).releaseReservations("order-intake-tracking-1");
+            ArgumentCaptor<OrderIntake> captor = ArgumentCaptor.forClass(OrderIntake.class);
+            verify(orderIntakeRepository).save(captor.capture());
+            assertThat(captor.getValue().getStatus()).isEqualTo(OrderIntakeStatus.FAILED);
+            assertThat(captor.getValue().getErrorMessage()).contains("Insufficient stock");
+        }
+
+        @Test
+        @DisplayName("Should skip entries that were already completed")
+        void processBatch_AlreadyCompleted_Skips() throws Exception {
+            OrderIntake intake = journaled(1L, OrderIntakeStatus.COMPLETED);
+            when(orderIntakeRepository.findAllById(List.of(1L))).thenReturn(List.of(intake));
+
+            orderIntakeService.processBatch(List.of(1L));
+
+            verify(orderService, never()).createOrder(any(), any());
+            verify(orderIntakeRepository, never()).saveAll(anyList());
+        }
+    }
+}
@@ -6,13 +6,16 @@ import static org.mockito.Mockito.*;
 
 import com.mestro.common.client.ProductServiceClient;
 import com.mestro.common.dto.ApiResponse;
+import com.mestro.common.dto.InventoryAllocationResponse;
 import com.mestro.common.dto.InventoryResponse;
 import com.mestro.common.dto.PageResponseDTO;
 import com.mestro.common.dto.ProductResponse;
+import com.mestro.common.dto.WarehouseAllocationResponse;
 import com.mestro.common.exception.BusinessException;
 import com.mestro.common.exception.ResourceNotFoundException;
 import com.mestro.dto.OrderDTO;
 import com.mestro.dto.OrderItemDTO;
+import com.mestro.dto.OrderStatusEventDTO;
 import com.mestro.enums.OrderStatus;
 import com.mestro.model.Order;
 import com.mestro.model.OrderItem;
@@ -27,11 +30,14 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("OrderService Tests")
@@ -46,6 +52,15 @@ class OrderServiceTest {
     @Mock
     private ProductServiceClient productServiceClient;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CustomerOrderSummaryService customerOrderSummaryService;
+
+    @Mock
+    private QuoteService quoteService;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -58,6 +73,8 @@ class OrderServiceTest {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(orderService, "allocationStrategy", "FEWEST_SHIPMENTS");
+
         sampleItemDTO = OrderItemDTO.builder()
                 .productId(101L)
                 .warehouseId(1L)
@@ -121,7 +138,7 @@ class OrderServiceTest {
             when(productServiceClient.getProductById(101L)).thenReturn(productResp);
             when(productServiceClient.getInventoryByProductAndWarehouse(101L, 1L))
                     .thenReturn(invResp);
-            when(productServiceClient.reserveByProductAndWarehouse(101L, 1L, 2))
+            when(productServiceClient.reserveByProductAndWarehouse(101L, 1L, 2, null, 500L))
                     .thenReturn(ApiResponse.success("ok", inventoryResp));
             when(orderRepository.save(any(Order.class))).thenReturn(sampleOrder);
 
@@ -136,7 +153,28 @@ class OrderServiceTest {
             assertThat(result).isNotNull();
             assertThat(result.getId()).isEqualTo(1L);
             verify(orderRepository, times(1)).save(any(Order.class));
-            verify(productServiceClient, times(1)).reserveByProductAndWarehouse(101L, 1L, 2);
+            verify(productServiceClient, times(1)).reserveByProductAndWarehouse(101L, 1L, 2, null, 500L);
+            verify(eventPublisher, times(1)).publishEvent(any(OrderStatusEventDTO.class));
+            verify(customerOrderSummaryService, times(1)).onOrderCreated(sampleOrder);
+        }
+
+        @Test
+        @DisplayName("Should skip product validation when the order matches a valid quote")
+        void createOrder_ValidQuote_SkipsProductValidation() {
+            when(quoteService.applyQuote(sampleOrderDTO)).thenReturn(true);
+            when(productServiceClient.reserveByProductAndWarehouse(101L, 1L, 2, null, 500L))
+                    .thenReturn(ApiResponse.success(
+                            "ok", InventoryResponse.builder().build()));
+            when(orderRepository.save(any(Order.class))).thenReturn(sampleOrder);
+            when(modelMapper.map(sampleOrder, OrderDTO.class))
+                    .thenReturn(OrderDTO.builder().id(1L).build());
+            when(modelMapper.map(any(OrderItem.class), eq(OrderItemDTO.class))).thenReturn(sampleItemDTO);
+
+            orderService.createOrder(sampleOrderDTO);
+
+            verify(productServiceClient, never()).getProductById(any());
+            verify(productServiceClient, never()).getInventoryByProductAndWarehouse(any(), any());
+            verify(productServiceClient, times(1)).reserveByProductAndWarehouse(101L, 1L, 2, null, 500L);
         }
 
         @Test
@@ -240,11 +278,11 @@ class OrderServiceTest {
                     .thenReturn(ApiResponse.success("ok", inv));
 
             // First reserve succeeds; second throws
-            when(productServiceClient.reserveByProductAndWarehouse(101L, 1L, 1))
+            when(productServiceClient.reserveByProductAndWarehouse(101L, 1L, 1, "order-intake-1", 500L))
                     .thenReturn(ApiResponse.success("ok", inv));
-            when(productServiceClient.reserveByProductAndWarehouse(102L, 1L, 1))
+            when(productServiceClient.reserveByProductAndWarehouse(102L, 1L, 1, "order-intake-1", 500L))
                     .thenThrow(new RuntimeException("Inventory service error"));
-            when(productServiceClient.releaseByProductAndWarehouse(101L, 1L, 1))
+            when(productServiceClient.releaseByProductAndWarehouse(101L, 1L, 1, "order-intake-1"))
                     .thenReturn(ApiResponse.success("ok", inv));
 
             Order savedOrder = Order.builder()
@@ -254,35 +292,50 @@ class OrderServiceTest {
                     .build();
             when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
 
-            assertThatThrownBy(() -> orderService.createOrder(twoItemOrder))
+            assertThatThrownBy(() -> orderService.createOrder(twoItemOrder, "order-intake-1"))
                     .isInstanceOf(BusinessException.class)
                     .hasMessageContaining("Failed to reserve inventory");
 
-            // Verify rollback was attempted for item1
-            verify(productServiceClient, times(1)).releaseByProductAndWarehouse(101L, 1L, 1);
+            // Verify rollback was attempted for item1, under the same reference
+            verify(productServiceClient, times(1)).releaseByProductAndWarehouse(101L, 1L, 1, "order-intake-1");
         }
 
         @Test
-        @DisplayName("Should use total stock check when warehouseId is null")
-        void createOrder_NoWarehouseId_ChecksTotalStock() {
+        @DisplayName("Should check total stock and record the warehouse split when warehouseId is null")
+        void createOrder_NoWarehouseId_AllocatesAcrossWarehouses() {
             OrderItemDTO noWarehouseItem = OrderItemDTO.builder()
                     .productId(101L)
                     .warehouseId(null)
-                    .quantity(2)
+                    .quantity(50)
                     .unitPrice(BigDecimal.TEN)
                     .productName("Laptop")
                     .build();
 
             OrderDTO order = OrderDTO.builder()
                     .customerId(500L)
+                    .shippingAddress("1 Harbour Rd, Boston, MA, USA")
                     .orderItems(List.of(noWarehouseItem))
                     .build();
 
+            InventoryAllocationResponse allocation = InventoryAllocationResponse.builder()
+                    .productId(101L)
+                    .quantity(50)
+                    .allocations(List.of(
+                            WarehouseAllocationResponse.builder()
+                                    .warehouseId(1L)
+                                    .quantity(30)
+                                    .build(),
+                            WarehouseAllocationResponse.builder()
+                                    .warehouseId(2L)
+                                    .quantity(20)
+                                    .build()))
+                    .build();
+
             when(productServiceClient.getProductById(101L)).thenReturn(ApiResponse.success("ok", activeProduct));
-            when(productServiceClient.getTotalAvailableQuantity(101L)).thenReturn(ApiResponse.success("ok", 10));
-            when(productServiceClient.reserveByProductId(101L, 2))
-                    .thenReturn(ApiResponse.success(
-                            "ok", InventoryResponse.builder().build()));
+            when(productServiceClient.getTotalAvailableQuantity(101L)).thenReturn(ApiResponse.success("ok", 60));
+            when(productServiceClient.allocateByProductId(
+                            101L, 50, "FEWEST_SHIPMENTS", "1 Harbour Rd, Boston, MA, USA", null))
+                    .thenReturn(ApiResponse.success("ok", allocation));
             when(orderRepository.save(any(Order.class))).thenReturn(sampleOrder);
             when(modelMapper.map(sampleOrder, OrderDTO.class)).thenReturn(sampleOrderDTO);
             when(modelMapper.map(any(OrderItem.class), eq(OrderItemDTO.class))).thenReturn(noWarehouseItem);
@@ -291,7 +344,11 @@ class OrderServiceTest {
 
             assertThat(result).isNotNull();
             verify(productServiceClient, times(1)).getTotalAvailableQuantity(101L);
-            verify(productServiceClient, times(1)).reserveByProductId(101L, 2);
+            verify(productServiceClient, never()).reserveByProductId(any(), any());
+            assertThat(sampleOrder.getOrderItems())
+                    .extracting(OrderItem::getWarehouseId, OrderItem::getQuantity)
+                    .containsExactly(tuple(1L, 30), tuple(2L, 20));
+            assertThat(sampleOrder.getTotalAmount()).isEqualByComparingTo("500.00");
         }
     }
 
@@ -543,6 +600,13 @@ class OrderServiceTest {
             OrderDTO result = orderService.updateOrderStatus(1L, OrderStatus.CONFIRMED);
 
             assertThat(result.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+
+            ArgumentCaptor<OrderStatusEventDTO> eventCaptor = ArgumentCaptor.forClass(OrderStatusEventDTO.class);
+            verify(eventPublisher).publishEvent(eventCaptor.capture());
+            assertThat(eventCaptor.getValue().getPreviousStatus()).isEqualTo(OrderStatus.PENDING);
+            assertThat(eventCaptor.getValue().getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+            assertThat(eventCaptor.getValue().getCustomerId()).isEqualTo(500L);
+            verify(customerOrderSummaryService, times(1)).onOrderStatusChanged(confirmedOrder, OrderStatus.PENDING);
         }
 
         @Test
@@ -550,7 +614,7 @@ class OrderServiceTest {
         void updateOrderStatus_CancelledStatus_ReleasesInventory() {
             when(orderRepository.findById(1L)).thenReturn(Optional.of(sampleOrder));
             when(orderRepository.save(any(Order.class))).thenReturn(sampleOrder);
-            when(productServiceClient.releaseByProductAndWarehouse(101L, 1L, 2))
+            when(productServiceClient.releaseByProductAndWarehouse(101L, 1L, 2, null))
                     .thenReturn(ApiResponse.success(
                             "ok", InventoryResponse.builder().build()));
             when(modelMapper.map(sampleOrder, OrderDTO.class)).thenReturn(sampleOrderDTO);
@@ -558,7 +622,7 @@ class OrderServiceTest {
 
             orderService.updateOrderStatus(1L, OrderStatus.CANCELLED);
 
-            verify(productServiceClient, times(1)).releaseByProductAndWarehouse(101L, 1L, 2);
+            verify(productServiceClient, times(1)).releaseByProductAndWarehouse(101L, 1L, 2, null);
         }
 
         @Test
@@ -691,20 +755,21 @@ class OrderServiceTest {
     class GetOrderCountByCustomerIdTests {
 
         @Test
-        @DisplayName("Should return correct count for a given customer")
+        @DisplayName("Should return the count from the customer order summary")
         void getOrderCountByCustomerId_ValidCustomer_ReturnsCount() {
-            when(orderRepository.countByCustomerId(500L)).thenReturn(7L);
+            when(customerOrderSummaryService.getOrderCount(500L)).thenReturn(7L);
 
             Long count = orderService.getOrderCountByCustomerId(500L);
 
             assertThat(count).isEqualTo(7L);
-            verify(orderRepository, times(1)).countByCustomerId(500L);
+            verify(customerOrderSummaryService, times(1)).getOrderCount(500L);
+            verify(orderRepository, never()).countByCustomerId(any());
         }
 
         @Test
         @DisplayName("Should return zero when customer has no orders")
         void getOrderCountByCustomerId_NoOrders_ReturnsZero() {
-            when(orderRepository.countByCustomerId(999L)).thenReturn(0L);
+            when(customerOrderSummaryService.getOrderCount(999L)).thenReturn(0L);
 
             Long count = orderService.getOrderCountByCustomerId(999L);
 
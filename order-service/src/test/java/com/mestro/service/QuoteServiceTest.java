@@ -0,0 +1,214 @@
+package com.mestro.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.mestro.common.dto.ProductResponse;
+import com.mestro.common.exception.BusinessException;
+import com.mestro.dto.OrderDTO;
+import com.mestro.dto.OrderItemDTO;
+import com.mestro.dto.QuoteDTO;
+import com.mestro.dto.QuoteItemRequestDTO;
+import com.mestro.dto.QuoteLineDTO;
+import com.mestro.dto.QuoteRequestDTO;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("QuoteService Tests")
+class QuoteServiceTest {
+
+    @Mock
+    private CatalogCache catalogCache;
+
+    @InjectMocks
+    private QuoteService quoteService;
+
+    private ProductResponse laptop;
+    private QuoteRequestDTO quoteRequest;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(quoteService, "secret", "test-secret");
+        ReflectionTestUtils.setField(quoteService, "tokenTtl", Duration.ofMinutes(15));
+        quoteService.init();
+
+        laptop = ProductResponse.builder()
+                .id(101L)
+                .name("Laptop Pro X")
+                .price(new BigDecimal("1000.00"))
+                .discountPercentage(new BigDecimal("10"))
+                .taxRate(new BigDecimal("8.25"))
+                .isActive(true)
+                .updatedAt(LocalDateTime.of(2025, 1, 1, 12, 0))
+                .build();
+
+        quoteRequest = QuoteRequestDTO.builder()
+                .customerId(500L)
+                .items(List.of(QuoteItemRequestDTO.builder()
+                        .productId(101L)
+                        .warehouseId(1L)
+                        .quantity(2)
+                        .build()))
+                .build();
+    }
+
+    private CatalogCache.CatalogEntry entry(ProductResponse product) {
+        return new CatalogCache.CatalogEntry(product, CatalogCache.versionOf(product), Long.MAX_VALUE);
+    }
+
+    private OrderDTO orderFor(QuoteDTO quote) {
+        return OrderDTO.builder()
+                .customerId(500L)
+                .quoteToken(quote.getQuoteToken())
+                .orderItems(List.of(OrderItemDTO.builder()
+                        .productId(101L)
+                        .warehouseId(1L)
+                        .quantity(2)
+                        .unitPrice(new BigDecimal("0.01"))
+                        .build()))
+                .build();
+    }
+
+    // ─────────────────────────────────────────────
+    // quote
+    // ─────────────────────────────────────────────
+    @Nested
+    @DisplayName("quote()")
+    class QuoteTests {
+
+        @Test
+        @DisplayName("Should apply discount and tax per unit and total the lines")
+        void quote_ValidItems_ComputesTotals() {
+            when(catalogCache.getProducts(List.of(101L))).thenReturn(Map.of(101L, entry(laptop)));
+
+            QuoteDTO quote = quoteService.quote(quoteRequest);
+
+            // 1000.00 - 10% = 900.00; tax 8.25% = 74.25; unit 974.25
+            QuoteLineDTO line = quote.getLines().get(0);
+            assertThat(line.getUnitPrice()).isEqualByComparingTo("974.25");
+            assertThat(line.getLineDiscount()).isEqualByComparingTo("200.00");
+            assertThat(line.getLineTotal()).isEqualByComparingTo("1948.50");
+            assertThat(quote.getSubtotal()).isEqualByComparingTo("1800.00");
+            assertThat(quote.getTaxTotal()).isEqualByComparingTo("148.50");
+            assertThat(quote.getTotal()).isEqualByComparingTo("1948.50");
+            assertThat(quote.getQuoteToken()).isNotBlank();
+        }
+
+        @Test
+        @DisplayName("Should throw BusinessException when a product is unknown")
+        void quote_UnknownProduct_ThrowsBusinessException() {
+            when(catalogCache.getProducts(List.of(101L))).thenReturn(Map.of());
+
+            assertThatThrownBy(() -> quoteService.quote(quoteRequest))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("Product not found with ID: 101");
+        }
+
+        @Test
+        @DisplayName("Should throw BusinessException when a product is inactive")
+        void quote_InactiveProduct_ThrowsBusinessException() {
+            laptop.setIsActive(false);
+            when(catalogCache.getProducts(List.of(101L))).thenReturn(Map.of(101L, entry(laptop)));
+
+            assertThatThrownBy(() -> quoteService.quote(quoteRequest))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("Product is not active");
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // applyQuote
+    // ─────────────────────────────────────────────
+    @Nested
+    @DisplayName("applyQuote()")
+    class ApplyQuoteTests {
+
+        @Test
+        @DisplayName("Should price the order from a valid, unchanged quote")
+        void applyQuote_ValidToken_PricesItems() {
+            when(catalogCache.getProducts(anyCollection())).thenReturn(Map.of(101L, entry(laptop)));
+            OrderDTO order = orderFor(quoteService.quote(quoteRequest));
+            when(catalogCache.refreshProducts(anyCollection())).thenReturn(Map.of(101L, entry(laptop)));
+
+            boolean applied = quoteService.applyQuote(order);
+
+            assertThat(applied).isTrue();
+            assertThat(order.getOrderItems().get(0).getUnitPrice()).isEqualByComparingTo("974.25");
+            assertThat(order.getOrderItems().get(0).getProductName()).isEqualTo("Laptop Pro X");
+        }
+
+        @Test
+        @DisplayName("Should reject the quote when the product changed since it was issued")
+        void applyQuote_ProductChanged_ReturnsFalse() {
+            when(catalogCache.getProducts(anyCollection())).thenReturn(Map.of(101L, entry(laptop)));
+            OrderDTO order = orderFor(quoteService.quote(quoteRequest));
+
+            ProductResponse updated = ProductResponse.builder()
+                    .id(101L)
+                    .name("Laptop Pro X")
+                    .price(new BigDecimal("1100.00"))
+                    .isActive(true)
+                    .updatedAt(laptop.getUpdatedAt().plusMinutes(5))
+                    .build();
+            when(catalogCache.refreshProducts(anyCollection())).thenReturn(Map.of(101L, entry(updated)));
+
+            assertThat(quoteService.applyQuote(order)).isFalse();
+            assertThat(order.getOrderItems().get(0).getUnitPrice()).isEqualByComparingTo("0.01");
+        }
+
+        @Test
+        @DisplayName("Should reject the quote when the ordered quantity differs")
+        void applyQuote_QuantityChanged_ReturnsFalse() {
+            when(catalogCache.getProducts(anyCollection())).thenReturn(Map.of(101L, entry(laptop)));
+            OrderDTO order = orderFor(quoteService.quote(quoteRequest));
+            order.getOrderItems().get(0).setQuantity(3);
+
+            assertThat(quoteService.applyQuote(order)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should reject a tampered token")
+        void applyQuote_TamperedToken_ReturnsFalse() {
+            when(catalogCache.getProducts(anyCollection())).thenReturn(Map.of(101L, entry(laptop)));
+            OrderDTO order = orderFor(quoteService.quote(quoteRequest));
+            String token = order.getQuoteToken();
+            order.setQuoteToken("x" + token.substring(1));
+
+            assertThat(quoteService.applyQuote(order)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should reject an expired token")
+        void applyQuote_ExpiredToken_ReturnsFalse() {
+            ReflectionTestUtils.setField(quoteService, "tokenTtl", Duration.ofSeconds(-5));
+            when(catalogCache.getProducts(anyCollection())).thenReturn(Map.of(101L, entry(laptop)));
+            OrderDTO order = orderFor(quoteService.quote(quoteRequest));
+
+            assertThat(quoteService.applyQuote(order)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should ignore orders without a quote token")
+        void applyQuote_NoToken_ReturnsFalse() {
+            OrderDTO order = OrderDTO.builder().customerId(500L).build();
+
+            assertThat(quoteService.applyQuote(order)).isFalse();
+            verify(catalogCache, never()).getProducts(any());
+            verify(catalogCache, never()).refreshProducts(any());
+        }
+    }
+}
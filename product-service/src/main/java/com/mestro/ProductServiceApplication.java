@@ -4,9 +4,11 @@ import com.mestro.common.config.CommonAutoConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @Import(CommonAutoConfiguration.class)
+@EnableScheduling
 public class ProductServiceApplication {
 
     public static void main(String[] args) {
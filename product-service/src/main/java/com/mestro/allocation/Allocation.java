@@ -0,0 +1,4 @@
+package com.mestro.allocation;
+
+/** Units to take from one stock location. */
+public record Allocation(StockLocation location, int quantity) {}
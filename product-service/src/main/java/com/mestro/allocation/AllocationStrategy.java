@@ -0,0 +1,39 @@
+package com.mestro.allocation;
+
+import com.mestro.enums.AllocationStrategyType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a quantity across stock locations. Implementations are Spring beans picked by
+ * {@link #type()}; adding a strategy means adding a bean and an {@link AllocationStrategyType}.
+ */
+public interface AllocationStrategy {
+
+    AllocationStrategyType type();
+
+    /**
+     * Plans the split. Callers guarantee that the locations hold at least {@code quantity} units in
+     * total; the returned allocations add up to exactly {@code quantity}.
+     *
+     * @param shipTo free-text shipping address, may be {@code null}
+     */
+    List<Allocation> allocate(List<StockLocation> locations, int quantity, String shipTo);
+
+    /** Takes as much as possible from each location in turn until the quantity is covered. */
+    static List<Allocation> fillInOrder(List<StockLocation> ordered, int quantity) {
+        List<Allocation> allocations = new ArrayList<>();
+        int remaining = quantity;
+        for (StockLocation location : ordered) {
+            if (remaining == 0) {
+                break;
+            }
+            int take = Math.min(location.available(), remaining);
+            if (take > 0) {
+                allocations.add(new Allocation(location, take));
+                remaining -= take;
+            }
+        }
+        return allocations;
+    }
+}
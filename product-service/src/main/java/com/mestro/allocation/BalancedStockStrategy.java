@@ -0,0 +1,68 @@
+package com.mestro.allocation;
+
+import com.mestro.enums.AllocationStrategyType;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.springframework.stereotype.Component;
+
+/**
+ * Levels stock across warehouses: finds the lowest stock level {@code L} such that taking every
+ * unit above {@code L} does not exceed the quantity, takes those, and spreads the few remaining
+ * units one each over the warehouses left at {@code L}.
+ */
+@Component
+public class BalancedStockStrategy implements AllocationStrategy {
+
+    @Override
+    public AllocationStrategyType type() {
+        return AllocationStrategyType.BALANCED;
+    }
+
+    @Override
+    public List<Allocation> allocate(List<StockLocation> locations, int quantity, String shipTo) {
+        List<StockLocation> ordered = locations.stream()
+                .sorted(Comparator.comparingInt(StockLocation::available)
+                        .reversed()
+                        .thenComparing(StockLocation::inventoryId))
+                .toList();
+
+        // Smallest level whose surplus fits in the quantity; surplus shrinks as the level rises
+        int low = 0;
+        int high = ordered.isEmpty() ? 0 : ordered.get(0).available();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (surplusAbove(ordered, mid) <= quantity) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        int level = low;
+        long remainder = quantity - surplusAbove(ordered, level);
+
+        List<Allocation> allocations = new ArrayList<>();
+        for (StockLocation location : ordered) {
+            int take = Math.max(0, location.available() - level);
+            if (remainder > 0 && location.available() >= level && level > 0) {
+                take++;
+                remainder--;
+            }
+            if (take > 0) {
+                allocations.add(new Allocation(location, take));
+            }
+        }
+        return allocations;
+    }
+
+    private static long surplusAbove(List<StockLocation> ordered, int level) {
+        long surplus = 0;
+        for (StockLocation location : ordered) {
+            if (location.available() <= level) {
+                break;
+            }
+            surplus += location.available() - level;
+        }
+        return surplus;
+    }
+}
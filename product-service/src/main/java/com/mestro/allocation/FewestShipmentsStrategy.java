@@ -0,0 +1,33 @@
+package com.mestro.allocation;
+
+import com.mestro.enums.AllocationStrategyType;
+import java.util.Comparator;
+import java.util.List;
+import org.springframework.stereotype.Component;
+
+/**
+ * Uses a single warehouse whenever one can cover the quantity, choosing the one with the least
+ * stock that still suffices so large stocks stay available for large orders. Otherwise takes from
+ * the best-stocked warehouses first, which needs the fewest of them.
+ */
+@Component
+public class FewestShipmentsStrategy implements AllocationStrategy {
+
+    private static final Comparator<StockLocation> MOST_STOCK_FIRST =
+            Comparator.comparingInt(StockLocation::available).reversed().thenComparing(StockLocation::inventoryId);
+
+    @Override
+    public AllocationStrategyType type() {
+        return AllocationStrategyType.FEWEST_SHIPMENTS;
+    }
+
+    @Override
+    public List<Allocation> allocate(List<StockLocation> locations, int quantity, String shipTo) {
+        return locations.stream()
+                .filter(location -> location.available() >= quantity)
+                .min(Comparator.comparingInt(StockLocation::available).thenComparing(StockLocation::inventoryId))
+                .map(location -> List.of(new Allocation(location, quantity)))
+                .orElseGet(() -> AllocationStrategy.fillInOrder(
+                        locations.stream().sorted(MOST_STOCK_FIRST).toList(), quantity));
+    }
+}
@@ -0,0 +1,61 @@
+package com.mestro.allocation;
+
+import com.mestro.enums.AllocationStrategyType;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ranks warehouses by how much of their location appears in the free-text shipping address: same
+ * city first, then same state, then same country, then the rest. Within a rank the best-stocked
+ * warehouse comes first so the order ships from as few of them as possible.
+ */
+@Component
+public class NearestWarehouseStrategy implements AllocationStrategy {
+
+    private static final int SAME_CITY = 0;
+    private static final int SAME_STATE = 1;
+    private static final int SAME_COUNTRY = 2;
+    private static final int ELSEWHERE = 3;
+
+    @Override
+    public AllocationStrategyType type() {
+        return AllocationStrategyType.NEAREST;
+    }
+
+    @Override
+    public List<Allocation> allocate(List<StockLocation> locations, int quantity, String shipTo) {
+        Comparator<StockLocation> nearestFirst = Comparator.<StockLocation>comparingInt(
+                        location -> distanceRank(location, shipTo))
+                .thenComparing(Comparator.comparingInt(StockLocation::available).reversed())
+                .thenComparing(StockLocation::inventoryId);
+        return AllocationStrategy.fillInOrder(
+                locations.stream().sorted(nearestFirst).toList(), quantity);
+    }
+
+    static int distanceRank(StockLocation location, String shipTo) {
+        if (shipTo == null || shipTo.isBlank()) {
+            return ELSEWHERE;
+        }
+        if (mentions(shipTo, location.city())) {
+            return SAME_CITY;
+        }
+        if (mentions(shipTo, location.state())) {
+            return SAME_STATE;
+        }
+        if (mentions(shipTo, location.country())) {
+            return SAME_COUNTRY;
+        }
+        return ELSEWHERE;
+    }
+
+    private static boolean mentions(String address, String place) {
+        if (place == null || place.isBlank()) {
+            return false;
+        }
+        return Pattern.compile("\\b" + Pattern.quote(place.trim()) + "\\b", Pattern.CASE_INSENSITIVE)
+                .matcher(address)
+                .find();
+    }
+}
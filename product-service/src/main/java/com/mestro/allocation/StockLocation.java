@@ -0,0 +1,5 @@
+package com.mestro.allocation;
+
+/** Available stock of one inventory row, with the location of its warehouse (all {@code null} if it has none). */
+public record StockLocation(
+        Long inventoryId, Long warehouseId, String city, String state, String country, int available) {}
@@ -0,0 +1,81 @@
+package com.mestro.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.access.AccessType;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+/**
+ * Hibernate second-level cache held in this JVM, one {@link BoundedStorageAccess} per region.
+ * <p>
+ * Entity and query result regions are bounded by {@code maxEntriesByRegion}, falling back to
+ * {@code defaultMaxEntries}. The update timestamps region is never bounded: losing the timestamp of
+ * a table would make cached query results over it look current. Hibernate keeps the regions
+ * consistent with writes made through it on this instance; writes made elsewhere have to be evicted
+ * explicitly.
+ */
+public class BoundedRegionFactory extends RegionFactoryTemplate {
+
+    private final int defaultMaxEntries;
+    private final Map<String, Integer> maxEntriesByRegion;
+    private final Map<String, BoundedStorageAccess> regions = new ConcurrentHashMap<>();
+
+    public BoundedRegionFactory(int defaultMaxEntries, Map<String, Integer> maxEntriesByRegion) {
+        this.defaultMaxEntries = defaultMaxEntries;
+        this.maxEntriesByRegion = Map.copyOf(maxEntriesByRegion);
+    }
+
+    /** The regions built so far, for statistics. */
+    public List<BoundedStorageAccess> getRegions() {
+        return List.copyOf(regions.values());
+    }
+
+    @Override
+    public AccessType getDefaultAccessType() {
+        return AccessType.READ_WRITE;
+    }
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+        // Regions are created as Hibernate asks for them
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        regions.values().forEach(BoundedStorageAccess::release);
+        regions.clear();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(
+            DomainDataRegionConfig regionConfig, DomainDataRegionBuildingContext buildingContext) {
+        return region(regionConfig.getRegionName(), maxEntries(regionConfig.getRegionName()));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(
+            String regionName, SessionFactoryImplementor sessionFactory) {
+        return region(regionName, maxEntries(regionName));
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(
+            String regionName, SessionFactoryImplementor sessionFactory) {
+        return region(regionName, Integer.MAX_VALUE);
+    }
+
+    private int maxEntries(String regionName) {
+        return maxEntriesByRegion.getOrDefault(regionName, defaultMaxEntries);
+    }
+
+    private BoundedStorageAccess region(String regionName, int maxEntries) {
+        return regions.computeIfAbsent(regionName, name -> new BoundedStorageAccess(name, maxEntries));
+    }
+}
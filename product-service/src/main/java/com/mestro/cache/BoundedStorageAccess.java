@@ -0,0 +1,113 @@
+package com.mestro.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+/**
+ * Storage of one second-level cache region: a concurrent map holding at most {@code maxEntries}
+ * entries, with hit, miss, put and eviction counters.
+ * <p>
+ * Reads take no lock. A put that takes the region over its bound removes entries in iteration
+ * order until it is back at 90% of the bound; iteration order is hash order, so the entries dropped
+ * are effectively random.
+ */
+public final class BoundedStorageAccess implements DomainDataStorageAccess {
+
+    private final String regionName;
+    private final int maxEntries;
+    private final Map<Object, Object> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedStorageAccess(String regionName, int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Region " + regionName + " must hold at least one entry");
+        }
+        this.regionName = regionName;
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+        Object value = entries.get(key);
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return value;
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+        puts.increment();
+        if (entries.put(key, value) == null && entries.size() > maxEntries) {
+            shrink();
+        }
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        return entries.containsKey(key);
+    }
+
+    @Override
+    public void evictData() {
+        entries.clear();
+    }
+
+    @Override
+    public void evictData(Object key) {
+        entries.remove(key);
+    }
+
+    @Override
+    public void release() {
+        entries.clear();
+    }
+
+    public String getRegionName() {
+        return regionName;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getPuts() {
+        return puts.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private void shrink() {
+        int target = maxEntries - maxEntries / 10;
+        Iterator<Object> keys = entries.keySet().iterator();
+        while (entries.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.mestro.cache;
+
+/**
+ * A cached entity, or all cached entities of a type, changed on one instance and must be dropped
+ * from the second-level cache of the others.
+ *
+ * @param entityName fully qualified entity class name
+ * @param id the entity's ID, or {@code null} for every entity of the type
+ */
+public record CacheInvalidation(String entityName, Long id) {}
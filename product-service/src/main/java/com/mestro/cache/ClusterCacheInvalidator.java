@@ -0,0 +1,15 @@
+package com.mestro.cache;
+
+/**
+ * Transport for second-level cache invalidations between instances of the service.
+ * <p>
+ * Without a bean of this type the cache is kept consistent with this instance's writes only, which
+ * is enough for a single instance. A transport (a message topic, a database notification channel)
+ * sends each invalidation to the other instances and passes the ones it receives to
+ * {@code SecondLevelCacheService.receive}.
+ */
+public interface ClusterCacheInvalidator {
+
+    /** Called after the local write has committed. Must not block on the other instances. */
+    void send(CacheInvalidation invalidation);
+}
@@ -0,0 +1,49 @@
+package com.mestro.config;
+
+import com.mestro.cache.BoundedRegionFactory;
+import java.util.Map;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Second-level cache for categories, warehouses and products, and for the query results marked
+ * cacheable in their repositories.
+ */
+@Configuration
+public class CacheConfig {
+
+    public static final String CATEGORY_REGION = "categories";
+    public static final String WAREHOUSE_REGION = "warehouses";
+    public static final String PRODUCT_REGION = "products";
+
+    @Value("${product.cache.max-entries.categories:10000}")
+    private int maxCategories;
+
+    @Value("${product.cache.max-entries.warehouses:1000}")
+    private int maxWarehouses;
+
+    @Value("${product.cache.max-entries.products:50000}")
+    private int maxProducts;
+
+    @Value("${product.cache.max-entries.query-results:10000}")
+    private int maxQueryResults;
+
+    @Bean
+    public BoundedRegionFactory boundedRegionFactory() {
+        return new BoundedRegionFactory(
+                maxQueryResults,
+                Map.of(CATEGORY_REGION, maxCategories, WAREHOUSE_REGION, maxWarehouses, PRODUCT_REGION, maxProducts));
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCache(BoundedRegionFactory regionFactory) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, regionFactory);
+        };
+    }
+}
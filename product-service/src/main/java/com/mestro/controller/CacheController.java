@@ -0,0 +1,33 @@
+package com.mestro.controller;
+
+import com.mestro.common.dto.ApiResponse;
+import com.mestro.dto.CacheRegionStatsDTO;
+import com.mestro.service.SecondLevelCacheService;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/cache/regions")
+@RequiredArgsConstructor
+@Slf4j
+public class CacheController {
+
+    private final SecondLevelCacheService secondLevelCacheService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<CacheRegionStatsDTO>>> getRegionStatistics() {
+        log.info("REST request to get second-level cache statistics");
+        List<CacheRegionStatsDTO> regions = secondLevelCacheService.getRegionStatistics();
+        return ResponseEntity.ok(ApiResponse.success("Cache statistics retrieved successfully", regions));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<ApiResponse<Void>> clear() {
+        log.info("REST request to clear the second-level cache");
+        secondLevelCacheService.clear();
+        return ResponseEntity.ok(ApiResponse.success("Cache cleared successfully", null));
+    }
+}
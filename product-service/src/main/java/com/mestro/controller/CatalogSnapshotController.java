@@ -0,0 +1,82 @@
+package com.mestro.controller;
+
+import com.mestro.common.dto.ApiResponse;
+import com.mestro.dto.CatalogDeltaDTO;
+import com.mestro.dto.CatalogSnapshotDTO;
+import com.mestro.service.CatalogSnapshotService;
+import java.time.Duration;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Catalog snapshot files are served as plain resources, so Spring answers {@code Range} requests
+ * with {@code 206 Partial Content} and clients can fetch individual column blocks.
+ */
+@RestController
+@RequestMapping("/api/v1/catalog/snapshots")
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogSnapshotController {
+
+    static final String VERSION_HEADER = "X-Snapshot-Version";
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<CatalogSnapshotDTO>>> getSnapshots() {
+        log.info("REST request to list catalog snapshots");
+        List<CatalogSnapshotDTO> snapshots = catalogSnapshotService.listSnapshots();
+        return ResponseEntity.ok(ApiResponse.success("Catalog snapshots retrieved successfully", snapshots));
+    }
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<CatalogSnapshotDTO>> generateSnapshot() {
+        log.info("REST request to generate a catalog snapshot");
+        CatalogSnapshotDTO snapshot = catalogSnapshotService.generate();
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Catalog snapshot generated successfully", snapshot));
+    }
+
+    @GetMapping("/latest")
+    public ResponseEntity<Resource> getLatestSnapshot(WebRequest request) {
+        log.info("REST request to download the latest catalog snapshot");
+        return download(catalogSnapshotService.getLatestVersion(), CacheControl.noCache(), request);
+    }
+
+    @GetMapping("/{version:\\d+}")
+    public ResponseEntity<Resource> getSnapshot(@PathVariable long version, WebRequest request) {
+        log.info("REST request to download catalog snapshot: {}", version);
+        // A version's content never changes
+        return download(version, CacheControl.maxAge(Duration.ofDays(365)).immutable(), request);
+    }
+
+    @GetMapping("/delta")
+    public ResponseEntity<ApiResponse<CatalogDeltaDTO>> getDelta(@RequestParam long from, @RequestParam long to) {
+        log.info("REST request to get catalog delta from {} to {}", from, to);
+        CatalogDeltaDTO delta = catalogSnapshotService.getDelta(from, to);
+        return ResponseEntity.ok(ApiResponse.success("Catalog delta retrieved successfully", delta));
+    }
+
+    private ResponseEntity<Resource> download(long version, CacheControl cacheControl, WebRequest request) {
+        Resource resource = new FileSystemResource(catalogSnapshotService.getSnapshotPath(version));
+        String eTag = "\"catalog-" + version + "\"";
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .eTag(eTag)
+                .cacheControl(cacheControl)
+                .header(VERSION_HEADER, String.valueOf(version))
+                .body(resource);
+    }
+}
@@ -1,8 +1,11 @@
 package com.mestro.controller;
 
 import com.mestro.common.dto.ApiResponse;
+import com.mestro.common.dto.CursorPageResponseDTO;
 import com.mestro.dto.CategoryDTO;
+import com.mestro.dto.CategoryTreeNodeDTO;
 import com.mestro.service.CategoryService;
+import com.mestro.service.CategoryTreeService;
 import jakarta.validation.Valid;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
@@ -10,6 +13,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/v1/categories")
@@ -18,6 +22,7 @@ import org.springframework.web.bind.annotation.*;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CategoryTreeService categoryTreeService;
 
     @PostMapping
     public ResponseEntity<ApiResponse<CategoryDTO>> createCategory(@Valid @RequestBody CategoryDTO categoryDTO) {
@@ -28,22 +33,34 @@ public class CategoryController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<CategoryDTO>> getCategoryById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<CategoryDTO>> getCategoryById(@PathVariable Long id, WebRequest request) {
         log.info("REST request to get category by ID: {}", id);
+        if (categoryService.getCategoryVersion(id).checkNotModified(request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         CategoryDTO category = categoryService.getCategoryById(id);
         return ResponseEntity.ok(ApiResponse.success("Category retrieved successfully", category));
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<CategoryDTO>>> getAllCategories() {
+    public ResponseEntity<ApiResponse<CursorPageResponseDTO<CategoryDTO>>> getAllCategories(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "100") int size,
+            WebRequest request) {
         log.info("REST request to get all categories");
-        List<CategoryDTO> categories = categoryService.getAllCategories();
+        if (categoryService.getCategoriesVersion().checkNotModified(request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        CursorPageResponseDTO<CategoryDTO> categories = categoryService.getAllCategories(afterId, size);
         return ResponseEntity.ok(ApiResponse.success("Categories retrieved successfully", categories));
     }
 
     @GetMapping("/active")
-    public ResponseEntity<ApiResponse<List<CategoryDTO>>> getActiveCategories() {
+    public ResponseEntity<ApiResponse<List<CategoryDTO>>> getActiveCategories(WebRequest request) {
         log.info("REST request to get active categories");
+        if (categoryService.getCategoriesVersion().checkNotModified(request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         List<CategoryDTO> categories = categoryService.getActiveCategories();
         return ResponseEntity.ok(ApiResponse.success("Active categories retrieved successfully", categories));
     }
@@ -55,6 +72,31 @@ public class CategoryController {
         return ResponseEntity.ok(ApiResponse.success("Subcategories retrieved successfully", subcategories));
     }
 
+    @GetMapping("/tree")
+    public ResponseEntity<ApiResponse<List<CategoryTreeNodeDTO>>> getCategoryTree(
+            @RequestParam(defaultValue = "false") boolean activeOnly, WebRequest request) {
+        log.info("REST request to get category tree, active only: {}", activeOnly);
+        if (categoryService.getCategoriesVersion().checkNotModified(request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        List<CategoryTreeNodeDTO> tree = categoryTreeService.getFullTree(activeOnly);
+        return ResponseEntity.ok(ApiResponse.success("Category tree retrieved successfully", tree));
+    }
+
+    @GetMapping("/{id}/breadcrumbs")
+    public ResponseEntity<ApiResponse<List<CategoryTreeNodeDTO>>> getBreadcrumbs(@PathVariable Long id) {
+        log.info("REST request to get breadcrumbs for category ID: {}", id);
+        List<CategoryTreeNodeDTO> breadcrumbs = categoryTreeService.getBreadcrumbs(id);
+        return ResponseEntity.ok(ApiResponse.success("Breadcrumbs retrieved successfully", breadcrumbs));
+    }
+
+    @GetMapping("/{id}/descendants")
+    public ResponseEntity<ApiResponse<List<Long>>> getDescendantIds(@PathVariable Long id) {
+        log.info("REST request to get descendant IDs for category ID: {}", id);
+        List<Long> ids = categoryTreeService.getSubtreeIds(id);
+        return ResponseEntity.ok(ApiResponse.success("Descendant categories retrieved successfully", ids));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<CategoryDTO>> updateCategory(
             @PathVariable Long id, @Valid @RequestBody CategoryDTO categoryDTO) {
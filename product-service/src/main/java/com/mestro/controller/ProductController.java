@@ -1,17 +1,29 @@
 package com.mestro.controller;
 
 import com.mestro.common.dto.ApiResponse;
+import com.mestro.common.dto.CursorPageResponseDTO;
 import com.mestro.common.dto.PageResponseDTO;
+import com.mestro.dto.BulkUpsertResultDTO;
+import com.mestro.dto.FacetedProductsDTO;
 import com.mestro.dto.ProductDTO;
+import com.mestro.enums.PriceBand;
+import com.mestro.service.ProductBulkUpsertService;
+import com.mestro.service.ProductFeedReader;
 import com.mestro.service.ProductService;
 import jakarta.validation.Valid;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/v1/products")
@@ -20,6 +32,7 @@ import org.springframework.web.bind.annotation.*;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductBulkUpsertService productBulkUpsertService;
 
     @PostMapping
     public ResponseEntity<ApiResponse<ProductDTO>> createProduct(@Valid @RequestBody ProductDTO productDTO) {
@@ -29,13 +42,35 @@ public class ProductController {
                 .body(ApiResponse.success("Product created successfully", createdProduct));
     }
 
+    @PostMapping(
+            value = "/bulk",
+            consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<ApiResponse<BulkUpsertResultDTO>> bulkUpsertProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream feed) {
+        log.info("REST request to bulk upsert products from {} feed", contentType);
+        BulkUpsertResultDTO result =
+                productBulkUpsertService.upsert(feed, ProductFeedReader.Format.fromContentType(contentType));
+        return ResponseEntity.ok(ApiResponse.success("Bulk upsert completed", result));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<ProductDTO>> getProductById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<ProductDTO>> getProductById(@PathVariable Long id, WebRequest request) {
         log.info("REST request to get product by ID: {}", id);
+        if (productService.getProductVersion(id).checkNotModified(request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         ProductDTO product = productService.getProductById(id);
         return ResponseEntity.ok(ApiResponse.success("Product retrieved successfully", product));
     }
 
+    @GetMapping("/batch")
+    public ResponseEntity<ApiResponse<List<ProductDTO>>> getProductsByIds(
+            @RequestParam List<Long> ids, @RequestParam(required = false) Boolean inStock) {
+        log.info("REST request to get products by IDs: {}", ids);
+        List<ProductDTO> products = productService.getProductsByIds(ids, inStock);
+        return ResponseEntity.ok(ApiResponse.success("Products retrieved successfully", products));
+    }
+
     @GetMapping("/sku/{sku}")
     public ResponseEntity<ApiResponse<ProductDTO>> getProductBySku(@PathVariable String sku) {
         log.info("REST request to get product by SKU: {}", sku);
@@ -51,26 +86,70 @@ public class ProductController {
     }
 
     @GetMapping("/active")
-    public ResponseEntity<ApiResponse<List<ProductDTO>>> getActiveProducts() {
+    public ResponseEntity<ApiResponse<CursorPageResponseDTO<ProductDTO>>> getActiveProducts(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "100") int size,
+            @RequestParam(required = false) Boolean inStock) {
         log.info("REST request to get active products");
-        List<ProductDTO> products = productService.getActiveProducts();
+        CursorPageResponseDTO<ProductDTO> products = productService.getActiveProducts(afterId, size, inStock);
         return ResponseEntity.ok(ApiResponse.success("Active products retrieved successfully", products));
     }
 
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<ApiResponse<List<ProductDTO>>> getProductsByCategory(@PathVariable Long categoryId) {
+    public ResponseEntity<ApiResponse<CursorPageResponseDTO<ProductDTO>>> getProductsByCategory(
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "100") int size,
+            @RequestParam(required = false) Boolean inStock) {
         log.info("REST request to get products by category ID: {}", categoryId);
-        List<ProductDTO> products = productService.getProductsByCategory(categoryId);
+        CursorPageResponseDTO<ProductDTO> products =
+                productService.getProductsByCategory(categoryId, afterId, size, inStock);
+        return ResponseEntity.ok(ApiResponse.success("Products retrieved successfully", products));
+    }
+
+    @GetMapping("/category/{categoryId}/subtree")
+    public ResponseEntity<ApiResponse<PageResponseDTO<ProductDTO>>> getProductsInSubtree(
+            @PathVariable Long categoryId, Pageable pageable) {
+        log.info("REST request to get products in subtree of category ID: {}", categoryId);
+        PageResponseDTO<ProductDTO> products = productService.getProductsInSubtree(categoryId, pageable);
+        return ResponseEntity.ok(ApiResponse.success("Products retrieved successfully", products));
+    }
+
+    @GetMapping("/price-range")
+    public ResponseEntity<ApiResponse<PageResponseDTO<ProductDTO>>> getProductsByEffectivePrice(
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @PageableDefault(size = 20, sort = "effectivePrice") Pageable pageable) {
+        log.info("REST request to get products with effective price between {} and {}", minPrice, maxPrice);
+        PageResponseDTO<ProductDTO> products = productService.getProductsByEffectivePrice(minPrice, maxPrice, pageable);
         return ResponseEntity.ok(ApiResponse.success("Products retrieved successfully", products));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<List<ProductDTO>>> searchProducts(@RequestParam String keyword) {
+    public ResponseEntity<ApiResponse<PageResponseDTO<ProductDTO>>> searchProducts(
+            @RequestParam String keyword, @RequestParam(required = false) Boolean inStock, Pageable pageable) {
         log.info("REST request to search products with keyword: {}", keyword);
-        List<ProductDTO> products = productService.searchProducts(keyword);
+        PageResponseDTO<ProductDTO> products = productService.searchProducts(keyword, inStock, pageable);
         return ResponseEntity.ok(ApiResponse.success("Products search completed successfully", products));
     }
 
+    @GetMapping("/browse")
+    public ResponseEntity<ApiResponse<FacetedProductsDTO>> browseProducts(
+            @RequestParam(required = false) Set<String> brand,
+            @RequestParam(required = false) Set<Long> categoryId,
+            @RequestParam(required = false) Set<PriceBand> priceBand,
+            @RequestParam(required = false) Boolean inStock,
+            Pageable pageable) {
+        log.info(
+                "REST request to browse products - brands: {}, categories: {}, price bands: {}, in stock: {}",
+                brand,
+                categoryId,
+                priceBand,
+                inStock);
+        FacetedProductsDTO products = productService.browseProducts(brand, categoryId, priceBand, inStock, pageable);
+        return ResponseEntity.ok(ApiResponse.success("Products retrieved successfully", products));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<ProductDTO>> updateProduct(
             @PathVariable Long id, @Valid @RequestBody ProductDTO productDTO) {
@@ -1,15 +1,43 @@
 package com.mestro.controller;
 
 import com.mestro.common.dto.ApiResponse;
+import com.mestro.common.dto.CursorPageResponseDTO;
+import com.mestro.common.dto.PageResponseDTO;
+import com.mestro.dto.HotStockDTO;
+import com.mestro.dto.InventoryAllocationDTO;
+import com.mestro.dto.InventoryBalanceDTO;
+import com.mestro.dto.InventoryMovementDTO;
+import com.mestro.dto.InventoryTransferDTO;
+import com.mestro.dto.InventoryTransferResultDTO;
+import com.mestro.dto.NearestWarehouseDTO;
+import com.mestro.dto.ProductAvailabilityDTO;
 import com.mestro.dto.ProductInventoryDTO;
+import com.mestro.enums.AllocationStrategyType;
+import com.mestro.search.InStockBitmap;
+import com.mestro.service.HotStockService;
+import com.mestro.service.InStockIndexService;
+import com.mestro.service.InventoryLedgerService;
+import com.mestro.service.InventoryTransferService;
+import com.mestro.service.LowStockEventService;
+import com.mestro.service.ProductAvailabilityService;
 import com.mestro.service.ProductInventoryService;
+import com.mestro.service.WarehouseLocatorService;
 import jakarta.validation.Valid;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/v1/inventories")
@@ -17,7 +45,16 @@ import org.springframework.web.bind.annotation.*;
 @Slf4j
 public class ProductInventoryController {
 
+    static final String IN_STOCK_VERSION_HEADER = "X-In-Stock-Version";
+
     private final ProductInventoryService inventoryService;
+    private final InventoryLedgerService ledgerService;
+    private final LowStockEventService lowStockEventService;
+    private final ProductAvailabilityService availabilityService;
+    private final HotStockService hotStockService;
+    private final InStockIndexService inStockIndexService;
+    private final InventoryTransferService transferService;
+    private final WarehouseLocatorService warehouseLocatorService;
 
     @PostMapping
     public ResponseEntity<ApiResponse<ProductInventoryDTO>> createInventory(
@@ -28,6 +65,17 @@ public class ProductInventoryController {
                 .body(ApiResponse.success("Inventory created successfully", createdInventory));
     }
 
+    @PostMapping("/transfers")
+    public ResponseEntity<ApiResponse<InventoryTransferResultDTO>> transfer(
+            @Valid @RequestBody InventoryTransferDTO transferDTO) {
+        log.info(
+                "REST request to transfer {} lines between warehouses, reference: {}",
+                transferDTO.getLines().size(),
+                transferDTO.getReference());
+        InventoryTransferResultDTO result = transferService.transfer(transferDTO);
+        return ResponseEntity.ok(ApiResponse.success("Transfer completed", result));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<ProductInventoryDTO>> getInventoryById(@PathVariable Long id) {
         log.info("REST request to get inventory by ID: {}", id);
@@ -36,9 +84,10 @@ public class ProductInventoryController {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<ProductInventoryDTO>>> getAllInventories() {
+    public ResponseEntity<ApiResponse<CursorPageResponseDTO<ProductInventoryDTO>>> getAllInventories(
+            @RequestParam(required = false) Long afterId, @RequestParam(defaultValue = "100") int size) {
         log.info("REST request to get all inventories");
-        List<ProductInventoryDTO> inventories = inventoryService.getAllInventories();
+        CursorPageResponseDTO<ProductInventoryDTO> inventories = inventoryService.getAllInventories(afterId, size);
         return ResponseEntity.ok(ApiResponse.success("Inventories retrieved successfully", inventories));
     }
 
@@ -57,6 +106,15 @@ public class ProductInventoryController {
         return ResponseEntity.ok(ApiResponse.success("Low stock inventories retrieved successfully", inventories));
     }
 
+    /** Server-Sent Events of rows entering or leaving the low-stock set; resumes from Last-Event-ID. */
+    @GetMapping(value = "/low-stock/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLowStockEvents(
+            @RequestParam(required = false) Long warehouseId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.info("REST request to stream low stock events for warehouse ID: {}", warehouseId);
+        return lowStockEventService.subscribe(warehouseId, lastEventId);
+    }
+
     @GetMapping("/product/{productId}/total")
     public ResponseEntity<ApiResponse<Integer>> getTotalAvailableQuantity(@PathVariable Long productId) {
         log.info("REST request to get total available quantity for product ID: {}", productId);
@@ -64,6 +122,43 @@ public class ProductInventoryController {
         return ResponseEntity.ok(ApiResponse.success("Total quantity retrieved successfully", totalQuantity));
     }
 
+    @GetMapping("/product/{productId}/availability")
+    public ResponseEntity<ApiResponse<ProductAvailabilityDTO>> getAvailability(@PathVariable Long productId) {
+        log.info("REST request to get availability for product ID: {}", productId);
+        ProductAvailabilityDTO availability = availabilityService.getAvailability(productId);
+        return ResponseEntity.ok(ApiResponse.success("Availability retrieved successfully", availability));
+    }
+
+    @GetMapping("/availability")
+    public ResponseEntity<ApiResponse<List<ProductAvailabilityDTO>>> getAvailabilities(
+            @RequestParam List<Long> productIds) {
+        log.info("REST request to get availability for {} products", productIds.size());
+        List<ProductAvailabilityDTO> availabilities = availabilityService.getAvailabilities(productIds);
+        return ResponseEntity.ok(ApiResponse.success("Availability retrieved successfully", availabilities));
+    }
+
+    /**
+     * The in-stock bitmap in {@link java.util.BitSet#toByteArray()} layout: bit {@code n} is set if
+     * product {@code n} is in stock. Revalidate with {@code If-None-Match}. The ETag is derived from
+     * the bytes, so it stays valid across restarts and instances; the version header counts changes
+     * seen by this instance only.
+     */
+    @GetMapping(value = "/in-stock", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> getInStockBitmap(WebRequest request) {
+        log.info("REST request to download the in-stock bitmap");
+        InStockBitmap.Snapshot snapshot = inStockIndexService.getSnapshot();
+        String eTag = "\"in-stock-" + snapshot.digest() + "\"";
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .header(IN_STOCK_VERSION_HEADER, String.valueOf(snapshot.version()))
+                .body(snapshot.bytes());
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<ProductInventoryDTO>> updateInventory(
             @PathVariable Long id, @Valid @RequestBody ProductInventoryDTO inventoryDTO) {
@@ -90,62 +185,145 @@ public class ProductInventoryController {
 
     @PutMapping("/{id}/reserve")
     public ResponseEntity<ApiResponse<ProductInventoryDTO>> reserveQuantity(
-            @PathVariable Long id, @RequestParam Integer quantity) {
+            @PathVariable Long id, @RequestParam Integer quantity, @RequestParam(required = false) String reference) {
         log.info("REST request to reserve {} units from inventory ID: {}", quantity, id);
-        ProductInventoryDTO updatedInventory = inventoryService.reserveQuantity(id, quantity);
+        ProductInventoryDTO updatedInventory = inventoryService.reserveQuantity(id, quantity, reference);
         return ResponseEntity.ok(ApiResponse.success("Quantity reserved successfully", updatedInventory));
     }
 
     @PutMapping("/{id}/release")
     public ResponseEntity<ApiResponse<ProductInventoryDTO>> releaseReservedQuantity(
-            @PathVariable Long id, @RequestParam Integer quantity) {
+            @PathVariable Long id, @RequestParam Integer quantity, @RequestParam(required = false) String reference) {
         log.info("REST request to release {} reserved units from inventory ID: {}", quantity, id);
-        ProductInventoryDTO updatedInventory = inventoryService.releaseReservedQuantity(id, quantity);
+        ProductInventoryDTO updatedInventory = inventoryService.releaseReservedQuantity(id, quantity, reference);
         return ResponseEntity.ok(ApiResponse.success("Reserved quantity released successfully", updatedInventory));
     }
 
     @PutMapping("/product/{productId}/reserve")
     public ResponseEntity<ApiResponse<ProductInventoryDTO>> reserveByProductId(
-            @PathVariable Long productId, @RequestParam Integer quantity) {
+            @PathVariable Long productId,
+            @RequestParam Integer quantity,
+            @RequestParam(required = false) String reference) {
         log.info("REST request to reserve {} units for product ID: {}", quantity, productId);
-        ProductInventoryDTO updatedInventory = inventoryService.reserveByProductId(productId, quantity);
+        ProductInventoryDTO updatedInventory = inventoryService.reserveByProductId(productId, quantity, reference);
         return ResponseEntity.ok(ApiResponse.success("Quantity reserved successfully", updatedInventory));
     }
 
+    @GetMapping("/product/{productId}/nearest-warehouses")
+    public ResponseEntity<ApiResponse<List<NearestWarehouseDTO>>> getNearestStockedWarehouses(
+            @PathVariable Long productId,
+            @RequestParam double latitude,
+            @RequestParam double longitude,
+            @RequestParam(defaultValue = "1") int quantity,
+            @RequestParam(defaultValue = "5") int limit) {
+        log.info("REST request to get nearest warehouses stocking product ID: {}", productId);
+        List<NearestWarehouseDTO> warehouses =
+                warehouseLocatorService.findNearestStocked(productId, latitude, longitude, quantity, limit);
+        return ResponseEntity.ok(ApiResponse.success("Nearest warehouses retrieved successfully", warehouses));
+    }
+
+    @PutMapping("/product/{productId}/allocate")
+    public ResponseEntity<ApiResponse<InventoryAllocationDTO>> allocateByProductId(
+            @PathVariable Long productId,
+            @RequestParam Integer quantity,
+            @RequestParam(defaultValue = "FEWEST_SHIPMENTS") AllocationStrategyType strategy,
+            @RequestParam(required = false) String shipTo,
+            @RequestParam(required = false) String reference) {
+        log.info("REST request to allocate {} units for product ID: {} using {}", quantity, productId, strategy);
+        InventoryAllocationDTO allocation =
+                inventoryService.allocateByProductId(productId, quantity, strategy, shipTo, reference);
+        return ResponseEntity.ok(ApiResponse.success("Quantity allocated successfully", allocation));
+    }
+
     @PutMapping("/product/{productId}/warehouse/{warehouseId}/reserve")
     public ResponseEntity<ApiResponse<ProductInventoryDTO>> reserveByProductAndWarehouse(
-            @PathVariable Long productId, @PathVariable Long warehouseId, @RequestParam Integer quantity) {
+            @PathVariable Long productId,
+            @PathVariable Long warehouseId,
+            @RequestParam Integer quantity,
+            @RequestParam(required = false) String reference,
+            @RequestParam(required = false) Long customerId) {
         log.info(
                 "REST request to reserve {} units for product ID: {} at warehouse ID: {}",
                 quantity,
                 productId,
                 warehouseId);
         ProductInventoryDTO updatedInventory =
-                inventoryService.reserveByProductAndWarehouse(productId, warehouseId, quantity);
+                inventoryService.reserveByProductAndWarehouse(productId, warehouseId, quantity, reference, customerId);
         return ResponseEntity.ok(ApiResponse.success("Quantity reserved successfully", updatedInventory));
     }
 
     @PutMapping("/product/{productId}/release")
     public ResponseEntity<ApiResponse<ProductInventoryDTO>> releaseByProductId(
-            @PathVariable Long productId, @RequestParam Integer quantity) {
+            @PathVariable Long productId,
+            @RequestParam Integer quantity,
+            @RequestParam(required = false) String reference) {
         log.info("REST request to release {} reserved units for product ID: {}", quantity, productId);
-        ProductInventoryDTO updatedInventory = inventoryService.releaseByProductId(productId, quantity);
+        ProductInventoryDTO updatedInventory = inventoryService.releaseByProductId(productId, quantity, reference);
         return ResponseEntity.ok(ApiResponse.success("Reserved quantity released successfully", updatedInventory));
     }
 
     @PutMapping("/product/{productId}/warehouse/{warehouseId}/release")
     public ResponseEntity<ApiResponse<ProductInventoryDTO>> releaseByProductAndWarehouse(
-            @PathVariable Long productId, @PathVariable Long warehouseId, @RequestParam Integer quantity) {
+            @PathVariable Long productId,
+            @PathVariable Long warehouseId,
+            @RequestParam Integer quantity,
+            @RequestParam(required = false) String reference) {
         log.info(
                 "REST request to release {} reserved units for product ID: {} at warehouse ID: {}",
                 quantity,
                 productId,
                 warehouseId);
         ProductInventoryDTO updatedInventory =
-                inventoryService.releaseByProductAndWarehouse(productId, warehouseId, quantity);
+                inventoryService.releaseByProductAndWarehouse(productId, warehouseId, quantity, reference);
         return ResponseEntity.ok(ApiResponse.success("Reserved quantity released successfully", updatedInventory));
     }
 
+    @PutMapping("/release")
+    public ResponseEntity<ApiResponse<List<ProductInventoryDTO>>> releaseByReference(@RequestParam String reference) {
+        log.info("REST request to release reservations under reference: {}", reference);
+        List<ProductInventoryDTO> released = inventoryService.releaseByReference(reference);
+        return ResponseEntity.ok(ApiResponse.success("Reservations released successfully", released));
+    }
+
+    @GetMapping("/{id}/movements")
+    public ResponseEntity<ApiResponse<PageResponseDTO<InventoryMovementDTO>>> getMovements(
+            @PathVariable Long id, @PageableDefault(size = 50) Pageable pageable) {
+        log.info("REST request to get ledger movements for inventory ID: {}", id);
+        PageResponseDTO<InventoryMovementDTO> movements = ledgerService.getMovements(id, pageable);
+        return ResponseEntity.ok(ApiResponse.success("Inventory movements retrieved successfully", movements));
+    }
+
+    @GetMapping("/{id}/balance")
+    public ResponseEntity<ApiResponse<InventoryBalanceDTO>> getBalanceAt(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        log.info("REST request to get ledger balance for inventory ID: {} at {}", id, at);
+        InventoryBalanceDTO balance =
+                ledgerService.getBalanceAt(id, at != null ? at : LocalDateTime.now(ZoneId.of("UTC")));
+        return ResponseEntity.ok(ApiResponse.success("Inventory balance retrieved successfully", balance));
+    }
+
+    @GetMapping("/hot")
+    public ResponseEntity<ApiResponse<List<HotStockDTO>>> getHotInventories() {
+        log.info("REST request to get hot stock inventories");
+        List<HotStockDTO> hotInventories = hotStockService.getHotRows();
+        return ResponseEntity.ok(ApiResponse.success("Hot stock inventories retrieved successfully", hotInventories));
+    }
+
+    @PutMapping("/{id}/hot")
+    public ResponseEntity<ApiResponse<HotStockDTO>> promoteToHotStock(@PathVariable Long id) {
+        log.info("REST request to promote inventory ID: {} to hot stock", id);
+        HotStockDTO hotInventory = hotStockService.promote(id);
+        return ResponseEntity.ok(ApiResponse.success("Inventory promoted to hot stock successfully", hotInventory));
+    }
+
+    @DeleteMapping("/{id}/hot")
+    public ResponseEntity<ApiResponse<HotStockDTO>> demoteFromHotStock(@PathVariable Long id) {
+        log.info("REST request to demote inventory ID: {} from hot stock", id);
+        HotStockDTO hotInventory = hotStockService.demote(id);
+        return ResponseEntity.ok(ApiResponse.success("Inventory demotion from hot stock started", hotInventory));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Void>> deleteInventory(@PathVariable Long id) {
         log.info("REST request to delete inventory with ID: {}", id);
@@ -1,6 +1,7 @@
 package com.mestro.controller;
 
 import com.mestro.common.dto.ApiResponse;
+import com.mestro.common.dto.CursorPageResponseDTO;
 import com.mestro.dto.WarehouseDTO;
 import com.mestro.service.WarehouseService;
 import jakarta.validation.Valid;
@@ -10,6 +11,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/v1/warehouses")
@@ -28,22 +30,34 @@ public class WarehouseController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<WarehouseDTO>> getWarehouseById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<WarehouseDTO>> getWarehouseById(@PathVariable Long id, WebRequest request) {
         log.info("REST request to get warehouse by ID: {}", id);
+        if (warehouseService.getWarehouseVersion(id).checkNotModified(request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         WarehouseDTO warehouse = warehouseService.getWarehouseById(id);
         return ResponseEntity.ok(ApiResponse.success("Warehouse retrieved successfully", warehouse));
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<WarehouseDTO>>> getAllWarehouses() {
+    public ResponseEntity<ApiResponse<CursorPageResponseDTO<WarehouseDTO>>> getAllWarehouses(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "100") int size,
+            WebRequest request) {
         log.info("REST request to get all warehouses");
-        List<WarehouseDTO> warehouses = warehouseService.getAllWarehouses();
+        if (warehouseService.getWarehousesVersion().checkNotModified(request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        CursorPageResponseDTO<WarehouseDTO> warehouses = warehouseService.getAllWarehouses(afterId, size);
         return ResponseEntity.ok(ApiResponse.success("Warehouses retrieved successfully", warehouses));
     }
 
     @GetMapping("/active")
-    public ResponseEntity<ApiResponse<List<WarehouseDTO>>> getActiveWarehouses() {
+    public ResponseEntity<ApiResponse<List<WarehouseDTO>>> getActiveWarehouses(WebRequest request) {
         log.info("REST request to get active warehouses");
+        if (warehouseService.getWarehousesVersion().checkNotModified(request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         List<WarehouseDTO> warehouses = warehouseService.getActiveWarehouses();
         return ResponseEntity.ok(ApiResponse.success("Active warehouses retrieved successfully", warehouses));
     }
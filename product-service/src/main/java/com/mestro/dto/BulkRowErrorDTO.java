@@ -0,0 +1,19 @@
+package com.mestro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRowErrorDTO {
+    /** 1-based line number in the uploaded feed. */
+    private long line;
+
+    private String sku;
+
+    private String message;
+}
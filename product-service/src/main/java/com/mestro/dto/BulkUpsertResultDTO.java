@@ -0,0 +1,28 @@
+package com.mestro.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpsertResultDTO {
+    private long received;
+
+    private long created;
+
+    private long updated;
+
+    private long failed;
+
+    private long elapsedMillis;
+
+    private List<BulkRowErrorDTO> errors;
+
+    /** {@code true} when more rows failed than are listed in {@link #errors}. */
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,32 @@
+package com.mestro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Counters of one second-level cache region since startup. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheRegionStatsDTO {
+    private String region;
+
+    private Integer entries;
+
+    /** {@code null} for a region that is never bounded. */
+    private Integer maxEntries;
+
+    private Long hits;
+
+    private Long misses;
+
+    private Long puts;
+
+    /** Entries dropped to keep the region within its bound. */
+    private Long evictions;
+
+    /** Hits over lookups, or {@code null} before the first lookup. */
+    private Double hitRatio;
+}
@@ -0,0 +1,24 @@
+package com.mestro.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Changes that turn the catalog of one snapshot version into that of a later one. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogDeltaDTO {
+    private long fromVersion;
+
+    private long toVersion;
+
+    /** Products that are new or changed in {@code toVersion}. */
+    private List<CatalogEntryDTO> upserts;
+
+    /** Products that were deleted or deactivated since {@code fromVersion}. */
+    private List<Long> removedProductIds;
+}
@@ -0,0 +1,29 @@
+package com.mestro.dto;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** One active product as recorded in a catalog snapshot. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogEntryDTO {
+    private Long productId;
+
+    private String sku;
+
+    private String name;
+
+    private Long categoryId;
+
+    private BigDecimal price;
+
+    /** Unit price after discount and tax. */
+    private BigDecimal effectivePrice;
+
+    private Integer availableQuantity;
+}
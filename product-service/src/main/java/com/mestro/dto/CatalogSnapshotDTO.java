@@ -0,0 +1,21 @@
+package com.mestro.dto;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogSnapshotDTO {
+    private long version;
+
+    private Instant createdAt;
+
+    private int productCount;
+
+    private long sizeBytes;
+}
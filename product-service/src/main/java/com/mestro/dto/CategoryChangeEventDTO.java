@@ -0,0 +1,17 @@
+package com.mestro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Published by {@code CategoryService} whenever a category is created, updated or deleted. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryChangeEventDTO {
+    private Long categoryId;
+
+    private boolean deleted;
+}
@@ -0,0 +1,23 @@
+package com.mestro.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryTreeNodeDTO {
+    private Long id;
+
+    private Long parentCategoryId;
+
+    private String name;
+
+    private Boolean isActive;
+
+    private List<CategoryTreeNodeDTO> children;
+}
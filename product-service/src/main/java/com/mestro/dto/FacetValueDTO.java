@@ -0,0 +1,20 @@
+package com.mestro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetValueDTO {
+    private String value;
+
+    private String label;
+
+    private long count;
+
+    private boolean selected;
+}
@@ -0,0 +1,20 @@
+package com.mestro.dto;
+
+import com.mestro.common.dto.PageResponseDTO;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetedProductsDTO {
+    private PageResponseDTO<ProductDTO> products;
+
+    /** Facet name ({@code brand}, {@code category}, {@code priceBand}, {@code inStock}) to its values. */
+    private Map<String, List<FacetValueDTO>> facets;
+}
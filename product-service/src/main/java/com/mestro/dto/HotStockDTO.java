@@ -0,0 +1,33 @@
+package com.mestro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotStockDTO {
+    private Long inventoryId;
+
+    private Long productId;
+
+    private Long warehouseId;
+
+    /** Promoted by hand; automatic demotion leaves it alone. */
+    private Boolean pinned;
+
+    /** Demoted and waiting for its last changes to be written back before the allotment is returned. */
+    private Boolean draining;
+
+    /** Units left in the in-memory counter. */
+    private Integer allotted;
+
+    /** Net units reserved in memory and not yet written back to the row. */
+    private Integer pendingReserved;
+
+    /** Reservations per second on the row over the last evaluation window. */
+    private Double reservationRate;
+}
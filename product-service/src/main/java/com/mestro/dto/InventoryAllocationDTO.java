@@ -0,0 +1,22 @@
+package com.mestro.dto;
+
+import com.mestro.enums.AllocationStrategyType;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryAllocationDTO {
+    private Long productId;
+
+    private Integer quantity;
+
+    private AllocationStrategyType strategy;
+
+    private List<WarehouseAllocationDTO> allocations;
+}
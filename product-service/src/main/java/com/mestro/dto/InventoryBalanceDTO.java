@@ -0,0 +1,22 @@
+package com.mestro.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Balances of an inventory row as of a point in time, computed from the ledger. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryBalanceDTO {
+    private Long inventoryId;
+
+    private LocalDateTime at;
+
+    private Integer quantityAvailable;
+
+    private Integer quantityReserved;
+}
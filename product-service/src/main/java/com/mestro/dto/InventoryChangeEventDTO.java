@@ -0,0 +1,34 @@
+package com.mestro.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Published by {@code ProductInventoryService} whenever an inventory row is created, changed or deleted. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryChangeEventDTO {
+    private Long inventoryId;
+
+    private Long productId;
+
+    private Long warehouseId;
+
+    private Integer quantityAvailable;
+
+    private Integer quantityReserved;
+
+    private Integer reorderLevel;
+
+    /**
+     * When the change was made, taken while the row was locked by it, so later changes of a row
+     * carry later times. Lets listeners skip a change reported after a later one.
+     */
+    private LocalDateTime updatedAt;
+
+    private boolean deleted;
+}
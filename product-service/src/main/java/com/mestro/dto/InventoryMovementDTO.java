@@ -0,0 +1,32 @@
+package com.mestro.dto;
+
+import com.mestro.enums.InventoryMovementReason;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryMovementDTO {
+    private Long id;
+
+    private Long inventoryId;
+
+    private Long productId;
+
+    private Long warehouseId;
+
+    private Integer deltaAvailable;
+
+    private Integer deltaReserved;
+
+    private InventoryMovementReason reason;
+
+    private String reference;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,24 @@
+package com.mestro.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryTransferDTO {
+    /** Caller-supplied reference such as a rebalance run ID, recorded on every movement. */
+    @Size(max = 100, message = "Reference must not exceed 100 characters")
+    private String reference;
+
+    @NotEmpty(message = "At least one transfer line is required")
+    @Valid
+    private List<InventoryTransferLineDTO> lines;
+}
@@ -0,0 +1,19 @@
+package com.mestro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryTransferErrorDTO {
+    /** 1-based position of the line in the request. */
+    private long line;
+
+    private Long productId;
+
+    private String message;
+}
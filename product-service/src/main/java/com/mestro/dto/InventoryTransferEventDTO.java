@@ -0,0 +1,23 @@
+package com.mestro.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Published by {@code InventoryTransferService} once per transfer, in place of an
+ * {@link InventoryChangeEventDTO} per row: a transfer moves stock between rows of the same product,
+ * so product totals are unchanged and listeners that only follow those can skip it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryTransferEventDTO {
+    private String reference;
+
+    /** New state of every row the transfer changed or created. */
+    private List<InventoryChangeEventDTO> changes;
+}
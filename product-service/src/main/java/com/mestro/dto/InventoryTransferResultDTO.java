@@ -0,0 +1,29 @@
+package com.mestro.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryTransferResultDTO {
+    private long requested;
+
+    private long transferred;
+
+    private long failed;
+
+    /** Units moved by the transferred lines. */
+    private long quantityMoved;
+
+    private long elapsedMillis;
+
+    private List<InventoryTransferErrorDTO> errors;
+
+    /** {@code true} when more lines failed than are listed in {@link #errors}. */
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,30 @@
+package com.mestro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Published by {@code ProductInventoryService} when an inventory row enters or leaves the low-stock
+ * set, i.e. its available quantity crosses the reorder level.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LowStockEventDTO {
+    private Long inventoryId;
+
+    private Long productId;
+
+    private Long warehouseId;
+
+    private Integer quantityAvailable;
+
+    private Integer reorderLevel;
+
+    private boolean lowStock;
+
+    private boolean deleted;
+}
@@ -0,0 +1,31 @@
+package com.mestro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearestWarehouseDTO {
+    private Long warehouseId;
+
+    private String name;
+
+    private String city;
+
+    private String state;
+
+    private String country;
+
+    private Double latitude;
+
+    private Double longitude;
+
+    /** Great-circle distance from the requested location. */
+    private Double distanceKm;
+
+    private Integer quantityAvailable;
+}
@@ -0,0 +1,20 @@
+package com.mestro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductAvailabilityDTO {
+    private Long productId;
+
+    private Integer totalAvailable;
+
+    private Integer totalReserved;
+
+    private Integer warehousesInStock;
+}
@@ -0,0 +1,32 @@
+package com.mestro.dto;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Published by {@code ProductService} whenever a product is created, updated or deleted. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangeEventDTO {
+    private Long productId;
+
+    private String sku;
+
+    private String name;
+
+    private String brand;
+
+    private String description;
+
+    private Long categoryId;
+
+    private BigDecimal price;
+
+    private boolean active;
+
+    private boolean deleted;
+}
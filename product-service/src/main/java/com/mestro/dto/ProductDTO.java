@@ -47,6 +47,9 @@ public class ProductDTO {
     @DecimalMin(value = "0.00", message = "Tax rate cannot be negative")
     private BigDecimal taxRate;
 
+    /** Unit price after discount and tax; derived by the service, ignored on input. */
+    private BigDecimal effectivePrice;
+
     @DecimalMin(value = "0.00", message = "Weight cannot be negative")
     private BigDecimal weight;
 
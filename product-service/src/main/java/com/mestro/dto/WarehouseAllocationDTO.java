@@ -0,0 +1,24 @@
+package com.mestro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Units reserved from one inventory row as part of an allocation. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarehouseAllocationDTO {
+    private Long inventoryId;
+
+    private Long warehouseId;
+
+    private String warehouseName;
+
+    private Integer quantity;
+
+    /** Stock left available in the row after the reservation. */
+    private Integer quantityAvailable;
+}
@@ -0,0 +1,17 @@
+package com.mestro.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Published by {@code WarehouseService} whenever a warehouse is created, updated, toggled or deleted. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarehouseChangeEventDTO {
+    private Long warehouseId;
+
+    private boolean deleted;
+}
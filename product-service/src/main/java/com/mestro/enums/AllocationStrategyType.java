@@ -0,0 +1,11 @@
+package com.mestro.enums;
+
+/** How a product-level reservation is split across warehouses. */
+public enum AllocationStrategyType {
+    /** As few warehouses as possible; a single warehouse is the smallest one that can cover the quantity. */
+    FEWEST_SHIPMENTS,
+    /** Warehouses closest to the shipping address first: same city, then state, then country. */
+    NEAREST,
+    /** Draw from the best-stocked warehouses so the remaining stock is as even as possible. */
+    BALANCED
+}
@@ -0,0 +1,17 @@
+package com.mestro.enums;
+
+/** Why an inventory row's balances moved; recorded on every {@code InventoryMovement}. */
+public enum InventoryMovementReason {
+    /** Balances of a row that existed before the ledger, recorded once so its history adds up. */
+    OPENING,
+    CREATED,
+    UPDATED,
+    ADJUSTED,
+    RESERVED,
+    RELEASED,
+    DELETED,
+    /** Stock moved out of the row to another warehouse by a bulk transfer. */
+    TRANSFER_OUT,
+    /** Stock moved into the row from another warehouse by a bulk transfer. */
+    TRANSFER_IN
+}
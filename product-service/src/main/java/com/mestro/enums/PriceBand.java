@@ -0,0 +1,31 @@
+package com.mestro.enums;
+
+import java.math.BigDecimal;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/** Price ranges used for catalog facets. Lower bounds are inclusive, upper bounds exclusive. */
+@Getter
+@RequiredArgsConstructor
+public enum PriceBand {
+    UNDER_25("Under 25", null, new BigDecimal("25")),
+    FROM_25_TO_50("25 - 50", new BigDecimal("25"), new BigDecimal("50")),
+    FROM_50_TO_100("50 - 100", new BigDecimal("50"), new BigDecimal("100")),
+    FROM_100_TO_250("100 - 250", new BigDecimal("100"), new BigDecimal("250")),
+    FROM_250_TO_500("250 - 500", new BigDecimal("250"), new BigDecimal("500")),
+    FROM_500_TO_1000("500 - 1000", new BigDecimal("500"), new BigDecimal("1000")),
+    OVER_1000("1000 and over", new BigDecimal("1000"), null);
+
+    private final String label;
+    private final BigDecimal min;
+    private final BigDecimal max;
+
+    public static PriceBand of(BigDecimal price) {
+        for (PriceBand band : values()) {
+            if (band.max == null || price.compareTo(band.max) < 0) {
+                return band;
+            }
+        }
+        return OVER_1000;
+    }
+}
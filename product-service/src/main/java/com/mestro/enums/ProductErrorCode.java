@@ -18,10 +18,14 @@ public enum ProductErrorCode implements ErrorCode {
     INVENTORY_NOT_FOUND("INV_001", "Inventory not found"),
     INSUFFICIENT_STOCK("INV_002", "Insufficient stock"),
     INVALID_INVENTORY_DATA("INV_003", "Invalid inventory data"),
+    RESERVATION_QUEUE_FULL("INV_004", "Reservation queue full"),
+    RESERVATION_TIMED_OUT("INV_005", "Reservation not admitted in time"),
+    INVENTORY_ALREADY_EXISTS("INV_006", "Inventory already exists"),
     IMAGE_NOT_FOUND("IMG_001", "Image not found"),
     INVALID_IMAGE_DATA("IMG_002", "Invalid image data"),
     WAREHOUSE_NOT_FOUND("WHS_001", "Warehouse not found"),
-    WAREHOUSE_ALREADY_EXISTS("WHS_002", "Warehouse already exists");
+    WAREHOUSE_ALREADY_EXISTS("WHS_002", "Warehouse already exists"),
+    SNAPSHOT_NOT_FOUND("SNP_001", "Catalog snapshot not found");
 
     private final String code;
     private final String message;
@@ -0,0 +1,12 @@
+package com.mestro.hotstock;
+
+/**
+ * Net units reserved on one hot inventory row since its last write-back; negative when more were
+ * released than reserved. {@code lastSequence} is the last journal entry folded into it.
+ */
+public record HotStockDelta(long inventoryId, int delta, long lastSequence) {
+
+    public HotStockDelta plus(HotStockDelta other) {
+        return new HotStockDelta(inventoryId, delta + other.delta, Math.max(lastSequence, other.lastSequence));
+    }
+}
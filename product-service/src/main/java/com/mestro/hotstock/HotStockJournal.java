@@ -0,0 +1,201 @@
+package com.mestro.hotstock;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Append-only journal of hot stock changes, written with group commit.
+ * <p>
+ * {@link #append} queues an entry and returns a future that completes once the entry is on disk.
+ * A single writer thread takes everything queued, numbers it, writes it in one call and forces
+ * the file, so a burst of reservations shares one fsync. Entries are handed to the listener after
+ * they are durable and before their futures complete.
+ * <p>
+ * Each entry is 20 bytes, big-endian: {@code long sequence, long inventory ID, int delta}. A torn
+ * entry at the end of the file is ignored when reading.
+ */
+public final class HotStockJournal implements Closeable {
+
+    static final int ENTRY_BYTES = 20;
+    private static final int MAX_BATCH = 4096;
+
+    public record Entry(long sequence, long inventoryId, int delta) {}
+
+    private record Append(long inventoryId, int delta, CompletableFuture<Void> durable) {}
+
+    private final FileChannel channel;
+    private final Consumer<List<Entry>> listener;
+    private final BlockingQueue<Append> queue = new LinkedBlockingQueue<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Thread writer;
+    private volatile boolean open = true;
+    private volatile boolean failed;
+    private long sequence;
+
+    private HotStockJournal(FileChannel channel, long lastSequence, Consumer<List<Entry>> listener) {
+        this.channel = channel;
+        this.sequence = lastSequence;
+        this.listener = listener;
+        this.writer = new Thread(this::run, "hot-stock-journal");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /** Opens the journal for appending; new entries are numbered from {@code lastSequence + 1}. */
+    public static HotStockJournal open(Path path, long lastSequence, Consumer<List<Entry>> listener)
+            throws IOException {
+        FileChannel channel =
+                FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return new HotStockJournal(channel, lastSequence, listener);
+    }
+
+    /** All complete entries in the file, oldest first. */
+    public static List<Entry> read(Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return List.of();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        List<Entry> entries = new ArrayList<>(buffer.remaining() / ENTRY_BYTES);
+        while (buffer.remaining() >= ENTRY_BYTES) {
+            entries.add(new Entry(buffer.getLong(), buffer.getLong(), buffer.getInt()));
+        }
+        return entries;
+    }
+
+    public CompletableFuture<Void> append(long inventoryId, int delta) {
+        Append append = new Append(inventoryId, delta, new CompletableFuture<>());
+        queue.add(append);
+        if ((!open || failed) && queue.remove(append)) {
+            append.durable.completeExceptionally(new IllegalStateException("Hot stock journal is closed"));
+        }
+        return append.durable;
+    }
+
+    /** Sequence of the last entry written. */
+    public long lastSequence() {
+        writeLock.lock();
+        try {
+            return sequence;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Empties the file if {@code condition} holds. The condition is checked while no batch is being
+     * written, so every entry already handed to the listener is visible to it.
+     */
+    public boolean truncateIf(BooleanSupplier condition) {
+        writeLock.lock();
+        try {
+            if (channel.size() == 0 || !condition.getAsBoolean()) {
+                return false;
+            }
+            channel.truncate(0);
+            channel.force(true);
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to truncate hot stock journal", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Writes what is already queued, then stops; later appends fail. */
+    @Override
+    public void close() throws IOException {
+        open = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Append append;
+        while ((append = queue.poll()) != null) {
+            append.durable.completeExceptionally(new IllegalStateException("Hot stock journal is closed"));
+        }
+        channel.close();
+    }
+
+    private void run() {
+        List<Append> batch = new ArrayList<>();
+        while (open || !queue.isEmpty()) {
+            try {
+                Append first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Append> batch) {
+        if (failed) {
+            batch.forEach(append -> append.durable()
+                    .completeExceptionally(
+                            new IllegalStateException("Hot stock journal failed and no longer accepts entries")));
+            return;
+        }
+        writeLock.lock();
+        long start = -1;
+        try {
+            start = channel.size();
+            ByteBuffer buffer = ByteBuffer.allocate(batch.size() * ENTRY_BYTES);
+            List<Entry> entries = new ArrayList<>(batch.size());
+            long next = sequence;
+            for (Append append : batch) {
+                Entry entry = new Entry(++next, append.inventoryId(), append.delta());
+                buffer.putLong(entry.sequence()).putLong(entry.inventoryId()).putInt(entry.delta());
+                entries.add(entry);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            sequence = next;
+            listener.accept(entries);
+        } catch (IOException | RuntimeException e) {
+            discardFrom(start);
+            batch.forEach(append -> append.durable().completeExceptionally(e));
+            return;
+        } finally {
+            writeLock.unlock();
+        }
+        batch.forEach(append -> append.durable().complete(null));
+    }
+
+    /** Cuts a failed batch off the file; if that fails too, no further entries are accepted. */
+    private void discardFrom(long start) {
+        try {
+            if (start >= 0 && channel.size() > start) {
+                channel.truncate(start);
+            }
+        } catch (IOException e) {
+            failed = true;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.mestro.hotstock;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Non-negative counter spread over cells that sit on separate cache lines, so threads taking units
+ * at the same time rarely contend on one atomic.
+ * <p>
+ * A take starts at the calling thread's home cell and moves on to the others only while it is
+ * short, so it fails only when the cells together do not hold enough. Units taken on the way by a
+ * take that still fails are put back, which means a concurrent take can briefly see too little and
+ * fail as well. Added units are spread evenly over the cells.
+ */
+public final class StripedCounter {
+
+    // 16 ints = 64 bytes, one cache line per cell
+    private static final int CELL_STRIDE = 16;
+
+    private final AtomicIntegerArray cells;
+    private final int mask;
+
+    public StripedCounter(int stripes) {
+        if (stripes <= 0 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Stripes must be a positive power of two");
+        }
+        this.cells = new AtomicIntegerArray(stripes * CELL_STRIDE);
+        this.mask = stripes - 1;
+    }
+
+    public void add(int units) {
+        if (units < 0) {
+            throw new IllegalArgumentException("Units to add cannot be negative");
+        }
+        int stripes = mask + 1;
+        int share = units / stripes;
+        int remainder = units % stripes;
+        int home = home();
+        for (int i = 0; i < stripes; i++) {
+            int cell = (home + i) & mask;
+            int amount = share + (i < remainder ? 1 : 0);
+            if (amount > 0) {
+                cells.getAndAdd(cell * CELL_STRIDE, amount);
+            }
+        }
+    }
+
+    /** Takes {@code units} if the counter holds that many; otherwise takes nothing. */
+    public boolean tryTake(int units) {
+        if (units <= 0) {
+            throw new IllegalArgumentException("Units to take must be positive");
+        }
+        int home = home();
+        int taken = 0;
+        for (int i = 0; i <= mask && taken < units; i++) {
+            taken += takeUpTo((home + i) & mask, units - taken);
+        }
+        if (taken < units) {
+            if (taken > 0) {
+                cells.getAndAdd(home * CELL_STRIDE, taken);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /** Units held; exact only while no take or add is in progress. */
+    public int sum() {
+        int sum = 0;
+        for (int cell = 0; cell <= mask; cell++) {
+            sum += cells.get(cell * CELL_STRIDE);
+        }
+        return sum;
+    }
+
+    private int takeUpTo(int cell, int max) {
+        int index = cell * CELL_STRIDE;
+        while (true) {
+            int current = cells.get(index);
+            if (current == 0) {
+                return 0;
+            }
+            int take = Math.min(current, max);
+            if (cells.compareAndSet(index, current, current - take)) {
+                return take;
+            }
+        }
+    }
+
+    private int home() {
+        long hash = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & mask;
+    }
+}
@@ -0,0 +1,43 @@
+package com.mestro.model;
+
+import com.mestro.common.model.BaseEntity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Units of an inventory row's available stock held by one service instance's in-memory hot stock
+ * counter. The row's {@code hotAllotment} is the sum of its leases. {@code lastSequence} is the
+ * last journal entry of the instance already written back to the row, so recovery replays only
+ * the entries after it.
+ */
+@Entity
+@Table(
+        name = "hot_stock_leases",
+        uniqueConstraints =
+                @UniqueConstraint(
+                        name = "uk_hot_stock_leases_instance_inventory",
+                        columnNames = {"instance_id", "inventory_id"}))
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotStockLease extends BaseEntity {
+
+    @Column(name = "instance_id", nullable = false, length = 100)
+    private String instanceId;
+
+    @Column(name = "inventory_id", nullable = false)
+    private Long inventoryId;
+
+    @Column(name = "allotment", nullable = false)
+    @Builder.Default
+    private Integer allotment = 0;
+
+    @Column(name = "last_sequence", nullable = false)
+    @Builder.Default
+    private Long lastSequence = 0L;
+}
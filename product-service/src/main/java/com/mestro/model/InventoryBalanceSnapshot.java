@@ -0,0 +1,41 @@
+package com.mestro.model;
+
+import com.mestro.common.model.BaseEntity;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Balances of an inventory row folded from every movement up to {@code lastMovementId}. The
+ * latest of these is the starting point for a point-in-time balance, so only the movements after
+ * it have to be summed.
+ */
+@Entity
+@Table(
+        name = "inventory_balance_snapshots",
+        indexes = {@Index(name = "idx_inventory_balance_snapshots_inventory", columnList = "inventory_id, taken_at")})
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryBalanceSnapshot extends BaseEntity {
+
+    @Column(name = "inventory_id", nullable = false)
+    private Long inventoryId;
+
+    @Column(name = "quantity_available", nullable = false)
+    private Integer quantityAvailable;
+
+    @Column(name = "quantity_reserved", nullable = false)
+    private Integer quantityReserved;
+
+    @Column(name = "last_movement_id", nullable = false)
+    private Long lastMovementId;
+
+    /** Time of the newest movement folded in for this row. */
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+}
@@ -0,0 +1,51 @@
+package com.mestro.model;
+
+import com.mestro.common.model.BaseEntity;
+import com.mestro.enums.InventoryMovementReason;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * One append-only entry of the inventory ledger. Rows are never updated or deleted, and reference
+ * the inventory row by ID only so that history outlives the row itself.
+ */
+@Entity
+@Table(
+        name = "inventory_movements",
+        indexes = {
+            @Index(name = "idx_inventory_movements_inventory", columnList = "inventory_id, id"),
+            @Index(name = "idx_inventory_movements_product", columnList = "product_id, created_at"),
+            @Index(name = "idx_inventory_movements_reference", columnList = "reference")
+        })
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryMovement extends BaseEntity {
+
+    @Column(name = "inventory_id", nullable = false)
+    private Long inventoryId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "warehouse_id")
+    private Long warehouseId;
+
+    @Column(name = "delta_available", nullable = false)
+    private Integer deltaAvailable;
+
+    @Column(name = "delta_reserved", nullable = false)
+    private Integer deltaReserved;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private InventoryMovementReason reason;
+
+    /** Caller-supplied reference such as an order number. */
+    @Column(length = 100)
+    private String reference;
+}
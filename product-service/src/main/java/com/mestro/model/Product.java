@@ -1,6 +1,8 @@
 package com.mestro.model;
 
 import com.mestro.common.model.BaseEntity;
+import com.mestro.common.model.Money;
+import com.mestro.common.utils.PricingUtils;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -10,9 +12,15 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
-@Table(name = "products")
+@Table(
+        name = "products",
+        indexes = @Index(name = "idx_products_active_effective_price", columnList = "is_active, effective_price"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "products")
 @Data
 @SuperBuilder
 @NoArgsConstructor
@@ -46,6 +54,10 @@ public class Product extends BaseEntity {
     @Builder.Default
     private BigDecimal taxRate = BigDecimal.ZERO;
 
+    // Derived from price, discount and tax on every write so price-range queries can use an index
+    @Column(name = "effective_price", precision = 12, scale = 2)
+    private BigDecimal effectivePrice;
+
     @Column(precision = 10, scale = 2)
     private BigDecimal weight;
 
@@ -63,4 +75,13 @@ public class Product extends BaseEntity {
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @Builder.Default
     private List<ProductInventory> inventories = new ArrayList<>();
+
+    @PrePersist
+    @PreUpdate
+    public void calculateEffectivePrice() {
+        if (price != null) {
+            this.effectivePrice =
+                    Money.toBigDecimal(PricingUtils.effectiveUnitPriceMinor(price, discountPercentage, taxRate));
+        }
+    }
 }
@@ -0,0 +1,38 @@
+package com.mestro.model;
+
+import com.mestro.common.model.BaseEntity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Available-to-promise totals of a product across all its inventory rows, maintained in the same
+ * transaction as every inventory change so reads never have to sum the rows.
+ */
+@Entity
+@Table(name = "product_availability")
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductAvailability extends BaseEntity {
+
+    @Column(name = "product_id", nullable = false, unique = true)
+    private Long productId;
+
+    @Column(name = "total_available", nullable = false)
+    @Builder.Default
+    private Integer totalAvailable = 0;
+
+    @Column(name = "total_reserved", nullable = false)
+    @Builder.Default
+    private Integer totalReserved = 0;
+
+    /** Inventory rows of the product with any quantity available. */
+    @Column(name = "warehouses_in_stock", nullable = false)
+    @Builder.Default
+    private Integer warehousesInStock = 0;
+}
@@ -9,7 +9,13 @@ import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
 @Entity
-@Table(name = "product_inventory")
+@Table(
+        name = "product_inventory",
+        indexes = @Index(name = "idx_product_inventory_low_stock", columnList = "low_stock"),
+        uniqueConstraints =
+                @UniqueConstraint(
+                        name = "uk_product_inventory_product_warehouse",
+                        columnNames = {"product_id", "warehouse_id"}))
 @Data
 @SuperBuilder
 @NoArgsConstructor
@@ -36,11 +42,40 @@ public class ProductInventory extends BaseEntity {
     @Builder.Default
     private Integer reorderLevel = 10;
 
+    /**
+     * Stored copy of {@link #isLowStock()} so the low-stock set can be read from an index instead of
+     * comparing two columns on every row. Set on insert; after that only
+     * {@code ProductInventoryService} and {@code InventoryTransferService} change it, so they can
+     * tell when a change flips it and publish an event.
+     */
+    @Column(name = "low_stock")
+    private Boolean lowStockFlag;
+
+    /**
+     * Part of {@link #quantityAvailable} held by in-memory hot stock counters (see
+     * {@link HotStockLease}). Those units are still available but may only be reserved through the
+     * counters, so other reservations are limited to {@link #getUnallottedAvailable()}.
+     */
+    @Column(name = "hot_allotment", nullable = false, columnDefinition = "integer default 0")
+    @Builder.Default
+    private Integer hotAllotment = 0;
+
     public Integer getTotalQuantity() {
         return quantityAvailable + quantityReserved;
     }
 
+    public int getUnallottedAvailable() {
+        return quantityAvailable - hotAllotment;
+    }
+
     public boolean isLowStock() {
         return quantityAvailable <= reorderLevel;
     }
+
+    @PrePersist
+    public void initLowStockFlag() {
+        if (quantityAvailable != null && reorderLevel != null) {
+            this.lowStockFlag = isLowStock();
+        }
+    }
 }
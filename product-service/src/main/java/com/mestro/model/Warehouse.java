@@ -9,9 +9,13 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "warehouses")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "warehouses")
 @Data
 @SuperBuilder
 @NoArgsConstructor
@@ -39,6 +43,13 @@ public class Warehouse extends BaseEntity {
     @Column
     private Integer capacity;
 
+    /** WGS 84 degrees; warehouses without both coordinates are left out of nearest-warehouse lookups. */
+    @Column
+    private Double latitude;
+
+    @Column
+    private Double longitude;
+
     @Column(name = "is_active", nullable = false)
     @Builder.Default
     private Boolean isActive = true;
@@ -1,9 +1,16 @@
 package com.mestro.repository;
 
 import com.mestro.model.Category;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -11,9 +18,28 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     Optional<Category> findByName(String name);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Category> findByIsActive(Boolean isActive);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Category> findByParentCategoryId(Long parentCategoryId);
 
+    /** Zero or one row of {@code [Long id, LocalDateTime updatedAt]}, for conditional GETs. */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT c.id, c.updatedAt FROM Category c WHERE c.id = :id")
+    List<Object[]> findVersionById(@Param("id") Long id);
+
+    /** One row of {@code [Long count, LocalDateTime latestUpdatedAt]} over all categories. */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT COUNT(c), MAX(c.updatedAt) FROM Category c")
+    List<Object[]> findCollectionVersion();
+
+    /** Keyset page in ID order. */
+    @Query("SELECT c FROM Category c WHERE c.id > :afterId ORDER BY c.id")
+    List<Category> findPageAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT c.id FROM Category c WHERE c.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
     boolean existsByName(String name);
 }
@@ -0,0 +1,39 @@
+package com.mestro.repository;
+
+import com.mestro.model.HotStockLease;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface HotStockLeaseRepository extends JpaRepository<HotStockLease, Long> {
+
+    List<HotStockLease> findByInstanceId(String instanceId);
+
+    Optional<HotStockLease> findByInstanceIdAndInventoryId(String instanceId, Long inventoryId);
+
+    @Modifying
+    @Query("UPDATE HotStockLease l SET l.allotment = l.allotment + :amount, l.updatedAt = :now"
+            + " WHERE l.instanceId = :instanceId AND l.inventoryId = :inventoryId")
+    int addAllotment(
+            @Param("instanceId") String instanceId,
+            @Param("inventoryId") Long inventoryId,
+            @Param("amount") int amount,
+            @Param("now") LocalDateTime now);
+
+    /** Takes units written back to the row off the lease and moves its journal watermark. */
+    @Modifying
+    @Query("UPDATE HotStockLease l SET l.allotment = l.allotment - :delta, l.lastSequence = :lastSequence,"
+            + " l.updatedAt = :now WHERE l.instanceId = :instanceId AND l.inventoryId = :inventoryId")
+    int applyWriteBack(
+            @Param("instanceId") String instanceId,
+            @Param("inventoryId") Long inventoryId,
+            @Param("delta") int delta,
+            @Param("lastSequence") long lastSequence,
+            @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,27 @@
+package com.mestro.repository;
+
+import com.mestro.model.InventoryBalanceSnapshot;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface InventoryBalanceSnapshotRepository extends JpaRepository<InventoryBalanceSnapshot, Long> {
+
+    Optional<InventoryBalanceSnapshot> findFirstByInventoryIdAndTakenAtLessThanEqualOrderByTakenAtDesc(
+            Long inventoryId, LocalDateTime at);
+
+    /** Highest movement ID already folded into a snapshot, or null before the first run. */
+    @Query("SELECT MAX(s.lastMovementId) FROM InventoryBalanceSnapshot s")
+    Long findMaxLastMovementId();
+
+    /** Latest snapshot of each of the given inventory rows that has one. */
+    @Query("SELECT s FROM InventoryBalanceSnapshot s WHERE s.inventoryId IN :inventoryIds AND s.lastMovementId ="
+            + " (SELECT MAX(l.lastMovementId) FROM InventoryBalanceSnapshot l WHERE l.inventoryId = s.inventoryId)")
+    List<InventoryBalanceSnapshot> findLatestByInventoryIdIn(@Param("inventoryIds") Collection<Long> inventoryIds);
+}
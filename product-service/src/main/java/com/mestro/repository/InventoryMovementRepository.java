@@ -0,0 +1,52 @@
+package com.mestro.repository;
+
+import com.mestro.enums.InventoryMovementReason;
+import com.mestro.model.InventoryMovement;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface InventoryMovementRepository extends JpaRepository<InventoryMovement, Long> {
+
+    Page<InventoryMovement> findByInventoryIdOrderByIdDesc(Long inventoryId, Pageable pageable);
+
+    boolean existsByInventoryId(Long inventoryId);
+
+    /** Rows of {@code [total delta available, total delta reserved]} for one inventory row. */
+    @Query("SELECT COALESCE(SUM(m.deltaAvailable), 0), COALESCE(SUM(m.deltaReserved), 0) FROM InventoryMovement m"
+            + " WHERE m.inventoryId = :inventoryId AND m.id > :afterId AND m.createdAt <= :at")
+    List<Object[]> sumDeltasAfter(
+            @Param("inventoryId") Long inventoryId, @Param("afterId") Long afterId, @Param("at") LocalDateTime at);
+
+    /** IDs of the inventory rows with movements under the reference, ascending. */
+    @Query("SELECT DISTINCT m.inventoryId FROM InventoryMovement m WHERE m.reference = :reference"
+            + " ORDER BY m.inventoryId")
+    List<Long> findInventoryIdsByReference(@Param("reference") String reference);
+
+    /** Net change of the row's reserved quantity recorded under the reference by the given reasons. */
+    @Query("SELECT COALESCE(SUM(m.deltaReserved), 0) FROM InventoryMovement m"
+            + " WHERE m.inventoryId = :inventoryId AND m.reference = :reference AND m.reason IN :reasons")
+    long sumDeltaReservedByReference(
+            @Param("inventoryId") Long inventoryId,
+            @Param("reference") String reference,
+            @Param("reasons") Collection<InventoryMovementReason> reasons);
+
+    /** Highest movement ID recorded before the given time, or null if there is none. */
+    @Query("SELECT MAX(m.id) FROM InventoryMovement m WHERE m.createdAt < :before")
+    Long findMaxIdBefore(@Param("before") LocalDateTime before);
+
+    /**
+     * Rows of {@code [inventoryId, total delta available, total delta reserved, latest created at]}
+     * for the movements with IDs in {@code (afterId, upToId]}.
+     */
+    @Query("SELECT m.inventoryId, SUM(m.deltaAvailable), SUM(m.deltaReserved), MAX(m.createdAt)"
+            + " FROM InventoryMovement m WHERE m.id > :afterId AND m.id <= :upToId GROUP BY m.inventoryId")
+    List<Object[]> sumDeltasGroupByInventory(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+}
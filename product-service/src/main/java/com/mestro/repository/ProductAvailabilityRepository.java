@@ -0,0 +1,63 @@
+package com.mestro.repository;
+
+import com.mestro.model.ProductAvailability;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductAvailabilityRepository extends JpaRepository<ProductAvailability, Long> {
+
+    Optional<ProductAvailability> findByProductId(Long productId);
+
+    List<ProductAvailability> findByProductIdIn(Collection<Long> productIds);
+
+    /** Adds the deltas to the product's totals. Returns 0 if the product has no totals row yet. */
+    @Modifying
+    @Query("UPDATE ProductAvailability a SET a.totalAvailable = a.totalAvailable + :deltaAvailable,"
+            + " a.totalReserved = a.totalReserved + :deltaReserved,"
+            + " a.warehousesInStock = a.warehousesInStock + :deltaWarehouses, a.updatedAt = :now"
+            + " WHERE a.productId = :productId")
+    int applyDelta(
+            @Param("productId") Long productId,
+            @Param("deltaAvailable") int deltaAvailable,
+            @Param("deltaReserved") int deltaReserved,
+            @Param("deltaWarehouses") int deltaWarehouses,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * Creates the product's totals row from the given sums, or adds the deltas to it when a
+     * concurrent transaction created it first. The sums must include the caller's own change; the
+     * other transaction's sums cannot, as that change is not committed yet.
+     */
+    @Modifying
+    @Query(
+            value = "INSERT INTO product_availability (product_id, total_available, total_reserved,"
+                    + " warehouses_in_stock, created_at, updated_at)"
+                    + " VALUES (:productId, :totalAvailable, :totalReserved, :warehousesInStock, :now, :now)"
+                    + " ON CONFLICT (product_id) DO UPDATE SET"
+                    + " total_available = product_availability.total_available + :deltaAvailable,"
+                    + " total_reserved = product_availability.total_reserved + :deltaReserved,"
+                    + " warehouses_in_stock = product_availability.warehouses_in_stock + :deltaWarehouses,"
+                    + " updated_at = :now",
+            nativeQuery = true)
+    int seedOrApplyDelta(
+            @Param("productId") Long productId,
+            @Param("totalAvailable") int totalAvailable,
+            @Param("totalReserved") int totalReserved,
+            @Param("warehousesInStock") int warehousesInStock,
+            @Param("deltaAvailable") int deltaAvailable,
+            @Param("deltaReserved") int deltaReserved,
+            @Param("deltaWarehouses") int deltaWarehouses,
+            @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM ProductAvailability a WHERE a.productId = :productId")
+    void deleteByProductId(@Param("productId") Long productId);
+}
@@ -1,6 +1,7 @@
 package com.mestro.repository;
 
 import com.mestro.model.ProductImage;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -11,6 +12,8 @@ public interface ProductImageRepository extends JpaRepository<ProductImage, Long
 
     List<ProductImage> findByProductId(Long productId);
 
+    List<ProductImage> findByProductIdInOrderByDisplayOrderAsc(Collection<Long> productIds);
+
     Optional<ProductImage> findByProductIdAndIsPrimaryTrue(Long productId);
 
     void deleteByProductId(Long productId);
@@ -1,10 +1,17 @@
 package com.mestro.repository;
 
 import com.mestro.model.ProductInventory;
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -12,17 +19,136 @@ public interface ProductInventoryRepository extends JpaRepository<ProductInvento
 
     List<ProductInventory> findByProductId(Long productId);
 
+    @Query("SELECT pi FROM ProductInventory pi LEFT JOIN FETCH pi.warehouse WHERE pi.product.id IN :productIds")
+    List<ProductInventory> findByProductIdInWithWarehouse(@Param("productIds") Collection<Long> productIds);
+
+    /** Keyset page in ID order, with product and warehouse fetched in the same query. */
+    @Query("SELECT pi FROM ProductInventory pi JOIN FETCH pi.product LEFT JOIN FETCH pi.warehouse"
+            + " WHERE pi.id > :afterId ORDER BY pi.id")
+    List<ProductInventory> findPageAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    /** Rows of {@code [Long warehouseId, Integer quantityAvailable]} for the product's warehouses with stock. */
+    @Query("SELECT pi.warehouse.id, pi.quantityAvailable FROM ProductInventory pi"
+            + " WHERE pi.product.id = :productId AND pi.warehouse IS NOT NULL AND pi.quantityAvailable > 0")
+    List<Object[]> findStockedWarehousesByProductId(@Param("productId") Long productId);
+
     Optional<ProductInventory> findByProductIdAndWarehouseId(Long productId, Long warehouseId);
 
+    boolean existsByProductIdAndWarehouseId(Long productId, Long warehouseId);
+
+    /**
+     * Rows of {@code [productId, warehouseId]} held by more than one row, which keep
+     * {@code uk_product_inventory_product_warehouse} from being created on data stored before it.
+     */
+    @Query("SELECT pi.product.id, pi.warehouse.id FROM ProductInventory pi WHERE pi.warehouse IS NOT NULL"
+            + " GROUP BY pi.product.id, pi.warehouse.id HAVING COUNT(pi) > 1")
+    List<Object[]> findDuplicateProductWarehousePairs(Pageable pageable);
+
+    /**
+     * Reads the row and locks it until the transaction ends. Paths that change a row by saving the
+     * whole entity read it through this or the other {@code ForUpdate} queries, so the relative
+     * updates of hot stock write-backs and allotment claims wait for them instead of being
+     * overwritten with the balances read before they committed.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT pi FROM ProductInventory pi WHERE pi.id = :id")
+    Optional<ProductInventory> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT pi FROM ProductInventory pi WHERE pi.product.id = :productId AND pi.warehouse.id = :warehouseId")
+    Optional<ProductInventory> findByProductIdAndWarehouseIdForUpdate(
+            @Param("productId") Long productId, @Param("warehouseId") Long warehouseId);
+
+    /** The product's rows in ID order, locked until the transaction ends. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT pi FROM ProductInventory pi WHERE pi.product.id = :productId ORDER BY pi.id")
+    List<ProductInventory> findByProductIdForUpdate(@Param("productId") Long productId);
+
+    /** Rows that can cover the quantity, most stock first, locked until the transaction ends. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query(
-            "SELECT pi FROM ProductInventory pi WHERE pi.product.id = :productId AND pi.quantityAvailable >= :quantity ORDER BY pi.quantityAvailable DESC")
+            "SELECT pi FROM ProductInventory pi WHERE pi.product.id = :productId AND pi.quantityAvailable - pi.hotAllotment >= :quantity ORDER BY pi.quantityAvailable DESC")
     List<ProductInventory> findByProductIdWithSufficientStock(Long productId, Integer quantity);
 
-    @Query("SELECT pi FROM ProductInventory pi WHERE pi.quantityAvailable <= pi.reorderLevel")
+    /** Rows with stock to allocate from: no warehouse, or an active one. */
+    @Query("SELECT pi FROM ProductInventory pi LEFT JOIN FETCH pi.warehouse w WHERE pi.product.id = :productId"
+            + " AND pi.quantityAvailable > pi.hotAllotment AND (w IS NULL OR w.isActive = true)")
+    List<ProductInventory> findAllocatableByProductId(@Param("productId") Long productId);
+
+    /**
+     * Moves units from available to reserved only if they are still available and not held by hot
+     * stock counters. Returns the number of rows updated: 0 means a concurrent write got there first.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ProductInventory pi SET pi.quantityAvailable = pi.quantityAvailable - :quantity,"
+            + " pi.quantityReserved = pi.quantityReserved + :quantity, pi.updatedAt = :now"
+            + " WHERE pi.id = :id AND pi.quantityAvailable - pi.hotAllotment >= :quantity")
+    int reserveIfAvailable(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    /** Hands units to a hot stock counter if they are not already held by one; returns 0 otherwise. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ProductInventory pi SET pi.hotAllotment = pi.hotAllotment + :amount, pi.updatedAt = :now"
+            + " WHERE pi.id = :id AND pi.quantityAvailable - pi.hotAllotment >= :amount")
+    int claimHotAllotment(@Param("id") Long id, @Param("amount") int amount, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ProductInventory pi SET pi.hotAllotment = pi.hotAllotment - :amount, pi.updatedAt = :now"
+            + " WHERE pi.id = :id")
+    int returnHotAllotment(@Param("id") Long id, @Param("amount") int amount, @Param("now") LocalDateTime now);
+
+    /**
+     * Writes back units reserved through a hot stock counter: they leave both available and the
+     * allotment and join reserved. A negative delta writes back net releases.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ProductInventory pi SET pi.quantityAvailable = pi.quantityAvailable - :delta,"
+            + " pi.quantityReserved = pi.quantityReserved + :delta, pi.hotAllotment = pi.hotAllotment - :delta,"
+            + " pi.updatedAt = :now WHERE pi.id = :id")
+    int applyHotStockDelta(@Param("id") Long id, @Param("delta") int delta, @Param("now") LocalDateTime now);
+
+    @Query("SELECT pi FROM ProductInventory pi LEFT JOIN FETCH pi.warehouse WHERE pi.lowStockFlag = true")
     List<ProductInventory> findLowStockInventories();
 
+    /** Sets the low-stock flag of rows stored before it existed; returns the number of rows updated. */
+    @Modifying
+    @Query("UPDATE ProductInventory pi SET pi.lowStockFlag ="
+            + " CASE WHEN pi.quantityAvailable <= pi.reorderLevel THEN true ELSE false END"
+            + " WHERE pi.lowStockFlag IS NULL")
+    int backfillLowStockFlags();
+
     @Query("SELECT SUM(pi.quantityAvailable) FROM ProductInventory pi WHERE pi.product.id = :productId")
     Integer getTotalAvailableQuantityByProductId(Long productId);
 
+    /** Rows of {@code [productId, total quantity available]}. */
+    @Query("SELECT pi.product.id, SUM(pi.quantityAvailable) FROM ProductInventory pi GROUP BY pi.product.id")
+    List<Object[]> sumAvailableQuantityGroupByProduct();
+
+    /** Rows with no ledger movement yet, i.e. stored before the ledger existed. */
+    @Query("SELECT pi FROM ProductInventory pi WHERE NOT EXISTS"
+            + " (SELECT m.id FROM InventoryMovement m WHERE m.inventoryId = pi.id) ORDER BY pi.id")
+    List<ProductInventory> findWithoutMovements(Pageable pageable);
+
+    /** One row of {@code [total available, total reserved, rows in stock]}, with nulls if there are no rows. */
+    @Query("SELECT SUM(pi.quantityAvailable), SUM(pi.quantityReserved),"
+            + " SUM(CASE WHEN pi.quantityAvailable > 0 THEN 1 ELSE 0 END)"
+            + " FROM ProductInventory pi WHERE pi.product.id = :productId")
+    List<Object[]> sumAvailabilityByProductId(@Param("productId") Long productId);
+
+    /** Rows of {@code [productId, total available, total reserved, rows in stock]} for the given products. */
+    @Query("SELECT pi.product.id, SUM(pi.quantityAvailable), SUM(pi.quantityReserved),"
+            + " SUM(CASE WHEN pi.quantityAvailable > 0 THEN 1 ELSE 0 END) FROM ProductInventory pi"
+            + " WHERE pi.product.id IN :productIds GROUP BY pi.product.id")
+    List<Object[]> sumAvailabilityGroupByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+    /**
+     * Rows of {@code [productId, total available, total reserved, rows in stock]} for products that
+     * have inventory but no availability totals yet.
+     */
+    @Query("SELECT pi.product.id, SUM(pi.quantityAvailable), SUM(pi.quantityReserved),"
+            + " SUM(CASE WHEN pi.quantityAvailable > 0 THEN 1 ELSE 0 END) FROM ProductInventory pi"
+            + " WHERE NOT EXISTS (SELECT a.id FROM ProductAvailability a WHERE a.productId = pi.product.id)"
+            + " GROUP BY pi.product.id")
+    List<Object[]> sumAvailabilityGroupByProductWithoutTotals();
+
     void deleteByProductId(Long productId);
 }
@@ -1,29 +1,88 @@
 package com.mestro.repository;
 
 import com.mestro.model.Product;
+import jakarta.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    @EntityGraph(attributePaths = "category")
     Optional<Product> findBySku(String sku);
 
-    List<Product> findByCategoryId(Long categoryId);
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Page<Product> findAll(Pageable pageable);
 
-    List<Product> findByIsActive(Boolean isActive);
+    /** Keyset page of the category's products in ID order. */
+    @Query("SELECT p FROM Product p JOIN FETCH p.category c WHERE c.id = :categoryId AND p.id > :afterId ORDER BY p.id")
+    List<Product> findPageByCategoryIdAfterId(
+            @Param("categoryId") Long categoryId, @Param("afterId") Long afterId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "category")
+    Page<Product> findByCategoryIdIn(Collection<Long> categoryIds, Pageable pageable);
+
+    /** Keyset page of active products in ID order. */
+    @Query("SELECT p FROM Product p JOIN FETCH p.category WHERE p.isActive = true AND p.id > :afterId ORDER BY p.id")
+    List<Product> findActivePageAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    /** Served by the {@code (is_active, effective_price)} index. */
+    @EntityGraph(attributePaths = "category")
+    Page<Product> findByIsActiveTrueAndEffectivePriceBetween(
+            BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
+
+    /** Products written before the effective price was stored, for the startup backfill. */
+    @Query("SELECT p FROM Product p WHERE p.effectivePrice IS NULL ORDER BY p.id")
+    List<Product> findWithoutEffectivePrice(Pageable pageable);
 
     List<Product> findByBrand(String brand);
 
-    @Query("SELECT p FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    List<Product> searchByName(@Param("keyword") String keyword);
+    @Query(
+            value = "SELECT p FROM Product p JOIN FETCH p.category"
+                    + " WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%'))",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%'))")
+    Page<Product> searchByName(@Param("keyword") String keyword, Pageable pageable);
+
+    /** Keyset page used to stream the catalog in ID order. */
+    @Query("SELECT p FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<Product> findBatchAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Everything a product response depends on, for conditional GETs. Zero or one row of
+     * {@code [Long id, LocalDateTime updatedAt, LocalDateTime categoryUpdatedAt, Long imageCount,
+     * LocalDateTime imagesUpdatedAt, Long inventoryCount, LocalDateTime inventoriesUpdatedAt,
+     * LocalDateTime warehousesUpdatedAt]}.
+     */
+    @Query("SELECT p.id, p.updatedAt, c.updatedAt, "
+            + "(SELECT COUNT(i) FROM ProductImage i WHERE i.product = p), "
+            + "(SELECT MAX(i.updatedAt) FROM ProductImage i WHERE i.product = p), "
+            + "(SELECT COUNT(pi) FROM ProductInventory pi WHERE pi.product = p), "
+            + "(SELECT MAX(pi.updatedAt) FROM ProductInventory pi WHERE pi.product = p), "
+            + "(SELECT MAX(w.updatedAt) FROM ProductInventory pi JOIN pi.warehouse w WHERE pi.product = p) "
+            + "FROM Product p JOIN p.category c WHERE p.id = :id")
+    List<Object[]> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT p.sku FROM Product p WHERE p.sku IN :skus")
+    List<String> findExistingSkus(@Param("skus") Collection<String> skus);
 
     boolean existsBySku(String sku);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT p FROM Product p JOIN FETCH p.category WHERE p.id = :productId")
     Optional<Product> findByIdWithCategory(@Param("productId") Long productId);
+
+    @Query("SELECT p FROM Product p JOIN FETCH p.category WHERE p.id IN :productIds")
+    List<Product> findAllByIdWithCategory(@Param("productIds") Collection<Long> productIds);
 }
@@ -1,9 +1,15 @@
 package com.mestro.repository;
 
 import com.mestro.model.Warehouse;
+import jakarta.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -11,9 +17,27 @@ public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
 
     Optional<Warehouse> findByName(String name);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Warehouse> findByIsActive(Boolean isActive);
 
     List<Warehouse> findByCity(String city);
 
+    /** Zero or one row of {@code [Long id, LocalDateTime updatedAt]}, for conditional GETs. */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT w.id, w.updatedAt FROM Warehouse w WHERE w.id = :id")
+    List<Object[]> findVersionById(@Param("id") Long id);
+
+    /** One row of {@code [Long count, LocalDateTime latestUpdatedAt]} over all warehouses. */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT COUNT(w), MAX(w.updatedAt) FROM Warehouse w")
+    List<Object[]> findCollectionVersion();
+
+    /** Keyset page in ID order. */
+    @Query("SELECT w FROM Warehouse w WHERE w.id > :afterId ORDER BY w.id")
+    List<Warehouse> findPageAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT w FROM Warehouse w WHERE w.isActive = true AND w.latitude IS NOT NULL AND w.longitude IS NOT NULL")
+    List<Warehouse> findActiveWithCoordinates();
+
     boolean existsByName(String name);
 }
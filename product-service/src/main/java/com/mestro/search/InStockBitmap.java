@@ -0,0 +1,137 @@
+package com.mestro.search;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One bit per product ID, set while the product has stock available in any warehouse.
+ * <p>
+ * Product IDs are dense database identities, so a plain {@link BitSet} indexed by ID is exact and
+ * small: a million products take 125 KB. Every change bumps the version, and the serialized form is
+ * the {@link BitSet#toByteArray()} layout (bit {@code n} is bit {@code n % 8} of byte {@code n / 8}),
+ * which {@link BitSet#valueOf(byte[])} and most bitset libraries read directly. The version counts
+ * changes in this process only; the digest of the serialized form identifies the same bits across
+ * restarts and instances. Reads and writes are guarded by a read-write lock.
+ */
+public class InStockBitmap {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BitSet bits = new BitSet();
+    private long version;
+
+    // Serialized form of the bitmap and its digest as of serializedVersion
+    private byte[] serialized = new byte[0];
+    private String serializedDigest = digest(serialized);
+    private long serializedVersion;
+
+    /** @param digest hex of the first 128 bits of the SHA-256 of {@code bytes} */
+    public record Snapshot(long version, byte[] bytes, String digest) {}
+
+    /** Sets or clears the product's bit; returns whether that changed it. */
+    public boolean set(long productId, boolean inStock) {
+        int index = toIndex(productId);
+        lock.writeLock().lock();
+        try {
+            if (bits.get(index) == inStock) {
+                return false;
+            }
+            bits.set(index, inStock);
+            version++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(long productId) {
+        if (productId < 0 || productId >= Integer.MAX_VALUE) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return bits.get((int) productId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Number of products in stock. */
+    public int cardinality() {
+        lock.readLock().lock();
+        try {
+            return bits.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long version() {
+        lock.readLock().lock();
+        try {
+            return version;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The bitmap serialized, reusing the bytes of the last call if nothing changed since; the bytes
+     * are shared and must not be modified.
+     */
+    public Snapshot snapshot() {
+        lock.writeLock().lock();
+        try {
+            if (serializedVersion != version) {
+                serialized = bits.toByteArray();
+                serializedDigest = digest(serialized);
+                serializedVersion = version;
+            }
+            return new Snapshot(version, serialized, serializedDigest);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces every bit with those of {@code other}, as one change. The version keeps counting up,
+     * so it still tells clients apart that saw the bitmap before.
+     */
+    public void replaceWith(InStockBitmap other) {
+        BitSet copy;
+        other.lock.readLock().lock();
+        try {
+            copy = (BitSet) other.bits.clone();
+        } finally {
+            other.lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            bits.clear();
+            bits.or(copy);
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static String digest(byte[] bytes) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(Arrays.copyOf(hash, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static int toIndex(long productId) {
+        if (productId < 0 || productId >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Product ID out of bitmap range: " + productId);
+        }
+        return (int) productId;
+    }
+}
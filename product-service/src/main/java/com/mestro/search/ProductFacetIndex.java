@@ -0,0 +1,366 @@
+package com.mestro.search;
+
+import com.mestro.enums.PriceBand;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Bitmap indexes for faceted catalog browsing.
+ * <p>
+ * Every active product gets a document number and each facet value owns a {@link BitSet} of the
+ * documents that carry it. A query ORs the selected values within a facet and ANDs the facets
+ * together, so any filter combination is a handful of word-wise bitmap operations. Facet counts are
+ * "disjunctive": the counts of a facet ignore that facet's own selection, so picking one brand still
+ * shows how many products the other brands would add.
+ * <p>
+ * Document numbers follow insertion order; built from the database in ID order and appended to for
+ * new products, they keep results in ascending product ID order without sorting. Reads and writes
+ * are guarded by a read-write lock.
+ */
+public class ProductFacetIndex {
+
+    public static final String BRAND = "brand";
+    public static final String CATEGORY = "category";
+    public static final String PRICE_BAND = "priceBand";
+    public static final String IN_STOCK = "inStock";
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int NONE = -1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> documentsByProduct = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final BitSet inStock = new BitSet();
+
+    private final Map<String, Integer> brandOrdinals = new HashMap<>();
+    private final List<String> brandLabels = new ArrayList<>();
+    private final List<BitSet> brandBits = new ArrayList<>();
+
+    private final Map<Long, Integer> categoryOrdinals = new HashMap<>();
+    private final List<Long> categoryIds = new ArrayList<>();
+    private final List<BitSet> categoryBits = new ArrayList<>();
+
+    private final BitSet[] priceBandBits = new BitSet[PriceBand.values().length];
+
+    // Per-document facet ordinals, used to count facet values over a result set
+    private long[] productIds = new long[INITIAL_CAPACITY];
+    private int[] brandOf = new int[INITIAL_CAPACITY];
+    private int[] categoryOf = new int[INITIAL_CAPACITY];
+    private byte[] priceBandOf = new byte[INITIAL_CAPACITY];
+    private int nextDocument;
+
+    public ProductFacetIndex() {
+        for (int i = 0; i < priceBandBits.length; i++) {
+            priceBandBits[i] = new BitSet();
+        }
+    }
+
+    /** Selected values per facet; a {@code null} or empty selection does not filter. */
+    public record Filter(Set<String> brands, Set<Long> categoryIds, Set<PriceBand> priceBands, Boolean inStock) {}
+
+    /**
+     * One page of matching product IDs plus the counts per facet value. Category counts are keyed by
+     * category ID, price band counts by {@link PriceBand} name and stock counts by "true"/"false".
+     */
+    public record Result(long totalHits, List<Long> productIds, Map<String, Map<String, Long>> facetCounts) {}
+
+    // -------------------------------------------------------------------------
+    // Updates
+    // -------------------------------------------------------------------------
+
+    /** Adds or updates a product. Inactive products are dropped from the index. */
+    public void indexProduct(long productId, String brand, Long categoryId, BigDecimal price, boolean active) {
+        if (!active) {
+            remove(productId);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            Integer existing = documentsByProduct.get(productId);
+            int document;
+            if (existing != null) {
+                document = existing;
+                clearFacets(document);
+            } else {
+                document = nextDocument++;
+                ensureCapacity(document + 1);
+                productIds[document] = productId;
+                documentsByProduct.put(productId, document);
+            }
+
+            brandOf[document] = NONE;
+            if (brand != null && !brand.isBlank()) {
+                int ordinal = brandOrdinals.computeIfAbsent(brand.trim().toLowerCase(Locale.ROOT), key -> {
+                    brandLabels.add(brand.trim());
+                    brandBits.add(new BitSet());
+                    return brandLabels.size() - 1;
+                });
+                brandOf[document] = ordinal;
+                brandBits.get(ordinal).set(document);
+            }
+
+            categoryOf[document] = NONE;
+            if (categoryId != null) {
+                int ordinal = categoryOrdinals.computeIfAbsent(categoryId, key -> {
+                    categoryIds.add(categoryId);
+                    categoryBits.add(new BitSet());
+                    return categoryIds.size() - 1;
+                });
+                categoryOf[document] = ordinal;
+                categoryBits.get(ordinal).set(document);
+            }
+
+            priceBandOf[document] = NONE;
+            if (price != null) {
+                PriceBand band = PriceBand.of(price);
+                priceBandOf[document] = (byte) band.ordinal();
+                priceBandBits[band.ordinal()].set(document);
+            }
+
+            live.set(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Records whether the product has any available stock. Unknown products are ignored. */
+    public void updateStock(long productId, boolean available) {
+        lock.writeLock().lock();
+        try {
+            Integer document = documentsByProduct.get(productId);
+            if (document != null) {
+                inStock.set(document, available);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            Integer document = documentsByProduct.remove(productId);
+            if (document != null) {
+                clearFacets(document);
+                live.clear(document);
+                inStock.clear(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentsByProduct.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Query
+    // -------------------------------------------------------------------------
+
+    public Result query(Filter filter, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet brandFilter = union(brandBits, brandOrdinals, normalisedBrands(filter.brands()));
+            BitSet categoryFilter = union(categoryBits, categoryOrdinals, filter.categoryIds());
+            BitSet priceFilter = priceBandFilter(filter.priceBands());
+            BitSet stockFilter = stockFilter(filter.inStock());
+
+            BitSet matches = intersect(brandFilter, categoryFilter, priceFilter, stockFilter);
+            int totalHits = matches.cardinality();
+
+            List<Long> page = new ArrayList<>(Math.max(0, Math.min(limit, totalHits - offset)));
+            int skipped = 0;
+            for (int document = matches.nextSetBit(0);
+                    document >= 0 && page.size() < limit;
+                    document = matches.nextSetBit(document + 1)) {
+                if (skipped++ >= offset) {
+                    page.add(productIds[document]);
+                }
+            }
+
+            Map<String, Map<String, Long>> counts = new LinkedHashMap<>();
+            counts.put(BRAND, countBrands(intersect(null, categoryFilter, priceFilter, stockFilter)));
+            counts.put(CATEGORY, countCategories(intersect(brandFilter, null, priceFilter, stockFilter)));
+            counts.put(PRICE_BAND, countPriceBands(intersect(brandFilter, categoryFilter, null, stockFilter)));
+            counts.put(IN_STOCK, countStock(intersect(brandFilter, categoryFilter, priceFilter, null)));
+
+            return new Result(totalHits, page, counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet intersect(BitSet... filters) {
+        BitSet result = (BitSet) live.clone();
+        for (BitSet filter : filters) {
+            if (filter != null) {
+                result.and(filter);
+            }
+        }
+        return result;
+    }
+
+    private static <K> BitSet union(List<BitSet> bits, Map<K, Integer> ordinals, Set<K> selected) {
+        if (selected == null || selected.isEmpty()) {
+            return null;
+        }
+        BitSet result = new BitSet();
+        for (K value : selected) {
+            Integer ordinal = ordinals.get(value);
+            if (ordinal != null) {
+                result.or(bits.get(ordinal));
+            }
+        }
+        return result;
+    }
+
+    private BitSet priceBandFilter(Set<PriceBand> selected) {
+        if (selected == null || selected.isEmpty()) {
+            return null;
+        }
+        BitSet result = new BitSet();
+        for (PriceBand band : selected) {
+            result.or(priceBandBits[band.ordinal()]);
+        }
+        return result;
+    }
+
+    private BitSet stockFilter(Boolean selected) {
+        if (selected == null) {
+            return null;
+        }
+        if (selected) {
+            return inStock;
+        }
+        BitSet outOfStock = (BitSet) live.clone();
+        outOfStock.andNot(inStock);
+        return outOfStock;
+    }
+
+    private static Set<String> normalisedBrands(Set<String> brands) {
+        if (brands == null) {
+            return null;
+        }
+        return brands.stream()
+                .filter(brand -> brand != null && !brand.isBlank())
+                .map(brand -> brand.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+    }
+
+    // -------------------------------------------------------------------------
+    // Counting
+    // -------------------------------------------------------------------------
+
+    private Map<String, Long> countBrands(BitSet documents) {
+        long[] counts = countOrdinals(documents, brandOf, brandLabels.size());
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int ordinal : byCountDescending(counts)) {
+            result.put(brandLabels.get(ordinal), counts[ordinal]);
+        }
+        return result;
+    }
+
+    private Map<String, Long> countCategories(BitSet documents) {
+        long[] counts = countOrdinals(documents, categoryOf, categoryIds.size());
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int ordinal : byCountDescending(counts)) {
+            result.put(String.valueOf(categoryIds.get(ordinal)), counts[ordinal]);
+        }
+        return result;
+    }
+
+    private Map<String, Long> countPriceBands(BitSet documents) {
+        long[] counts = new long[priceBandBits.length];
+        for (int document = documents.nextSetBit(0); document >= 0; document = documents.nextSetBit(document + 1)) {
+            if (priceBandOf[document] != NONE) {
+                counts[priceBandOf[document]]++;
+            }
+        }
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (PriceBand band : PriceBand.values()) {
+            if (counts[band.ordinal()] > 0) {
+                result.put(band.name(), counts[band.ordinal()]);
+            }
+        }
+        return result;
+    }
+
+    private Map<String, Long> countStock(BitSet documents) {
+        int total = documents.cardinality();
+        documents.and(inStock);
+        int available = documents.cardinality();
+        Map<String, Long> result = new LinkedHashMap<>();
+        if (available > 0) {
+            result.put("true", (long) available);
+        }
+        if (total - available > 0) {
+            result.put("false", (long) (total - available));
+        }
+        return result;
+    }
+
+    private static long[] countOrdinals(BitSet documents, int[] ordinalOf, int ordinals) {
+        long[] counts = new long[ordinals];
+        for (int document = documents.nextSetBit(0); document >= 0; document = documents.nextSetBit(document + 1)) {
+            if (ordinalOf[document] != NONE) {
+                counts[ordinalOf[document]]++;
+            }
+        }
+        return counts;
+    }
+
+    private static int[] byCountDescending(long[] counts) {
+        return IntStream.range(0, counts.length)
+                .filter(ordinal -> counts[ordinal] > 0)
+                .boxed()
+                .sorted((a, b) -> Long.compare(counts[b], counts[a]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    // -------------------------------------------------------------------------
+    // Internals (callers hold the write lock)
+    // -------------------------------------------------------------------------
+
+    private void clearFacets(int document) {
+        if (brandOf[document] != NONE) {
+            brandBits.get(brandOf[document]).clear(document);
+        }
+        if (categoryOf[document] != NONE) {
+            categoryBits.get(categoryOf[document]).clear(document);
+        }
+        if (priceBandOf[document] != NONE) {
+            priceBandBits[priceBandOf[document]].clear(document);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= productIds.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, productIds.length * 2);
+        productIds = Arrays.copyOf(productIds, newCapacity);
+        brandOf = Arrays.copyOf(brandOf, newCapacity);
+        categoryOf = Arrays.copyOf(categoryOf, newCapacity);
+        priceBandOf = Arrays.copyOf(priceBandOf, newCapacity);
+    }
+}
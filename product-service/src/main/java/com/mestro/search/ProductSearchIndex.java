@@ -0,0 +1,543 @@
+package com.mestro.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+
+/**
+ * In-memory inverted index over product name, brand, SKU and description.
+ * <p>
+ * Terms live in a sorted dictionary so the last query term can be expanded by prefix (search as you
+ * type). Each term maps to a postings list of internal document numbers in ascending order: only the
+ * rarest query term is scored in full, the others are probed for its candidates with a galloping
+ * search, so a common term does not cost a full scan. Documents are ranked with BM25 over a single
+ * weighted field: a name or SKU occurrence counts three times, a brand occurrence twice.
+ * <p>
+ * Document numbers are assigned in insertion order; re-indexing a product appends a new document
+ * and marks the old one removed, leaving it in its postings to be skipped by searches rather than
+ * shifting every later entry out. Once removed documents outnumber the live ones they are compacted
+ * away in one pass that renumbers the live documents in order, so memory stays proportional to the
+ * live index. Reads and writes are guarded by a read-write lock.
+ */
+public class ProductSearchIndex {
+
+    static final int NAME_WEIGHT = 3;
+    static final int SKU_WEIGHT = 3;
+    static final int BRAND_WEIGHT = 2;
+    static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final float PREFIX_MATCH_FACTOR = 0.8f;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MAX_QUERY_TERMS = 8;
+    private static final int MAX_TERM_LENGTH = 64;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_REMOVED_TO_COMPACT = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> dictionary = new TreeMap<>();
+    private final Map<Long, Integer> documentsByProduct = new HashMap<>();
+
+    private long[] productIds = new long[INITIAL_CAPACITY];
+    private int[] documentLengths = new int[INITIAL_CAPACITY];
+    private Postings[][] documentTerms = new Postings[INITIAL_CAPACITY][];
+    private int nextDocument;
+    private int removedDocuments;
+    private long totalLength;
+
+    public record Hit(long productId, float score) {}
+
+    public record SearchResult(long totalHits, List<Hit> hits) {}
+
+    // -------------------------------------------------------------------------
+    // Updates
+    // -------------------------------------------------------------------------
+
+    /** Adds the product, replacing any previously indexed version of it. */
+    public void index(long productId, String name, String brand, String sku, String description) {
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        int length = addTerms(frequencies, name, NAME_WEIGHT)
+                + addTerms(frequencies, brand, BRAND_WEIGHT)
+                + addTerms(frequencies, sku, SKU_WEIGHT)
+                + addTerms(frequencies, description, DESCRIPTION_WEIGHT);
+        if (sku != null) {
+            // "LAP-001" is also findable as "lap001"
+            String compactSku = normalise(sku).replaceAll("[^\\p{L}\\p{N}]", "");
+            if (!compactSku.isEmpty()) {
+                frequencies.merge(truncate(compactSku), SKU_WEIGHT, Integer::sum);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(productId);
+            compactIfSparse();
+
+            int document = nextDocument++;
+            ensureCapacity(document + 1);
+            productIds[document] = productId;
+            documentLengths[document] = length;
+            totalLength += length;
+
+            Postings[] terms = new Postings[frequencies.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                Postings postings = dictionary.computeIfAbsent(entry.getKey(), Postings::new);
+                postings.append(document, entry.getValue());
+                terms[i++] = postings;
+            }
+            documentTerms[document] = terms;
+            documentsByProduct.put(productId, document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(productId);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentsByProduct.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Document numbers in use, including removed documents not compacted away yet. */
+    int documentNumbers() {
+        lock.readLock().lock();
+        try {
+            return nextDocument;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Search
+    // -------------------------------------------------------------------------
+
+    /**
+     * Returns the products matching every query term, best first. The last term also matches as a
+     * prefix, scored slightly below an exact match.
+     */
+    public SearchResult search(String query, int offset, int limit) {
+        return search(query, offset, limit, null);
+    }
+
+    /** Like {@link #search(String, int, int)}, keeping only products accepted by {@code filter}, if given. */
+    public SearchResult search(String query, int offset, int limit, LongPredicate filter) {
+        List<String> terms = new ArrayList<>(tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return new SearchResult(0, List.of());
+        }
+        if (terms.size() > MAX_QUERY_TERMS) {
+            terms = terms.subList(0, MAX_QUERY_TERMS);
+        }
+
+        lock.readLock().lock();
+        try {
+            int liveDocuments = documentsByProduct.size();
+            if (liveDocuments == 0) {
+                return new SearchResult(0, List.of());
+            }
+            float averageLength = (float) totalLength / liveDocuments;
+
+            List<TermMatch> matches = new ArrayList<>(terms.size());
+            for (int i = 0; i < terms.size(); i++) {
+                TermMatch match = expand(terms.get(i), i == terms.size() - 1, liveDocuments);
+                if (match.estimatedSize == 0) {
+                    return new SearchResult(0, List.of());
+                }
+                matches.add(match);
+            }
+
+            // Only the rarest term is scored in full; the others are probed for its candidates
+            matches.sort((a, b) -> Long.compare(a.estimatedSize, b.estimatedSize));
+            ScoredDocuments result = scoreAll(matches.get(0), averageLength);
+            for (int i = 1; i < matches.size() && result.size > 0; i++) {
+                result = scoreCandidates(result, matches.get(i), averageLength);
+            }
+            if (filter != null) {
+                result = result.retain(document -> filter.test(productIds[document]));
+            }
+            return new SearchResult(result.size, topHits(result, offset, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private TermMatch expand(String term, boolean prefix, int liveDocuments) {
+        List<Postings> postings = new ArrayList<>();
+        List<Float> factors = new ArrayList<>();
+        Postings exact = dictionary.get(term);
+        if (exact != null) {
+            postings.add(exact);
+            factors.add(1f);
+        }
+        if (prefix) {
+            NavigableMap<String, Postings> candidates =
+                    dictionary.subMap(term, false, term + Character.MAX_VALUE, false);
+            for (Postings candidate : candidates.values()) {
+                if (postings.size() >= MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                postings.add(candidate);
+                factors.add(PREFIX_MATCH_FACTOR);
+            }
+        }
+
+        TermMatch match = new TermMatch(postings.toArray(new Postings[0]), new float[postings.size()]);
+        for (int i = 0; i < match.postings.length; i++) {
+            int documentFrequency = match.postings[i].live;
+            double idf = Math.log(1 + (liveDocuments - documentFrequency + 0.5) / (documentFrequency + 0.5));
+            match.weights[i] = (float) (factors.get(i) * idf);
+            match.estimatedSize += documentFrequency;
+        }
+        return match;
+    }
+
+    /** Scores every live document of the term, taking the best expansion per document. */
+    private ScoredDocuments scoreAll(TermMatch match, float averageLength) {
+        List<ScoredDocuments> expansions = new ArrayList<>(match.postings.length);
+        for (int i = 0; i < match.postings.length; i++) {
+            Postings postings = match.postings[i];
+            boolean hasRemoved = postings.live < postings.size;
+            int[] documents = hasRemoved ? new int[postings.live] : postings.documents;
+            float[] scores = new float[postings.live];
+            int n = 0;
+            for (int j = 0; j < postings.size; j++) {
+                int document = postings.documents[j];
+                if (hasRemoved) {
+                    if (documentTerms[document] == null) {
+                        continue;
+                    }
+                    documents[n] = document;
+                }
+                scores[n++] = bm25(match.weights[i], postings, j, averageLength);
+            }
+            expansions.add(new ScoredDocuments(documents, scores, n));
+        }
+
+        // Pairwise tree merge keeps the union at O(n log k)
+        while (expansions.size() > 1) {
+            List<ScoredDocuments> merged = new ArrayList<>((expansions.size() + 1) / 2);
+            for (int i = 0; i < expansions.size(); i += 2) {
+                merged.add(
+                        i + 1 < expansions.size()
+                                ? ScoredDocuments.union(expansions.get(i), expansions.get(i + 1))
+                                : expansions.get(i));
+            }
+            expansions = merged;
+        }
+        return expansions.get(0);
+    }
+
+    /** Keeps the candidates that also contain the term, adding its best score. */
+    private ScoredDocuments scoreCandidates(ScoredDocuments candidates, TermMatch match, float averageLength) {
+        int[] documents = new int[candidates.size];
+        float[] scores = new float[candidates.size];
+        int[] cursors = new int[match.postings.length];
+        int n = 0;
+        for (int c = 0; c < candidates.size; c++) {
+            int document = candidates.documents[c];
+            float best = -1f;
+            for (int i = 0; i < match.postings.length; i++) {
+                Postings postings = match.postings[i];
+                int position = postings.advance(cursors[i], document);
+                cursors[i] = position;
+                if (position < postings.size && postings.documents[position] == document) {
+                    best = Math.max(best, bm25(match.weights[i], postings, position, averageLength));
+                }
+            }
+            if (best >= 0f) {
+                documents[n] = document;
+                scores[n++] = candidates.scores[c] + best;
+            }
+        }
+        return new ScoredDocuments(documents, scores, n);
+    }
+
+    private float bm25(float weight, Postings postings, int position, float averageLength) {
+        int frequency = postings.frequencies[position];
+        float lengthNorm = 1 - B + B * documentLengths[postings.documents[position]] / averageLength;
+        return weight * (frequency * (K1 + 1)) / (frequency + K1 * lengthNorm);
+    }
+
+    private List<Hit> topHits(ScoredDocuments result, int offset, int limit) {
+        int wanted = offset + limit;
+        if (offset >= result.size) {
+            return List.of();
+        }
+
+        // Min-heap of the best "wanted" positions; ties go to the earlier indexed document
+        Comparator<Integer> byRank = (a, b) -> {
+            int byScore = Float.compare(result.scores[a], result.scores[b]);
+            return byScore != 0 ? byScore : Integer.compare(result.documents[b], result.documents[a]);
+        };
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.min(wanted, result.size) + 1, byRank);
+        for (int i = 0; i < result.size; i++) {
+            if (heap.size() < wanted) {
+                heap.offer(i);
+            } else if (result.scores[i] > result.scores[heap.peek()]) {
+                heap.poll();
+                heap.offer(i);
+            }
+        }
+
+        Hit[] ranked = new Hit[heap.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            int position = heap.poll();
+            ranked[i] = new Hit(productIds[result.documents[position]], result.scores[position]);
+        }
+        return Arrays.asList(ranked).subList(offset, ranked.length);
+    }
+
+    // -------------------------------------------------------------------------
+    // Tokenisation
+    // -------------------------------------------------------------------------
+
+    /** Lower-cases the text and splits it into distinct runs of letters and digits. */
+    public static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        forEachToken(text, tokens::add);
+        return tokens;
+    }
+
+    private static int addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        int[] length = {0};
+        forEachToken(text, token -> {
+            frequencies.merge(token, weight, Integer::sum);
+            length[0] += weight;
+        });
+        return length[0];
+    }
+
+    private static void forEachToken(String text, Consumer<String> consumer) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        String normalised = normalise(text);
+        int start = -1;
+        for (int i = 0; i <= normalised.length(); i++) {
+            boolean tokenChar = i < normalised.length() && Character.isLetterOrDigit(normalised.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                consumer.accept(truncate(normalised.substring(start, i)));
+                start = -1;
+            }
+        }
+    }
+
+    private static String normalise(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    private static String truncate(String token) {
+        return token.length() > MAX_TERM_LENGTH ? token.substring(0, MAX_TERM_LENGTH) : token;
+    }
+
+    // -------------------------------------------------------------------------
+    // Internals (callers hold the write lock)
+    // -------------------------------------------------------------------------
+
+    /** Marks the product's document removed; its postings entries stay until the next compaction. */
+    private void removeDocument(long productId) {
+        Integer document = documentsByProduct.remove(productId);
+        if (document == null) {
+            return;
+        }
+        for (Postings postings : documentTerms[document]) {
+            if (--postings.live == 0) {
+                dictionary.remove(postings.term);
+            }
+        }
+        totalLength -= documentLengths[document];
+        documentTerms[document] = null;
+        removedDocuments++;
+    }
+
+    private void compactIfSparse() {
+        if (removedDocuments >= MIN_REMOVED_TO_COMPACT && removedDocuments > documentsByProduct.size()) {
+            compact();
+        }
+    }
+
+    /** Renumbers the live documents in their current order and drops removed ones from every postings list. */
+    private void compact() {
+        int[] renumbered = new int[nextDocument];
+        int live = 0;
+        for (int document = 0; document < nextDocument; document++) {
+            if (documentTerms[document] == null) {
+                renumbered[document] = -1;
+                continue;
+            }
+            renumbered[document] = live;
+            productIds[live] = productIds[document];
+            documentLengths[live] = documentLengths[document];
+            documentTerms[live] = documentTerms[document];
+            documentsByProduct.put(productIds[live], live);
+            live++;
+        }
+        for (Postings postings : dictionary.values()) {
+            postings.renumber(renumbered);
+        }
+
+        int capacity = Math.max(INITIAL_CAPACITY, live * 2);
+        if (productIds.length > capacity) {
+            productIds = Arrays.copyOf(productIds, capacity);
+            documentLengths = Arrays.copyOf(documentLengths, capacity);
+            documentTerms = Arrays.copyOf(documentTerms, capacity);
+        }
+        Arrays.fill(documentTerms, live, Math.min(nextDocument, documentTerms.length), null);
+        nextDocument = live;
+        removedDocuments = 0;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= productIds.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, productIds.length * 2);
+        productIds = Arrays.copyOf(productIds, newCapacity);
+        documentLengths = Arrays.copyOf(documentLengths, newCapacity);
+        documentTerms = Arrays.copyOf(documentTerms, newCapacity);
+    }
+
+    /**
+     * Document numbers in ascending order with their weighted term frequencies. {@code size} counts
+     * removed documents not compacted away yet, {@code live} does not.
+     */
+    private static final class Postings {
+        private final String term;
+        private int[] documents = new int[2];
+        private int[] frequencies = new int[2];
+        private int size;
+        private int live;
+
+        private Postings(String term) {
+            this.term = term;
+        }
+
+        private void append(int document, int frequency) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            documents[size] = document;
+            frequencies[size] = frequency;
+            size++;
+            live++;
+        }
+
+        /** Index of the first document at or after {@code document}, galloping from {@code from}. */
+        private int advance(int from, int document) {
+            if (from >= size || documents[from] >= document) {
+                return from;
+            }
+            int step = 1;
+            int low = from;
+            int high = from + 1;
+            while (high < size && documents[high] < document) {
+                low = high;
+                step <<= 1;
+                high = from + step;
+            }
+            int index = Arrays.binarySearch(documents, low + 1, Math.min(high, size - 1) + 1, document);
+            return index >= 0 ? index : -index - 1;
+        }
+
+        /** Applies an order-preserving renumbering, dropping documents mapped to -1. */
+        private void renumber(int[] renumbered) {
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                int document = renumbered[documents[i]];
+                if (document >= 0) {
+                    documents[n] = document;
+                    frequencies[n++] = frequencies[i];
+                }
+            }
+            size = n;
+            if (documents.length > Math.max(2, n * 2)) {
+                documents = Arrays.copyOf(documents, Math.max(2, n));
+                frequencies = Arrays.copyOf(frequencies, Math.max(2, n));
+            }
+        }
+    }
+
+    /** The postings a query term resolves to, with the idf-based weight of each. */
+    private static final class TermMatch {
+        private final Postings[] postings;
+        private final float[] weights;
+        private long estimatedSize;
+
+        private TermMatch(Postings[] postings, float[] weights) {
+            this.postings = postings;
+            this.weights = weights;
+        }
+    }
+
+    /** A sorted run of document numbers with a score each. */
+    private record ScoredDocuments(int[] documents, float[] scores, int size) {
+
+        /** The documents accepted by {@code accept}; copied, as a single run shares its postings' array. */
+        private ScoredDocuments retain(IntPredicate accept) {
+            int[] kept = new int[size];
+            float[] keptScores = new float[size];
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (accept.test(documents[i])) {
+                    kept[n] = documents[i];
+                    keptScores[n++] = scores[i];
+                }
+            }
+            return new ScoredDocuments(kept, keptScores, n);
+        }
+
+        /** Documents in either run, keeping the better score. */
+        private static ScoredDocuments union(ScoredDocuments a, ScoredDocuments b) {
+            int[] documents = new int[a.size + b.size];
+            float[] scores = new float[a.size + b.size];
+            int i = 0, j = 0, n = 0;
+            while (i < a.size || j < b.size) {
+                if (j == b.size || (i < a.size && a.documents[i] < b.documents[j])) {
+                    documents[n] = a.documents[i];
+                    scores[n++] = a.scores[i++];
+                } else if (i == a.size || b.documents[j] < a.documents[i]) {
+                    documents[n] = b.documents[j];
+                    scores[n++] = b.scores[j++];
+                } else {
+                    documents[n] = a.documents[i];
+                    scores[n++] = Math.max(a.scores[i++], b.scores[j++]);
+                }
+            }
+            return new ScoredDocuments(documents, scores, n);
+        }
+    }
+}
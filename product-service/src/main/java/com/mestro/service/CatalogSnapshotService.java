@@ -0,0 +1,304 @@
+package com.mestro.service;
+
+import com.mestro.common.exception.ResourceNotFoundException;
+import com.mestro.common.model.Money;
+import com.mestro.common.utils.PricingUtils;
+import com.mestro.dto.CatalogDeltaDTO;
+import com.mestro.dto.CatalogEntryDTO;
+import com.mestro.dto.CatalogSnapshotDTO;
+import com.mestro.enums.ProductErrorCode;
+import com.mestro.model.Product;
+import com.mestro.repository.ProductInventoryRepository;
+import com.mestro.repository.ProductRepository;
+import com.mestro.snapshot.CatalogSnapshot;
+import com.mestro.snapshot.CatalogSnapshotWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Periodically exports the active catalog as a versioned {@link CatalogSnapshot} file.
+ * <p>
+ * Each run streams the products in keyset batches, takes stock from one grouped query and writes
+ * {@code catalog-<version>.snap} through a temporary file, so readers never see a partial snapshot.
+ * A run whose catalog matches the latest snapshot writes nothing. Only the newest snapshots are
+ * kept; a client holding a pruned version downloads the latest one in full instead of a delta.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CatalogSnapshotService {
+
+    private static final Pattern FILE_NAME = Pattern.compile("catalog-(\\d+)\\.snap");
+
+    private final ProductRepository productRepository;
+    private final ProductInventoryRepository productInventoryRepository;
+
+    @Value("${product.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${product.snapshot.directory:${java.io.tmpdir}/product-snapshots}")
+    private Path directory;
+
+    @Value("${product.snapshot.retain:5}")
+    private int retain;
+
+    @Value("${product.snapshot.batch-size:1000}")
+    private int batchSize;
+
+    // -------------------------------------------------------------------------
+    // Generation
+    // -------------------------------------------------------------------------
+
+    @Scheduled(
+            initialDelayString = "${product.snapshot.initial-delay:PT1M}",
+            fixedDelayString = "${product.snapshot.interval:PT15M}")
+    public void scheduledGenerate() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            generate();
+        } catch (RuntimeException e) {
+            log.error("Catalog snapshot generation failed", e);
+        }
+    }
+
+    /**
+     * Writes a new snapshot of the active catalog and returns it, or returns the latest snapshot
+     * unchanged if nothing in the catalog differs from it.
+     */
+    public synchronized CatalogSnapshotDTO generate() {
+        long started = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+            Long latest = latestVersion();
+            long version = latest == null ? 1L : latest + 1;
+
+            CatalogSnapshotWriter writer = collectCatalog();
+            Path temp = Files.createTempFile(directory, "catalog-", ".tmp");
+            try {
+                writer.writeTo(temp, version, Instant.now());
+                if (latest != null && sameCatalog(temp, snapshotPath(latest))) {
+                    log.info("Catalog unchanged since snapshot {}, nothing written", latest);
+                    return describe(snapshotPath(latest));
+                }
+                Path target = directory.resolve(fileName(version));
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                log.info(
+                        "Catalog snapshot {} written with {} products in {} ms",
+                        version,
+                        writer.size(),
+                        (System.nanoTime() - started) / 1_000_000);
+                prune();
+                return describe(target);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write catalog snapshot", e);
+        }
+    }
+
+    private CatalogSnapshotWriter collectCatalog() {
+        Map<Long, Integer> available = new HashMap<>();
+        for (Object[] row : productInventoryRepository.sumAvailableQuantityGroupByProduct()) {
+            available.put((Long) row[0], row[1] == null ? 0 : ((Number) row[1]).intValue());
+        }
+
+        CatalogSnapshotWriter writer = new CatalogSnapshotWriter();
+        long afterId = 0L;
+        List<Product> batch;
+        do {
+            batch = productRepository.findBatchAfterId(afterId, PageRequest.of(0, batchSize));
+            for (Product product : batch) {
+                if (Boolean.TRUE.equals(product.getIsActive())) {
+                    writer.add(
+                            product.getId(),
+                            product.getSku(),
+                            product.getName(),
+                            product.getCategory().getId(),
+                            Money.toMinorUnits(product.getPrice()),
+                            PricingUtils.effectiveUnitPriceMinor(
+                                    product.getPrice(), product.getDiscountPercentage(), product.getTaxRate()),
+                            available.getOrDefault(product.getId(), 0));
+                }
+                afterId = product.getId();
+            }
+        } while (batch.size() == batchSize);
+        return writer;
+    }
+
+    private static boolean sameCatalog(Path candidate, Path latest) throws IOException {
+        CatalogSnapshot a = CatalogSnapshot.open(candidate);
+        CatalogSnapshot b = CatalogSnapshot.open(latest);
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int row = 0; row < a.size(); row++) {
+            if (!a.sameRow(row, b, row)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void prune() throws IOException {
+        List<Long> versions = versions();
+        for (int i = 0; i < versions.size() - retain; i++) {
+            Files.deleteIfExists(directory.resolve(fileName(versions.get(i))));
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Queries
+    // -------------------------------------------------------------------------
+
+    /** Retained snapshots, oldest first. */
+    public List<CatalogSnapshotDTO> listSnapshots() {
+        List<CatalogSnapshotDTO> snapshots = new ArrayList<>();
+        for (Long version : versions()) {
+            try {
+                snapshots.add(describe(directory.resolve(fileName(version))));
+            } catch (IOException e) {
+                // Pruned between listing and reading
+                log.debug("Skipping catalog snapshot {}: {}", version, e.getMessage());
+            }
+        }
+        return snapshots;
+    }
+
+    public long getLatestVersion() {
+        Long latest = latestVersion();
+        if (latest == null) {
+            throw new ResourceNotFoundException(ProductErrorCode.SNAPSHOT_NOT_FOUND, "No catalog snapshot available");
+        }
+        return latest;
+    }
+
+    /** Path of a retained snapshot file. */
+    public Path getSnapshotPath(long version) {
+        Path path = snapshotPath(version);
+        if (!Files.isRegularFile(path)) {
+            throw new ResourceNotFoundException(
+                    ProductErrorCode.SNAPSHOT_NOT_FOUND, "Catalog snapshot not found with version: " + version);
+        }
+        return path;
+    }
+
+    /**
+     * Products added, changed or removed between two retained snapshots, found by merging their
+     * product ID columns.
+     */
+    public CatalogDeltaDTO getDelta(long fromVersion, long toVersion) {
+        if (fromVersion >= toVersion) {
+            throw new IllegalArgumentException("Delta 'from' version must be lower than 'to' version");
+        }
+        try {
+            CatalogSnapshot from = CatalogSnapshot.open(getSnapshotPath(fromVersion));
+            CatalogSnapshot to = CatalogSnapshot.open(getSnapshotPath(toVersion));
+
+            List<CatalogEntryDTO> upserts = new ArrayList<>();
+            List<Long> removed = new ArrayList<>();
+            int i = 0;
+            int j = 0;
+            while (i < from.size() || j < to.size()) {
+                long fromId = i < from.size() ? from.productId(i) : Long.MAX_VALUE;
+                long toId = j < to.size() ? to.productId(j) : Long.MAX_VALUE;
+                if (fromId < toId) {
+                    removed.add(fromId);
+                    i++;
+                } else if (toId < fromId) {
+                    upserts.add(toEntry(to, j));
+                    j++;
+                } else {
+                    if (!from.sameRow(i, to, j)) {
+                        upserts.add(toEntry(to, j));
+                    }
+                    i++;
+                    j++;
+                }
+            }
+
+            return CatalogDeltaDTO.builder()
+                    .fromVersion(fromVersion)
+                    .toVersion(toVersion)
+                    .upserts(upserts)
+                    .removedProductIds(removed)
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read catalog snapshot", e);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private List<Long> versions() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> FILE_NAME.matcher(path.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.valueOf(matcher.group(1)))
+                    .sorted(Comparator.naturalOrder())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list catalog snapshots", e);
+        }
+    }
+
+    private Long latestVersion() {
+        List<Long> versions = versions();
+        return versions.isEmpty() ? null : versions.get(versions.size() - 1);
+    }
+
+    private Path snapshotPath(long version) {
+        return directory.resolve(fileName(version));
+    }
+
+    private static String fileName(long version) {
+        return "catalog-" + version + ".snap";
+    }
+
+    private static CatalogSnapshotDTO describe(Path path) throws IOException {
+        CatalogSnapshot snapshot = CatalogSnapshot.open(path);
+        return CatalogSnapshotDTO.builder()
+                .version(snapshot.version())
+                .createdAt(snapshot.createdAt())
+                .productCount(snapshot.size())
+                .sizeBytes(Files.size(path))
+                .build();
+    }
+
+    private static CatalogEntryDTO toEntry(CatalogSnapshot snapshot, int row) {
+        return CatalogEntryDTO.builder()
+                .productId(snapshot.productId(row))
+                .sku(snapshot.sku(row))
+                .name(snapshot.name(row))
+                .categoryId(snapshot.categoryId(row))
+                .price(Money.toBigDecimal(snapshot.priceMinor(row)))
+                .effectivePrice(Money.toBigDecimal(snapshot.effectivePriceMinor(row)))
+                .availableQuantity(snapshot.availableQuantity(row))
+                .build();
+    }
+}
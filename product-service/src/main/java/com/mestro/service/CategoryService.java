@@ -1,7 +1,11 @@
 package com.mestro.service;
 
+import com.mestro.common.dto.CursorPageResponseDTO;
 import com.mestro.common.exception.ResourceAlreadyExistsException;
 import com.mestro.common.exception.ResourceNotFoundException;
+import com.mestro.common.utils.GeneralUtils;
+import com.mestro.common.utils.ResourceVersion;
+import com.mestro.dto.CategoryChangeEventDTO;
 import com.mestro.dto.CategoryDTO;
 import com.mestro.enums.ProductErrorCode;
 import com.mestro.model.Category;
@@ -11,6 +15,7 @@ import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,6 +26,8 @@ import org.springframework.transaction.annotation.Transactional;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final CategoryTreeService categoryTreeService;
+    private final ApplicationEventPublisher eventPublisher;
     private final ModelMapper modelMapper;
 
     public CategoryDTO createCategory(CategoryDTO categoryDTO) {
@@ -35,6 +42,7 @@ public class CategoryService {
 
         Category category = modelMapper.map(categoryDTO, Category.class);
         Category savedCategory = categoryRepository.save(category);
+        publishChange(savedCategory.getId(), false);
 
         log.info("Category created successfully with ID: {}", savedCategory.getId());
         return modelMapper.map(savedCategory, CategoryDTO.class);
@@ -52,13 +60,31 @@ public class CategoryService {
         return modelMapper.map(category, CategoryDTO.class);
     }
 
+    /** Version of the category for conditional GETs, without loading or mapping it. */
     @Transactional(readOnly = true)
-    public List<CategoryDTO> getAllCategories() {
-        log.info("Fetching all categories");
+    public ResourceVersion getCategoryVersion(Long id) {
+        return categoryRepository.findVersionById(id).stream()
+                .findFirst()
+                .map(ResourceVersion::of)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        ProductErrorCode.CATEGORY_NOT_FOUND, "Category not found with ID: " + id));
+    }
 
-        return categoryRepository.findAll().stream()
+    /** Version of the whole category list, covering additions, updates and deletions. */
+    @Transactional(readOnly = true)
+    public ResourceVersion getCategoriesVersion() {
+        return ResourceVersion.of(categoryRepository.findCollectionVersion().get(0));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<CategoryDTO> getAllCategories(Long afterId, int size) {
+        log.info("Fetching categories after ID: {}", afterId);
+
+        List<Category> rows = categoryRepository.findPageAfterId(
+                afterId != null ? afterId : 0L, GeneralUtils.cursorPageRequest(size));
+        return GeneralUtils.cursorResponse(rows, size, Category::getId, page -> page.stream()
                 .map(category -> modelMapper.map(category, CategoryDTO.class))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Transactional(readOnly = true)
@@ -95,6 +121,12 @@ public class CategoryService {
                     "Category with name '" + categoryDTO.getName() + "' already exists");
         }
 
+        // A category cannot be moved underneath itself
+        Long parentCategoryId = categoryDTO.getParentCategoryId();
+        if (parentCategoryId != null && categoryTreeService.getTree().isInSubtree(id, parentCategoryId)) {
+            throw new IllegalArgumentException("Category " + id + " cannot be moved under its own subtree");
+        }
+
         existingCategory.setName(categoryDTO.getName());
         existingCategory.setDescription(categoryDTO.getDescription());
         existingCategory.setImageUrl(categoryDTO.getImageUrl());
@@ -105,6 +137,7 @@ public class CategoryService {
         }
 
         Category updatedCategory = categoryRepository.save(existingCategory);
+        publishChange(id, false);
 
         log.info("Category updated successfully with ID: {}", id);
         return modelMapper.map(updatedCategory, CategoryDTO.class);
@@ -125,6 +158,7 @@ public class CategoryService {
         }
 
         categoryRepository.delete(category);
+        publishChange(id, true);
         log.info("Category deleted successfully with ID: {}", id);
     }
 
@@ -138,8 +172,16 @@ public class CategoryService {
 
         category.setIsActive(!category.getIsActive());
         Category updatedCategory = categoryRepository.save(category);
+        publishChange(id, false);
 
         log.info("Category status toggled successfully. New status: {}", updatedCategory.getIsActive());
         return modelMapper.map(updatedCategory, CategoryDTO.class);
     }
+
+    private void publishChange(Long categoryId, boolean deleted) {
+        eventPublisher.publishEvent(CategoryChangeEventDTO.builder()
+                .categoryId(categoryId)
+                .deleted(deleted)
+                .build());
+    }
 }
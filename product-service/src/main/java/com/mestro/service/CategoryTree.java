@@ -0,0 +1,166 @@
+package com.mestro.service;
+
+import com.mestro.model.Category;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable snapshot of the category hierarchy.
+ * <p>
+ * Built in one pass from the flat {@code parentCategoryId} links, with every node's descendant set
+ * precomputed so subtree and breadcrumb lookups never touch the database. A category whose parent is
+ * missing is treated as a root, and a parent cycle is broken at the first member reached.
+ */
+public final class CategoryTree {
+
+    public static final CategoryTree EMPTY = new CategoryTree(Map.of(), List.of(), Map.of());
+
+    /** A category with its effective parent and its children in name order. */
+    public record Node(Long id, Long parentId, String name, boolean active, List<Long> childIds) {}
+
+    private final Map<Long, Node> nodes;
+    private final List<Long> rootIds;
+    private final Map<Long, List<Long>> descendantIds;
+
+    private CategoryTree(Map<Long, Node> nodes, List<Long> rootIds, Map<Long, List<Long>> descendantIds) {
+        this.nodes = nodes;
+        this.rootIds = rootIds;
+        this.descendantIds = descendantIds;
+    }
+
+    public static CategoryTree of(List<Category> categories) {
+        List<Category> ordered = new ArrayList<>(categories);
+        ordered.sort(Comparator.comparing(Category::getName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                .thenComparing(Category::getId));
+
+        Map<Long, Category> byId = new HashMap<>();
+        ordered.forEach(category -> byId.put(category.getId(), category));
+
+        Map<Long, List<Long>> declaredChildren = new HashMap<>();
+        List<Long> declaredRoots = new ArrayList<>();
+        for (Category category : ordered) {
+            Long parentId = category.getParentCategoryId();
+            if (parentId != null && byId.containsKey(parentId) && !parentId.equals(category.getId())) {
+                declaredChildren
+                        .computeIfAbsent(parentId, key -> new ArrayList<>())
+                        .add(category.getId());
+            } else {
+                declaredRoots.add(category.getId());
+            }
+        }
+
+        // Depth-first walk from the roots; categories still unvisited afterwards sit on a cycle and
+        // the first one reached becomes a root. Pre-order is recorded for the descendant pass below.
+        Map<Long, Long> parents = new HashMap<>();
+        Map<Long, List<Long>> children = new HashMap<>();
+        List<Long> roots = new ArrayList<>();
+        List<Long> preOrder = new ArrayList<>(ordered.size());
+        List<Long> starts = new ArrayList<>(declaredRoots);
+        ordered.forEach(category -> starts.add(category.getId()));
+        for (Long start : starts) {
+            if (parents.containsKey(start)) {
+                continue;
+            }
+            roots.add(start);
+            parents.put(start, null);
+            Deque<Long> stack = new ArrayDeque<>();
+            stack.push(start);
+            while (!stack.isEmpty()) {
+                Long id = stack.pop();
+                preOrder.add(id);
+                List<Long> visitedChildren = new ArrayList<>();
+                for (Long childId : declaredChildren.getOrDefault(id, List.of())) {
+                    if (!parents.containsKey(childId)) {
+                        parents.put(childId, id);
+                        visitedChildren.add(childId);
+                    }
+                }
+                children.put(id, Collections.unmodifiableList(visitedChildren));
+                for (int i = visitedChildren.size() - 1; i >= 0; i--) {
+                    stack.push(visitedChildren.get(i));
+                }
+            }
+        }
+
+        // Reverse pre-order visits every child before its parent
+        Map<Long, List<Long>> descendants = new HashMap<>();
+        for (int i = preOrder.size() - 1; i >= 0; i--) {
+            Long id = preOrder.get(i);
+            List<Long> subtree = new ArrayList<>();
+            subtree.add(id);
+            for (Long childId : children.get(id)) {
+                subtree.addAll(descendants.get(childId));
+            }
+            descendants.put(id, Collections.unmodifiableList(subtree));
+        }
+
+        Map<Long, Node> nodes = new LinkedHashMap<>();
+        for (Long id : preOrder) {
+            Category category = byId.get(id);
+            nodes.put(
+                    id,
+                    new Node(
+                            id,
+                            parents.get(id),
+                            category.getName(),
+                            Boolean.TRUE.equals(category.getIsActive()),
+                            children.get(id)));
+        }
+        return new CategoryTree(Collections.unmodifiableMap(nodes), Collections.unmodifiableList(roots), descendants);
+    }
+
+    public Optional<Node> find(Long id) {
+        return Optional.ofNullable(nodes.get(id));
+    }
+
+    public List<Node> roots() {
+        return rootIds.stream().map(nodes::get).toList();
+    }
+
+    public List<Node> children(Long id) {
+        Node node = nodes.get(id);
+        return node == null
+                ? List.of()
+                : node.childIds().stream().map(nodes::get).toList();
+    }
+
+    /** The path from the root down to the category itself, or empty for an unknown ID. */
+    public List<Node> breadcrumbs(Long id) {
+        List<Node> path = new ArrayList<>();
+        for (Node node = nodes.get(id);
+                node != null;
+                node = node.parentId() == null ? null : nodes.get(node.parentId())) {
+            path.add(node);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /** The category and all categories below it, in depth-first order; empty for an unknown ID. */
+    public List<Long> subtreeIds(Long id) {
+        return descendantIds.getOrDefault(id, List.of());
+    }
+
+    public boolean isInSubtree(Long rootId, Long id) {
+        for (Node node = nodes.get(id);
+                node != null;
+                node = node.parentId() == null ? null : nodes.get(node.parentId())) {
+            if (node.id().equals(rootId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+}
@@ -0,0 +1,102 @@
+package com.mestro.service;
+
+import com.mestro.common.exception.ResourceNotFoundException;
+import com.mestro.dto.CategoryChangeEventDTO;
+import com.mestro.dto.CategoryTreeNodeDTO;
+import com.mestro.enums.ProductErrorCode;
+import com.mestro.repository.CategoryRepository;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Serves the category hierarchy from a cached {@link CategoryTree}.
+ * <p>
+ * The tree is loaded on first use and replaced wholesale after every committed category change, so
+ * readers always see a complete, consistent snapshot without locking.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CategoryTreeService {
+
+    private final CategoryRepository categoryRepository;
+
+    private volatile CategoryTree tree;
+
+    public CategoryTree getTree() {
+        CategoryTree current = tree;
+        if (current == null) {
+            synchronized (this) {
+                current = tree;
+                if (current == null) {
+                    current = load();
+                    tree = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public List<CategoryTreeNodeDTO> getFullTree(boolean activeOnly) {
+        CategoryTree current = getTree();
+        return toDTOs(current, current.roots(), activeOnly);
+    }
+
+    /** The chain of categories from the root down to (and including) the given category. */
+    public List<CategoryTreeNodeDTO> getBreadcrumbs(Long categoryId) {
+        CategoryTree current = getTree();
+        requireNode(current, categoryId);
+        return current.breadcrumbs(categoryId).stream()
+                .map(node -> toDTO(node, null))
+                .toList();
+    }
+
+    /** The IDs of the category and every category below it. */
+    public List<Long> getSubtreeIds(Long categoryId) {
+        CategoryTree current = getTree();
+        requireNode(current, categoryId);
+        return current.subtreeIds(categoryId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangeEventDTO change) {
+        log.debug("Rebuilding category tree after change to category ID: {}", change.getCategoryId());
+        synchronized (this) {
+            tree = load();
+        }
+    }
+
+    private CategoryTree load() {
+        CategoryTree loaded = CategoryTree.of(categoryRepository.findAll());
+        log.info("Category tree loaded with {} categories", loaded.size());
+        return loaded;
+    }
+
+    private static void requireNode(CategoryTree current, Long categoryId) {
+        if (current.find(categoryId).isEmpty()) {
+            throw new ResourceNotFoundException(
+                    ProductErrorCode.CATEGORY_NOT_FOUND, "Category not found with ID: " + categoryId);
+        }
+    }
+
+    private static List<CategoryTreeNodeDTO> toDTOs(
+            CategoryTree current, List<CategoryTree.Node> nodes, boolean activeOnly) {
+        return nodes.stream()
+                .filter(node -> !activeOnly || node.active())
+                .map(node -> toDTO(node, toDTOs(current, current.children(node.id()), activeOnly)))
+                .toList();
+    }
+
+    private static CategoryTreeNodeDTO toDTO(CategoryTree.Node node, List<CategoryTreeNodeDTO> children) {
+        return CategoryTreeNodeDTO.builder()
+                .id(node.id())
+                .parentCategoryId(node.parentId())
+                .name(node.name())
+                .isActive(node.active())
+                .children(children)
+                .build();
+    }
+}
@@ -0,0 +1,600 @@
+package com.mestro.service;
+
+import com.mestro.common.exception.ResourceNotFoundException;
+import com.mestro.dto.HotStockDTO;
+import com.mestro.dto.ProductInventoryDTO;
+import com.mestro.enums.ProductErrorCode;
+import com.mestro.hotstock.HotStockDelta;
+import com.mestro.hotstock.HotStockJournal;
+import com.mestro.hotstock.StripedCounter;
+import com.mestro.model.HotStockLease;
+import com.mestro.model.ProductInventory;
+import com.mestro.model.Warehouse;
+import com.mestro.repository.HotStockLeaseRepository;
+import com.mestro.repository.ProductInventoryRepository;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Opt-in hot stock mode for inventory rows that take more reservations than one database row can
+ * serve.
+ * <p>
+ * This instance claims part of a hot row's available stock (its allotment, tracked in a
+ * {@link HotStockLease}) into a {@link StripedCounter}, and serves the row's reservations and
+ * releases from that counter without a row lock or a database connection. Each change is made
+ * durable in the {@link HotStockJournal} before it is acknowledged; {@link ProductInventoryService}
+ * writes the accumulated changes back to the row, the ledger and the availability totals in
+ * batches. On startup, journal entries past each lease's watermark are queued for write-back again
+ * and the leased rows are demoted.
+ * <p>
+ * Rows are promoted by hand or, with auto-promotion on, once their reservation rate reaches
+ * {@code promote-rate}; automatically promoted rows are demoted when it drops below
+ * {@code demote-rate}. A demoted row stops serving from memory at once and returns what is left of
+ * its allotment after its last changes are written back. Every instance needs its own stable
+ * {@code instance-id}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HotStockService {
+
+    private final ProductInventoryRepository inventoryRepository;
+    private final HotStockLeaseRepository leaseRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${product.hot-stock.enabled:false}")
+    private boolean enabled;
+
+    @Value("${product.hot-stock.instance-id:product-service}")
+    private String instanceId;
+
+    @Value("${product.hot-stock.journal-directory:${java.io.tmpdir}/product-hot-stock}")
+    private Path journalDirectory;
+
+    @Value("${product.hot-stock.stripes:16}")
+    private int stripes;
+
+    // Units claimed from the row whenever the counter runs short
+    @Value("${product.hot-stock.refill-size:100}")
+    private int refillSize;
+
+    @Value("${product.hot-stock.max-rows:100}")
+    private int maxRows;
+
+    @Value("${product.hot-stock.auto-promote:true}")
+    private boolean autoPromote;
+
+    @Value("${product.hot-stock.evaluation-window:PT10S}")
+    private Duration evaluationWindow;
+
+    // Reservations per second on one row
+    @Value("${product.hot-stock.promote-rate:50}")
+    private double promoteRate;
+
+    @Value("${product.hot-stock.demote-rate:5}")
+    private double demoteRate;
+
+    private final Map<Long, HotRow> rows = new ConcurrentHashMap<>();
+    private final Map<Location, Long> rowsByLocation = new ConcurrentHashMap<>();
+    // Changes that are durable in the journal but not written back yet; guarded by itself
+    private final Map<Long, HotStockDelta> pending = new HashMap<>();
+    private volatile Map<Long, LongAdder> reservations = new ConcurrentHashMap<>();
+    private volatile HotStockJournal journal;
+    private long windowStartedAt = System.nanoTime();
+
+    private record Location(Long productId, Long warehouseId) {}
+
+    private static final class HotRow {
+        private final long inventoryId;
+        private final StripedCounter stock;
+        // Units reserved through this counter that it may release again
+        private final AtomicInteger releasable = new AtomicInteger();
+        private final AtomicInteger unflushed = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final ReentrantLock refillLock = new ReentrantLock();
+        // The row as of promotion or its last write-back
+        private volatile ProductInventoryDTO base;
+        private volatile boolean active;
+        private volatile boolean pinned;
+        private volatile double rate;
+
+        private HotRow(long inventoryId, StripedCounter stock) {
+            this.inventoryId = inventoryId;
+            this.stock = stock;
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Reservations
+    // -------------------------------------------------------------------------
+
+    /**
+     * Reserves from the row's counter if the row is hot here, claiming more of the row's stock when
+     * the counter runs short. Returns {@code null} if the reservation is not served from memory.
+     */
+    public ProductInventoryDTO tryReserve(Long inventoryId, int quantity) {
+        HotRow row = rows.get(inventoryId);
+        if (row == null || quantity <= 0) {
+            return null;
+        }
+        countReservation(inventoryId);
+        row.inFlight.incrementAndGet();
+        try {
+            if (!row.active) {
+                return null;
+            }
+            if (!row.stock.tryTake(quantity) && !(refill(row, quantity) && row.stock.tryTake(quantity))) {
+                throw new IllegalArgumentException(
+                        "Insufficient stock to reserve from inventory ID: " + inventoryId + ", Requested: " + quantity);
+            }
+            row.unflushed.addAndGet(quantity);
+            try {
+                journal.append(inventoryId, quantity).join();
+            } catch (CompletionException e) {
+                row.unflushed.addAndGet(-quantity);
+                row.stock.add(quantity);
+                throw new IllegalStateException(
+                        "Failed to journal reservation for inventory ID: " + inventoryId, e.getCause());
+            }
+            row.releasable.addAndGet(quantity);
+            return view(row);
+        } finally {
+            row.inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Releases into the row's counter if the row is hot here and the units were reserved through
+     * it. Returns {@code null} if the release is not served from memory.
+     */
+    public ProductInventoryDTO tryRelease(Long inventoryId, int quantity) {
+        HotRow row = rows.get(inventoryId);
+        if (row == null || quantity <= 0) {
+            return null;
+        }
+        row.inFlight.incrementAndGet();
+        try {
+            if (!row.active || !takeReleasable(row, quantity)) {
+                return null;
+            }
+            row.unflushed.addAndGet(-quantity);
+            try {
+                journal.append(inventoryId, -quantity).join();
+            } catch (CompletionException e) {
+                row.unflushed.addAndGet(quantity);
+                row.releasable.addAndGet(quantity);
+                throw new IllegalStateException(
+                        "Failed to journal release for inventory ID: " + inventoryId, e.getCause());
+            }
+            row.stock.add(quantity);
+            return view(row);
+        } finally {
+            row.inFlight.decrementAndGet();
+        }
+    }
+
+    /** ID of the hot row of a product at a warehouse, or {@code null} if there is none. */
+    public Long getHotInventoryId(Long productId, Long warehouseId) {
+        return rowsByLocation.get(new Location(productId, warehouseId));
+    }
+
+    public boolean isHot(Long inventoryId) {
+        return rows.containsKey(inventoryId);
+    }
+
+    /** Counts a reservation towards the row's rate for automatic promotion. */
+    public void countReservation(Long inventoryId) {
+        if (!enabled) {
+            return;
+        }
+        Map<Long, LongAdder> window = reservations;
+        LongAdder count = window.get(inventoryId);
+        if (count == null) {
+            count = window.computeIfAbsent(inventoryId, id -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    private static boolean takeReleasable(HotRow row, int quantity) {
+        while (true) {
+            int current = row.releasable.get();
+            if (current < quantity) {
+                return false;
+            }
+            if (row.releasable.compareAndSet(current, current - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean refill(HotRow row, int needed) {
+        row.refillLock.lock();
+        try {
+            int held = row.stock.sum();
+            if (held >= needed) {
+                return true;
+            }
+            Integer claimed = transactionTemplate.execute(
+                    status -> claim(row.inventoryId, Math.max(refillSize, needed - held), needed - held));
+            if (claimed == null || claimed == 0) {
+                return false;
+            }
+            row.stock.add(claimed);
+            return true;
+        } finally {
+            row.refillLock.unlock();
+        }
+    }
+
+    /** Claims up to {@code wanted} of the row's unallotted units, or none if fewer than {@code minimum} are left. */
+    private int claim(long inventoryId, int wanted, int minimum) {
+        ProductInventory inventory = inventoryRepository.findById(inventoryId).orElse(null);
+        if (inventory == null) {
+            return 0;
+        }
+        int amount = Math.min(wanted, inventory.getUnallottedAvailable());
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC"));
+        if (amount <= 0 || amount < minimum || inventoryRepository.claimHotAllotment(inventoryId, amount, now) == 0) {
+            return 0;
+        }
+        leaseRepository.addAllotment(instanceId, inventoryId, amount, now);
+        return amount;
+    }
+
+    // -------------------------------------------------------------------------
+    // Promotion and demotion
+    // -------------------------------------------------------------------------
+
+    /** Promotes the row by hand; it stays hot until it is demoted by hand. */
+    public HotStockDTO promote(Long inventoryId) {
+        return toDTO(promote(inventoryId, true));
+    }
+
+    /**
+     * Stops serving the row from memory. What is left of its allotment is returned once its last
+     * changes are written back.
+     */
+    public synchronized HotStockDTO demote(Long inventoryId) {
+        HotRow row = rows.get(inventoryId);
+        if (row == null || !row.active) {
+            throw new IllegalArgumentException("Inventory ID: " + inventoryId + " is not in hot stock mode");
+        }
+        row.active = false;
+        log.info("Demoting inventory ID: {} from hot stock", inventoryId);
+        return toDTO(row);
+    }
+
+    public List<HotStockDTO> getHotRows() {
+        return rows.values().stream()
+                .sorted(Comparator.comparingLong(row -> row.inventoryId))
+                .map(HotStockService::toDTO)
+                .toList();
+    }
+
+    private synchronized HotRow promote(Long inventoryId, boolean pinned) {
+        if (!enabled) {
+            throw new IllegalArgumentException("Hot stock mode is disabled");
+        }
+        HotRow existing = rows.get(inventoryId);
+        if (existing != null) {
+            if (!existing.active) {
+                throw new IllegalArgumentException(
+                        "Inventory ID: " + inventoryId + " is still being demoted, try again shortly");
+            }
+            existing.pinned |= pinned;
+            return existing;
+        }
+        if (rows.size() >= maxRows) {
+            throw new IllegalArgumentException("Hot stock mode is limited to " + maxRows + " inventories");
+        }
+        HotStockJournal current = journal;
+        if (current == null) {
+            throw new IllegalStateException("Hot stock journal is not open yet");
+        }
+
+        HotRow row = new HotRow(inventoryId, new StripedCounter(stripes));
+        Integer claimed = transactionTemplate.execute(status -> {
+            ProductInventory inventory = inventoryRepository
+                    .findById(inventoryId)
+                    .orElseThrow(() -> new ResourceNotFoundException(
+                            ProductErrorCode.INVENTORY_NOT_FOUND, "Inventory not found with ID: " + inventoryId));
+            row.base = toBase(inventory);
+            int amount = Math.min(refillSize, inventory.getUnallottedAvailable());
+            LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC"));
+            if (amount <= 0 || inventoryRepository.claimHotAllotment(inventoryId, amount, now) == 0) {
+                amount = 0;
+            }
+            leaseRepository.save(HotStockLease.builder()
+                    .instanceId(instanceId)
+                    .inventoryId(inventoryId)
+                    .allotment(amount)
+                    .lastSequence(current.lastSequence())
+                    .build());
+            return amount;
+        });
+        if (claimed != null && claimed > 0) {
+            row.stock.add(claimed);
+        }
+        row.pinned = pinned;
+        row.active = true;
+        rows.put(inventoryId, row);
+        rowsByLocation.put(new Location(row.base.getProductId(), row.base.getWarehouseId()), inventoryId);
+        log.info("Inventory ID: {} promoted to hot stock with {} units", inventoryId, claimed);
+        return row;
+    }
+
+    // -------------------------------------------------------------------------
+    // Write-back
+    // -------------------------------------------------------------------------
+
+    /** Takes the changes waiting to be written back. */
+    public List<HotStockDelta> drainPending() {
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return List.of();
+            }
+            List<HotStockDelta> deltas = new ArrayList<>(pending.values());
+            pending.clear();
+            return deltas;
+        }
+    }
+
+    /** Puts back changes whose write-back failed. */
+    public void restorePending(List<HotStockDelta> deltas) {
+        synchronized (pending) {
+            deltas.forEach(delta -> pending.merge(delta.inventoryId(), delta, HotStockDelta::plus));
+        }
+    }
+
+    /** Takes written-back units off the lease; runs in the write-back's transaction. */
+    public void recordWriteBack(HotStockDelta delta) {
+        leaseRepository.applyWriteBack(
+                instanceId,
+                delta.inventoryId(),
+                delta.delta(),
+                delta.lastSequence(),
+                LocalDateTime.now(ZoneId.of("UTC")));
+    }
+
+    /** Called once a write-back has committed, with the rows as they now are. */
+    public void completeWriteBack(List<HotStockDelta> deltas, Map<Long, ProductInventoryDTO> written) {
+        for (HotStockDelta delta : deltas) {
+            HotRow row = rows.get(delta.inventoryId());
+            if (row != null) {
+                ProductInventoryDTO base = written.get(delta.inventoryId());
+                if (base != null) {
+                    row.base = base;
+                }
+                row.unflushed.addAndGet(-delta.delta());
+            }
+        }
+    }
+
+    /**
+     * Finishes demotions, reevaluates promotion once per window and empties the journal when
+     * everything in it is written back. Called after each write-back.
+     */
+    public void maintain() {
+        finishDemotions();
+        long now = System.nanoTime();
+        if (now - windowStartedAt >= evaluationWindow.toNanos()) {
+            evaluate((now - windowStartedAt) / 1e9);
+            windowStartedAt = now;
+        }
+        HotStockJournal current = journal;
+        if (current != null) {
+            current.truncateIf(this::nothingPending);
+        }
+    }
+
+    private void finishDemotions() {
+        for (HotRow row : rows.values()) {
+            if (row.active || row.inFlight.get() > 0 || hasPending(row.inventoryId)) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> leaseRepository
+                        .findByInstanceIdAndInventoryId(instanceId, row.inventoryId)
+                        .ifPresent(lease -> {
+                            leaseRepository.delete(lease);
+                            inventoryRepository.returnHotAllotment(
+                                    row.inventoryId, lease.getAllotment(), LocalDateTime.now(ZoneId.of("UTC")));
+                        }));
+            } catch (RuntimeException e) {
+                log.error("Failed to return hot stock allotment of inventory ID: {}", row.inventoryId, e);
+                continue;
+            }
+            rows.remove(row.inventoryId);
+            if (row.base != null) {
+                rowsByLocation.remove(
+                        new Location(row.base.getProductId(), row.base.getWarehouseId()), row.inventoryId);
+            }
+            log.info("Inventory ID: {} left hot stock", row.inventoryId);
+        }
+    }
+
+    private void evaluate(double seconds) {
+        Map<Long, LongAdder> window = reservations;
+        reservations = new ConcurrentHashMap<>();
+
+        for (HotRow row : rows.values()) {
+            LongAdder count = window.get(row.inventoryId);
+            row.rate = count == null ? 0 : count.sum() / seconds;
+            if (row.active && !row.pinned && row.rate < demoteRate) {
+                log.info("Inventory ID: {} cooled down to {} reservations/s", row.inventoryId, row.rate);
+                row.active = false;
+            }
+        }
+        if (!enabled || !autoPromote) {
+            return;
+        }
+        window.forEach((inventoryId, count) -> {
+            double rate = count.sum() / seconds;
+            if (rate >= promoteRate && !rows.containsKey(inventoryId) && rows.size() < maxRows) {
+                log.info("Inventory ID: {} reached {} reservations/s, promoting to hot stock", inventoryId, rate);
+                try {
+                    promote(inventoryId, false).rate = rate;
+                } catch (RuntimeException e) {
+                    log.warn("Failed to promote inventory ID: {} to hot stock: {}", inventoryId, e.getMessage());
+                }
+            }
+        });
+    }
+
+    private void onDurable(List<HotStockJournal.Entry> entries) {
+        synchronized (pending) {
+            for (HotStockJournal.Entry entry : entries) {
+                pending.merge(
+                        entry.inventoryId(),
+                        new HotStockDelta(entry.inventoryId(), entry.delta(), entry.sequence()),
+                        HotStockDelta::plus);
+            }
+        }
+    }
+
+    private boolean hasPending(long inventoryId) {
+        synchronized (pending) {
+            return pending.containsKey(inventoryId);
+        }
+    }
+
+    private boolean nothingPending() {
+        synchronized (pending) {
+            return pending.isEmpty();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Recovery
+    // -------------------------------------------------------------------------
+
+    /**
+     * Queues the journal entries not yet written back and demotes every row this instance still
+     * holds a lease on, then opens the journal for new entries.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        List<HotStockLease> leases = leaseRepository.findByInstanceId(instanceId);
+        if (!enabled && leases.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(journalDirectory);
+            Path path =
+                    journalDirectory.resolve("hot-stock-" + instanceId.replaceAll("[^A-Za-z0-9._-]", "_") + ".journal");
+            Map<Long, Long> watermarks = leases.stream()
+                    .collect(Collectors.toMap(HotStockLease::getInventoryId, HotStockLease::getLastSequence));
+            long lastSequence = watermarks.values().stream()
+                    .mapToLong(Long::longValue)
+                    .max()
+                    .orElse(0L);
+            int replayed = 0;
+            for (HotStockJournal.Entry entry : HotStockJournal.read(path)) {
+                lastSequence = Math.max(lastSequence, entry.sequence());
+                Long watermark = watermarks.get(entry.inventoryId());
+                if (watermark != null && entry.sequence() > watermark) {
+                    onDurable(List.of(entry));
+                    replayed++;
+                }
+            }
+            for (HotStockLease lease : leases) {
+                rows.put(lease.getInventoryId(), new HotRow(lease.getInventoryId(), new StripedCounter(1)));
+            }
+            journal = HotStockJournal.open(path, lastSequence, this::onDurable);
+            if (!leases.isEmpty()) {
+                log.info(
+                        "Recovering {} hot stock inventories, {} journal entries to write back",
+                        leases.size(),
+                        replayed);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to recover hot stock journal", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        HotStockJournal current = journal;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private static ProductInventoryDTO view(HotRow row) {
+        ProductInventoryDTO base = row.base;
+        int unflushed = row.unflushed.get();
+        int available = base.getQuantityAvailable() - unflushed;
+        return ProductInventoryDTO.builder()
+                .id(base.getId())
+                .productId(base.getProductId())
+                .warehouseId(base.getWarehouseId())
+                .warehouseName(base.getWarehouseName())
+                .quantityAvailable(available)
+                .quantityReserved(base.getQuantityReserved() + unflushed)
+                .reorderLevel(base.getReorderLevel())
+                .totalQuantity(base.getTotalQuantity())
+                .isLowStock(available <= base.getReorderLevel())
+                .createdAt(base.getCreatedAt())
+                .updatedAt(base.getUpdatedAt())
+                .build();
+    }
+
+    private static ProductInventoryDTO toBase(ProductInventory inventory) {
+        Warehouse warehouse = inventory.getWarehouse();
+        return ProductInventoryDTO.builder()
+                .id(inventory.getId())
+                .productId(inventory.getProduct().getId())
+                .warehouseId(warehouse != null ? warehouse.getId() : null)
+                .warehouseName(warehouse != null ? warehouse.getName() : null)
+                .quantityAvailable(inventory.getQuantityAvailable())
+                .quantityReserved(inventory.getQuantityReserved())
+                .reorderLevel(inventory.getReorderLevel())
+                .totalQuantity(inventory.getTotalQuantity())
+                .isLowStock(inventory.isLowStock())
+                .createdAt(inventory.getCreatedAt())
+                .updatedAt(inventory.getUpdatedAt())
+                .build();
+    }
+
+    private static HotStockDTO toDTO(HotRow row) {
+        ProductInventoryDTO base = row.base;
+        return HotStockDTO.builder()
+                .inventoryId(row.inventoryId)
+                .productId(base != null ? base.getProductId() : null)
+                .warehouseId(base != null ? base.getWarehouseId() : null)
+                .pinned(row.pinned)
+                .draining(!row.active)
+                .allotted(row.stock.sum())
+                .pendingReserved(row.unflushed.get())
+                .reservationRate(row.rate)
+                .build();
+    }
+}
@@ -0,0 +1,171 @@
+package com.mestro.service;
+
+import com.mestro.dto.InventoryChangeEventDTO;
+import com.mestro.dto.ProductChangeEventDTO;
+import com.mestro.repository.ProductInventoryRepository;
+import com.mestro.search.InStockBitmap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Which products are in stock, as an {@link InStockBitmap} over product IDs.
+ * <p>
+ * The bitmap is built from the inventory totals once the application is ready (or by the first
+ * request, if that comes earlier) and kept current from the inventory change events published after
+ * each commit. A change that leaves its row with stock sets the product's bit without a query; only
+ * a row running out, or being deleted, costs one sum over the product's rows. Listing and search
+ * use it to filter in memory, and clients download it to filter on their side.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InStockIndexService {
+
+    private final ProductInventoryRepository inventoryRepository;
+
+    @Value("${product.in-stock.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    private final Object rebuildLock = new Object();
+
+    private final InStockBitmap bitmap = new InStockBitmap();
+    private volatile boolean ready;
+
+    // Guarded by "this": changes that arrive while a rebuild is running, replayed onto the new bitmap
+    private List<Consumer<InStockBitmap>> pendingChanges;
+
+    // -------------------------------------------------------------------------
+    // Queries
+    // -------------------------------------------------------------------------
+
+    public boolean isInStock(long productId) {
+        if (!ready) {
+            awaitBitmap();
+        }
+        return bitmap.contains(productId);
+    }
+
+    /**
+     * Filter for product IDs: in stock if {@code inStock} is true, out of stock if it is false, and
+     * {@code null} (no filter) if it is {@code null}.
+     */
+    public LongPredicate filter(Boolean inStock) {
+        if (inStock == null) {
+            return null;
+        }
+        if (!ready) {
+            awaitBitmap();
+        }
+        return inStock ? bitmap::contains : productId -> !bitmap.contains(productId);
+    }
+
+    public InStockBitmap.Snapshot getSnapshot() {
+        if (!ready) {
+            awaitBitmap();
+        }
+        return bitmap.snapshot();
+    }
+
+    // -------------------------------------------------------------------------
+    // Maintenance
+    // -------------------------------------------------------------------------
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            Thread.ofVirtual().name("product-in-stock-rebuild").start(this::rebuild);
+        }
+    }
+
+    /**
+     * Builds the bitmap from one grouped query over the inventory and swaps its bits in. Changes
+     * committed meanwhile are replayed before the swap.
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                pendingChanges = new ArrayList<>();
+            }
+            try {
+                long started = System.nanoTime();
+                InStockBitmap building = new InStockBitmap();
+                for (Object[] row : inventoryRepository.sumAvailableQuantityGroupByProduct()) {
+                    building.set((Long) row[0], row[1] != null && ((Number) row[1]).longValue() > 0);
+                }
+
+                synchronized (this) {
+                    pendingChanges.forEach(change -> change.accept(building));
+                    bitmap.replaceWith(building);
+                    ready = true;
+                }
+                log.info(
+                        "In-stock bitmap rebuilt with {} products in stock in {} ms",
+                        building.cardinality(),
+                        (System.nanoTime() - started) / 1_000_000);
+            } catch (RuntimeException e) {
+                log.error("In-stock bitmap rebuild failed", e);
+            } finally {
+                synchronized (this) {
+                    pendingChanges = null;
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangeEventDTO change) {
+        Integer available = change.getQuantityAvailable();
+        if (!change.isDeleted() && available != null && available > 0) {
+            apply(change.getProductId(), true);
+        } else {
+            refresh(change.getProductId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangeEventDTO change) {
+        if (change.isDeleted()) {
+            apply(change.getProductId(), false);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Sums the product's rows and applies the result. Holding the lock over the query keeps a stale
+     * sum from clearing a bit that a later commit has set meanwhile.
+     */
+    private synchronized void refresh(Long productId) {
+        Integer available = inventoryRepository.getTotalAvailableQuantityByProductId(productId);
+        apply(productId, available != null && available > 0);
+    }
+
+    private synchronized void apply(Long productId, boolean inStock) {
+        bitmap.set(productId, inStock);
+        if (pendingChanges != null) {
+            pendingChanges.add(target -> target.set(productId, inStock));
+        }
+    }
+
+    private void awaitBitmap() {
+        synchronized (rebuildLock) {
+            if (!ready) {
+                rebuild();
+            }
+        }
+        if (!ready) {
+            throw new IllegalStateException("In-stock bitmap is not available");
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.mestro.service;
+
+import com.mestro.common.dto.PageResponseDTO;
+import com.mestro.common.utils.GeneralUtils;
+import com.mestro.dto.InventoryBalanceDTO;
+import com.mestro.dto.InventoryMovementDTO;
+import com.mestro.enums.InventoryMovementReason;
+import com.mestro.model.InventoryBalanceSnapshot;
+import com.mestro.model.InventoryMovement;
+import com.mestro.model.ProductInventory;
+import com.mestro.repository.InventoryBalanceSnapshotRepository;
+import com.mestro.repository.InventoryMovementRepository;
+import com.mestro.repository.ProductInventoryRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Append-only ledger of inventory movements.
+ * <p>
+ * {@link ProductInventoryService} records a movement in the same transaction as every change to an
+ * inventory row's balances, so the row's counters always equal the sum of its movements. A
+ * scheduled job folds new movements into {@link InventoryBalanceSnapshot} rows, which bound the
+ * work of a point-in-time balance query to the movements recorded since the last snapshot.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class InventoryLedgerService {
+
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    private final InventoryMovementRepository movementRepository;
+    private final InventoryBalanceSnapshotRepository snapshotRepository;
+    private final ProductInventoryRepository inventoryRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Movements younger than this are left for the next run: a transaction that commits within the
+    // settle time cannot then add a movement below the new snapshot's watermark
+    @Value("${product.ledger.snapshot-settle-time:PT1M}")
+    private Duration settleTime;
+
+    // -------------------------------------------------------------------------
+    // Recording
+    // -------------------------------------------------------------------------
+
+    /** Records a change of the row's balances; zero movements are not recorded. */
+    public void record(
+            ProductInventory inventory,
+            int deltaAvailable,
+            int deltaReserved,
+            InventoryMovementReason reason,
+            String reference) {
+        if (deltaAvailable == 0 && deltaReserved == 0) {
+            return;
+        }
+        movementRepository.save(InventoryMovement.builder()
+                .inventoryId(inventory.getId())
+                .productId(inventory.getProduct().getId())
+                .warehouseId(
+                        inventory.getWarehouse() != null
+                                ? inventory.getWarehouse().getId()
+                                : null)
+                .deltaAvailable(deltaAvailable)
+                .deltaReserved(deltaReserved)
+                .reason(reason)
+                .reference(reference)
+                .build());
+    }
+
+    /**
+     * Records an opening movement for inventory rows stored before the ledger existed, in batches
+     * of {@value #BACKFILL_BATCH_SIZE} with one transaction each.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void backfillOpeningBalances() {
+        long recorded = 0;
+        int batchSize;
+        do {
+            batchSize = transactionTemplate.execute(status -> {
+                List<ProductInventory> batch =
+                        inventoryRepository.findWithoutMovements(PageRequest.of(0, BACKFILL_BATCH_SIZE));
+                for (ProductInventory inventory : batch) {
+                    movementRepository.save(InventoryMovement.builder()
+                            .inventoryId(inventory.getId())
+                            .productId(inventory.getProduct().getId())
+                            .warehouseId(
+                                    inventory.getWarehouse() != null
+                                            ? inventory.getWarehouse().getId()
+                                            : null)
+                            .deltaAvailable(inventory.getQuantityAvailable())
+                            .deltaReserved(inventory.getQuantityReserved())
+                            .reason(InventoryMovementReason.OPENING)
+                            .build());
+                }
+                return batch.size();
+            });
+            recorded += batchSize;
+        } while (batchSize == BACKFILL_BATCH_SIZE);
+        if (recorded > 0) {
+            log.info("Recorded opening ledger balances for {} inventory rows", recorded);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Snapshots
+    // -------------------------------------------------------------------------
+
+    /**
+     * Folds the movements recorded since the previous run into a new snapshot for every inventory
+     * row they touched. Returns the number of snapshots written.
+     */
+    @Scheduled(
+            initialDelayString = "${product.ledger.snapshot-initial-delay:PT2M}",
+            fixedDelayString = "${product.ledger.snapshot-interval:PT10M}")
+    public int snapshotBalances() {
+        long afterId = valueOrZero(snapshotRepository.findMaxLastMovementId());
+        Long upToId = movementRepository.findMaxIdBefore(
+                LocalDateTime.now(ZoneId.of("UTC")).minus(settleTime));
+        if (upToId == null || upToId <= afterId) {
+            return 0;
+        }
+
+        List<Object[]> rows = movementRepository.sumDeltasGroupByInventory(afterId, upToId);
+        List<Long> inventoryIds = rows.stream().map(row -> (Long) row[0]).toList();
+        Map<Long, InventoryBalanceSnapshot> previous =
+                snapshotRepository.findLatestByInventoryIdIn(inventoryIds).stream()
+                        .collect(Collectors.toMap(InventoryBalanceSnapshot::getInventoryId, Function.identity()));
+
+        List<InventoryBalanceSnapshot> snapshots = rows.stream()
+                .<InventoryBalanceSnapshot>map(row -> {
+                    InventoryBalanceSnapshot last = previous.get((Long) row[0]);
+                    return InventoryBalanceSnapshot.builder()
+                            .inventoryId((Long) row[0])
+                            .quantityAvailable(
+                                    (last != null ? last.getQuantityAvailable() : 0) + ((Number) row[1]).intValue())
+                            .quantityReserved(
+                                    (last != null ? last.getQuantityReserved() : 0) + ((Number) row[2]).intValue())
+                            .lastMovementId(upToId)
+                            .takenAt((LocalDateTime) row[3])
+                            .build();
+                })
+                .toList();
+        snapshotRepository.saveAll(snapshots);
+
+        log.info("Snapshotted ledger balances of {} inventory rows up to movement {}", snapshots.size(), upToId);
+        return snapshots.size();
+    }
+
+    // -------------------------------------------------------------------------
+    // Queries
+    // -------------------------------------------------------------------------
+
+    @Transactional(readOnly = true)
+    public PageResponseDTO<InventoryMovementDTO> getMovements(Long inventoryId, Pageable pageable) {
+        log.info("Fetching ledger movements for inventory ID: {}", inventoryId);
+        Page<InventoryMovement> page = movementRepository.findByInventoryIdOrderByIdDesc(inventoryId, pageable);
+        List<InventoryMovementDTO> list =
+                page.getContent().stream().map(InventoryLedgerService::toDTO).toList();
+        return GeneralUtils.pageableResponse(
+                list,
+                page.getNumber(),
+                page.getSize(),
+                page.getTotalElements(),
+                page.getTotalPages(),
+                page.isFirst(),
+                page.isLast(),
+                pageable);
+    }
+
+    /** Balances of the row at the given time: the latest snapshot taken by then plus the movements since. */
+    @Transactional(readOnly = true)
+    public InventoryBalanceDTO getBalanceAt(Long inventoryId, LocalDateTime at) {
+        log.info("Fetching ledger balance for inventory ID: {} at {}", inventoryId, at);
+        InventoryBalanceSnapshot snapshot = snapshotRepository
+                .findFirstByInventoryIdAndTakenAtLessThanEqualOrderByTakenAtDesc(inventoryId, at)
+                .orElse(null);
+        long afterId = snapshot != null ? snapshot.getLastMovementId() : 0L;
+        Object[] deltas =
+                movementRepository.sumDeltasAfter(inventoryId, afterId, at).get(0);
+
+        return InventoryBalanceDTO.builder()
+                .inventoryId(inventoryId)
+                .at(at)
+                .quantityAvailable(
+                        (snapshot != null ? snapshot.getQuantityAvailable() : 0) + ((Number) deltas[0]).intValue())
+                .quantityReserved(
+                        (snapshot != null ? snapshot.getQuantityReserved() : 0) + ((Number) deltas[1]).intValue())
+                .build();
+    }
+
+    /** IDs of the inventory rows with movements under the reference. */
+    @Transactional(readOnly = true)
+    public List<Long> getInventoryIdsByReference(String reference) {
+        return movementRepository.findInventoryIdsByReference(reference);
+    }
+
+    /** Units the reference holds reserved on the row: what it reserved less what it released. */
+    @Transactional(readOnly = true)
+    public int getReservedByReference(Long inventoryId, String reference) {
+        return (int) movementRepository.sumDeltaReservedByReference(
+                inventoryId, reference, List.of(InventoryMovementReason.RESERVED, InventoryMovementReason.RELEASED));
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private static long valueOrZero(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    private static InventoryMovementDTO toDTO(InventoryMovement movement) {
+        return InventoryMovementDTO.builder()
+                .id(movement.getId())
+                .inventoryId(movement.getInventoryId())
+                .productId(movement.getProductId())
+                .warehouseId(movement.getWarehouseId())
+                .deltaAvailable(movement.getDeltaAvailable())
+                .deltaReserved(movement.getDeltaReserved())
+                .reason(movement.getReason())
+                .reference(movement.getReference())
+                .createdAt(movement.getCreatedAt())
+                .build();
+    }
+}
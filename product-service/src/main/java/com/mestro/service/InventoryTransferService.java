@@ -0,0 +1,419 @@
+package com.mestro.service;
+
+import com.mestro.dto.InventoryChangeEventDTO;
+import com.mestro.dto.InventoryTransferDTO;
+import com.mestro.dto.InventoryTransferErrorDTO;
+import com.mestro.dto.InventoryTransferEventDTO;
+import com.mestro.dto.InventoryTransferLineDTO;
+import com.mestro.dto.InventoryTransferResultDTO;
+import com.mestro.dto.LowStockEventDTO;
+import com.mestro.enums.InventoryMovementReason;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves stock of many products between warehouses in one transaction, as used by the nightly
+ * rebalance.
+ * <p>
+ * Lines are checked against the products and active warehouses with one query each, then applied
+ * with a fixed number of set-based statements over array parameters, whatever the number of lines:
+ * the rows involved are locked in ID order, every source is decremented by a conditional
+ * {@code UPDATE} that only succeeds if its unallotted stock covers all lines drawing on it, every
+ * destination is incremented by an {@code INSERT ... ON CONFLICT DO UPDATE} that creates missing
+ * rows, and each moved line appends a {@code TRANSFER_OUT} and a {@code TRANSFER_IN} movement to the
+ * ledger in one JDBC batch. Lines whose source comes up short are reported and the rest still move.
+ * <p>
+ * Product totals do not change, so only the count of warehouses in stock is adjusted, and one
+ * {@link InventoryTransferEventDTO} is published for the whole transfer instead of a change event per
+ * row.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InventoryTransferService {
+
+    static final String PRODUCTS_SQL = "SELECT id FROM products WHERE id = ANY(?)";
+
+    static final String WAREHOUSES_SQL = "SELECT id FROM warehouses WHERE is_active AND id = ANY(?)";
+
+    static final String LOCK_SQL = "SELECT i.id, i.product_id, i.warehouse_id, i.low_stock FROM product_inventory i "
+            + "JOIN unnest(?::bigint[], ?::bigint[]) AS t(product_id, warehouse_id) "
+            + "ON i.product_id = t.product_id AND i.warehouse_id = t.warehouse_id ORDER BY i.id FOR UPDATE OF i";
+
+    static final String WITHDRAW_SQL = "UPDATE product_inventory i "
+            + "SET quantity_available = i.quantity_available - t.quantity, "
+            + "low_stock = COALESCE(i.quantity_available - t.quantity <= i.reorder_level, FALSE), updated_at = ? "
+            + "FROM unnest(?::bigint[], ?::bigint[], ?::integer[]) AS t(product_id, warehouse_id, quantity) "
+            + "WHERE i.product_id = t.product_id AND i.warehouse_id = t.warehouse_id "
+            + "AND i.quantity_available - i.hot_allotment >= t.quantity "
+            + "RETURNING i.id, i.product_id, i.warehouse_id, i.quantity_available, i.quantity_reserved, i.reorder_level";
+
+    static final String DEPOSIT_SQL = "INSERT INTO product_inventory (product_id, warehouse_id, quantity_available, "
+            + "quantity_reserved, reorder_level, low_stock, hot_allotment, created_at, updated_at) "
+            + "SELECT t.product_id, t.warehouse_id, t.quantity, 0, ?, t.quantity <= ?, 0, ?, ? "
+            + "FROM unnest(?::bigint[], ?::bigint[], ?::integer[]) AS t(product_id, warehouse_id, quantity) "
+            + "ON CONFLICT (product_id, warehouse_id) DO UPDATE "
+            + "SET quantity_available = product_inventory.quantity_available + EXCLUDED.quantity_available, "
+            + "low_stock = COALESCE(product_inventory.quantity_available + EXCLUDED.quantity_available "
+            + "<= product_inventory.reorder_level, FALSE), updated_at = EXCLUDED.updated_at "
+            + "RETURNING id, product_id, warehouse_id, quantity_available, quantity_reserved, reorder_level";
+
+    static final String MOVEMENT_SQL = "INSERT INTO inventory_movements (inventory_id, product_id, warehouse_id, "
+            + "delta_available, delta_reserved, reason, reference, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, 0, ?, ?, ?, ?)";
+
+    static final String WAREHOUSES_IN_STOCK_SQL = "UPDATE product_availability a "
+            + "SET warehouses_in_stock = a.warehouses_in_stock + t.delta, updated_at = ? "
+            + "FROM unnest(?::bigint[], ?::integer[]) AS t(product_id, delta) WHERE a.product_id = t.product_id";
+
+    // Same default as a row created through the inventory API
+    private static final int DEFAULT_REORDER_LEVEL = 10;
+
+    private static final RowMapper<InventoryChangeEventDTO> CHANGE_MAPPER =
+            (rs, rowNum) -> InventoryChangeEventDTO.builder()
+                    .inventoryId(rs.getLong("id"))
+                    .productId(rs.getLong("product_id"))
+                    .warehouseId(rs.getLong("warehouse_id"))
+                    .quantityAvailable(rs.getInt("quantity_available"))
+                    .quantityReserved(rs.getInt("quantity_reserved"))
+                    .reorderLevel((Integer) rs.getObject("reorder_level"))
+                    .updatedAt(LocalDateTime.now(ZoneId.of("UTC")))
+                    .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${product.transfer.max-lines:100000}")
+    private int maxLines;
+
+    @Value("${product.transfer.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    private record Location(Long productId, Long warehouseId) {}
+
+    private record Line(long number, Location source, Location destination, int quantity) {}
+
+    private record Locked(Location location, boolean lowStock) {}
+
+    private record Move(InventoryChangeEventDTO row, int delta, InventoryMovementReason reason) {}
+
+    public InventoryTransferResultDTO transfer(InventoryTransferDTO request) {
+        List<InventoryTransferLineDTO> lines = request.getLines();
+        if (lines.size() > maxLines) {
+            throw new IllegalArgumentException("Cannot transfer more than " + maxLines + " lines at once");
+        }
+        long started = System.nanoTime();
+        Progress progress = new Progress(lines.size());
+
+        List<Line> valid = validate(lines, progress);
+        if (!valid.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> apply(valid, request.getReference(), progress));
+        }
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        log.info(
+                "Transfer {} of {} lines finished in {} ms: {} moved ({} units), {} failed",
+                request.getReference(),
+                progress.requested,
+                elapsedMillis,
+                progress.transferred,
+                progress.quantityMoved,
+                progress.failed);
+        return InventoryTransferResultDTO.builder()
+                .requested(progress.requested)
+                .transferred(progress.transferred)
+                .failed(progress.failed)
+                .quantityMoved(progress.quantityMoved)
+                .elapsedMillis(elapsedMillis)
+                .errors(progress.errors)
+                .errorsTruncated(progress.failed > progress.errors.size())
+                .build();
+    }
+
+    // -------------------------------------------------------------------------
+    // Validation
+    // -------------------------------------------------------------------------
+
+    private List<Line> validate(List<InventoryTransferLineDTO> lines, Progress progress) {
+        Set<Long> productIds = new HashSet<>();
+        Set<Long> warehouseIds = new HashSet<>();
+        for (InventoryTransferLineDTO line : lines) {
+            productIds.add(line.getProductId());
+            warehouseIds.add(line.getFromWarehouseId());
+            warehouseIds.add(line.getToWarehouseId());
+        }
+        Set<Long> knownProducts = new HashSet<>(findIds(PRODUCTS_SQL, productIds));
+        Set<Long> activeWarehouses = new HashSet<>(findIds(WAREHOUSES_SQL, warehouseIds));
+
+        List<Line> valid = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            InventoryTransferLineDTO line = lines.get(i);
+            String error = null;
+            if (line.getFromWarehouseId().equals(line.getToWarehouseId())) {
+                error = "Source and destination warehouse are the same";
+            } else if (!knownProducts.contains(line.getProductId())) {
+                error = "Product not found with ID: " + line.getProductId();
+            } else if (!activeWarehouses.contains(line.getFromWarehouseId())) {
+                error = "Warehouse not found or inactive with ID: " + line.getFromWarehouseId();
+            } else if (!activeWarehouses.contains(line.getToWarehouseId())) {
+                error = "Warehouse not found or inactive with ID: " + line.getToWarehouseId();
+            }
+
+            if (error != null) {
+                progress.fail(i + 1, line.getProductId(), error);
+            } else {
+                valid.add(new Line(
+                        i + 1,
+                        new Location(line.getProductId(), line.getFromWarehouseId()),
+                        new Location(line.getProductId(), line.getToWarehouseId()),
+                        line.getQuantity()));
+            }
+        }
+        return valid;
+    }
+
+    // -------------------------------------------------------------------------
+    // Transfer
+    // -------------------------------------------------------------------------
+
+    private void apply(List<Line> lines, String reference, Progress progress) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now(ZoneId.of("UTC")));
+
+        // Lock every existing row involved in ID order, so concurrent transfers cannot deadlock
+        Set<Location> touched = new HashSet<>();
+        lines.forEach(line -> {
+            touched.add(line.source());
+            touched.add(line.destination());
+        });
+        Map<Location, Boolean> lowStockBefore = new HashMap<>();
+        for (Locked locked : jdbcTemplate.query(
+                new ArrayStatement(LOCK_SQL, productIds(touched), warehouseIds(touched)),
+                (rs, rowNum) -> new Locked(
+                        new Location(rs.getLong("product_id"), rs.getLong("warehouse_id")),
+                        rs.getBoolean("low_stock")))) {
+            lowStockBefore.put(locked.location(), locked.lowStock());
+        }
+
+        // Withdraw: one conditional decrement per source, covering all lines drawing on it
+        Map<Location, Integer> withdrawals = sumBy(lines, Line::source);
+        Map<Location, InventoryChangeEventDTO> after = new LinkedHashMap<>();
+        for (InventoryChangeEventDTO row : jdbcTemplate.query(
+                new ArrayStatement(
+                        WITHDRAW_SQL,
+                        now,
+                        productIds(withdrawals.keySet()),
+                        warehouseIds(withdrawals.keySet()),
+                        withdrawals.values().toArray(Integer[]::new)),
+                CHANGE_MAPPER)) {
+            after.put(locationOf(row), row);
+        }
+
+        List<Line> moved = new ArrayList<>(lines.size());
+        for (Line line : lines) {
+            if (after.containsKey(line.source())) {
+                moved.add(line);
+            } else {
+                progress.fail(
+                        line.number(),
+                        line.source().productId(),
+                        "Insufficient stock at warehouse ID: " + line.source().warehouseId() + " to move "
+                                + withdrawals.get(line.source()) + " units of product ID: "
+                                + line.source().productId());
+            }
+        }
+        if (moved.isEmpty()) {
+            return;
+        }
+
+        // Deposit: one upsert per destination
+        Map<Location, Integer> deposits = sumBy(moved, Line::destination);
+        for (InventoryChangeEventDTO row : jdbcTemplate.query(
+                new ArrayStatement(
+                        DEPOSIT_SQL,
+                        DEFAULT_REORDER_LEVEL,
+                        DEFAULT_REORDER_LEVEL,
+                        now,
+                        now,
+                        productIds(deposits.keySet()),
+                        warehouseIds(deposits.keySet()),
+                        deposits.values().toArray(Integer[]::new)),
+                CHANGE_MAPPER)) {
+            after.put(locationOf(row), row);
+        }
+
+        recordMovements(moved, after, reference, now);
+        for (Line line : moved) {
+            progress.transferred++;
+            progress.quantityMoved += line.quantity();
+        }
+
+        // Net change of every row, to tell which rows crossed zero or their reorder level
+        Map<Location, Integer> netDelta = new HashMap<>();
+        for (Map.Entry<Location, Integer> withdrawal : withdrawals.entrySet()) {
+            if (after.containsKey(withdrawal.getKey())) {
+                netDelta.merge(withdrawal.getKey(), -withdrawal.getValue(), Integer::sum);
+            }
+        }
+        deposits.forEach((location, quantity) -> netDelta.merge(location, quantity, Integer::sum));
+
+        Map<Long, Integer> warehousesInStock = new HashMap<>();
+        for (InventoryChangeEventDTO row : after.values()) {
+            Location location = locationOf(row);
+            int availableAfter = row.getQuantityAvailable();
+            int availableBefore = availableAfter - netDelta.getOrDefault(location, 0);
+            int delta = (availableAfter > 0 ? 1 : 0) - (availableBefore > 0 ? 1 : 0);
+            if (delta != 0) {
+                warehousesInStock.merge(row.getProductId(), delta, Integer::sum);
+            }
+
+            boolean lowStock = row.getReorderLevel() != null && availableAfter <= row.getReorderLevel();
+            if (lowStock != lowStockBefore.getOrDefault(location, false)) {
+                publishLowStockChange(row, lowStock);
+            }
+        }
+        warehousesInStock.values().removeIf(delta -> delta == 0);
+        if (!warehousesInStock.isEmpty()) {
+            jdbcTemplate.update(new ArrayStatement(
+                    WAREHOUSES_IN_STOCK_SQL,
+                    now,
+                    warehousesInStock.keySet().toArray(Long[]::new),
+                    warehousesInStock.values().toArray(Integer[]::new)));
+        }
+
+        eventPublisher.publishEvent(InventoryTransferEventDTO.builder()
+                .reference(reference)
+                .changes(new ArrayList<>(after.values()))
+                .build());
+    }
+
+    private void recordMovements(
+            List<Line> moved, Map<Location, InventoryChangeEventDTO> after, String reference, Timestamp now) {
+        List<Move> moves = new ArrayList<>(moved.size() * 2);
+        for (Line line : moved) {
+            moves.add(new Move(after.get(line.source()), -line.quantity(), InventoryMovementReason.TRANSFER_OUT));
+            moves.add(new Move(after.get(line.destination()), line.quantity(), InventoryMovementReason.TRANSFER_IN));
+        }
+        jdbcTemplate.batchUpdate(MOVEMENT_SQL, moves, moves.size(), (ps, move) -> {
+            ps.setLong(1, move.row().getInventoryId());
+            ps.setLong(2, move.row().getProductId());
+            ps.setLong(3, move.row().getWarehouseId());
+            ps.setInt(4, move.delta());
+            ps.setString(5, move.reason().name());
+            ps.setString(6, reference);
+            ps.setTimestamp(7, now);
+            ps.setTimestamp(8, now);
+        });
+    }
+
+    private void publishLowStockChange(InventoryChangeEventDTO row, boolean lowStock) {
+        log.info("Inventory ID: {} {} the low stock set", row.getInventoryId(), lowStock ? "entered" : "left");
+        eventPublisher.publishEvent(LowStockEventDTO.builder()
+                .inventoryId(row.getInventoryId())
+                .productId(row.getProductId())
+                .warehouseId(row.getWarehouseId())
+                .quantityAvailable(row.getQuantityAvailable())
+                .reorderLevel(row.getReorderLevel())
+                .lowStock(lowStock)
+                .deleted(false)
+                .build());
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private List<Long> findIds(String sql, Collection<Long> ids) {
+        return jdbcTemplate.query(
+                new ArrayStatement(sql, (Object) ids.toArray(Long[]::new)), (rs, rowNum) -> rs.getLong(1));
+    }
+
+    private static Map<Location, Integer> sumBy(List<Line> lines, Function<Line, Location> location) {
+        Map<Location, Integer> sums = new LinkedHashMap<>();
+        lines.forEach(line -> sums.merge(location.apply(line), line.quantity(), Integer::sum));
+        return sums;
+    }
+
+    private static Location locationOf(InventoryChangeEventDTO row) {
+        return new Location(row.getProductId(), row.getWarehouseId());
+    }
+
+    private static Long[] productIds(Collection<Location> locations) {
+        return locations.stream().map(Location::productId).toArray(Long[]::new);
+    }
+
+    private static Long[] warehouseIds(Collection<Location> locations) {
+        return locations.stream().map(Location::warehouseId).toArray(Long[]::new);
+    }
+
+    /** A statement whose {@code Long[]} and {@code Integer[]} parameters are bound as SQL arrays. */
+    record ArrayStatement(String sql, Object... params) implements PreparedStatementCreator, SqlProvider {
+
+        @Override
+        public PreparedStatement createPreparedStatement(Connection connection) throws SQLException {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            for (int i = 0; i < params.length; i++) {
+                Object param = params[i];
+                if (param instanceof Long[] values) {
+                    ps.setArray(i + 1, connection.createArrayOf("bigint", values));
+                } else if (param instanceof Integer[] values) {
+                    ps.setArray(i + 1, connection.createArrayOf("integer", values));
+                } else {
+                    ps.setObject(i + 1, param);
+                }
+            }
+            return ps;
+        }
+
+        @Override
+        public String getSql() {
+            return sql;
+        }
+    }
+
+    private final class Progress {
+        private final long requested;
+        private long transferred;
+        private long failed;
+        private long quantityMoved;
+        private final List<InventoryTransferErrorDTO> errors = new ArrayList<>();
+
+        private Progress(long requested) {
+            this.requested = requested;
+        }
+
+        private void fail(long line, Long productId, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(InventoryTransferErrorDTO.builder()
+                        .line(line)
+                        .productId(productId)
+                        .message(message)
+                        .build());
+            }
+        }
+    }
+}
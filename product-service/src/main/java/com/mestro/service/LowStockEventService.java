@@ -0,0 +1,84 @@
+package com.mestro.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mestro.common.sse.SseBroadcaster;
+import com.mestro.dto.LowStockEventDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes low-stock threshold crossings to Server-Sent Event subscribers, for all warehouses or one.
+ * <p>
+ * Events are raised by {@link ProductInventoryService} and only forwarded once the transaction that
+ * produced them has committed, so a subscriber that applies them to the set it loaded from
+ * {@code GET /low-stock} stays in step with the database.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LowStockEventService {
+
+    static final String LOW_STOCK_EVENT = "low-stock";
+    static final String ALL_TOPIC = "low-stock";
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${product.low-stock-events.replay-capacity:10000}")
+    private int replayCapacity;
+
+    @Value("${product.low-stock-events.max-pending-per-subscriber:256}")
+    private int maxPendingPerSubscriber;
+
+    @Value("${product.low-stock-events.emitter-timeout:30m}")
+    private Duration emitterTimeout;
+
+    @Value("${product.low-stock-events.heartbeat-interval:25s}")
+    private Duration heartbeatInterval;
+
+    private SseBroadcaster broadcaster;
+
+    @PostConstruct
+    public void start() {
+        broadcaster = new SseBroadcaster(
+                "low-stock-events",
+                objectMapper,
+                replayCapacity,
+                maxPendingPerSubscriber,
+                emitterTimeout,
+                heartbeatInterval);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (broadcaster != null) {
+            broadcaster.close();
+        }
+    }
+
+    /** Subscribes to crossings in every warehouse, or in one warehouse if {@code warehouseId} is set. */
+    public SseEmitter subscribe(Long warehouseId, String lastEventId) {
+        log.info("Opening low-stock stream for warehouse ID: {}", warehouseId);
+        return broadcaster.subscribe(warehouseId != null ? warehouseTopic(warehouseId) : ALL_TOPIC, lastEventId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLowStockChanged(LowStockEventDTO event) {
+        log.debug("Broadcasting low stock {} for inventory ID: {}", event.isLowStock(), event.getInventoryId());
+        if (event.getWarehouseId() != null) {
+            broadcaster.publish(LOW_STOCK_EVENT, event, ALL_TOPIC, warehouseTopic(event.getWarehouseId()));
+        } else {
+            broadcaster.publish(LOW_STOCK_EVENT, event, ALL_TOPIC);
+        }
+    }
+
+    private static String warehouseTopic(Long warehouseId) {
+        return "warehouse:" + warehouseId;
+    }
+}
@@ -0,0 +1,124 @@
+package com.mestro.service;
+
+import com.mestro.dto.ProductDTO;
+import com.mestro.dto.ProductImageDTO;
+import com.mestro.dto.ProductInventoryDTO;
+import com.mestro.model.Product;
+import com.mestro.model.ProductImage;
+import com.mestro.model.ProductInventory;
+import com.mestro.model.Warehouse;
+import com.mestro.repository.ProductImageRepository;
+import com.mestro.repository.ProductInventoryRepository;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds {@link ProductDTO}s for a page of products with a fixed number of queries.
+ * <p>
+ * Images and inventories for the whole page are loaded with one {@code IN} query each and grouped
+ * by product ID in memory. The products themselves must arrive with their category already fetched;
+ * the mapping is done by hand because ModelMapper would walk the lazy collections of every product.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductAssembler {
+
+    private final ProductImageRepository productImageRepository;
+    private final ProductInventoryRepository productInventoryRepository;
+
+    public ProductDTO toDTO(Product product) {
+        return toDTOs(List.of(product)).get(0);
+    }
+
+    public List<ProductDTO> toDTOs(List<Product> products) {
+        if (products.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> productIds = products.stream().map(Product::getId).toList();
+
+        Map<Long, List<ProductImageDTO>> imagesByProduct = new HashMap<>();
+        for (ProductImage image : productImageRepository.findByProductIdInOrderByDisplayOrderAsc(productIds)) {
+            ProductImageDTO dto = toImageDTO(image);
+            imagesByProduct
+                    .computeIfAbsent(dto.getProductId(), id -> new ArrayList<>())
+                    .add(dto);
+        }
+
+        Map<Long, List<ProductInventoryDTO>> inventoriesByProduct = new HashMap<>();
+        for (ProductInventory inventory : productInventoryRepository.findByProductIdInWithWarehouse(productIds)) {
+            ProductInventoryDTO dto = toInventoryDTO(inventory);
+            inventoriesByProduct
+                    .computeIfAbsent(dto.getProductId(), id -> new ArrayList<>())
+                    .add(dto);
+        }
+
+        List<ProductDTO> result = new ArrayList<>(products.size());
+        for (Product product : products) {
+            ProductDTO dto = toProductDTO(product);
+            dto.setImages(imagesByProduct.getOrDefault(product.getId(), new ArrayList<>()));
+            dto.setInventories(inventoriesByProduct.getOrDefault(product.getId(), new ArrayList<>()));
+            result.add(dto);
+        }
+        return result;
+    }
+
+    // -------------------------------------------------------------------------
+    // Mapping
+    // -------------------------------------------------------------------------
+
+    private ProductDTO toProductDTO(Product product) {
+        return ProductDTO.builder()
+                .id(product.getId())
+                .categoryId(product.getCategory().getId())
+                .categoryName(product.getCategory().getName())
+                .sku(product.getSku())
+                .name(product.getName())
+                .description(product.getDescription())
+                .brand(product.getBrand())
+                .price(product.getPrice())
+                .discountPercentage(product.getDiscountPercentage())
+                .taxRate(product.getTaxRate())
+                .effectivePrice(product.getEffectivePrice())
+                .weight(product.getWeight())
+                .dimensions(product.getDimensions())
+                .isActive(product.getIsActive())
+                .createdAt(product.getCreatedAt())
+                .updatedAt(product.getUpdatedAt())
+                .build();
+    }
+
+    private ProductImageDTO toImageDTO(ProductImage image) {
+        return ProductImageDTO.builder()
+                .id(image.getId())
+                // Reading the ID of a lazy proxy does not initialise it
+                .productId(image.getProduct().getId())
+                .imageUrl(image.getImageUrl())
+                .isPrimary(image.getIsPrimary())
+                .displayOrder(image.getDisplayOrder())
+                .createdAt(image.getCreatedAt())
+                .updatedAt(image.getUpdatedAt())
+                .build();
+    }
+
+    private ProductInventoryDTO toInventoryDTO(ProductInventory inventory) {
+        Warehouse warehouse = inventory.getWarehouse();
+        return ProductInventoryDTO.builder()
+                .id(inventory.getId())
+                .productId(inventory.getProduct().getId())
+                .warehouseId(warehouse != null ? warehouse.getId() : null)
+                .warehouseName(warehouse != null ? warehouse.getName() : null)
+                .quantityAvailable(inventory.getQuantityAvailable())
+                .quantityReserved(inventory.getQuantityReserved())
+                .reorderLevel(inventory.getReorderLevel())
+                .totalQuantity(inventory.getTotalQuantity())
+                .isLowStock(inventory.isLowStock())
+                .createdAt(inventory.getCreatedAt())
+                .updatedAt(inventory.getUpdatedAt())
+                .build();
+    }
+}
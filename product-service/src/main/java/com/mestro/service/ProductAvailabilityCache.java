@@ -0,0 +1,193 @@
+package com.mestro.service;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory product ID to availability totals map.
+ * <p>
+ * Open addressing with linear probing over a {@code long[]} of keys and one {@code int[]} per total,
+ * so an entry costs about 20 bytes and no boxing. Keys must be positive: {@code 0} marks a free slot.
+ * <p>
+ * Every removal bumps a generation counter. A reader that misses, loads from the database and then
+ * calls {@link #putIfGeneration} only stores its value if nothing was removed in between, so a load
+ * that raced with a commit cannot put a stale value back.
+ */
+public final class ProductAvailabilityCache {
+
+    /** Availability totals of one product. */
+    public record Totals(int available, int reserved, int warehousesInStock) {}
+
+    private static final int MIN_CAPACITY = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int maxEntries;
+
+    private long[] keys;
+    private int[] available;
+    private int[] reserved;
+    private int[] warehousesInStock;
+    private int size;
+    private long generation;
+
+    public ProductAvailabilityCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        allocate(MIN_CAPACITY);
+    }
+
+    /** Cached totals of the product, or {@code null} if they are not cached. */
+    public Totals get(long productId) {
+        lock.readLock().lock();
+        try {
+            int slot = find(productId);
+            return slot < 0 ? null : new Totals(available[slot], reserved[slot], warehousesInStock[slot]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long generation() {
+        lock.readLock().lock();
+        try {
+            return generation;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stores the totals unless an entry was removed since {@code expectedGeneration} was read.
+     * The whole map is dropped once it would exceed its maximum size.
+     */
+    public boolean putIfGeneration(long productId, Totals totals, long expectedGeneration) {
+        if (productId <= 0) {
+            throw new IllegalArgumentException("Product ID must be positive: " + productId);
+        }
+        lock.writeLock().lock();
+        try {
+            if (generation != expectedGeneration) {
+                return false;
+            }
+            int slot = find(productId);
+            if (slot < 0) {
+                if (size >= maxEntries) {
+                    allocate(MIN_CAPACITY);
+                    size = 0;
+                } else if ((size + 1) * 4L > keys.length * 3L) {
+                    resize(keys.length * 2);
+                }
+                slot = freeSlot(productId);
+                keys[slot] = productId;
+                size++;
+            }
+            available[slot] = totals.available();
+            reserved[slot] = totals.reserved();
+            warehousesInStock[slot] = totals.warehousesInStock();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            generation++;
+            int slot = find(productId);
+            if (slot < 0) {
+                return;
+            }
+            // Backward-shift deletion keeps every probe chain unbroken without tombstones
+            int mask = keys.length - 1;
+            int hole = slot;
+            int next = (hole + 1) & mask;
+            while (keys[next] != 0) {
+                int home = home(keys[next]);
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    available[hole] = available[next];
+                    reserved[hole] = reserved[next];
+                    warehousesInStock[hole] = warehousesInStock[next];
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            keys[hole] = 0;
+            size--;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            generation++;
+            allocate(MIN_CAPACITY);
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Table
+    // -------------------------------------------------------------------------
+
+    private int find(long productId) {
+        int mask = keys.length - 1;
+        for (int slot = home(productId); keys[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == productId) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int freeSlot(long productId) {
+        int mask = keys.length - 1;
+        int slot = home(productId);
+        while (keys[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int home(long productId) {
+        // Fibonacci hashing spreads sequential IDs across the table
+        return (int) ((productId * 0x9E3779B97F4A7C15L) >>> (64 - Integer.numberOfTrailingZeros(keys.length)));
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldAvailable = available;
+        int[] oldReserved = reserved;
+        int[] oldWarehouses = warehousesInStock;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = freeSlot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                available[slot] = oldAvailable[i];
+                reserved[slot] = oldReserved[i];
+                warehousesInStock[slot] = oldWarehouses[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        available = new int[capacity];
+        reserved = new int[capacity];
+        warehousesInStock = new int[capacity];
+    }
+}
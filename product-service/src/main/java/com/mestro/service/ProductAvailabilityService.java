@@ -0,0 +1,239 @@
+package com.mestro.service;
+
+import com.mestro.common.exception.ResourceNotFoundException;
+import com.mestro.dto.InventoryChangeEventDTO;
+import com.mestro.dto.InventoryTransferEventDTO;
+import com.mestro.dto.ProductAvailabilityDTO;
+import com.mestro.dto.ProductChangeEventDTO;
+import com.mestro.enums.ProductErrorCode;
+import com.mestro.model.ProductAvailability;
+import com.mestro.repository.ProductAvailabilityRepository;
+import com.mestro.repository.ProductInventoryRepository;
+import com.mestro.repository.ProductRepository;
+import com.mestro.service.ProductAvailabilityCache.Totals;
+import jakarta.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Per-product available-to-promise totals.
+ * <p>
+ * {@link ProductInventoryService} applies every inventory change to the product's
+ * {@link ProductAvailability} row in the same transaction. Reads are served from a
+ * {@link ProductAvailabilityCache} and fall back to the row, or to summing the inventory rows for a
+ * product whose totals row does not exist yet. Cached entries are dropped after each commit that
+ * changes the product's inventory.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductAvailabilityService {
+
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final Totals NONE = new Totals(0, 0, 0);
+
+    private final ProductAvailabilityRepository availabilityRepository;
+    private final ProductInventoryRepository inventoryRepository;
+    private final ProductRepository productRepository;
+
+    @Value("${product.availability.cache-max-entries:1000000}")
+    private int cacheMaxEntries;
+
+    private ProductAvailabilityCache cache;
+
+    @PostConstruct
+    public void init() {
+        cache = new ProductAvailabilityCache(cacheMaxEntries);
+    }
+
+    // -------------------------------------------------------------------------
+    // Maintenance
+    // -------------------------------------------------------------------------
+
+    /**
+     * Applies a change of one inventory row to its product's totals. Must run in the transaction
+     * that changed the row.
+     *
+     * @param availableAfter quantity available on the row after the change, 0 if it was deleted
+     */
+    @Transactional
+    public void apply(Long productId, int deltaAvailable, int deltaReserved, int availableAfter) {
+        if (deltaAvailable == 0 && deltaReserved == 0) {
+            return;
+        }
+        int availableBefore = availableAfter - deltaAvailable;
+        int deltaWarehouses = (availableAfter > 0 ? 1 : 0) - (availableBefore > 0 ? 1 : 0);
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC"));
+        int updated = availabilityRepository.applyDelta(productId, deltaAvailable, deltaReserved, deltaWarehouses, now);
+        if (updated == 0) {
+            // First change since the totals were introduced: the sum already includes this change,
+            // a concurrent first change that creates the row before us only needs our delta
+            Totals totals = sumInventory(productId);
+            availabilityRepository.seedOrApplyDelta(
+                    productId,
+                    totals.available(),
+                    totals.reserved(),
+                    totals.warehousesInStock(),
+                    deltaAvailable,
+                    deltaReserved,
+                    deltaWarehouses,
+                    now);
+        }
+    }
+
+    /** Creates the totals of products whose inventory predates them. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillTotals() {
+        List<ProductAvailability> missing = inventoryRepository.sumAvailabilityGroupByProductWithoutTotals().stream()
+                .<ProductAvailability>map(row -> ProductAvailability.builder()
+                        .productId((Long) row[0])
+                        .totalAvailable(intValue(row[1]))
+                        .totalReserved(intValue(row[2]))
+                        .warehousesInStock(intValue(row[3]))
+                        .build())
+                .toList();
+        if (!missing.isEmpty()) {
+            availabilityRepository.saveAll(missing);
+            log.info("Backfilled availability totals for {} products", missing.size());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangeEventDTO change) {
+        cache.remove(change.getProductId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryTransferred(InventoryTransferEventDTO transfer) {
+        transfer.getChanges().forEach(change -> cache.remove(change.getProductId()));
+    }
+
+    /** Deleting a product cascades to its inventory without going through the inventory service. */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onProductDeleting(ProductChangeEventDTO change) {
+        if (change.isDeleted()) {
+            availabilityRepository.deleteByProductId(change.getProductId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangeEventDTO change) {
+        if (change.isDeleted()) {
+            cache.remove(change.getProductId());
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Queries
+    // -------------------------------------------------------------------------
+
+    @Transactional(readOnly = true)
+    public ProductAvailabilityDTO getAvailability(Long productId) {
+        log.debug("Fetching availability for product ID: {}", productId);
+        Totals cached = cache.get(productId);
+        if (cached != null) {
+            return toDTO(productId, cached);
+        }
+
+        long generation = cache.generation();
+        Totals totals = availabilityRepository
+                .findByProductId(productId)
+                .map(ProductAvailabilityService::toTotals)
+                .orElse(null);
+        if (totals == null) {
+            if (!productRepository.existsById(productId)) {
+                throw new ResourceNotFoundException(
+                        ProductErrorCode.PRODUCT_NOT_FOUND, "Product not found with ID: " + productId);
+            }
+            totals = sumInventory(productId);
+        }
+        cache.putIfGeneration(productId, totals, generation);
+        return toDTO(productId, totals);
+    }
+
+    /**
+     * Totals of many products in request order, duplicates removed. Like {@link #getAvailability},
+     * products without a totals row are summed from their inventory rows; products without
+     * inventory, including unknown ones, report zeros.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductAvailabilityDTO> getAvailabilities(List<Long> productIds) {
+        Set<Long> ids = new LinkedHashSet<>(productIds);
+        log.info("Fetching availability for {} products", ids.size());
+
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(
+                    "Cannot fetch availability of more than " + MAX_BATCH_SIZE + " products at once");
+        }
+
+        Map<Long, Totals> found = new HashMap<>();
+        List<Long> misses = ids.stream()
+                .filter(id -> {
+                    Totals cached = cache.get(id);
+                    if (cached != null) {
+                        found.put(id, cached);
+                    }
+                    return cached == null;
+                })
+                .toList();
+        if (!misses.isEmpty()) {
+            long generation = cache.generation();
+            for (ProductAvailability row : availabilityRepository.findByProductIdIn(misses)) {
+                Totals totals = toTotals(row);
+                found.put(row.getProductId(), totals);
+                cache.putIfGeneration(row.getProductId(), totals, generation);
+            }
+            List<Long> withoutTotals =
+                    misses.stream().filter(id -> !found.containsKey(id)).toList();
+            if (!withoutTotals.isEmpty()) {
+                for (Object[] row : inventoryRepository.sumAvailabilityGroupByProductIdIn(withoutTotals)) {
+                    Totals totals = new Totals(intValue(row[1]), intValue(row[2]), intValue(row[3]));
+                    found.put((Long) row[0], totals);
+                    cache.putIfGeneration((Long) row[0], totals, generation);
+                }
+            }
+        }
+        return ids.stream().map(id -> toDTO(id, found.getOrDefault(id, NONE))).toList();
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private Totals sumInventory(Long productId) {
+        Object[] row = inventoryRepository.sumAvailabilityByProductId(productId).get(0);
+        return new Totals(intValue(row[0]), intValue(row[1]), intValue(row[2]));
+    }
+
+    private static int intValue(Object value) {
+        return value != null ? ((Number) value).intValue() : 0;
+    }
+
+    private static Totals toTotals(ProductAvailability row) {
+        return new Totals(row.getTotalAvailable(), row.getTotalReserved(), row.getWarehousesInStock());
+    }
+
+    private static ProductAvailabilityDTO toDTO(Long productId, Totals totals) {
+        return ProductAvailabilityDTO.builder()
+                .productId(productId)
+                .totalAvailable(totals.available())
+                .totalReserved(totals.reserved())
+                .warehousesInStock(totals.warehousesInStock())
+                .build();
+    }
+}
@@ -0,0 +1,262 @@
+package com.mestro.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mestro.common.model.Money;
+import com.mestro.common.utils.PricingUtils;
+import com.mestro.dto.BulkRowErrorDTO;
+import com.mestro.dto.BulkUpsertResultDTO;
+import com.mestro.dto.ProductDTO;
+import com.mestro.model.Product;
+import com.mestro.repository.CategoryRepository;
+import com.mestro.repository.ProductRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Creates or updates products in bulk from a streamed NDJSON or CSV feed, keyed by SKU.
+ * <p>
+ * Rows are validated as they are read and written in chunks. Each chunk resolves its categories and
+ * existing SKUs with one {@code IN} query each, then writes every row with a JDBC batch of
+ * {@code INSERT ... ON CONFLICT (sku) DO UPDATE} in its own transaction. If a batch fails, its rows
+ * are retried one at a time so the offending rows can be reported and the rest still land.
+ * <p>
+ * The writes bypass JPA, so no per-product change events are published; the search and facet
+ * indexes are rebuilt and cached products evicted once the feed has been applied instead.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductBulkUpsertService {
+
+    static final String UPSERT_SQL = "INSERT INTO products (sku, name, description, brand, price, "
+            + "discount_percentage, tax_rate, effective_price, weight, dimensions, is_active, category_id, "
+            + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (sku) DO UPDATE SET name = EXCLUDED.name, description = EXCLUDED.description, "
+            + "brand = EXCLUDED.brand, price = EXCLUDED.price, discount_percentage = EXCLUDED.discount_percentage, "
+            + "tax_rate = EXCLUDED.tax_rate, effective_price = EXCLUDED.effective_price, weight = EXCLUDED.weight, "
+            + "dimensions = EXCLUDED.dimensions, "
+            + "is_active = EXCLUDED.is_active, category_id = EXCLUDED.category_id, updated_at = EXCLUDED.updated_at";
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductSearchService productSearchService;
+    private final ProductFacetService productFacetService;
+    private final SecondLevelCacheService secondLevelCacheService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${product.bulk.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${product.bulk.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public BulkUpsertResultDTO upsert(InputStream feed, ProductFeedReader.Format format) {
+        long started = System.nanoTime();
+        Progress progress = new Progress();
+        List<ProductFeedReader.Row> chunk = new ArrayList<>(chunkSize);
+
+        try (ProductFeedReader reader = new ProductFeedReader(feed, format, objectMapper)) {
+            ProductFeedReader.Row row;
+            while ((row = reader.next()) != null) {
+                progress.received++;
+                String error = row.error() != null ? row.error() : validate(row.product());
+                if (error != null) {
+                    progress.fail(row, error);
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    writeChunk(chunk, progress);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(chunk, progress);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read product feed", e);
+        } finally {
+            if (progress.created + progress.updated > 0) {
+                secondLevelCacheService.evictAll(Product.class);
+                refreshIndexes();
+            }
+        }
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        log.info(
+                "Bulk upsert of {} rows finished in {} ms: {} created, {} updated, {} failed",
+                progress.received,
+                elapsedMillis,
+                progress.created,
+                progress.updated,
+                progress.failed);
+        return BulkUpsertResultDTO.builder()
+                .received(progress.received)
+                .created(progress.created)
+                .updated(progress.updated)
+                .failed(progress.failed)
+                .elapsedMillis(elapsedMillis)
+                .errors(progress.errors)
+                .errorsTruncated(progress.failed > progress.errors.size())
+                .build();
+    }
+
+    // -------------------------------------------------------------------------
+    // Chunks
+    // -------------------------------------------------------------------------
+
+    private void writeChunk(List<ProductFeedReader.Row> chunk, Progress progress) {
+        // A SKU repeated within the chunk keeps its last row
+        Map<String, ProductFeedReader.Row> bySku = new LinkedHashMap<>();
+        for (ProductFeedReader.Row row : chunk) {
+            ProductFeedReader.Row superseded = bySku.remove(row.product().getSku());
+            if (superseded != null) {
+                progress.fail(superseded, "Superseded by line " + row.line() + " with the same SKU");
+            }
+            bySku.put(row.product().getSku(), row);
+        }
+
+        Set<Long> categoryIds = bySku.values().stream()
+                .map(row -> row.product().getCategoryId())
+                .collect(Collectors.toSet());
+        Set<Long> knownCategories = new HashSet<>(categoryRepository.findExistingIds(categoryIds));
+
+        List<ProductFeedReader.Row> writable = new ArrayList<>(bySku.size());
+        for (ProductFeedReader.Row row : bySku.values()) {
+            if (knownCategories.contains(row.product().getCategoryId())) {
+                writable.add(row);
+            } else {
+                progress.fail(
+                        row, "Category not found with ID: " + row.product().getCategoryId());
+            }
+        }
+        if (writable.isEmpty()) {
+            return;
+        }
+
+        Set<String> existingSkus = new HashSet<>(productRepository.findExistingSkus(
+                writable.stream().map(row -> row.product().getSku()).toList()));
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC"));
+
+        try {
+            write(writable, now);
+            writable.forEach(row -> progress.written(row, existingSkus));
+        } catch (DataAccessException e) {
+            log.warn("Bulk upsert batch of {} rows failed, retrying row by row: {}", writable.size(), rootMessage(e));
+            for (ProductFeedReader.Row row : writable) {
+                try {
+                    write(List.of(row), now);
+                    progress.written(row, existingSkus);
+                } catch (DataAccessException rowFailure) {
+                    progress.fail(row, rootMessage(rowFailure));
+                }
+            }
+        }
+    }
+
+    private void write(List<ProductFeedReader.Row> rows, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ProductDTO product = row.product();
+            ps.setString(1, product.getSku());
+            ps.setString(2, product.getName());
+            ps.setString(3, product.getDescription());
+            ps.setString(4, product.getBrand());
+            ps.setBigDecimal(5, product.getPrice());
+            ps.setBigDecimal(6, orZero(product.getDiscountPercentage()));
+            ps.setBigDecimal(7, orZero(product.getTaxRate()));
+            ps.setBigDecimal(
+                    8,
+                    Money.toBigDecimal(PricingUtils.effectiveUnitPriceMinor(
+                            product.getPrice(), product.getDiscountPercentage(), product.getTaxRate())));
+            ps.setBigDecimal(9, product.getWeight());
+            ps.setString(10, product.getDimensions());
+            ps.setBoolean(11, !Boolean.FALSE.equals(product.getIsActive()));
+            ps.setLong(12, product.getCategoryId());
+            ps.setTimestamp(13, timestamp);
+            ps.setTimestamp(14, timestamp);
+        }));
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private String validate(ProductDTO product) {
+        Set<ConstraintViolation<ProductDTO>> violations = validator.validate(product);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+    }
+
+    private void refreshIndexes() {
+        Thread.ofVirtual().name("product-bulk-reindex").start(() -> {
+            productSearchService.rebuild();
+            productFacetService.rebuild();
+        });
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    private static String rootMessage(DataAccessException e) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+        return cause.getMessage() != null
+                ? cause.getMessage()
+                : cause.getClass().getSimpleName();
+    }
+
+    private final class Progress {
+        private long received;
+        private long created;
+        private long updated;
+        private long failed;
+        private final List<BulkRowErrorDTO> errors = new ArrayList<>();
+
+        private void written(ProductFeedReader.Row row, Set<String> existingSkus) {
+            if (existingSkus.contains(row.product().getSku())) {
+                updated++;
+            } else {
+                created++;
+            }
+        }
+
+        private void fail(ProductFeedReader.Row row, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(BulkRowErrorDTO.builder()
+                        .line(row.line())
+                        .sku(row.product() != null ? row.product().getSku() : null)
+                        .message(message)
+                        .build());
+            }
+        }
+    }
+}
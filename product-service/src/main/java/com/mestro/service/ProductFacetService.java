@@ -0,0 +1,311 @@
+package com.mestro.service;
+
+import com.mestro.common.dto.PageResponseDTO;
+import com.mestro.common.utils.GeneralUtils;
+import com.mestro.dto.FacetValueDTO;
+import com.mestro.dto.FacetedProductsDTO;
+import com.mestro.dto.InventoryChangeEventDTO;
+import com.mestro.dto.ProductChangeEventDTO;
+import com.mestro.dto.ProductDTO;
+import com.mestro.enums.PriceBand;
+import com.mestro.model.Category;
+import com.mestro.model.Product;
+import com.mestro.repository.CategoryRepository;
+import com.mestro.repository.ProductInventoryRepository;
+import com.mestro.repository.ProductRepository;
+import com.mestro.search.ProductFacetIndex;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Faceted browsing of active products backed by {@link ProductFacetIndex}.
+ * <p>
+ * The index is built from the database once the application is ready (or by the first request, if
+ * that comes earlier) and kept current from product and inventory change events published after
+ * each commit. An event's stock query runs before taking the index lock; when two events for the same
+ * product overlap, only the stock read that started last is applied.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductFacetService {
+
+    private final ProductRepository productRepository;
+    private final ProductInventoryRepository productInventoryRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductAssembler productAssembler;
+
+    @Value("${product.facets.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    @Value("${product.facets.rebuild-batch-size:1000}")
+    private int rebuildBatchSize;
+
+    private final Object rebuildLock = new Object();
+
+    private volatile ProductFacetIndex index = new ProductFacetIndex();
+    private volatile boolean ready;
+
+    // Guarded by "this": changes that arrive while a rebuild is running, replayed onto the new index
+    private List<Consumer<ProductFacetIndex>> pendingChanges;
+
+    // Guarded by "this": the latest stock read started per product, while it is in flight
+    private final Map<Long, Long> stockReads = new HashMap<>();
+    private long stockReadSequence;
+
+    // -------------------------------------------------------------------------
+    // Browse
+    // -------------------------------------------------------------------------
+
+    @Transactional(readOnly = true)
+    public FacetedProductsDTO browse(
+            Set<String> brands, Set<Long> categoryIds, Set<PriceBand> priceBands, Boolean inStock, Pageable pageable) {
+        if (!ready) {
+            awaitIndex();
+        }
+
+        ProductFacetIndex.Filter filter = new ProductFacetIndex.Filter(brands, categoryIds, priceBands, inStock);
+        ProductFacetIndex.Result result = index.query(filter, (int) pageable.getOffset(), pageable.getPageSize());
+
+        Map<Long, Product> productsById = result.productIds().isEmpty()
+                ? Map.of()
+                : productRepository.findAllByIdWithCategory(result.productIds()).stream()
+                        .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Product> products = result.productIds().stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        int totalPages = (int) ((result.totalHits() + pageable.getPageSize() - 1) / pageable.getPageSize());
+        PageResponseDTO<ProductDTO> page = GeneralUtils.pageableResponse(
+                productAssembler.toDTOs(products),
+                pageable.getPageNumber(),
+                pageable.getPageSize(),
+                result.totalHits(),
+                totalPages,
+                pageable.getPageNumber() == 0,
+                pageable.getPageNumber() + 1 >= totalPages,
+                pageable);
+
+        return FacetedProductsDTO.builder()
+                .products(page)
+                .facets(toFacetDTOs(result.facetCounts(), filter))
+                .build();
+    }
+
+    private Map<String, List<FacetValueDTO>> toFacetDTOs(
+            Map<String, Map<String, Long>> counts, ProductFacetIndex.Filter filter) {
+        Map<String, String> categoryNames = categoryRepository
+                .findAllById(counts.get(ProductFacetIndex.CATEGORY).keySet().stream()
+                        .map(Long::valueOf)
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(category -> String.valueOf(category.getId()), Category::getName));
+
+        Map<String, List<FacetValueDTO>> facets = new LinkedHashMap<>();
+        facets.put(
+                ProductFacetIndex.BRAND,
+                toValues(
+                        counts.get(ProductFacetIndex.BRAND),
+                        Function.identity(),
+                        value -> filter.brands() != null
+                                && filter.brands().stream().anyMatch(value::equalsIgnoreCase)));
+        facets.put(
+                ProductFacetIndex.CATEGORY,
+                toValues(
+                        counts.get(ProductFacetIndex.CATEGORY),
+                        value -> categoryNames.getOrDefault(value, value),
+                        value -> filter.categoryIds() != null
+                                && filter.categoryIds().contains(Long.valueOf(value))));
+        facets.put(
+                ProductFacetIndex.PRICE_BAND,
+                toValues(
+                        counts.get(ProductFacetIndex.PRICE_BAND),
+                        value -> PriceBand.valueOf(value).getLabel(),
+                        value -> filter.priceBands() != null
+                                && filter.priceBands().contains(PriceBand.valueOf(value))));
+        facets.put(
+                ProductFacetIndex.IN_STOCK,
+                toValues(
+                        counts.get(ProductFacetIndex.IN_STOCK),
+                        value -> Boolean.parseBoolean(value) ? "In stock" : "Out of stock",
+                        value -> filter.inStock() != null && filter.inStock() == Boolean.parseBoolean(value)));
+        return facets;
+    }
+
+    private static List<FacetValueDTO> toValues(
+            Map<String, Long> counts, Function<String, String> label, Predicate<String> selected) {
+        return counts.entrySet().stream()
+                .map(entry -> FacetValueDTO.builder()
+                        .value(entry.getKey())
+                        .label(label.apply(entry.getKey()))
+                        .count(entry.getValue())
+                        .selected(selected.test(entry.getKey()))
+                        .build())
+                .toList();
+    }
+
+    // -------------------------------------------------------------------------
+    // Maintenance
+    // -------------------------------------------------------------------------
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            Thread.ofVirtual().name("product-facets-rebuild").start(this::rebuild);
+        }
+    }
+
+    /**
+     * Builds a fresh index from the database and swaps it in: active products in keyset batches, then
+     * stock from one grouped query. Changes committed meanwhile are replayed before the swap.
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                pendingChanges = new ArrayList<>();
+            }
+            try {
+                long started = System.nanoTime();
+                ProductFacetIndex building = new ProductFacetIndex();
+                long afterId = 0L;
+                List<Product> batch;
+                do {
+                    batch = productRepository.findBatchAfterId(afterId, PageRequest.of(0, rebuildBatchSize));
+                    for (Product product : batch) {
+                        building.indexProduct(
+                                product.getId(),
+                                product.getBrand(),
+                                product.getCategory().getId(),
+                                product.getPrice(),
+                                Boolean.TRUE.equals(product.getIsActive()));
+                        afterId = product.getId();
+                    }
+                } while (batch.size() == rebuildBatchSize);
+
+                for (Object[] row : productInventoryRepository.sumAvailableQuantityGroupByProduct()) {
+                    building.updateStock((Long) row[0], row[1] != null && ((Number) row[1]).longValue() > 0);
+                }
+
+                synchronized (this) {
+                    pendingChanges.forEach(change -> change.accept(building));
+                    index = building;
+                    ready = true;
+                }
+                log.info(
+                        "Product facet index rebuilt with {} products in {} ms",
+                        building.size(),
+                        (System.nanoTime() - started) / 1_000_000);
+            } catch (RuntimeException e) {
+                log.error("Product facet index rebuild failed", e);
+            } finally {
+                synchronized (this) {
+                    pendingChanges = null;
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangeEventDTO change) {
+        if (change.isDeleted()) {
+            apply(target -> target.remove(change.getProductId()));
+        } else {
+            applyWithStock(
+                    change.getProductId(),
+                    target -> target.indexProduct(
+                            change.getProductId(),
+                            change.getBrand(),
+                            change.getCategoryId(),
+                            change.getPrice(),
+                            change.isActive()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangeEventDTO change) {
+        applyWithStock(change.getProductId(), target -> {});
+    }
+
+    /**
+     * Builds the index for a request that arrived before the startup build finished. The build runs
+     * on its own thread so the products it streams do not pile up in the request's persistence context.
+     */
+    private void awaitIndex() {
+        Thread builder = Thread.ofVirtual().name("product-facets-rebuild").start(() -> {
+            synchronized (rebuildLock) {
+                if (!ready) {
+                    rebuild();
+                }
+            }
+        });
+        try {
+            builder.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while building the product facet index", e);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private synchronized void apply(Consumer<ProductFacetIndex> change) {
+        change.accept(index);
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+        }
+    }
+
+    /**
+     * Reads the product's stock without holding the index lock, then applies {@code change} and the
+     * stock under it. The stock is dropped if a later read for the product started meanwhile: that
+     * read sees a state at least as recent and applies it itself.
+     */
+    private void applyWithStock(Long productId, Consumer<ProductFacetIndex> change) {
+        long read;
+        synchronized (this) {
+            read = ++stockReadSequence;
+            stockReads.put(productId, read);
+        }
+        boolean inStock;
+        try {
+            Integer available = productInventoryRepository.getTotalAvailableQuantityByProductId(productId);
+            inStock = available != null && available > 0;
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                stockReads.remove(productId, read);
+            }
+            throw e;
+        }
+        synchronized (this) {
+            boolean latest = stockReads.remove(productId, read);
+            apply(target -> {
+                change.accept(target);
+                if (latest) {
+                    target.updateStock(productId, inStock);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.mestro.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mestro.dto.ProductDTO;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads a product feed one row at a time, so an upload of any size is never held in memory.
+ * <p>
+ * NDJSON feeds carry one {@link ProductDTO} JSON object per line. CSV feeds start with a header row
+ * naming {@code ProductDTO} properties (for example {@code sku,name,price,categoryId}); fields may
+ * be quoted with {@code "} and a doubled quote escapes one, but a field cannot span lines. Blank
+ * lines are skipped in both formats. A row that cannot be parsed is returned with an error instead
+ * of a product, so one bad line does not abort the feed.
+ */
+public class ProductFeedReader implements Closeable {
+
+    public enum Format {
+        NDJSON,
+        CSV;
+
+        public static Format fromContentType(String contentType) {
+            String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+            if (type.startsWith("application/x-ndjson") || type.startsWith("application/jsonl")) {
+                return NDJSON;
+            }
+            if (type.startsWith("text/csv")) {
+                return CSV;
+            }
+            throw new IllegalArgumentException("Unsupported feed content type: " + contentType);
+        }
+    }
+
+    /** One feed row: either a parsed product or the reason it could not be parsed. */
+    public record Row(long line, ProductDTO product, String error) {}
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final ObjectMapper objectMapper;
+    private List<String> header;
+    private long line;
+
+    public ProductFeedReader(InputStream input, Format format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /** The next row, or {@code null} at the end of the feed. */
+    public Row next() throws IOException {
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (line == 1 && !text.isEmpty() && text.charAt(0) == '\uFEFF') {
+                text = text.substring(1);
+            }
+            if (text.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && header == null) {
+                header = splitCsv(text).stream().map(String::trim).toList();
+                continue;
+            }
+            try {
+                ProductDTO product = format == Format.NDJSON
+                        ? objectMapper.readValue(text, ProductDTO.class)
+                        : objectMapper.convertValue(toFields(splitCsv(text)), ProductDTO.class);
+                return new Row(line, product, null);
+            } catch (IOException | IllegalArgumentException e) {
+                return new Row(line, null, "Unreadable row: " + firstLine(e.getMessage()));
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Map<String, String> toFields(List<String> values) {
+        if (values.size() != header.size()) {
+            throw new IllegalArgumentException("Expected " + header.size() + " fields but found " + values.size());
+        }
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            String value = values.get(i);
+            fields.put(header.get(i), value.isBlank() ? null : value.trim());
+        }
+        return fields;
+    }
+
+    static List<String> splitCsv(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String firstLine(String message) {
+        if (message == null) {
+            return "malformed input";
+        }
+        int newline = message.indexOf('\n');
+        return newline < 0 ? message : message.substring(0, newline);
+    }
+}
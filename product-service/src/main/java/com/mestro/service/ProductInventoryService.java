@@ -1,21 +1,49 @@
 package com.mestro.service;
 
+import com.mestro.allocation.Allocation;
+import com.mestro.allocation.AllocationStrategy;
+import com.mestro.allocation.StockLocation;
+import com.mestro.common.dto.CursorPageResponseDTO;
+import com.mestro.common.exception.BusinessException;
+import com.mestro.common.exception.ResourceAlreadyExistsException;
 import com.mestro.common.exception.ResourceNotFoundException;
+import com.mestro.common.utils.GeneralUtils;
+import com.mestro.dto.InventoryAllocationDTO;
+import com.mestro.dto.InventoryChangeEventDTO;
+import com.mestro.dto.LowStockEventDTO;
 import com.mestro.dto.ProductInventoryDTO;
+import com.mestro.dto.WarehouseAllocationDTO;
+import com.mestro.enums.AllocationStrategyType;
+import com.mestro.enums.InventoryMovementReason;
 import com.mestro.enums.ProductErrorCode;
+import com.mestro.hotstock.HotStockDelta;
 import com.mestro.model.Product;
 import com.mestro.model.ProductInventory;
 import com.mestro.model.Warehouse;
 import com.mestro.repository.ProductInventoryRepository;
 import com.mestro.repository.ProductRepository;
 import com.mestro.repository.WarehouseRepository;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @RequiredArgsConstructor
@@ -23,10 +51,19 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class ProductInventoryService {
 
+    private static final int MAX_ALLOCATION_ATTEMPTS = 3;
+
     private final ProductInventoryRepository inventoryRepository;
     private final ProductRepository productRepository;
     private final WarehouseRepository warehouseRepository;
+    private final ApplicationEventPublisher eventPublisher;
     private final ModelMapper modelMapper;
+    private final List<AllocationStrategy> allocationStrategies;
+    private final InventoryLedgerService ledgerService;
+    private final ProductAvailabilityService availabilityService;
+    private final HotStockService hotStockService;
+    private final ReservationAdmissionService admissionService;
+    private final TransactionTemplate transactionTemplate;
 
     public ProductInventoryDTO createInventory(ProductInventoryDTO inventoryDTO) {
         log.info("Creating inventory for product ID: {}", inventoryDTO.getProductId());
@@ -37,6 +74,16 @@ public class ProductInventoryService {
                         ProductErrorCode.PRODUCT_NOT_FOUND,
                         "Product not found with ID: " + inventoryDTO.getProductId()));
 
+        // A product has one row per warehouse; the unique key would otherwise surface as a 500
+        if (inventoryDTO.getWarehouseId() != null
+                && inventoryRepository.existsByProductIdAndWarehouseId(
+                        inventoryDTO.getProductId(), inventoryDTO.getWarehouseId())) {
+            throw new ResourceAlreadyExistsException(
+                    ProductErrorCode.INVENTORY_ALREADY_EXISTS,
+                    "Inventory already exists for product ID: " + inventoryDTO.getProductId() + " and warehouse ID: "
+                            + inventoryDTO.getWarehouseId());
+        }
+
         ProductInventory inventory = modelMapper.map(inventoryDTO, ProductInventory.class);
         inventory.setProduct(product);
 
@@ -50,6 +97,13 @@ public class ProductInventoryService {
         }
 
         ProductInventory savedInventory = inventoryRepository.save(inventory);
+        recordMovement(
+                savedInventory,
+                savedInventory.getQuantityAvailable(),
+                savedInventory.getQuantityReserved(),
+                InventoryMovementReason.CREATED,
+                null);
+        publishChange(savedInventory, false);
 
         log.info("Inventory created successfully with ID: {}", savedInventory.getId());
         return convertToDTO(savedInventory);
@@ -94,13 +148,19 @@ public class ProductInventoryService {
                 .collect(Collectors.toList());
     }
 
+    /** One keyset page of inventory rows, read with their product and warehouse in one query. */
     @Transactional(readOnly = true)
-    public List<ProductInventoryDTO> getAllInventories() {
-        log.info("Fetching all inventories");
+    public CursorPageResponseDTO<ProductInventoryDTO> getAllInventories(Long afterId, int size) {
+        log.info("Fetching inventories after ID: {}", afterId);
 
-        return inventoryRepository.findAll().stream().map(this::convertToDTO).collect(Collectors.toList());
+        List<ProductInventory> rows = inventoryRepository.findPageAfterId(
+                afterId != null ? afterId : 0L, GeneralUtils.cursorPageRequest(size));
+        return GeneralUtils.cursorResponse(rows, size, ProductInventory::getId, page -> page.stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList()));
     }
 
+    /** Rows at or below their reorder level, read through the indexed low-stock flag. */
     @Transactional(readOnly = true)
     public List<ProductInventoryDTO> getLowStockInventories() {
         log.info("Fetching low stock inventories");
@@ -114,23 +174,24 @@ public class ProductInventoryService {
     public Integer getTotalAvailableQuantity(Long productId) {
         log.info("Fetching total available quantity for product ID: {}", productId);
 
-        productRepository
-                .findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        ProductErrorCode.PRODUCT_NOT_FOUND, "Product not found with ID: " + productId));
-
-        Integer total = inventoryRepository.getTotalAvailableQuantityByProductId(productId);
-        return total != null ? total : 0;
+        return availabilityService.getAvailability(productId).getTotalAvailable();
     }
 
     public ProductInventoryDTO updateInventory(Long id, ProductInventoryDTO inventoryDTO) {
         log.info("Updating inventory with ID: {}", id);
 
         ProductInventory existingInventory = inventoryRepository
-                .findById(id)
+                .findByIdForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         ProductErrorCode.INVENTORY_NOT_FOUND, "Inventory not found with ID: " + id));
 
+        if (inventoryDTO.getQuantityAvailable() < existingInventory.getHotAllotment()) {
+            throw new IllegalArgumentException("Quantity available cannot drop below the "
+                    + existingInventory.getHotAllotment() + " units held by hot stock counters");
+        }
+
+        int deltaAvailable = inventoryDTO.getQuantityAvailable() - existingInventory.getQuantityAvailable();
+        int deltaReserved = inventoryDTO.getQuantityReserved() - existingInventory.getQuantityReserved();
         existingInventory.setQuantityAvailable(inventoryDTO.getQuantityAvailable());
         existingInventory.setQuantityReserved(inventoryDTO.getQuantityReserved());
         existingInventory.setReorderLevel(inventoryDTO.getReorderLevel());
@@ -141,10 +202,23 @@ public class ProductInventoryService {
                     .orElseThrow(() -> new ResourceNotFoundException(
                             ProductErrorCode.WAREHOUSE_NOT_FOUND,
                             "Warehouse not found with ID: " + inventoryDTO.getWarehouseId()));
+            Long productId = existingInventory.getProduct().getId();
+            if ((existingInventory.getWarehouse() == null
+                            || !warehouse
+                                    .getId()
+                                    .equals(existingInventory.getWarehouse().getId()))
+                    && inventoryRepository.existsByProductIdAndWarehouseId(productId, warehouse.getId())) {
+                throw new ResourceAlreadyExistsException(
+                        ProductErrorCode.INVENTORY_ALREADY_EXISTS,
+                        "Inventory already exists for product ID: " + productId + " and warehouse ID: "
+                                + warehouse.getId());
+            }
             existingInventory.setWarehouse(warehouse);
         }
 
         ProductInventory updatedInventory = inventoryRepository.save(existingInventory);
+        recordMovement(updatedInventory, deltaAvailable, deltaReserved, InventoryMovementReason.UPDATED, null);
+        publishChange(updatedInventory);
 
         log.info("Inventory updated successfully with ID: {}", id);
         return convertToDTO(updatedInventory);
@@ -154,47 +228,68 @@ public class ProductInventoryService {
         log.info("Adjusting inventory quantity for ID: {} by {}", id, quantityChange);
 
         ProductInventory inventory = inventoryRepository
-                .findById(id)
+                .findByIdForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         ProductErrorCode.INVENTORY_NOT_FOUND, "Inventory not found with ID: " + id));
 
         int newQuantity = inventory.getQuantityAvailable() + quantityChange;
 
-        if (newQuantity < 0) {
-            throw new IllegalArgumentException("Insufficient stock. Available: " + inventory.getQuantityAvailable()
+        if (newQuantity < inventory.getHotAllotment()) {
+            throw new IllegalArgumentException("Insufficient stock. Available: " + inventory.getUnallottedAvailable()
                     + ", Requested: " + Math.abs(quantityChange));
         }
 
         inventory.setQuantityAvailable(newQuantity);
         ProductInventory updatedInventory = inventoryRepository.save(inventory);
+        recordMovement(updatedInventory, quantityChange, 0, InventoryMovementReason.ADJUSTED, null);
+        publishChange(updatedInventory);
 
         log.info("Inventory quantity adjusted. New quantity: {}", newQuantity);
         return convertToDTO(updatedInventory);
     }
 
-    public ProductInventoryDTO reserveQuantity(Long id, Integer quantity) {
+    /**
+     * Reserves from the row's in-memory counter if the row is in hot stock mode, otherwise from the
+     * row itself. Runs outside a transaction so that the hot path holds no database connection.
+     * Reservations with a {@code reference} always go through the row, as the counter's write-back
+     * records no reference and {@link #releaseByReference} could not find them.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ProductInventoryDTO reserveQuantity(Long id, Integer quantity, String reference) {
         log.info("Reserving {} units from inventory ID: {}", quantity, id);
 
-        ProductInventory inventory = inventoryRepository
-                .findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        ProductErrorCode.INVENTORY_NOT_FOUND, "Inventory not found with ID: " + id));
-
-        if (inventory.getQuantityAvailable() < quantity) {
-            throw new IllegalArgumentException("Insufficient stock to reserve. Available: "
-                    + inventory.getQuantityAvailable() + ", Requested: " + quantity);
+        if (reference == null) {
+            ProductInventoryDTO hotInventory = hotStockService.tryReserve(id, quantity);
+            if (hotInventory != null) {
+                return hotInventory;
+            }
         }
 
-        inventory.setQuantityAvailable(inventory.getQuantityAvailable() - quantity);
-        inventory.setQuantityReserved(inventory.getQuantityReserved() + quantity);
+        return transactionTemplate.execute(status -> {
+            ProductInventory inventory = inventoryRepository
+                    .findByIdForUpdate(id)
+                    .orElseThrow(() -> new ResourceNotFoundException(
+                            ProductErrorCode.INVENTORY_NOT_FOUND, "Inventory not found with ID: " + id));
 
-        ProductInventory updatedInventory = inventoryRepository.save(inventory);
+            if (inventory.getUnallottedAvailable() < quantity) {
+                throw new IllegalArgumentException("Insufficient stock to reserve. Available: "
+                        + inventory.getUnallottedAvailable() + ", Requested: " + quantity);
+            }
 
-        log.info("Quantity reserved successfully");
-        return convertToDTO(updatedInventory);
+            inventory.setQuantityAvailable(inventory.getQuantityAvailable() - quantity);
+            inventory.setQuantityReserved(inventory.getQuantityReserved() + quantity);
+
+            ProductInventory updatedInventory = inventoryRepository.save(inventory);
+            recordMovement(updatedInventory, -quantity, quantity, InventoryMovementReason.RESERVED, reference);
+            publishChange(updatedInventory);
+            hotStockService.countReservation(id);
+
+            log.info("Quantity reserved successfully");
+            return convertToDTO(updatedInventory);
+        });
     }
 
-    public ProductInventoryDTO reserveByProductId(Long productId, Integer quantity) {
+    public ProductInventoryDTO reserveByProductId(Long productId, Integer quantity, String reference) {
         log.info("Reserving {} units for product ID: {}", quantity, productId);
 
         productRepository
@@ -215,84 +310,250 @@ public class ProductInventoryService {
         inventory.setQuantityReserved(inventory.getQuantityReserved() + quantity);
 
         ProductInventory updatedInventory = inventoryRepository.save(inventory);
+        recordMovement(updatedInventory, -quantity, quantity, InventoryMovementReason.RESERVED, reference);
+        publishChange(updatedInventory);
 
         log.info("Quantity reserved successfully for product ID: {}", productId);
         return convertToDTO(updatedInventory);
     }
 
-    public ProductInventoryDTO reserveByProductAndWarehouse(Long productId, Long warehouseId, Integer quantity) {
-        log.info("Reserving {} units for product ID: {} at warehouse ID: {}", quantity, productId, warehouseId);
-
-        ProductInventory inventory = inventoryRepository
-                .findByProductIdAndWarehouseId(productId, warehouseId)
+    /**
+     * Reserves the quantity across as many warehouses as needed, split by the given strategy.
+     * <p>
+     * The plan is made from a plain read of the stock and applied with conditional updates that only
+     * succeed while the planned units are still available. If another writer takes stock in between,
+     * the rest is planned again from a fresh read, up to {@value #MAX_ALLOCATION_ATTEMPTS} times. Any
+     * failure rolls back every reservation made so far.
+     */
+    public InventoryAllocationDTO allocateByProductId(
+            Long productId, Integer quantity, AllocationStrategyType strategyType, String shipTo, String reference) {
+        log.info("Allocating {} units for product ID: {} using {}", quantity, productId, strategyType);
+
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Quantity to allocate must be positive");
+        }
+        productRepository
+                .findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException(
-                        ProductErrorCode.INVENTORY_NOT_FOUND,
-                        "Inventory not found for product ID: " + productId + " and warehouse ID: " + warehouseId));
+                        ProductErrorCode.PRODUCT_NOT_FOUND, "Product not found with ID: " + productId));
+        AllocationStrategy strategy = allocationStrategies.stream()
+                .filter(candidate -> candidate.type() == strategyType)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported allocation strategy: " + strategyType));
+
+        Map<Long, Integer> reserved = new LinkedHashMap<>();
+        int remaining = quantity;
+        for (int attempt = 1; remaining > 0 && attempt <= MAX_ALLOCATION_ATTEMPTS; attempt++) {
+            List<StockLocation> locations = inventoryRepository.findAllocatableByProductId(productId).stream()
+                    .map(ProductInventoryService::toStockLocation)
+                    .toList();
+            int available =
+                    locations.stream().mapToInt(StockLocation::available).sum();
+            if (available < remaining) {
+                throw new BusinessException(
+                        ProductErrorCode.INSUFFICIENT_STOCK,
+                        "Insufficient stock to reserve for product ID: " + productId + ". Available: "
+                                + (available + quantity - remaining) + ", Requested: " + quantity);
+            }
 
-        if (inventory.getQuantityAvailable() < quantity) {
-            throw new IllegalArgumentException("Insufficient stock to reserve at warehouse ID: " + warehouseId
-                    + ". Available: " + inventory.getQuantityAvailable() + ", Requested: " + quantity);
+            LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC"));
+            for (Allocation allocation : strategy.allocate(locations, remaining, shipTo)) {
+                Long inventoryId = allocation.location().inventoryId();
+                if (inventoryRepository.reserveIfAvailable(inventoryId, allocation.quantity(), now) == 0) {
+                    log.info("Stock of inventory ID: {} changed during allocation, replanning", inventoryId);
+                    break;
+                }
+                reserved.merge(inventoryId, allocation.quantity(), Integer::sum);
+                remaining -= allocation.quantity();
+            }
+        }
+        if (remaining > 0) {
+            throw new BusinessException(
+                    ProductErrorCode.INSUFFICIENT_STOCK,
+                    "Could not reserve " + quantity + " units for product ID: " + productId
+                            + " under concurrent updates, please retry");
         }
 
-        inventory.setQuantityAvailable(inventory.getQuantityAvailable() - quantity);
-        inventory.setQuantityReserved(inventory.getQuantityReserved() + quantity);
+        Map<Long, ProductInventory> inventories = inventoryRepository.findAllById(reserved.keySet()).stream()
+                .collect(Collectors.toMap(ProductInventory::getId, Function.identity()));
+        List<WarehouseAllocationDTO> allocations = reserved.entrySet().stream()
+                .map(entry -> {
+                    ProductInventory inventory = inventories.get(entry.getKey());
+                    recordMovement(
+                            inventory,
+                            -entry.getValue(),
+                            entry.getValue(),
+                            InventoryMovementReason.RESERVED,
+                            reference);
+                    publishChange(inventory);
+                    return WarehouseAllocationDTO.builder()
+                            .inventoryId(inventory.getId())
+                            .warehouseId(
+                                    inventory.getWarehouse() != null
+                                            ? inventory.getWarehouse().getId()
+                                            : null)
+                            .warehouseName(
+                                    inventory.getWarehouse() != null
+                                            ? inventory.getWarehouse().getName()
+                                            : null)
+                            .quantity(entry.getValue())
+                            .quantityAvailable(inventory.getQuantityAvailable())
+                            .build();
+                })
+                .toList();
 
-        ProductInventory updatedInventory = inventoryRepository.save(inventory);
+        log.info(
+                "Allocated {} units for product ID: {} across {} inventories", quantity, productId, allocations.size());
+        return InventoryAllocationDTO.builder()
+                .productId(productId)
+                .quantity(quantity)
+                .strategy(strategyType)
+                .allocations(allocations)
+                .build();
+    }
 
-        log.info("Quantity reserved successfully for product ID: {} at warehouse ID: {}", productId, warehouseId);
-        return convertToDTO(updatedInventory);
+    /**
+     * Like {@link #reserveQuantity}, served from memory if the row is in hot stock mode and no
+     * {@code reference} is given. Otherwise
+     * the reservation goes through {@link ReservationAdmissionService} first, which queues it
+     * fairly by {@code customerId} and rejects it without a transaction once the stock is gone.
+     * Admitted reservations take their units with a conditional update, so those running at once
+     * cannot oversell the row.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ProductInventoryDTO reserveByProductAndWarehouse(
+            Long productId, Long warehouseId, Integer quantity, String reference, Long customerId) {
+        log.info("Reserving {} units for product ID: {} at warehouse ID: {}", quantity, productId, warehouseId);
+
+        Long hotInventoryId = reference == null ? hotStockService.getHotInventoryId(productId, warehouseId) : null;
+        if (hotInventoryId != null) {
+            ProductInventoryDTO hotInventory = hotStockService.tryReserve(hotInventoryId, quantity);
+            if (hotInventory != null) {
+                return hotInventory;
+            }
+        }
+
+        return admissionService.admit(
+                productId,
+                warehouseId,
+                customerId,
+                quantity,
+                () -> transactionTemplate.execute(status -> {
+                    Long inventoryId = inventoryRepository
+                            .findByProductIdAndWarehouseId(productId, warehouseId)
+                            .orElseThrow(() -> new ResourceNotFoundException(
+                                    ProductErrorCode.INVENTORY_NOT_FOUND,
+                                    "Inventory not found for product ID: " + productId + " and warehouse ID: "
+                                            + warehouseId))
+                            .getId();
+
+                    // Several admitted reservations run against the row at once; only the update decides
+                    if (inventoryRepository.reserveIfAvailable(
+                                    inventoryId, quantity, LocalDateTime.now(ZoneId.of("UTC")))
+                            == 0) {
+                        int available = inventoryRepository
+                                .findById(inventoryId)
+                                .map(ProductInventory::getUnallottedAvailable)
+                                .orElse(0);
+                        throw new BusinessException(
+                                ProductErrorCode.INSUFFICIENT_STOCK,
+                                "Insufficient stock to reserve at warehouse ID: " + warehouseId + ". Available: "
+                                        + available + ", Requested: " + quantity);
+                    }
+
+                    ProductInventory updatedInventory =
+                            inventoryRepository.findById(inventoryId).orElseThrow();
+                    recordMovement(updatedInventory, -quantity, quantity, InventoryMovementReason.RESERVED, reference);
+                    publishChange(updatedInventory);
+                    hotStockService.countReservation(inventoryId);
+
+                    log.info(
+                            "Quantity reserved successfully for product ID: {} at warehouse ID: {}",
+                            productId,
+                            warehouseId);
+                    return convertToDTO(updatedInventory);
+                }));
     }
 
-    public ProductInventoryDTO releaseByProductAndWarehouse(Long productId, Long warehouseId, Integer quantity) {
+    /**
+     * Releases into the row's in-memory counter if the row is in hot stock mode and the units were
+     * reserved through it, otherwise from the row itself.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ProductInventoryDTO releaseByProductAndWarehouse(
+            Long productId, Long warehouseId, Integer quantity, String reference) {
         log.info(
                 "Releasing {} reserved units for product ID: {} at warehouse ID: {}", quantity, productId, warehouseId);
 
-        ProductInventory inventory = inventoryRepository
-                .findByProductIdAndWarehouseId(productId, warehouseId)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        ProductErrorCode.INVENTORY_NOT_FOUND,
-                        "Inventory not found for product ID: " + productId + " and warehouse ID: " + warehouseId));
-
-        if (inventory.getQuantityReserved() < quantity) {
-            throw new IllegalArgumentException("Cannot release more than reserved quantity at warehouse ID: "
-                    + warehouseId + ". Reserved: " + inventory.getQuantityReserved() + ", Requested: " + quantity);
+        Long hotInventoryId = hotStockService.getHotInventoryId(productId, warehouseId);
+        if (hotInventoryId != null) {
+            ProductInventoryDTO hotInventory = hotStockService.tryRelease(hotInventoryId, quantity);
+            if (hotInventory != null) {
+                return hotInventory;
+            }
         }
 
-        inventory.setQuantityReserved(inventory.getQuantityReserved() - quantity);
-        inventory.setQuantityAvailable(inventory.getQuantityAvailable() + quantity);
+        return transactionTemplate.execute(status -> {
+            ProductInventory inventory = inventoryRepository
+                    .findByProductIdAndWarehouseIdForUpdate(productId, warehouseId)
+                    .orElseThrow(() -> new ResourceNotFoundException(
+                            ProductErrorCode.INVENTORY_NOT_FOUND,
+                            "Inventory not found for product ID: " + productId + " and warehouse ID: " + warehouseId));
 
-        ProductInventory updatedInventory = inventoryRepository.save(inventory);
+            if (inventory.getQuantityReserved() < quantity) {
+                throw new IllegalArgumentException("Cannot release more than reserved quantity at warehouse ID: "
+                        + warehouseId + ". Reserved: " + inventory.getQuantityReserved() + ", Requested: " + quantity);
+            }
 
-        log.info(
-                "Reserved quantity released successfully for product ID: {} at warehouse ID: {}",
-                productId,
-                warehouseId);
-        return convertToDTO(updatedInventory);
+            inventory.setQuantityReserved(inventory.getQuantityReserved() - quantity);
+            inventory.setQuantityAvailable(inventory.getQuantityAvailable() + quantity);
+
+            ProductInventory updatedInventory = inventoryRepository.save(inventory);
+            recordMovement(updatedInventory, quantity, -quantity, InventoryMovementReason.RELEASED, reference);
+            publishChange(updatedInventory);
+
+            log.info(
+                    "Reserved quantity released successfully for product ID: {} at warehouse ID: {}",
+                    productId,
+                    warehouseId);
+            return convertToDTO(updatedInventory);
+        });
     }
 
-    public ProductInventoryDTO releaseReservedQuantity(Long id, Integer quantity) {
+    /** Like {@link #releaseByProductAndWarehouse}, for a row given by ID. */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ProductInventoryDTO releaseReservedQuantity(Long id, Integer quantity, String reference) {
         log.info("Releasing {} reserved units from inventory ID: {}", quantity, id);
 
-        ProductInventory inventory = inventoryRepository
-                .findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        ProductErrorCode.INVENTORY_NOT_FOUND, "Inventory not found with ID: " + id));
-
-        if (inventory.getQuantityReserved() < quantity) {
-            throw new IllegalArgumentException("Cannot release more than reserved quantity. Reserved: "
-                    + inventory.getQuantityReserved() + ", Requested: " + quantity);
+        ProductInventoryDTO hotInventory = hotStockService.tryRelease(id, quantity);
+        if (hotInventory != null) {
+            return hotInventory;
         }
 
-        inventory.setQuantityReserved(inventory.getQuantityReserved() - quantity);
-        inventory.setQuantityAvailable(inventory.getQuantityAvailable() + quantity);
+        return transactionTemplate.execute(status -> {
+            ProductInventory inventory = inventoryRepository
+                    .findByIdForUpdate(id)
+                    .orElseThrow(() -> new ResourceNotFoundException(
+                            ProductErrorCode.INVENTORY_NOT_FOUND, "Inventory not found with ID: " + id));
 
-        ProductInventory updatedInventory = inventoryRepository.save(inventory);
+            if (inventory.getQuantityReserved() < quantity) {
+                throw new IllegalArgumentException("Cannot release more than reserved quantity. Reserved: "
+                        + inventory.getQuantityReserved() + ", Requested: " + quantity);
+            }
 
-        log.info("Reserved quantity released successfully");
-        return convertToDTO(updatedInventory);
+            inventory.setQuantityReserved(inventory.getQuantityReserved() - quantity);
+            inventory.setQuantityAvailable(inventory.getQuantityAvailable() + quantity);
+
+            ProductInventory updatedInventory = inventoryRepository.save(inventory);
+            recordMovement(updatedInventory, quantity, -quantity, InventoryMovementReason.RELEASED, reference);
+            publishChange(updatedInventory);
+
+            log.info("Reserved quantity released successfully");
+            return convertToDTO(updatedInventory);
+        });
     }
 
-    public ProductInventoryDTO releaseByProductId(Long productId, Integer quantity) {
+    public ProductInventoryDTO releaseByProductId(Long productId, Integer quantity, String reference) {
         log.info("Releasing {} reserved units for product ID: {}", quantity, productId);
 
         productRepository
@@ -300,7 +561,7 @@ public class ProductInventoryService {
                 .orElseThrow(() -> new ResourceNotFoundException(
                         ProductErrorCode.PRODUCT_NOT_FOUND, "Product not found with ID: " + productId));
 
-        List<ProductInventory> inventories = inventoryRepository.findByProductId(productId);
+        List<ProductInventory> inventories = inventoryRepository.findByProductIdForUpdate(productId);
 
         int remainingToRelease = quantity;
         ProductInventory lastUpdated = null;
@@ -313,6 +574,8 @@ public class ProductInventoryService {
                 inventory.setQuantityReserved(inventory.getQuantityReserved() - canRelease);
                 inventory.setQuantityAvailable(inventory.getQuantityAvailable() + canRelease);
                 lastUpdated = inventoryRepository.save(inventory);
+                recordMovement(lastUpdated, canRelease, -canRelease, InventoryMovementReason.RELEASED, reference);
+                publishChange(lastUpdated);
                 remainingToRelease -= canRelease;
             }
         }
@@ -326,27 +589,250 @@ public class ProductInventoryService {
         return convertToDTO(lastUpdated);
     }
 
+    /**
+     * Releases whatever the reference still holds reserved, e.g. the reservations of an order whose
+     * creation did not complete. Each row is locked before its reservations and releases under the
+     * reference are summed, so calling this again, or concurrently, releases nothing twice.
+     *
+     * @return the rows released from
+     */
+    public List<ProductInventoryDTO> releaseByReference(String reference) {
+        log.info("Releasing reservations under reference: {}", reference);
+
+        List<ProductInventoryDTO> released = new ArrayList<>();
+        for (Long inventoryId : ledgerService.getInventoryIdsByReference(reference)) {
+            ProductInventory inventory =
+                    inventoryRepository.findByIdForUpdate(inventoryId).orElse(null);
+            if (inventory == null) {
+                continue;
+            }
+            int quantity = Math.min(
+                    ledgerService.getReservedByReference(inventoryId, reference), inventory.getQuantityReserved());
+            if (quantity <= 0) {
+                continue;
+            }
+
+            inventory.setQuantityReserved(inventory.getQuantityReserved() - quantity);
+            inventory.setQuantityAvailable(inventory.getQuantityAvailable() + quantity);
+            ProductInventory updatedInventory = inventoryRepository.save(inventory);
+            recordMovement(updatedInventory, quantity, -quantity, InventoryMovementReason.RELEASED, reference);
+            publishChange(updatedInventory);
+            released.add(convertToDTO(updatedInventory));
+        }
+
+        log.info("Released reservations under reference: {} from {} inventories", reference, released.size());
+        return released;
+    }
+
     public void deleteInventory(Long id) {
         log.info("Deleting inventory with ID: {}", id);
 
         ProductInventory inventory = inventoryRepository
-                .findById(id)
+                .findByIdForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         ProductErrorCode.INVENTORY_NOT_FOUND, "Inventory not found with ID: " + id));
 
+        if (inventory.getHotAllotment() > 0 || hotStockService.isHot(id)) {
+            throw new IllegalArgumentException(
+                    "Inventory ID: " + id + " is in hot stock mode; demote it before deleting");
+        }
+
         inventoryRepository.delete(inventory);
+        if (Boolean.TRUE.equals(inventory.getLowStockFlag())) {
+            publishLowStockChange(inventory, false, true);
+        }
+        recordMovement(
+                inventory,
+                -inventory.getQuantityAvailable(),
+                -inventory.getQuantityReserved(),
+                InventoryMovementReason.DELETED,
+                null);
+        eventPublisher.publishEvent(InventoryChangeEventDTO.builder()
+                .inventoryId(inventory.getId())
+                .productId(inventory.getProduct().getId())
+                .warehouseId(
+                        inventory.getWarehouse() != null
+                                ? inventory.getWarehouse().getId()
+                                : null)
+                .deleted(true)
+                .build());
         log.info("Inventory deleted successfully with ID: {}", id);
     }
 
-    private ProductInventoryDTO convertToDTO(ProductInventory inventory) {
-        ProductInventoryDTO dto = modelMapper.map(inventory, ProductInventoryDTO.class);
-        dto.setProductId(inventory.getProduct().getId());
-        dto.setTotalQuantity(inventory.getTotalQuantity());
-        dto.setIsLowStock(inventory.isLowStock());
-        if (inventory.getWarehouse() != null) {
-            dto.setWarehouseId(inventory.getWarehouse().getId());
-            dto.setWarehouseName(inventory.getWarehouse().getName());
+    /** Sets the low-stock flag of rows stored before it existed. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillLowStockFlags() {
+        int updated = inventoryRepository.backfillLowStockFlags();
+        if (updated > 0) {
+            log.info("Backfilled low stock flag for {} inventories", updated);
+        }
+    }
+
+    /**
+     * Reports product and warehouse pairs held by more than one row. Such rows predate the unique key
+     * on the pair, which cannot be created while they exist, and bulk transfers fail until they are
+     * merged (see the README).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void checkDuplicateWarehouseRows() {
+        List<Object[]> duplicates = inventoryRepository.findDuplicateProductWarehousePairs(PageRequest.of(0, 10));
+        if (!duplicates.isEmpty()) {
+            log.error(
+                    "Inventory has more than one row for product and warehouse pairs {}{}; merge them so that"
+                            + " uk_product_inventory_product_warehouse can be created and transfers work",
+                    duplicates.stream().map(pair -> pair[0] + "/" + pair[1]).collect(Collectors.joining(", ")),
+                    duplicates.size() == 10 ? " and possibly more" : "");
+        }
+    }
+
+    /**
+     * Writes the changes served by hot stock counters back to their rows, the ledger and the
+     * availability totals in one transaction. A failed run keeps the changes for the next one; they
+     * are in the journal as well, so a crash loses none of them either. The ledger gets one net
+     * movement per row and run, without an order reference.
+     */
+    @Scheduled(fixedDelayString = "${product.hot-stock.write-back-interval:PT0.2S}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void writeBackHotStock() {
+        List<HotStockDelta> deltas = hotStockService.drainPending();
+        if (!deltas.isEmpty()) {
+            Map<Long, ProductInventoryDTO> written;
+            try {
+                written = transactionTemplate.execute(status -> {
+                    Map<Long, ProductInventoryDTO> rows = new HashMap<>();
+                    for (HotStockDelta delta : deltas) {
+                        ProductInventoryDTO row = applyHotStockDelta(delta);
+                        if (row != null) {
+                            rows.put(delta.inventoryId(), row);
+                        }
+                    }
+                    return rows;
+                });
+            } catch (RuntimeException e) {
+                hotStockService.restorePending(deltas);
+                log.error("Failed to write back {} hot stock changes, retrying on the next run", deltas.size(), e);
+                return;
+            }
+            hotStockService.completeWriteBack(deltas, written);
+        }
+        hotStockService.maintain();
+    }
+
+    private ProductInventoryDTO applyHotStockDelta(HotStockDelta delta) {
+        hotStockService.recordWriteBack(delta);
+        if (delta.delta() != 0) {
+            inventoryRepository.applyHotStockDelta(
+                    delta.inventoryId(), delta.delta(), LocalDateTime.now(ZoneId.of("UTC")));
+        }
+        ProductInventory inventory =
+                inventoryRepository.findById(delta.inventoryId()).orElse(null);
+        if (inventory == null) {
+            log.warn(
+                    "Hot stock inventory ID: {} no longer exists, dropping a change of {}",
+                    delta.inventoryId(),
+                    delta.delta());
+            return null;
+        }
+        if (delta.delta() != 0) {
+            recordMovement(
+                    inventory,
+                    -delta.delta(),
+                    delta.delta(),
+                    delta.delta() > 0 ? InventoryMovementReason.RESERVED : InventoryMovementReason.RELEASED,
+                    null);
+            publishChange(inventory);
+        }
+        return convertToDTO(inventory);
+    }
+
+    /** Records a change of the row's balances in the ledger and in its product's availability totals. */
+    private void recordMovement(
+            ProductInventory inventory,
+            int deltaAvailable,
+            int deltaReserved,
+            InventoryMovementReason reason,
+            String reference) {
+        ledgerService.record(inventory, deltaAvailable, deltaReserved, reason, reference);
+        availabilityService.apply(
+                inventory.getProduct().getId(),
+                deltaAvailable,
+                deltaReserved,
+                reason == InventoryMovementReason.DELETED ? 0 : inventory.getQuantityAvailable());
+    }
+
+    private void publishChange(ProductInventory inventory) {
+        publishChange(inventory, Boolean.TRUE.equals(inventory.getLowStockFlag()));
+    }
+
+    /**
+     * Publishes the row's new state and brings its low-stock flag up to date, announcing the change
+     * if the row entered or left the low-stock set.
+     */
+    private void publishChange(ProductInventory inventory, boolean wasLowStock) {
+        boolean lowStock = inventory.isLowStock();
+        inventory.setLowStockFlag(lowStock);
+        if (lowStock != wasLowStock) {
+            publishLowStockChange(inventory, lowStock, false);
         }
-        return dto;
+
+        eventPublisher.publishEvent(InventoryChangeEventDTO.builder()
+                .inventoryId(inventory.getId())
+                .productId(inventory.getProduct().getId())
+                .warehouseId(
+                        inventory.getWarehouse() != null
+                                ? inventory.getWarehouse().getId()
+                                : null)
+                .quantityAvailable(inventory.getQuantityAvailable())
+                .quantityReserved(inventory.getQuantityReserved())
+                .reorderLevel(inventory.getReorderLevel())
+                .updatedAt(LocalDateTime.now(ZoneId.of("UTC")))
+                .build());
+    }
+
+    private void publishLowStockChange(ProductInventory inventory, boolean lowStock, boolean deleted) {
+        log.info("Inventory ID: {} {} the low stock set", inventory.getId(), lowStock ? "entered" : "left");
+        eventPublisher.publishEvent(LowStockEventDTO.builder()
+                .inventoryId(inventory.getId())
+                .productId(inventory.getProduct().getId())
+                .warehouseId(
+                        inventory.getWarehouse() != null
+                                ? inventory.getWarehouse().getId()
+                                : null)
+                .quantityAvailable(inventory.getQuantityAvailable())
+                .reorderLevel(inventory.getReorderLevel())
+                .lowStock(lowStock)
+                .deleted(deleted)
+                .build());
+    }
+
+    private static StockLocation toStockLocation(ProductInventory inventory) {
+        Warehouse warehouse = inventory.getWarehouse();
+        return warehouse == null
+                ? new StockLocation(inventory.getId(), null, null, null, null, inventory.getUnallottedAvailable())
+                : new StockLocation(
+                        inventory.getId(),
+                        warehouse.getId(),
+                        warehouse.getCity(),
+                        warehouse.getState(),
+                        warehouse.getCountry(),
+                        inventory.getUnallottedAvailable());
+    }
+
+    private ProductInventoryDTO convertToDTO(ProductInventory inventory) {
+        Warehouse warehouse = inventory.getWarehouse();
+        return ProductInventoryDTO.builder()
+                .id(inventory.getId())
+                .productId(inventory.getProduct().getId())
+                .warehouseId(warehouse != null ? warehouse.getId() : null)
+                .warehouseName(warehouse != null ? warehouse.getName() : null)
+                .quantityAvailable(inventory.getQuantityAvailable())
+                .quantityReserved(inventory.getQuantityReserved())
+                .reorderLevel(inventory.getReorderLevel())
+                .totalQuantity(inventory.getTotalQuantity())
+                .isLowStock(inventory.isLowStock())
+                .createdAt(inventory.getCreatedAt())
+                .updatedAt(inventory.getUpdatedAt())
+                .build();
     }
 }
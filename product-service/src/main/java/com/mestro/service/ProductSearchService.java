@@ -0,0 +1,210 @@
+package com.mestro.service;
+
+import com.mestro.common.dto.PageResponseDTO;
+import com.mestro.common.utils.GeneralUtils;
+import com.mestro.dto.ProductChangeEventDTO;
+import com.mestro.dto.ProductDTO;
+import com.mestro.model.Product;
+import com.mestro.repository.ProductRepository;
+import com.mestro.search.ProductSearchIndex;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keyword search backed by {@link ProductSearchIndex}.
+ * <p>
+ * The index is built from the database once the application is ready and kept current from the
+ * product change events published after each commit. Until the first build finishes, searches fall
+ * back to the paged {@code LIKE} query on the product name.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductSearchService {
+
+    private final ProductRepository productRepository;
+    private final ProductAssembler productAssembler;
+
+    @Value("${product.search.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    @Value("${product.search.rebuild-batch-size:1000}")
+    private int rebuildBatchSize;
+
+    @Value("${product.search.max-result-window:10000}")
+    private int maxResultWindow;
+
+    private volatile ProductSearchIndex index = new ProductSearchIndex();
+    private volatile boolean ready;
+
+    private final Object rebuildLock = new Object();
+
+    // Guarded by "this": changes that arrive while a rebuild is running, replayed onto the new index
+    private List<ProductChangeEventDTO> pendingChanges;
+
+    // -------------------------------------------------------------------------
+    // Search
+    // -------------------------------------------------------------------------
+
+    @Transactional(readOnly = true)
+    public PageResponseDTO<ProductDTO> search(String keyword, Pageable pageable) {
+        return search(keyword, null, pageable);
+    }
+
+    /**
+     * Like {@link #search(String, Pageable)}, keeping only products accepted by {@code filter}, if
+     * given. The index applies it before paging; the fallback query can only filter each page.
+     */
+    @Transactional(readOnly = true)
+    public PageResponseDTO<ProductDTO> search(String keyword, LongPredicate filter, Pageable pageable) {
+        if (keyword == null || keyword.isBlank()) {
+            throw new IllegalArgumentException("Search keyword must not be blank");
+        }
+        if (pageable.getOffset() + pageable.getPageSize() > maxResultWindow) {
+            throw new IllegalArgumentException("Search results are limited to the first " + maxResultWindow + " hits");
+        }
+
+        if (!ready) {
+            Page<Product> page = productRepository.searchByName(keyword.trim(), pageable);
+            List<Product> content = filter == null
+                    ? page.getContent()
+                    : page.getContent().stream()
+                            .filter(product -> filter.test(product.getId()))
+                            .toList();
+            return GeneralUtils.pageableResponse(
+                    productAssembler.toDTOs(content),
+                    page.getNumber(),
+                    page.getSize(),
+                    page.getTotalElements(),
+                    page.getTotalPages(),
+                    page.isFirst(),
+                    page.isLast(),
+                    pageable);
+        }
+
+        ProductSearchIndex.SearchResult result =
+                index.search(keyword, (int) pageable.getOffset(), pageable.getPageSize(), filter);
+        List<Long> productIds =
+                result.hits().stream().map(ProductSearchIndex.Hit::productId).toList();
+
+        // Load the page and put it back into rank order
+        Map<Long, Product> productsById = productIds.isEmpty()
+                ? Map.of()
+                : productRepository.findAllByIdWithCategory(productIds).stream()
+                        .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Product> ranked = productIds.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        int totalPages = (int) ((result.totalHits() + pageable.getPageSize() - 1) / pageable.getPageSize());
+        return GeneralUtils.pageableResponse(
+                productAssembler.toDTOs(ranked),
+                pageable.getPageNumber(),
+                pageable.getPageSize(),
+                result.totalHits(),
+                totalPages,
+                pageable.getPageNumber() == 0,
+                pageable.getPageNumber() + 1 >= totalPages,
+                pageable);
+    }
+
+    // -------------------------------------------------------------------------
+    // Maintenance
+    // -------------------------------------------------------------------------
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            Thread.ofVirtual().name("product-search-rebuild").start(this::rebuild);
+        }
+    }
+
+    /**
+     * Builds a fresh index from the database and swaps it in. The catalog is read in ID order in
+     * keyset batches, so memory use is bounded by the batch size plus the index itself. Changes
+     * committed meanwhile are recorded and replayed onto the new index before the swap.
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                pendingChanges = new ArrayList<>();
+            }
+            try {
+                long started = System.nanoTime();
+                ProductSearchIndex building = new ProductSearchIndex();
+                long afterId = 0L;
+                List<Product> batch;
+                do {
+                    batch = productRepository.findBatchAfterId(afterId, PageRequest.of(0, rebuildBatchSize));
+                    for (Product product : batch) {
+                        building.index(
+                                product.getId(),
+                                product.getName(),
+                                product.getBrand(),
+                                product.getSku(),
+                                product.getDescription());
+                        afterId = product.getId();
+                    }
+                } while (batch.size() == rebuildBatchSize);
+
+                synchronized (this) {
+                    pendingChanges.forEach(change -> apply(building, change));
+                    index = building;
+                    ready = true;
+                }
+                log.info(
+                        "Product search index rebuilt with {} products in {} ms",
+                        building.size(),
+                        (System.nanoTime() - started) / 1_000_000);
+            } catch (RuntimeException e) {
+                log.error("Product search index rebuild failed", e);
+            } finally {
+                synchronized (this) {
+                    pendingChanges = null;
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangeEventDTO change) {
+        apply(index, change);
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private static void apply(ProductSearchIndex target, ProductChangeEventDTO change) {
+        if (change.isDeleted()) {
+            target.remove(change.getProductId());
+        } else {
+            target.index(
+                    change.getProductId(),
+                    change.getName(),
+                    change.getBrand(),
+                    change.getSku(),
+                    change.getDescription());
+        }
+    }
+}
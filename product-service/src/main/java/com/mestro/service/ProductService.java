@@ -1,29 +1,39 @@
 package com.mestro.service;
 
+import com.mestro.common.dto.CursorPageResponseDTO;
 import com.mestro.common.dto.PageResponseDTO;
 import com.mestro.common.exception.ResourceAlreadyExistsException;
 import com.mestro.common.exception.ResourceNotFoundException;
 import com.mestro.common.utils.GeneralUtils;
+import com.mestro.common.utils.ResourceVersion;
+import com.mestro.dto.FacetedProductsDTO;
+import com.mestro.dto.ProductChangeEventDTO;
 import com.mestro.dto.ProductDTO;
-import com.mestro.dto.ProductImageDTO;
-import com.mestro.dto.ProductInventoryDTO;
+import com.mestro.enums.PriceBand;
 import com.mestro.enums.ProductErrorCode;
 import com.mestro.model.Category;
 import com.mestro.model.Product;
-import com.mestro.model.ProductInventory;
 import com.mestro.repository.CategoryRepository;
-import com.mestro.repository.ProductImageRepository;
-import com.mestro.repository.ProductInventoryRepository;
 import com.mestro.repository.ProductRepository;
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.LongPredicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @RequiredArgsConstructor
@@ -31,11 +41,23 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class ProductService {
 
+    private static final int MAX_BATCH_SIZE = 200;
+    private static final int BACKFILL_BATCH_SIZE = 500;
+    // Batches of size + 1 rows read for one page of a stock-filtered list
+    private static final int MAX_FILTERED_BATCHES = 5;
+    // Largest value the effective_price column (precision 12, scale 2) can hold
+    private static final BigDecimal MAX_EFFECTIVE_PRICE = new BigDecimal("9999999999.99");
+
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
-    private final ProductImageRepository productImageRepository;
-    private final ProductInventoryRepository productInventoryRepository;
+    private final CategoryTreeService categoryTreeService;
+    private final ProductAssembler productAssembler;
+    private final ProductSearchService productSearchService;
+    private final ProductFacetService productFacetService;
+    private final InStockIndexService inStockIndexService;
+    private final ApplicationEventPublisher eventPublisher;
     private final ModelMapper modelMapper;
+    private final TransactionTemplate transactionTemplate;
 
     public ProductDTO createProduct(ProductDTO productDTO) {
         log.info("Creating new product: {}", productDTO.getName());
@@ -58,6 +80,7 @@ public class ProductService {
         product.setCategory(category);
 
         Product savedProduct = productRepository.save(product);
+        publishChange(savedProduct);
 
         log.info("Product created successfully with ID: {}", savedProduct.getId());
         return convertToDTO(savedProduct);
@@ -75,6 +98,28 @@ public class ProductService {
         return convertToDTO(product);
     }
 
+    /** Version of the product for conditional GETs, without loading or mapping it. */
+    @Transactional(readOnly = true)
+    public ResourceVersion getProductVersion(Long id) {
+        return productRepository.findVersionById(id).stream()
+                .findFirst()
+                .map(ResourceVersion::of)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        ProductErrorCode.PRODUCT_NOT_FOUND, "Product not found with ID: " + id));
+    }
+
+    /** Products by ID; with {@code inStock} given, only those in (or out of) stock. */
+    @Transactional(readOnly = true)
+    public List<ProductDTO> getProductsByIds(List<Long> ids, Boolean inStock) {
+        log.info("Fetching {} products by ID", ids.size());
+
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Cannot fetch more than " + MAX_BATCH_SIZE + " products at once");
+        }
+
+        return productAssembler.toDTOs(filterByStock(productRepository.findAllByIdWithCategory(ids), inStock));
+    }
+
     @Transactional(readOnly = true)
     public ProductDTO getProductBySku(String sku) {
         log.info("Fetching product with SKU: {}", sku);
@@ -91,8 +136,7 @@ public class ProductService {
     public PageResponseDTO<ProductDTO> getAllProducts(Pageable pageable) {
         log.info("Fetching all products");
         Page<Product> pageProducts = productRepository.findAll(pageable);
-        List<ProductDTO> list =
-                pageProducts.getContent().stream().map(this::convertToDTO).toList();
+        List<ProductDTO> list = productAssembler.toDTOs(pageProducts.getContent());
         return GeneralUtils.pageableResponse(
                 list,
                 pageProducts.getNumber(),
@@ -105,16 +149,15 @@ public class ProductService {
     }
 
     @Transactional(readOnly = true)
-    public List<ProductDTO> getActiveProducts() {
-        log.info("Fetching active products");
+    public CursorPageResponseDTO<ProductDTO> getActiveProducts(Long afterId, int size, Boolean inStock) {
+        log.info("Fetching active products after ID: {}", afterId);
 
-        return productRepository.findByIsActive(true).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return productPage(afterId, size, inStock, productRepository::findActivePageAfterId);
     }
 
     @Transactional(readOnly = true)
-    public List<ProductDTO> getProductsByCategory(Long categoryId) {
+    public CursorPageResponseDTO<ProductDTO> getProductsByCategory(
+            Long categoryId, Long afterId, int size, Boolean inStock) {
         log.info("Fetching products for category ID: {}", categoryId);
 
         // Validate category exists
@@ -123,18 +166,66 @@ public class ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException(
                         ProductErrorCode.CATEGORY_NOT_FOUND, "Category not found with ID: " + categoryId));
 
-        return productRepository.findByCategoryId(categoryId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return productPage(
+                afterId,
+                size,
+                inStock,
+                (cursor, request) -> productRepository.findPageByCategoryIdAfterId(categoryId, cursor, request));
+    }
+
+    /** Products in the category or any category below it, resolved in one query from the cached tree. */
+    @Transactional(readOnly = true)
+    public PageResponseDTO<ProductDTO> getProductsInSubtree(Long categoryId, Pageable pageable) {
+        log.info("Fetching products in subtree of category ID: {}", categoryId);
+
+        List<Long> categoryIds = categoryTreeService.getSubtreeIds(categoryId);
+        Page<Product> page = productRepository.findByCategoryIdIn(categoryIds, pageable);
+        return GeneralUtils.pageableResponse(
+                productAssembler.toDTOs(page.getContent()),
+                page.getNumber(),
+                page.getSize(),
+                page.getTotalElements(),
+                page.getTotalPages(),
+                page.isFirst(),
+                page.isLast(),
+                pageable);
+    }
+
+    /** Active products whose effective (discounted, taxed) unit price lies in the range, inclusive. */
+    @Transactional(readOnly = true)
+    public PageResponseDTO<ProductDTO> getProductsByEffectivePrice(
+            BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+        log.info("Fetching active products with effective price between {} and {}", minPrice, maxPrice);
+
+        BigDecimal min = minPrice != null ? minPrice : BigDecimal.ZERO;
+        BigDecimal max = maxPrice != null ? maxPrice : MAX_EFFECTIVE_PRICE;
+        if (min.compareTo(max) > 0) {
+            throw new IllegalArgumentException("Minimum price cannot be greater than maximum price");
+        }
+
+        Page<Product> page = productRepository.findByIsActiveTrueAndEffectivePriceBetween(min, max, pageable);
+        return GeneralUtils.pageableResponse(
+                productAssembler.toDTOs(page.getContent()),
+                page.getNumber(),
+                page.getSize(),
+                page.getTotalElements(),
+                page.getTotalPages(),
+                page.isFirst(),
+                page.isLast(),
+                pageable);
     }
 
     @Transactional(readOnly = true)
-    public List<ProductDTO> searchProducts(String keyword) {
+    public PageResponseDTO<ProductDTO> searchProducts(String keyword, Boolean inStock, Pageable pageable) {
         log.info("Searching products with keyword: {}", keyword);
+        return productSearchService.search(keyword, inStockIndexService.filter(inStock), pageable);
+    }
 
-        return productRepository.searchByName(keyword).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public FacetedProductsDTO browseProducts(
+            Set<String> brands, Set<Long> categoryIds, Set<PriceBand> priceBands, Boolean inStock, Pageable pageable) {
+        log.info("Browsing products by facets");
+        return productFacetService.browse(brands, categoryIds, priceBands, inStock, pageable);
     }
 
     public ProductDTO updateProduct(Long id, ProductDTO productDTO) {
@@ -176,8 +267,11 @@ public class ProductService {
         if (productDTO.getIsActive() != null) {
             existingProduct.setIsActive(productDTO.getIsActive());
         }
+        // @PreUpdate only runs at flush, after the response has been mapped
+        existingProduct.calculateEffectivePrice();
 
         Product updatedProduct = productRepository.save(existingProduct);
+        publishChange(updatedProduct);
 
         log.info("Product updated successfully with ID: {}", id);
         return convertToDTO(updatedProduct);
@@ -192,6 +286,8 @@ public class ProductService {
                         ProductErrorCode.PRODUCT_NOT_FOUND, "Product not found with ID: " + id));
 
         productRepository.delete(product);
+        eventPublisher.publishEvent(
+                ProductChangeEventDTO.builder().productId(id).deleted(true).build());
         log.info("Product deleted successfully with ID: {}", id);
     }
 
@@ -205,35 +301,95 @@ public class ProductService {
 
         product.setIsActive(!product.getIsActive());
         Product updatedProduct = productRepository.save(product);
+        publishChange(updatedProduct);
 
         log.info("Product status toggled successfully. New status: {}", updatedProduct.getIsActive());
         return convertToDTO(updatedProduct);
     }
 
+    /**
+     * Fills in the effective price of products stored before the column existed, in batches of
+     * {@value #BACKFILL_BATCH_SIZE} with one transaction each.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void backfillEffectivePrices() {
+        long updated = 0;
+        int batchSize;
+        do {
+            batchSize = transactionTemplate.execute(status -> {
+                List<Product> batch =
+                        productRepository.findWithoutEffectivePrice(PageRequest.of(0, BACKFILL_BATCH_SIZE));
+                batch.forEach(Product::calculateEffectivePrice);
+                return batch.size();
+            });
+            updated += batchSize;
+        } while (batchSize == BACKFILL_BATCH_SIZE);
+        if (updated > 0) {
+            log.info("Backfilled effective price for {} products", updated);
+        }
+    }
+
+    private void publishChange(Product product) {
+        eventPublisher.publishEvent(ProductChangeEventDTO.builder()
+                .productId(product.getId())
+                .sku(product.getSku())
+                .name(product.getName())
+                .brand(product.getBrand())
+                .description(product.getDescription())
+                .categoryId(product.getCategory().getId())
+                .price(product.getPrice())
+                .active(Boolean.TRUE.equals(product.getIsActive()))
+                .build());
+    }
+
+    private List<Product> filterByStock(List<Product> products, Boolean inStock) {
+        LongPredicate filter = inStockIndexService.filter(inStock);
+        if (filter == null) {
+            return products;
+        }
+        return products.stream().filter(product -> filter.test(product.getId())).toList();
+    }
+
+    /**
+     * One keyset page of products. With a stock filter, batches are read until {@code size}
+     * products pass it or the rows run out, but no more than {@value #MAX_FILTERED_BATCHES} of them,
+     * so a sparse filter cannot make one request scan the whole catalog. A page cut short that way
+     * is not the last one: its {@code nextAfterId} is the last row scanned.
+     */
+    private CursorPageResponseDTO<ProductDTO> productPage(
+            Long afterId, int size, Boolean inStock, BiFunction<Long, Pageable, List<Product>> batches) {
+        Pageable request = GeneralUtils.cursorPageRequest(size);
+        LongPredicate filter = inStockIndexService.filter(inStock);
+        long cursor = afterId != null ? afterId : 0L;
+        List<Product> rows = new ArrayList<>(size + 1);
+        for (int batchesRead = 1; ; batchesRead++) {
+            List<Product> batch = batches.apply(cursor, request);
+            for (Product product : batch) {
+                if (filter == null || filter.test(product.getId())) {
+                    rows.add(product);
+                    if (rows.size() > size) {
+                        break;
+                    }
+                }
+            }
+            if (rows.size() > size || batch.size() < request.getPageSize()) {
+                break;
+            }
+            cursor = batch.get(batch.size() - 1).getId();
+            if (batchesRead == MAX_FILTERED_BATCHES) {
+                return CursorPageResponseDTO.<ProductDTO>builder()
+                        .content(productAssembler.toDTOs(rows))
+                        .size(size)
+                        .nextAfterId(cursor)
+                        .last(false)
+                        .build();
+            }
+        }
+        return GeneralUtils.cursorResponse(rows, size, Product::getId, productAssembler::toDTOs);
+    }
+
     private ProductDTO convertToDTO(Product product) {
-        ProductDTO productDTO = modelMapper.map(product, ProductDTO.class);
-        productDTO.setCategoryId(product.getCategory().getId());
-        productDTO.setCategoryName(product.getCategory().getName());
-
-        // Map images
-        List<ProductImageDTO> images = productImageRepository.findByProductId(product.getId()).stream()
-                .map(image -> modelMapper.map(image, ProductImageDTO.class))
-                .collect(Collectors.toList());
-        productDTO.setImages(images);
-
-        // Map inventories
-        List<ProductInventoryDTO> inventories = productInventoryRepository.findByProductId(product.getId()).stream()
-                .map(this::convertInventoryToDTO)
-                .collect(Collectors.toList());
-        productDTO.setInventories(inventories);
-
-        return productDTO;
-    }
-
-    private ProductInventoryDTO convertInventoryToDTO(ProductInventory inventory) {
-        ProductInventoryDTO dto = modelMapper.map(inventory, ProductInventoryDTO.class);
-        dto.setTotalQuantity(inventory.getTotalQuantity());
-        dto.setIsLowStock(inventory.isLowStock());
-        return dto;
+        return productAssembler.toDTO(product);
     }
 }
@@ -0,0 +1,329 @@
+package com.mestro.service;
+
+import com.mestro.common.exception.BusinessException;
+import com.mestro.dto.InventoryChangeEventDTO;
+import com.mestro.dto.InventoryTransferEventDTO;
+import com.mestro.enums.ProductErrorCode;
+import com.mestro.model.ProductInventory;
+import com.mestro.repository.ProductInventoryRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Admission control in front of the database path of reservations at a given warehouse.
+ * <p>
+ * Each product and warehouse gets a gate holding a token per unit of the row's available stock as
+ * last committed, less the units of reservations already admitted and not finished. A reservation
+ * that cannot be covered by the tokens left is rejected at once, without touching the database.
+ * Admitted reservations run against the row at most {@code max-in-flight} at a time; the rest wait
+ * in one FIFO lane per customer, and the lanes take turns, so a customer sending many requests
+ * cannot crowd out the others. A reservation that is not let through within {@code max-wait}, or
+ * that finds {@code max-queued} reservations waiting, is rejected as well.
+ * <p>
+ * The database stays the authority: tokens are seeded from the row on first use and follow the
+ * committed changes of the row made on this instance, skipping any that arrive after a later one.
+ * Changes made on other instances are not seen, so a reservation is only turned away on stock read
+ * from the row within {@code stock-ttl}; past that, the row is read again first. Tokens count units
+ * in hot stock allotments as well, so they err on the side of letting a reservation through to the
+ * row rather than turning it away.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReservationAdmissionService {
+
+    private static final Object ANONYMOUS = new Object();
+
+    // Admission of the reservation running on this thread, settled when its change commits
+    private static final ThreadLocal<Ticket> CURRENT = new ThreadLocal<>();
+
+    private final ProductInventoryRepository inventoryRepository;
+
+    @Value("${product.admission.enabled:true}")
+    private boolean enabled;
+
+    // Reservations running against one row at once
+    @Value("${product.admission.max-in-flight:4}")
+    private int maxInFlight;
+
+    // Reservations waiting for one row
+    @Value("${product.admission.max-queued:256}")
+    private int maxQueued;
+
+    @Value("${product.admission.max-wait:PT2S}")
+    private Duration maxWait;
+
+    // How long stock read from the row may be trusted to turn a reservation away
+    @Value("${product.admission.stock-ttl:PT1S}")
+    private Duration stockTtl;
+
+    private final Map<Location, Gate> gates = new ConcurrentHashMap<>();
+
+    private record Location(Long productId, Long warehouseId) {}
+
+    private static final class Gate {
+        private final Location location;
+        // Available stock as last committed; -1 until seeded. Guarded by the gate, as is the rest.
+        private int stock = -1;
+        // When the change behind stock was made, to skip changes reported out of order
+        private LocalDateTime stockAsOf;
+        // System.nanoTime() of the last read of stock from the row
+        private long readAt;
+        // Units of admitted reservations that have not committed or failed yet
+        private int held;
+        private int inFlight;
+        private int queued;
+        private final Map<Object, Deque<Ticket>> lanes = new HashMap<>();
+        private final Deque<Object> turns = new ArrayDeque<>();
+
+        private Gate(Location location) {
+            this.location = location;
+        }
+    }
+
+    private static final class Ticket {
+        private final Gate gate;
+        private final Object customer;
+        private final int quantity;
+        private final CompletableFuture<Void> turn = new CompletableFuture<>();
+        private boolean settled;
+
+        private Ticket(Gate gate, Object customer, int quantity) {
+            this.gate = gate;
+            this.customer = customer;
+            this.quantity = quantity;
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Admission
+    // -------------------------------------------------------------------------
+
+    /**
+     * Runs {@code reservation} once the gate of the product at the warehouse lets it through.
+     *
+     * @throws BusinessException if the stock left cannot cover the quantity, the queue is full or
+     *     the reservation waited longer than {@code max-wait}
+     */
+    public <T> T admit(Long productId, Long warehouseId, Long customerId, int quantity, Supplier<T> reservation) {
+        if (!enabled) {
+            return reservation.get();
+        }
+        Location location = new Location(productId, warehouseId);
+        Gate gate = gates.computeIfAbsent(location, Gate::new);
+        if (!seeded(gate) && !read(gate)) {
+            return reservation.get();
+        }
+
+        Object customer = customerId != null ? customerId : ANONYMOUS;
+        Ticket ticket = enter(gate, customer, quantity, false);
+        if (ticket == null) {
+            // Turned away on stock read too long ago; the row may have been restocked elsewhere
+            if (!read(gate)) {
+                return reservation.get();
+            }
+            ticket = enter(gate, customer, quantity, true);
+        }
+        awaitTurn(ticket);
+        CURRENT.set(ticket);
+        try {
+            return reservation.get();
+        } finally {
+            CURRENT.remove();
+            leave(ticket);
+        }
+    }
+
+    /** Keeps tokens in step with committed changes and settles the reservation that made them. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChange(InventoryChangeEventDTO event) {
+        if (event.getWarehouseId() == null) {
+            return;
+        }
+        Location location = new Location(event.getProductId(), event.getWarehouseId());
+        if (event.isDeleted()) {
+            gates.remove(location);
+            return;
+        }
+        Gate gate = gates.get(location);
+        if (gate == null) {
+            return;
+        }
+        synchronized (gate) {
+            update(gate, event.getQuantityAvailable(), event.getUpdatedAt());
+            Ticket ticket = CURRENT.get();
+            if (ticket != null && ticket.gate == gate && !ticket.settled) {
+                gate.held -= ticket.quantity;
+                ticket.settled = true;
+            }
+        }
+    }
+
+    /** Keeps tokens in step with the rows a bulk transfer moved stock between. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryTransferred(InventoryTransferEventDTO transfer) {
+        for (InventoryChangeEventDTO change : transfer.getChanges()) {
+            Gate gate = gates.get(new Location(change.getProductId(), change.getWarehouseId()));
+            if (gate != null) {
+                synchronized (gate) {
+                    update(gate, change.getQuantityAvailable(), change.getUpdatedAt());
+                }
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private boolean seeded(Gate gate) {
+        synchronized (gate) {
+            return gate.stock >= 0;
+        }
+    }
+
+    /** Reads the gate's stock from the row; {@code false} if there is no such row. */
+    private boolean read(Gate gate) {
+        Optional<ProductInventory> row = inventoryRepository.findByProductIdAndWarehouseId(
+                gate.location.productId(), gate.location.warehouseId());
+        if (row.isEmpty()) {
+            gates.remove(gate.location, gate);
+            return false;
+        }
+        synchronized (gate) {
+            gate.stock = row.get().getQuantityAvailable();
+            gate.stockAsOf = row.get().getUpdatedAt();
+            gate.readAt = System.nanoTime();
+        }
+        return true;
+    }
+
+    /** Takes the reported stock unless the gate already holds a later change. Called with the gate held. */
+    private static void update(Gate gate, int stock, LocalDateTime asOf) {
+        if (asOf != null && gate.stockAsOf != null && asOf.isBefore(gate.stockAsOf)) {
+            return;
+        }
+        gate.stock = stock;
+        if (asOf != null) {
+            gate.stockAsOf = asOf;
+        }
+    }
+
+    /**
+     * Takes a place for the reservation at the gate. Unless {@code fresh}, returns {@code null}
+     * instead of turning it away if the stock was read from the row more than {@code stock-ttl} ago;
+     * the caller then reads the row again, and other callers keep going by the current stock
+     * meanwhile.
+     */
+    private Ticket enter(Gate gate, Object customer, int quantity, boolean fresh) {
+        synchronized (gate) {
+            int admissible = gate.stock - gate.held;
+            if (admissible < quantity) {
+                long now = System.nanoTime();
+                if (!fresh && now - gate.readAt > stockTtl.toNanos()) {
+                    gate.readAt = now;
+                    return null;
+                }
+                throw new BusinessException(
+                        ProductErrorCode.INSUFFICIENT_STOCK,
+                        "Insufficient stock to reserve at warehouse ID: " + gate.location.warehouseId()
+                                + ". Available: " + Math.max(admissible, 0) + ", Requested: " + quantity);
+            }
+            if (gate.inFlight >= maxInFlight && gate.queued >= maxQueued) {
+                throw new BusinessException(
+                        ProductErrorCode.RESERVATION_QUEUE_FULL,
+                        "Too many reservations waiting for product ID: " + gate.location.productId()
+                                + " at warehouse ID: " + gate.location.warehouseId());
+            }
+
+            Ticket ticket = new Ticket(gate, customer, quantity);
+            gate.held += quantity;
+            if (gate.inFlight < maxInFlight && gate.queued == 0) {
+                gate.inFlight++;
+                ticket.turn.complete(null);
+            } else {
+                Deque<Ticket> lane = gate.lanes.computeIfAbsent(customer, key -> new ArrayDeque<>());
+                if (lane.isEmpty()) {
+                    gate.turns.addLast(customer);
+                }
+                lane.addLast(ticket);
+                gate.queued++;
+            }
+            return ticket;
+        }
+    }
+
+    private void awaitTurn(Ticket ticket) {
+        try {
+            ticket.turn.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+            return;
+        } catch (TimeoutException e) {
+            log.debug("Reservation for product ID: {} timed out in queue", ticket.gate.location.productId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Reservation turn failed", e);
+        }
+
+        Gate gate = ticket.gate;
+        synchronized (gate) {
+            if (ticket.turn.isDone()) {
+                // Let through while giving up; the turn is taken now
+                return;
+            }
+            Deque<Ticket> lane = gate.lanes.get(ticket.customer);
+            lane.remove(ticket);
+            if (lane.isEmpty()) {
+                gate.lanes.remove(ticket.customer);
+                gate.turns.remove(ticket.customer);
+            }
+            gate.queued--;
+            gate.held -= ticket.quantity;
+        }
+        throw new BusinessException(
+                ProductErrorCode.RESERVATION_TIMED_OUT,
+                "Reservation for product ID: " + gate.location.productId() + " at warehouse ID: "
+                        + gate.location.warehouseId() + " was not admitted within " + maxWait);
+    }
+
+    /** Returns the ticket's units unless its change committed, and lets the next waiting customer in. */
+    private void leave(Ticket ticket) {
+        Gate gate = ticket.gate;
+        synchronized (gate) {
+            if (!ticket.settled) {
+                gate.held -= ticket.quantity;
+                ticket.settled = true;
+            }
+            gate.inFlight--;
+            while (gate.inFlight < maxInFlight && !gate.turns.isEmpty()) {
+                Object customer = gate.turns.pollFirst();
+                Deque<Ticket> lane = gate.lanes.get(customer);
+                Ticket next = lane.pollFirst();
+                if (lane.isEmpty()) {
+                    gate.lanes.remove(customer);
+                } else {
+                    gate.turns.addLast(customer);
+                }
+                gate.queued--;
+                gate.inFlight++;
+                next.turn.complete(null);
+            }
+        }
+    }
+}
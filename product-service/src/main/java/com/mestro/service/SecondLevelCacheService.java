@@ -0,0 +1,128 @@
+package com.mestro.service;
+
+import com.mestro.cache.BoundedRegionFactory;
+import com.mestro.cache.BoundedStorageAccess;
+import com.mestro.cache.CacheInvalidation;
+import com.mestro.cache.ClusterCacheInvalidator;
+import com.mestro.dto.CacheRegionStatsDTO;
+import com.mestro.dto.CategoryChangeEventDTO;
+import com.mestro.dto.ProductChangeEventDTO;
+import com.mestro.dto.WarehouseChangeEventDTO;
+import com.mestro.model.Category;
+import com.mestro.model.Product;
+import com.mestro.model.Warehouse;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Comparator;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Statistics and invalidation of the Hibernate second-level cache.
+ * <p>
+ * Hibernate keeps the cache consistent with the writes it makes on this instance. This service
+ * covers the rest: writes that bypass Hibernate are evicted with {@link #evictAll}, and every
+ * committed category, warehouse or product change is handed to the {@link ClusterCacheInvalidator}
+ * beans, if any, so the other instances drop their copies through {@link #receive}. Query results
+ * are dropped along with any entity, since the cached results on another instance cannot tell that
+ * a table changed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SecondLevelCacheService {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final BoundedRegionFactory regionFactory;
+    private final ObjectProvider<ClusterCacheInvalidator> invalidators;
+
+    public List<CacheRegionStatsDTO> getRegionStatistics() {
+        return regionFactory.getRegions().stream()
+                .sorted(Comparator.comparing(BoundedStorageAccess::getRegionName))
+                .map(SecondLevelCacheService::toDTO)
+                .toList();
+    }
+
+    /** Drops every cached entity of the type and all query results, here and on the other instances. */
+    public void evictAll(Class<?> entityType) {
+        log.info("Evicting all cached {} entities", entityType.getSimpleName());
+        CacheInvalidation invalidation = new CacheInvalidation(entityType.getName(), null);
+        evictLocally(invalidation);
+        send(invalidation);
+    }
+
+    /** Empties every region on this instance. */
+    public void clear() {
+        log.info("Clearing the second-level cache");
+        cache().evictAllRegions();
+    }
+
+    /** Applies an invalidation received from another instance. */
+    public void receive(CacheInvalidation invalidation) {
+        log.debug("Received cache invalidation: {}", invalidation);
+        evictLocally(invalidation);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangeEventDTO change) {
+        send(new CacheInvalidation(Category.class.getName(), change.getCategoryId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWarehouseChanged(WarehouseChangeEventDTO change) {
+        send(new CacheInvalidation(Warehouse.class.getName(), change.getWarehouseId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangeEventDTO change) {
+        send(new CacheInvalidation(Product.class.getName(), change.getProductId()));
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private void evictLocally(CacheInvalidation invalidation) {
+        Cache cache = cache();
+        if (invalidation.id() != null) {
+            cache.evictEntityData(invalidation.entityName(), invalidation.id());
+        } else {
+            cache.evictEntityData(invalidation.entityName());
+        }
+        cache.evictQueryRegions();
+    }
+
+    private void send(CacheInvalidation invalidation) {
+        invalidators.orderedStream().forEach(invalidator -> {
+            try {
+                invalidator.send(invalidation);
+            } catch (RuntimeException e) {
+                log.warn("Failed to send cache invalidation {}", invalidation, e);
+            }
+        });
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    private static CacheRegionStatsDTO toDTO(BoundedStorageAccess region) {
+        long hits = region.getHits();
+        long lookups = hits + region.getMisses();
+        return CacheRegionStatsDTO.builder()
+                .region(region.getRegionName())
+                .entries(region.size())
+                .maxEntries(region.getMaxEntries() == Integer.MAX_VALUE ? null : region.getMaxEntries())
+                .hits(hits)
+                .misses(region.getMisses())
+                .puts(region.getPuts())
+                .evictions(region.getEvictions())
+                .hitRatio(lookups == 0 ? null : (double) hits / lookups)
+                .build();
+    }
+}
@@ -0,0 +1,186 @@
+package com.mestro.service;
+
+import com.mestro.model.Warehouse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.LongPredicate;
+
+/**
+ * Immutable k-d tree over the coordinates of warehouses, for nearest-warehouse lookups.
+ * <p>
+ * Each site is stored as a point on the unit sphere, so the straight-line (chord) distance between
+ * points orders them exactly like the great-circle distance, with no special case at the poles or
+ * across the antimeridian. The tree splits on x, y and z in turn and is laid out implicitly in one
+ * array: the median of each range is its node. A query walks the half containing the target first
+ * and only visits the other half if it could still hold a closer site.
+ */
+public final class WarehouseGeoIndex {
+
+    public static final WarehouseGeoIndex EMPTY = new WarehouseGeoIndex(new Site[0], new double[0][]);
+
+    /** Mean Earth radius (IUGG). */
+    static final double EARTH_RADIUS_KM = 6371.0088;
+
+    /** A warehouse with coordinates, as indexed. */
+    public record Site(
+            Long warehouseId,
+            String name,
+            String city,
+            String state,
+            String country,
+            double latitude,
+            double longitude) {}
+
+    public record Hit(Site site, double distanceKm) {}
+
+    private final Site[] sites;
+    private final double[][] points;
+
+    private WarehouseGeoIndex(Site[] sites, double[][] points) {
+        this.sites = sites;
+        this.points = points;
+    }
+
+    /** Indexes the warehouses that have both coordinates; the others are left out. */
+    public static WarehouseGeoIndex of(List<Warehouse> warehouses) {
+        List<Site> located = new ArrayList<>(warehouses.size());
+        for (Warehouse warehouse : warehouses) {
+            if (warehouse.getLatitude() != null && warehouse.getLongitude() != null) {
+                located.add(new Site(
+                        warehouse.getId(),
+                        warehouse.getName(),
+                        warehouse.getCity(),
+                        warehouse.getState(),
+                        warehouse.getCountry(),
+                        warehouse.getLatitude(),
+                        warehouse.getLongitude()));
+            }
+        }
+        Site[] sites = located.toArray(Site[]::new);
+        double[][] points = new double[sites.length][];
+        for (int i = 0; i < sites.length; i++) {
+            points[i] = toPoint(sites[i].latitude(), sites[i].longitude());
+        }
+        build(sites, points, 0, sites.length, 0);
+        return new WarehouseGeoIndex(sites, points);
+    }
+
+    public int size() {
+        return sites.length;
+    }
+
+    /**
+     * Up to {@code limit} sites accepted by {@code filter}, nearest first, ties by warehouse ID.
+     *
+     * @param filter accepts warehouse IDs; {@code null} accepts every site
+     */
+    public List<Hit> nearest(double latitude, double longitude, int limit, LongPredicate filter) {
+        if (limit <= 0 || sites.length == 0) {
+            return List.of();
+        }
+        double[] target = toPoint(latitude, longitude);
+        // Farthest of the best found so far on top
+        PriorityQueue<Candidate> best =
+                new PriorityQueue<>(Comparator.<Candidate>comparingDouble(candidate -> candidate.chordSquared)
+                        .thenComparing(candidate -> sites[candidate.index].warehouseId())
+                        .reversed());
+        search(0, sites.length, 0, target, limit, filter, best);
+
+        List<Hit> hits = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            Candidate candidate = best.poll();
+            hits.add(0, new Hit(sites[candidate.index], toKilometres(candidate.chordSquared)));
+        }
+        return hits;
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private record Candidate(int index, double chordSquared) {}
+
+    private void search(
+            int from,
+            int to,
+            int axis,
+            double[] target,
+            int limit,
+            LongPredicate filter,
+            PriorityQueue<Candidate> best) {
+        if (from >= to) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        if (filter == null || filter.test(sites[mid].warehouseId())) {
+            Candidate candidate = new Candidate(mid, chordSquared(points[mid], target));
+            if (best.size() < limit) {
+                best.add(candidate);
+            } else if (best.comparator().compare(candidate, best.peek()) > 0) {
+                // Nearer than the top, or as near with a lower warehouse ID
+                best.poll();
+                best.add(candidate);
+            }
+        }
+
+        double offset = target[axis] - points[mid][axis];
+        int next = (axis + 1) % 3;
+        if (offset < 0) {
+            search(from, mid, next, target, limit, filter, best);
+            if (best.size() < limit || offset * offset <= best.peek().chordSquared) {
+                search(mid + 1, to, next, target, limit, filter, best);
+            }
+        } else {
+            search(mid + 1, to, next, target, limit, filter, best);
+            if (best.size() < limit || offset * offset <= best.peek().chordSquared) {
+                search(from, mid, next, target, limit, filter, best);
+            }
+        }
+    }
+
+    /** Orders {@code [from, to)} so that its median splits it on {@code axis}, then recurses. */
+    private static void build(Site[] sites, double[][] points, int from, int to, int axis) {
+        if (to - from <= 1) {
+            return;
+        }
+        Integer[] order = new Integer[to - from];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = from + i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(i -> points[i][axis]));
+        Site[] sortedSites = new Site[order.length];
+        double[][] sortedPoints = new double[order.length][];
+        for (int i = 0; i < order.length; i++) {
+            sortedSites[i] = sites[order[i]];
+            sortedPoints[i] = points[order[i]];
+        }
+        System.arraycopy(sortedSites, 0, sites, from, order.length);
+        System.arraycopy(sortedPoints, 0, points, from, order.length);
+
+        int mid = (from + to) >>> 1;
+        int next = (axis + 1) % 3;
+        build(sites, points, from, mid, next);
+        build(sites, points, mid + 1, to, next);
+    }
+
+    private static double[] toPoint(double latitude, double longitude) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        return new double[] {Math.cos(lat) * Math.cos(lon), Math.cos(lat) * Math.sin(lon), Math.sin(lat)};
+    }
+
+    private static double chordSquared(double[] a, double[] b) {
+        double dx = a[0] - b[0];
+        double dy = a[1] - b[1];
+        double dz = a[2] - b[2];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static double toKilometres(double chordSquared) {
+        double chord = Math.sqrt(chordSquared);
+        return 2 * Math.asin(Math.min(1, chord / 2)) * EARTH_RADIUS_KM;
+    }
+}
@@ -0,0 +1,120 @@
+package com.mestro.service;
+
+import com.mestro.common.exception.ResourceNotFoundException;
+import com.mestro.dto.NearestWarehouseDTO;
+import com.mestro.dto.WarehouseChangeEventDTO;
+import com.mestro.enums.ProductErrorCode;
+import com.mestro.repository.ProductInventoryRepository;
+import com.mestro.repository.ProductRepository;
+import com.mestro.repository.WarehouseRepository;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Finds the active warehouses nearest to a location that stock a product, from a cached
+ * {@link WarehouseGeoIndex}.
+ * <p>
+ * The index holds the active warehouses that have coordinates. It is loaded on first use and replaced
+ * wholesale after every committed warehouse change. A lookup reads the product's stocked warehouses
+ * with one indexed query and walks the tree, skipping warehouses without enough stock.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WarehouseLocatorService {
+
+    private static final int MAX_LIMIT = 50;
+
+    private final WarehouseRepository warehouseRepository;
+    private final ProductInventoryRepository inventoryRepository;
+    private final ProductRepository productRepository;
+
+    private volatile WarehouseGeoIndex index;
+
+    public WarehouseGeoIndex getIndex() {
+        WarehouseGeoIndex current = index;
+        if (current == null) {
+            synchronized (this) {
+                current = index;
+                if (current == null) {
+                    current = load();
+                    index = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Up to {@code limit} active warehouses holding at least {@code quantity} units of the product,
+     * nearest to the location first.
+     */
+    public List<NearestWarehouseDTO> findNearestStocked(
+            Long productId, double latitude, double longitude, int quantity, int limit) {
+        log.info(
+                "Finding {} nearest warehouses with {} units of product ID: {} to ({}, {})",
+                limit,
+                quantity,
+                productId,
+                latitude,
+                longitude);
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Latitude must be between -90 and 90, longitude between -180 and 180");
+        }
+        if (quantity < 1) {
+            throw new IllegalArgumentException("Quantity must be at least 1");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        Map<Long, Integer> stock = new HashMap<>();
+        for (Object[] row : inventoryRepository.findStockedWarehousesByProductId(productId)) {
+            stock.merge((Long) row[0], (Integer) row[1], Integer::sum);
+        }
+        if (stock.isEmpty() && !productRepository.existsById(productId)) {
+            throw new ResourceNotFoundException(
+                    ProductErrorCode.PRODUCT_NOT_FOUND, "Product not found with ID: " + productId);
+        }
+
+        return getIndex()
+                .nearest(latitude, longitude, limit, warehouseId -> stock.getOrDefault(warehouseId, 0) >= quantity)
+                .stream()
+                .map(hit -> toDTO(hit, stock.get(hit.site().warehouseId())))
+                .toList();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWarehouseChanged(WarehouseChangeEventDTO change) {
+        log.debug("Rebuilding warehouse geo index after change to warehouse ID: {}", change.getWarehouseId());
+        synchronized (this) {
+            index = load();
+        }
+    }
+
+    private WarehouseGeoIndex load() {
+        WarehouseGeoIndex loaded = WarehouseGeoIndex.of(warehouseRepository.findActiveWithCoordinates());
+        log.info("Warehouse geo index loaded with {} warehouses", loaded.size());
+        return loaded;
+    }
+
+    private static NearestWarehouseDTO toDTO(WarehouseGeoIndex.Hit hit, Integer available) {
+        WarehouseGeoIndex.Site site = hit.site();
+        return NearestWarehouseDTO.builder()
+                .warehouseId(site.warehouseId())
+                .name(site.name())
+                .city(site.city())
+                .state(site.state())
+                .country(site.country())
+                .latitude(site.latitude())
+                .longitude(site.longitude())
+                .distanceKm(Math.round(hit.distanceKm() * 10) / 10.0)
+                .quantityAvailable(available)
+                .build();
+    }
+}
@@ -1,7 +1,11 @@
 package com.mestro.service;
 
+import com.mestro.common.dto.CursorPageResponseDTO;
 import com.mestro.common.exception.ResourceAlreadyExistsException;
 import com.mestro.common.exception.ResourceNotFoundException;
+import com.mestro.common.utils.GeneralUtils;
+import com.mestro.common.utils.ResourceVersion;
+import com.mestro.dto.WarehouseChangeEventDTO;
 import com.mestro.dto.WarehouseDTO;
 import com.mestro.enums.ProductErrorCode;
 import com.mestro.model.Warehouse;
@@ -11,6 +15,7 @@ import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +27,7 @@ public class WarehouseService {
 
     private final WarehouseRepository warehouseRepository;
     private final ModelMapper modelMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     public WarehouseDTO createWarehouse(WarehouseDTO warehouseDTO) {
         log.info("Creating warehouse: {}", warehouseDTO.getName());
@@ -34,6 +40,7 @@ public class WarehouseService {
 
         Warehouse warehouse = modelMapper.map(warehouseDTO, Warehouse.class);
         Warehouse savedWarehouse = warehouseRepository.save(warehouse);
+        publishChange(savedWarehouse.getId(), false);
 
         log.info("Warehouse created successfully with ID: {}", savedWarehouse.getId());
         return convertToDTO(savedWarehouse);
@@ -51,11 +58,31 @@ public class WarehouseService {
         return convertToDTO(warehouse);
     }
 
+    /** Version of the warehouse for conditional GETs, without loading or mapping it. */
     @Transactional(readOnly = true)
-    public List<WarehouseDTO> getAllWarehouses() {
-        log.info("Fetching all warehouses");
+    public ResourceVersion getWarehouseVersion(Long id) {
+        return warehouseRepository.findVersionById(id).stream()
+                .findFirst()
+                .map(ResourceVersion::of)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        ProductErrorCode.WAREHOUSE_NOT_FOUND, "Warehouse not found with ID: " + id));
+    }
 
-        return warehouseRepository.findAll().stream().map(this::convertToDTO).collect(Collectors.toList());
+    /** Version of the whole warehouse list, covering additions, updates and deletions. */
+    @Transactional(readOnly = true)
+    public ResourceVersion getWarehousesVersion() {
+        return ResourceVersion.of(warehouseRepository.findCollectionVersion().get(0));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<WarehouseDTO> getAllWarehouses(Long afterId, int size) {
+        log.info("Fetching warehouses after ID: {}", afterId);
+
+        List<Warehouse> rows = warehouseRepository.findPageAfterId(
+                afterId != null ? afterId : 0L, GeneralUtils.cursorPageRequest(size));
+        return GeneralUtils.cursorResponse(rows, size, Warehouse::getId, page -> page.stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList()));
     }
 
     @Transactional(readOnly = true)
@@ -98,8 +125,11 @@ public class WarehouseService {
         existingWarehouse.setCountry(warehouseDTO.getCountry());
         existingWarehouse.setZipCode(warehouseDTO.getZipCode());
         existingWarehouse.setCapacity(warehouseDTO.getCapacity());
+        existingWarehouse.setLatitude(warehouseDTO.getLatitude());
+        existingWarehouse.setLongitude(warehouseDTO.getLongitude());
 
         Warehouse updatedWarehouse = warehouseRepository.save(existingWarehouse);
+        publishChange(id, false);
 
         log.info("Warehouse updated successfully with ID: {}", id);
         return convertToDTO(updatedWarehouse);
@@ -115,6 +145,7 @@ public class WarehouseService {
 
         warehouse.setIsActive(!warehouse.getIsActive());
         Warehouse updatedWarehouse = warehouseRepository.save(warehouse);
+        publishChange(id, false);
 
         log.info("Warehouse status toggled to {} for ID: {}", updatedWarehouse.getIsActive(), id);
         return convertToDTO(updatedWarehouse);
@@ -129,9 +160,17 @@ public class WarehouseService {
                         ProductErrorCode.WAREHOUSE_NOT_FOUND, "Warehouse not found with ID: " + id));
 
         warehouseRepository.delete(warehouse);
+        publishChange(id, true);
         log.info("Warehouse deleted successfully with ID: {}", id);
     }
 
+    private void publishChange(Long warehouseId, boolean deleted) {
+        eventPublisher.publishEvent(WarehouseChangeEventDTO.builder()
+                .warehouseId(warehouseId)
+                .deleted(deleted)
+                .build());
+    }
+
     private WarehouseDTO convertToDTO(Warehouse warehouse) {
         return modelMapper.map(warehouse, WarehouseDTO.class);
     }
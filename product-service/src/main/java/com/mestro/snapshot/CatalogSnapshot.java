@@ -0,0 +1,202 @@
+package com.mestro.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Read-only, memory-mapped view of a catalog snapshot file.
+ * <p>
+ * File layout (big-endian):
+ * <pre>
+ *   int   magic ("MCAT")
+ *   int   format version
+ *   long  snapshot version
+ *   long  created at (epoch millis)
+ *   int   row count
+ *   int   column count
+ *   column count x { int column id, int reserved, long offset, long length }
+ *   column blocks, each starting on an 8-byte boundary
+ * </pre>
+ * Numeric columns are plain arrays of {@code long} or {@code int}. String columns hold
+ * {@code row count + 1} {@code int} offsets followed by the UTF-8 bytes, so row {@code i} spans
+ * {@code [offset[i], offset[i + 1])}. Rows are sorted by product ID, which allows binary search.
+ * Readers must skip column IDs they do not know; new columns do not bump the format version.
+ */
+public final class CatalogSnapshot {
+
+    public static final int MAGIC = 0x4D434154;
+    public static final int FORMAT_VERSION = 1;
+
+    static final int HEADER_BYTES = 32;
+    static final int DIRECTORY_ENTRY_BYTES = 24;
+
+    /** Column IDs are part of the file format and must never be reused. */
+    public enum Column {
+        PRODUCT_ID(1),
+        CATEGORY_ID(2),
+        PRICE_MINOR(3),
+        EFFECTIVE_PRICE_MINOR(4),
+        AVAILABLE_QUANTITY(5),
+        SKU(6),
+        NAME(7);
+
+        private final int id;
+
+        Column(int id) {
+            this.id = id;
+        }
+
+        public int id() {
+            return id;
+        }
+
+        static Column byId(int id) {
+            for (Column column : values()) {
+                if (column.id == id) {
+                    return column;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final long version;
+    private final Instant createdAt;
+    private final int size;
+    private final Map<Column, ByteBuffer> columns = new EnumMap<>(Column.class);
+
+    private CatalogSnapshot(ByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a catalog snapshot");
+        }
+        int formatVersion = buffer.getInt(4);
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported catalog snapshot format version: " + formatVersion);
+        }
+        this.version = buffer.getLong(8);
+        this.createdAt = Instant.ofEpochMilli(buffer.getLong(16));
+        this.size = buffer.getInt(24);
+        int columnCount = buffer.getInt(28);
+        for (int i = 0; i < columnCount; i++) {
+            int entry = HEADER_BYTES + i * DIRECTORY_ENTRY_BYTES;
+            Column column = Column.byId(buffer.getInt(entry));
+            if (column != null) {
+                columns.put(column, buffer.slice((int) buffer.getLong(entry + 8), (int) buffer.getLong(entry + 16)));
+            }
+        }
+        for (Column column : Column.values()) {
+            if (!columns.containsKey(column)) {
+                throw new IllegalArgumentException("Catalog snapshot is missing column " + column);
+            }
+        }
+    }
+
+    public static CatalogSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new CatalogSnapshot(buffer);
+        }
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public Instant createdAt() {
+        return createdAt;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long productId(int row) {
+        return columns.get(Column.PRODUCT_ID).getLong(row * Long.BYTES);
+    }
+
+    public long categoryId(int row) {
+        return columns.get(Column.CATEGORY_ID).getLong(row * Long.BYTES);
+    }
+
+    public long priceMinor(int row) {
+        return columns.get(Column.PRICE_MINOR).getLong(row * Long.BYTES);
+    }
+
+    public long effectivePriceMinor(int row) {
+        return columns.get(Column.EFFECTIVE_PRICE_MINOR).getLong(row * Long.BYTES);
+    }
+
+    public int availableQuantity(int row) {
+        return columns.get(Column.AVAILABLE_QUANTITY).getInt(row * Integer.BYTES);
+    }
+
+    public String sku(int row) {
+        return string(Column.SKU, row);
+    }
+
+    public String name(int row) {
+        return string(Column.NAME, row);
+    }
+
+    /** Row of the product, or a negative value if it is not in the snapshot. */
+    public int indexOf(long productId) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long candidate = productId(mid);
+            if (candidate < productId) {
+                low = mid + 1;
+            } else if (candidate > productId) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /** Whether a row of this snapshot carries the same values as a row of another. */
+    public boolean sameRow(int row, CatalogSnapshot other, int otherRow) {
+        return productId(row) == other.productId(otherRow)
+                && categoryId(row) == other.categoryId(otherRow)
+                && priceMinor(row) == other.priceMinor(otherRow)
+                && effectivePriceMinor(row) == other.effectivePriceMinor(otherRow)
+                && availableQuantity(row) == other.availableQuantity(otherRow)
+                && sameString(Column.SKU, row, other, otherRow)
+                && sameString(Column.NAME, row, other, otherRow);
+    }
+
+    private String string(Column column, int row) {
+        ByteBuffer block = columns.get(column);
+        int start = block.getInt(row * Integer.BYTES);
+        int end = block.getInt((row + 1) * Integer.BYTES);
+        byte[] bytes = new byte[end - start];
+        block.get(stringBase() + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean sameString(Column column, int row, CatalogSnapshot other, int otherRow) {
+        ByteBuffer block = columns.get(column);
+        ByteBuffer otherBlock = other.columns.get(column);
+        int start = block.getInt(row * Integer.BYTES);
+        int length = block.getInt((row + 1) * Integer.BYTES) - start;
+        int otherStart = otherBlock.getInt(otherRow * Integer.BYTES);
+        int otherLength = otherBlock.getInt((otherRow + 1) * Integer.BYTES) - otherStart;
+        return length == otherLength
+                && block.slice(stringBase() + start, length)
+                        .equals(otherBlock.slice(other.stringBase() + otherStart, otherLength));
+    }
+
+    private int stringBase() {
+        return (size + 1) * Integer.BYTES;
+    }
+}
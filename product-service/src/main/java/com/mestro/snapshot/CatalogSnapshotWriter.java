@@ -0,0 +1,162 @@
+package com.mestro.snapshot;
+
+import com.mestro.snapshot.CatalogSnapshot.Column;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Collects catalog rows and writes them in the {@link CatalogSnapshot} format.
+ * <p>
+ * Rows must be added in ascending product ID order. Each column is buffered in its own primitive
+ * array or byte stream, so the whole catalog costs a few dozen bytes per product before it is
+ * written out block by block.
+ */
+public class CatalogSnapshotWriter {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] productIds = new long[INITIAL_CAPACITY];
+    private long[] categoryIds = new long[INITIAL_CAPACITY];
+    private long[] pricesMinor = new long[INITIAL_CAPACITY];
+    private long[] effectivePricesMinor = new long[INITIAL_CAPACITY];
+    private int[] availableQuantities = new int[INITIAL_CAPACITY];
+    private int[] skuOffsets = new int[INITIAL_CAPACITY + 1];
+    private int[] nameOffsets = new int[INITIAL_CAPACITY + 1];
+    private final ByteArrayOutputStream skus = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream names = new ByteArrayOutputStream();
+    private int size;
+
+    public void add(
+            long productId,
+            String sku,
+            String name,
+            long categoryId,
+            long priceMinor,
+            long effectivePriceMinor,
+            int availableQuantity) {
+        if (size > 0 && productId <= productIds[size - 1]) {
+            throw new IllegalArgumentException("Rows must be added in ascending product ID order");
+        }
+        ensureCapacity(size + 1);
+        productIds[size] = productId;
+        categoryIds[size] = categoryId;
+        pricesMinor[size] = priceMinor;
+        effectivePricesMinor[size] = effectivePriceMinor;
+        availableQuantities[size] = availableQuantity;
+        skus.writeBytes(utf8(sku));
+        names.writeBytes(utf8(name));
+        size++;
+        skuOffsets[size] = skus.size();
+        nameOffsets[size] = names.size();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Writes the snapshot, replacing any existing file at {@code path}. */
+    public void writeTo(Path path, long version, Instant createdAt) throws IOException {
+        byte[][] blocks = {
+            longs(productIds, size),
+            longs(categoryIds, size),
+            longs(pricesMinor, size),
+            longs(effectivePricesMinor, size),
+            ints(availableQuantities, size),
+            strings(skuOffsets, skus),
+            strings(nameOffsets, names)
+        };
+        Column[] order = {
+            Column.PRODUCT_ID,
+            Column.CATEGORY_ID,
+            Column.PRICE_MINOR,
+            Column.EFFECTIVE_PRICE_MINOR,
+            Column.AVAILABLE_QUANTITY,
+            Column.SKU,
+            Column.NAME
+        };
+
+        int directoryEnd = CatalogSnapshot.HEADER_BYTES + order.length * CatalogSnapshot.DIRECTORY_ENTRY_BYTES;
+        ByteBuffer header = ByteBuffer.allocate(directoryEnd);
+        header.putInt(CatalogSnapshot.MAGIC)
+                .putInt(CatalogSnapshot.FORMAT_VERSION)
+                .putLong(version)
+                .putLong(createdAt.toEpochMilli())
+                .putInt(size)
+                .putInt(order.length);
+        long offset = align(directoryEnd);
+        long[] offsets = new long[order.length];
+        for (int i = 0; i < order.length; i++) {
+            offsets[i] = offset;
+            header.putInt(order[i].id()).putInt(0).putLong(offset).putLong(blocks[i].length);
+            offset = align(offset + blocks[i].length);
+        }
+        header.flip();
+
+        try (FileChannel channel = FileChannel.open(
+                path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, header, 0);
+            for (int i = 0; i < blocks.length; i++) {
+                writeFully(channel, ByteBuffer.wrap(blocks[i]), offsets[i]);
+            }
+            channel.force(true);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Encoding
+    // -------------------------------------------------------------------------
+
+    private static byte[] longs(long[] values, int count) {
+        ByteBuffer buffer = ByteBuffer.allocate(count * Long.BYTES);
+        buffer.asLongBuffer().put(values, 0, count);
+        return buffer.array();
+    }
+
+    private static byte[] ints(int[] values, int count) {
+        ByteBuffer buffer = ByteBuffer.allocate(count * Integer.BYTES);
+        buffer.asIntBuffer().put(values, 0, count);
+        return buffer.array();
+    }
+
+    private byte[] strings(int[] offsets, ByteArrayOutputStream bytes) {
+        byte[] header = ints(offsets, size + 1);
+        byte[] block = Arrays.copyOf(header, header.length + bytes.size());
+        System.arraycopy(bytes.toByteArray(), 0, block, header.length, bytes.size());
+        return block;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= productIds.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, productIds.length * 2);
+        productIds = Arrays.copyOf(productIds, newCapacity);
+        categoryIds = Arrays.copyOf(categoryIds, newCapacity);
+        pricesMinor = Arrays.copyOf(pricesMinor, newCapacity);
+        effectivePricesMinor = Arrays.copyOf(effectivePricesMinor, newCapacity);
+        availableQuantities = Arrays.copyOf(availableQuantities, newCapacity);
+        skuOffsets = Arrays.copyOf(skuOffsets, newCapacity + 1);
+        nameOffsets = Arrays.copyOf(nameOffsets, newCapacity + 1);
+    }
+}
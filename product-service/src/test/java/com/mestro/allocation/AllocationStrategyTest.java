@@ -0,0 +1,138 @@
+package com.mestro.allocation;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("AllocationStrategy Tests")
+class AllocationStrategyTest {
+
+    private static final StockLocation BOSTON = new StockLocation(1L, 10L, "Boston", "MA", "USA", 30);
+    private static final StockLocation AUSTIN = new StockLocation(2L, 20L, "Austin", "TX", "USA", 30);
+    private static final StockLocation TORONTO = new StockLocation(3L, 30L, "Toronto", "ON", "Canada", 80);
+    private static final StockLocation SPRINGFIELD = new StockLocation(4L, 40L, "Springfield", "MA", "USA", 10);
+
+    private static List<Long> inventoryIds(List<Allocation> allocations) {
+        return allocations.stream().map(a -> a.location().inventoryId()).toList();
+    }
+
+    private static List<Integer> quantities(List<Allocation> allocations) {
+        return allocations.stream().map(Allocation::quantity).toList();
+    }
+
+    // ─────────────────────────────────────────────
+    // fewest shipments
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("FewestShipmentsStrategy")
+    class FewestShipments {
+
+        private final FewestShipmentsStrategy strategy = new FewestShipmentsStrategy();
+
+        @Test
+        @DisplayName("should use the smallest single warehouse that covers the quantity")
+        void shouldPreferSmallestSufficientWarehouse() {
+            List<Allocation> allocations = strategy.allocate(List.of(TORONTO, BOSTON, AUSTIN), 25, null);
+
+            assertThat(inventoryIds(allocations)).containsExactly(1L);
+            assertThat(quantities(allocations)).containsExactly(25);
+        }
+
+        @Test
+        @DisplayName("should split across the best-stocked warehouses when none suffices alone")
+        void shouldSplitAcrossBestStocked() {
+            List<Allocation> allocations = strategy.allocate(List.of(BOSTON, AUSTIN, SPRINGFIELD), 50, null);
+
+            assertThat(inventoryIds(allocations)).containsExactly(1L, 2L);
+            assertThat(quantities(allocations)).containsExactly(30, 20);
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // nearest
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("NearestWarehouseStrategy")
+    class Nearest {
+
+        private final NearestWarehouseStrategy strategy = new NearestWarehouseStrategy();
+
+        @Test
+        @DisplayName("should rank same city, then state, then country")
+        void shouldRankByAddressMatch() {
+            String shipTo = "12 Elm St, Springfield, MA 01101, USA";
+
+            List<Allocation> allocations = strategy.allocate(List.of(TORONTO, AUSTIN, BOSTON, SPRINGFIELD), 60, shipTo);
+
+            assertThat(inventoryIds(allocations)).containsExactly(4L, 1L, 2L);
+            assertThat(quantities(allocations)).containsExactly(10, 30, 20);
+        }
+
+        @Test
+        @DisplayName("should match whole words only")
+        void shouldMatchWholeWords() {
+            StockLocation york = new StockLocation(5L, 50L, "York", null, null, 5);
+
+            assertThat(NearestWarehouseStrategy.distanceRank(york, "1 Broadway, New Yorkshire"))
+                    .isEqualTo(3);
+            assertThat(NearestWarehouseStrategy.distanceRank(york, "5 Main St, york"))
+                    .isZero();
+        }
+
+        @Test
+        @DisplayName("should fall back to most stock first without an address")
+        void shouldFallBackWithoutAddress() {
+            List<Allocation> allocations = strategy.allocate(List.of(BOSTON, TORONTO), 40, null);
+
+            assertThat(inventoryIds(allocations)).containsExactly(3L);
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // balanced
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("BalancedStockStrategy")
+    class Balanced {
+
+        private final BalancedStockStrategy strategy = new BalancedStockStrategy();
+
+        @Test
+        @DisplayName("should draw the best-stocked warehouse down to the others first")
+        void shouldLevelStock() {
+            List<Allocation> allocations = strategy.allocate(List.of(BOSTON, TORONTO, SPRINGFIELD), 50, null);
+
+            assertThat(inventoryIds(allocations)).containsExactly(3L);
+            assertThat(quantities(allocations)).containsExactly(50);
+        }
+
+        @Test
+        @DisplayName("should spread what is left evenly once levels meet")
+        void shouldSpreadRemainder() {
+            // 140 units less 81 leaves 59: stock levels of 20, 20 and 19
+            List<Allocation> allocations = strategy.allocate(List.of(BOSTON, TORONTO, AUSTIN), 81, null);
+
+            assertThat(quantities(allocations).stream()
+                            .mapToInt(Integer::intValue)
+                            .sum())
+                    .isEqualTo(81);
+            assertThat(allocations)
+                    .extracting(a -> a.location().available() - a.quantity())
+                    .allSatisfy(left -> assertThat(left).isBetween(19, 20));
+        }
+
+        @Test
+        @DisplayName("should take everything when the quantity equals the stock")
+        void shouldTakeEverything() {
+            List<Allocation> allocations = strategy.allocate(List.of(BOSTON, SPRINGFIELD), 40, null);
+
+            assertThat(quantities(allocations)).containsExactly(30, 10);
+        }
+    }
+}
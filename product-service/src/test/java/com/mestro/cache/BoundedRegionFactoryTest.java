@@ -0,0 +1,112 @@
+package com.mestro.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mestro.config.CacheConfig;
+import com.mestro.model.Category;
+import com.mestro.model.Product;
+import com.mestro.repository.CategoryRepository;
+import com.mestro.repository.ProductRepository;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@DataJpaTest
+@Import(CacheConfig.class)
+// Cache entries become visible when the transaction that loaded or wrote them completes
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("BoundedRegionFactory Tests")
+@ActiveProfiles("test")
+class BoundedRegionFactoryTest {
+
+    @Autowired
+    private BoundedRegionFactory regionFactory;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("should serve an entity loaded in an earlier transaction from its region")
+    void shouldServeEntityFromCache() {
+        Category category = categoryRepository.save(
+                Category.builder().name("Electronics").isActive(true).build());
+        // Rows inserted with an identity ID reach the cache on their first load, not on insert
+        categoryRepository.findById(category.getId());
+        long hitsBefore = region("categories").getHits();
+
+        String name = transactionTemplate.execute(status ->
+                categoryRepository.findById(category.getId()).orElseThrow().getName());
+
+        assertThat(name).isEqualTo("Electronics");
+        assertThat(region("categories").getHits()).isGreaterThan(hitsBefore);
+    }
+
+    @Test
+    @DisplayName("should cache query results and drop them when the table changes")
+    void shouldInvalidateQueryResultsOnWrite() {
+        Category category = categoryRepository.save(
+                Category.builder().name("Electronics").isActive(true).build());
+        assertThat(categoryRepository.findByIsActive(true)).hasSize(1);
+        long hitsBefore = region("default-query-results-region").getHits();
+
+        assertThat(categoryRepository.findByIsActive(true)).hasSize(1);
+        assertThat(region("default-query-results-region").getHits()).isGreaterThan(hitsBefore);
+
+        category.setIsActive(false);
+        categoryRepository.save(category);
+
+        assertThat(categoryRepository.findByIsActive(true)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should resolve a product's category from the cache")
+    void shouldResolveCategoryFromCache() {
+        Category category = categoryRepository.save(
+                Category.builder().name("Electronics").isActive(true).build());
+        Product product = productRepository.save(Product.builder()
+                .category(category)
+                .sku("LAP-001")
+                .name("Dell XPS Laptop")
+                .price(new BigDecimal("999.99"))
+                .build());
+        categoryRepository.findById(category.getId());
+        long categoryHitsBefore = region("categories").getHits();
+
+        String categoryName = transactionTemplate.execute(status -> productRepository
+                .findById(product.getId())
+                .orElseThrow()
+                .getCategory()
+                .getName());
+
+        assertThat(categoryName).isEqualTo("Electronics");
+        assertThat(region("categories").getHits()).isGreaterThan(categoryHitsBefore);
+        assertThat(region("products").size()).isEqualTo(1);
+    }
+
+    private BoundedStorageAccess region(String name) {
+        return regionFactory.getRegions().stream()
+                .filter(region -> region.getRegionName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+}
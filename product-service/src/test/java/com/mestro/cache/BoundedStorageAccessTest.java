@@ -0,0 +1,78 @@
+package com.mestro.cache;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("BoundedStorageAccess Tests")
+class BoundedStorageAccessTest {
+
+    @Test
+    @DisplayName("should count hits, misses and puts")
+    void shouldCountLookups() {
+        BoundedStorageAccess region = new BoundedStorageAccess("categories", 10);
+
+        region.putIntoCache("a", 1, null);
+        assertThat(region.getFromCache("a", null)).isEqualTo(1);
+        assertThat(region.getFromCache("b", null)).isNull();
+
+        assertThat(region.getHits()).isEqualTo(1);
+        assertThat(region.getMisses()).isEqualTo(1);
+        assertThat(region.getPuts()).isEqualTo(1);
+        assertThat(region.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should shrink to 90% of the bound once a put exceeds it")
+    void shouldStayWithinBound() {
+        BoundedStorageAccess region = new BoundedStorageAccess("products", 100);
+
+        for (int i = 0; i < 100; i++) {
+            region.putIntoCache(i, i, null);
+        }
+        assertThat(region.size()).isEqualTo(100);
+        assertThat(region.getEvictions()).isZero();
+
+        region.putIntoCache(100, 100, null);
+
+        assertThat(region.size()).isEqualTo(90);
+        assertThat(region.getEvictions()).isEqualTo(11);
+    }
+
+    @Test
+    @DisplayName("should not evict when a put replaces an existing entry")
+    void shouldReplaceWithoutEviction() {
+        BoundedStorageAccess region = new BoundedStorageAccess("warehouses", 2);
+        region.putIntoCache("a", 1, null);
+        region.putIntoCache("b", 2, null);
+
+        region.putIntoCache("a", 3, null);
+
+        assertThat(region.size()).isEqualTo(2);
+        assertThat(region.getFromCache("a", null)).isEqualTo(3);
+        assertThat(region.getEvictions()).isZero();
+    }
+
+    @Test
+    @DisplayName("should evict single entries and whole regions")
+    void shouldEvict() {
+        BoundedStorageAccess region = new BoundedStorageAccess("categories", 10);
+        region.putIntoCache("a", 1, null);
+        region.putIntoCache("b", 2, null);
+
+        region.evictData("a");
+        assertThat(region.contains("a")).isFalse();
+        assertThat(region.contains("b")).isTrue();
+
+        region.evictData();
+        assertThat(region.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("should reject a region that cannot hold an entry")
+    void shouldRejectEmptyBound() {
+        assertThatThrownBy(() -> new BoundedStorageAccess("categories", 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,78 @@
+package com.mestro.hotstock;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.mestro.hotstock.HotStockJournal.Entry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("HotStockJournal Tests")
+class HotStockJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("should number entries, hand them over once durable and read them back")
+    void shouldAppendAndReadBack() throws IOException {
+        Path path = directory.resolve("node.journal");
+        List<Entry> durable = new CopyOnWriteArrayList<>();
+
+        try (HotStockJournal journal = HotStockJournal.open(path, 41L, durable::addAll)) {
+            CompletableFuture.allOf(IntStream.range(0, 50)
+                            .mapToObj(i -> journal.append(100L + i % 2, i % 3 == 0 ? -1 : 2))
+                            .toArray(CompletableFuture[]::new))
+                    .join();
+            assertThat(journal.lastSequence()).isEqualTo(91L);
+        }
+
+        List<Entry> read = HotStockJournal.read(path);
+        assertThat(read).hasSize(50).isEqualTo(durable);
+        assertThat(read).extracting(Entry::sequence).isSorted().startsWith(42L).endsWith(91L);
+    }
+
+    @Test
+    @DisplayName("should ignore a torn entry at the end of the file")
+    void shouldIgnoreTornTail() throws IOException {
+        Path path = directory.resolve("node.journal");
+        try (HotStockJournal journal = HotStockJournal.open(path, 0L, entries -> {})) {
+            journal.append(100L, 5).join();
+        }
+        Files.write(path, new byte[] {0, 0, 0, 0, 0, 0, 0, 2, 0}, StandardOpenOption.APPEND);
+
+        assertThat(HotStockJournal.read(path)).containsExactly(new Entry(1L, 100L, 5));
+    }
+
+    @Test
+    @DisplayName("should empty the file only when the condition holds and keep numbering")
+    void shouldTruncateOnCondition() throws IOException {
+        Path path = directory.resolve("node.journal");
+        try (HotStockJournal journal = HotStockJournal.open(path, 0L, entries -> {})) {
+            journal.append(100L, 5).join();
+
+            assertThat(journal.truncateIf(() -> false)).isFalse();
+            assertThat(journal.truncateIf(() -> true)).isTrue();
+            journal.append(100L, 1).join();
+        }
+
+        assertThat(HotStockJournal.read(path)).containsExactly(new Entry(2L, 100L, 1));
+    }
+
+    @Test
+    @DisplayName("should fail appends after it is closed")
+    void shouldFailAfterClose() throws IOException {
+        HotStockJournal journal = HotStockJournal.open(directory.resolve("node.journal"), 0L, entries -> {});
+        journal.close();
+
+        assertThat(journal.append(100L, 1)).isCompletedExceptionally();
+    }
+}
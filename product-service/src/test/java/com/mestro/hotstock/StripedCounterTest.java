@@ -0,0 +1,70 @@
+package com.mestro.hotstock;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("StripedCounter Tests")
+class StripedCounterTest {
+
+    @Test
+    @DisplayName("should collect a take from several cells and refuse one larger than the total")
+    void shouldTakeAcrossCells() {
+        StripedCounter counter = new StripedCounter(8);
+        counter.add(10);
+
+        assertThat(counter.tryTake(7)).isTrue();
+        assertThat(counter.tryTake(4)).isFalse();
+        assertThat(counter.sum()).isEqualTo(3);
+        assertThat(counter.tryTake(3)).isTrue();
+        assertThat(counter.sum()).isZero();
+    }
+
+    @Test
+    @DisplayName("should reject a stripe count that is not a power of two")
+    void shouldRejectStripeCount() {
+        assertThatThrownBy(() -> new StripedCounter(6)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("should never hand out more units than it holds under concurrent takes")
+    void shouldNotOversellUnderContention() throws InterruptedException {
+        StripedCounter counter = new StripedCounter(16);
+        counter.add(10_000);
+        AtomicInteger taken = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                int misses = 0;
+                while (misses < 100) {
+                    if (counter.tryTake(3)) {
+                        taken.addAndGet(3);
+                        misses = 0;
+                    } else {
+                        misses++;
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(taken.get() + counter.sum()).isEqualTo(10_000);
+        assertThat(counter.sum()).isLessThan(3);
+    }
+}
@@ -0,0 +1,173 @@
+package com.mestro.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mestro.model.Category;
+import com.mestro.model.Product;
+import com.mestro.model.ProductImage;
+import com.mestro.model.ProductInventory;
+import com.mestro.model.Warehouse;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+@DataJpaTest
+@DisplayName("ProductRepository Tests")
+@ActiveProfiles("test")
+class ProductRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Product product;
+    private Warehouse warehouse;
+
+    @BeforeEach
+    void setUp() {
+        Category category = entityManager.persist(
+                Category.builder().name("Electronics").isActive(true).build());
+        warehouse = entityManager.persist(
+                Warehouse.builder().name("East").isActive(true).build());
+        product = entityManager.persist(Product.builder()
+                .category(category)
+                .sku("LAP-001")
+                .name("Dell XPS Laptop")
+                .price(new BigDecimal("999.99"))
+                .discountPercentage(new BigDecimal("10"))
+                .taxRate(new BigDecimal("20"))
+                .build());
+        entityManager.persist(ProductImage.builder()
+                .product(product)
+                .imageUrl("https://cdn.example.com/lap-001.jpg")
+                .build());
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Should return the product, category and child timestamps in one row")
+    void findVersionById_ExistingProduct_ReturnsRow() {
+        List<Object[]> rows = productRepository.findVersionById(product.getId());
+
+        assertThat(rows).hasSize(1);
+        Object[] row = rows.get(0);
+        assertThat(row).hasSize(8);
+        assertThat(row[0]).isEqualTo(product.getId());
+        assertThat(row[1]).isNotNull();
+        assertThat(row[3]).isEqualTo(1L);
+        assertThat(row[5]).isEqualTo(0L);
+        assertThat(row[6]).isNull();
+    }
+
+    @Test
+    @DisplayName("Should change when stock is added without touching the product row")
+    void findVersionById_InventoryAdded_RowChanges() {
+        Object[] before = productRepository.findVersionById(product.getId()).get(0);
+
+        entityManager.persistAndFlush(ProductInventory.builder()
+                .product(product)
+                .warehouse(warehouse)
+                .quantityAvailable(5)
+                .build());
+
+        assertThat(productRepository.findVersionById(product.getId()).get(0)).isNotEqualTo(before);
+    }
+
+    @Test
+    @DisplayName("Should return no rows for a non-existent product")
+    void findVersionById_NonExistentId_ReturnsEmpty() {
+        assertThat(productRepository.findVersionById(99999L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should store the effective price on insert and recompute it on update")
+    void effectivePrice_DerivedOnWrite() {
+        // 999.99 less 10% = 899.99, plus 20% tax = 1079.99
+        assertThat(product.getEffectivePrice()).isEqualByComparingTo("1079.99");
+
+        product.setDiscountPercentage(BigDecimal.ZERO);
+        entityManager.flush();
+
+        assertThat(product.getEffectivePrice()).isEqualByComparingTo("1199.99");
+    }
+
+    @Test
+    @DisplayName("Should page active products by effective price range")
+    void findByIsActiveTrueAndEffectivePriceBetween_ReturnsProductsInRange() {
+        Category category = product.getCategory();
+        entityManager.persist(Product.builder()
+                .category(category)
+                .sku("MOU-001")
+                .name("Wireless Mouse")
+                .price(new BigDecimal("19.99"))
+                .build());
+        entityManager.persist(Product.builder()
+                .category(category)
+                .sku("KEY-001")
+                .name("Mechanical Keyboard")
+                .price(new BigDecimal("89.00"))
+                .build());
+        entityManager.persist(Product.builder()
+                .category(category)
+                .sku("MON-001")
+                .name("Retired Monitor")
+                .price(new BigDecimal("50.00"))
+                .isActive(false)
+                .build());
+        entityManager.flush();
+
+        Page<Product> page = productRepository.findByIsActiveTrueAndEffectivePriceBetween(
+                new BigDecimal("10.00"), new BigDecimal("1079.99"), PageRequest.of(0, 10, Sort.by("effectivePrice")));
+
+        assertThat(page.getContent()).extracting(Product::getSku).containsExactly("MOU-001", "KEY-001", "LAP-001");
+    }
+
+    @Test
+    @DisplayName("Should page active products after the cursor in ID order")
+    void findActivePageAfterId_SkipsInactiveAndStartsAfterCursor() {
+        Category category = product.getCategory();
+        Product mouse = entityManager.persist(Product.builder()
+                .category(category)
+                .sku("MOU-001")
+                .name("Wireless Mouse")
+                .price(new BigDecimal("19.99"))
+                .build());
+        entityManager.persist(Product.builder()
+                .category(category)
+                .sku("MON-001")
+                .name("Retired Monitor")
+                .price(new BigDecimal("50.00"))
+                .isActive(false)
+                .build());
+        Product keyboard = entityManager.persist(Product.builder()
+                .category(category)
+                .sku("KEY-001")
+                .name("Mechanical Keyboard")
+                .price(new BigDecimal("89.00"))
+                .build());
+        entityManager.flush();
+
+        assertThat(productRepository.findActivePageAfterId(0L, PageRequest.of(0, 2)))
+                .extracting(Product::getSku)
+                .containsExactly("LAP-001", "MOU-001");
+        assertThat(productRepository.findActivePageAfterId(mouse.getId(), PageRequest.of(0, 2)))
+                .extracting(Product::getSku)
+                .containsExactly("KEY-001");
+        assertThat(productRepository.findPageByCategoryIdAfterId(
+                        category.getId(), product.getId(), PageRequest.of(0, 10)))
+                .extracting(Product::getId)
+                .contains(mouse.getId(), keyboard.getId())
+                .doesNotContain(product.getId());
+    }
+}
@@ -0,0 +1,96 @@
+package com.mestro.search;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.BitSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("InStockBitmap Tests")
+class InStockBitmapTest {
+
+    private InStockBitmap bitmap;
+
+    @BeforeEach
+    void setUp() {
+        bitmap = new InStockBitmap();
+        bitmap.set(1L, true);
+        bitmap.set(70L, true);
+    }
+
+    @Test
+    @DisplayName("Should report the products whose bit is set")
+    void contains_ReturnsSetBits() {
+        assertThat(bitmap.contains(1L)).isTrue();
+        assertThat(bitmap.contains(70L)).isTrue();
+        assertThat(bitmap.contains(2L)).isFalse();
+        assertThat(bitmap.contains(1_000_000L)).isFalse();
+        assertThat(bitmap.contains(-1L)).isFalse();
+        assertThat(bitmap.cardinality()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should bump the version only when a bit flips")
+    void set_BumpsVersionOnFlip() {
+        long version = bitmap.version();
+
+        assertThat(bitmap.set(1L, true)).isFalse();
+        assertThat(bitmap.version()).isEqualTo(version);
+        assertThat(bitmap.set(1L, false)).isTrue();
+        assertThat(bitmap.version()).isEqualTo(version + 1);
+        assertThat(bitmap.contains(1L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should serialize in BitSet byte layout and reuse the bytes until a change")
+    void snapshot_UsesBitSetLayout() {
+        InStockBitmap.Snapshot snapshot = bitmap.snapshot();
+
+        BitSet decoded = BitSet.valueOf(snapshot.bytes());
+        assertThat(decoded.stream()).containsExactly(1, 70);
+        assertThat(snapshot.bytes()).hasSize(9);
+        assertThat(bitmap.snapshot().bytes()).isSameAs(snapshot.bytes());
+
+        bitmap.set(3L, true);
+        InStockBitmap.Snapshot changed = bitmap.snapshot();
+        assertThat(changed.version()).isGreaterThan(snapshot.version());
+        assertThat(BitSet.valueOf(changed.bytes()).stream()).containsExactly(1, 3, 70);
+    }
+
+    @Test
+    @DisplayName("Should derive the digest from the bits alone, whatever the version")
+    void snapshot_DigestsContent() {
+        InStockBitmap other = new InStockBitmap();
+        other.set(70L, true);
+        other.set(2L, true);
+        other.set(2L, false);
+        other.set(1L, true);
+
+        assertThat(other.version()).isNotEqualTo(bitmap.version());
+        assertThat(other.snapshot().digest()).isEqualTo(bitmap.snapshot().digest());
+
+        other.set(3L, true);
+        assertThat(other.snapshot().digest()).isNotEqualTo(bitmap.snapshot().digest());
+    }
+
+    @Test
+    @DisplayName("Should take over another bitmap's bits with a newer version")
+    void replaceWith_KeepsVersionIncreasing() {
+        InStockBitmap rebuilt = new InStockBitmap();
+        rebuilt.set(5L, true);
+        long version = bitmap.version();
+
+        bitmap.replaceWith(rebuilt);
+
+        assertThat(bitmap.contains(5L)).isTrue();
+        assertThat(bitmap.contains(1L)).isFalse();
+        assertThat(bitmap.version()).isGreaterThan(version);
+    }
+
+    @Test
+    @DisplayName("Should reject product IDs outside the bitmap")
+    void set_RejectsNegativeIds() {
+        assertThatThrownBy(() -> bitmap.set(-1L, true)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
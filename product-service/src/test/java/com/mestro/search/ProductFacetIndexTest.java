@@ -0,0 +1,176 @@
+package com.mestro.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import com.mestro.enums.PriceBand;
+import java.math.BigDecimal;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ProductFacetIndex Tests")
+class ProductFacetIndexTest {
+
+    private static final ProductFacetIndex.Filter NO_FILTER = new ProductFacetIndex.Filter(null, null, null, null);
+
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductFacetIndex();
+        index.indexProduct(1L, "Dell", 10L, new BigDecimal("899.00"), true);
+        index.indexProduct(2L, "Dell", 10L, new BigDecimal("1299.00"), true);
+        index.indexProduct(3L, "Lenovo", 10L, new BigDecimal("749.00"), true);
+        index.indexProduct(4L, "Logitech", 20L, new BigDecimal("19.99"), true);
+        index.indexProduct(5L, "Logitech", 20L, new BigDecimal("49.99"), false);
+        index.updateStock(1L, true);
+        index.updateStock(3L, true);
+        index.updateStock(4L, true);
+    }
+
+    private ProductFacetIndex.Filter filter(
+            Set<String> brands, Set<Long> categories, Set<PriceBand> bands, Boolean inStock) {
+        return new ProductFacetIndex.Filter(brands, categories, bands, inStock);
+    }
+
+    // ─────────────────────────────────────────────
+    // filtering
+    // ─────────────────────────────────────────────
+    @Nested
+    @DisplayName("query() filtering")
+    class FilterTests {
+
+        @Test
+        @DisplayName("Should return every active product in ID order without filters")
+        void query_NoFilter_ReturnsActiveProducts() {
+            ProductFacetIndex.Result result = index.query(NO_FILTER, 0, 10);
+
+            assertThat(result.totalHits()).isEqualTo(4);
+            assertThat(result.productIds()).containsExactly(1L, 2L, 3L, 4L);
+        }
+
+        @Test
+        @DisplayName("Should OR values within a facet and AND across facets")
+        void query_Combination_IntersectsFacets() {
+            ProductFacetIndex.Result result =
+                    index.query(filter(Set.of("dell", "LENOVO"), Set.of(10L), null, true), 0, 10);
+
+            assertThat(result.productIds()).containsExactly(1L, 3L);
+        }
+
+        @Test
+        @DisplayName("Should filter by price band and out-of-stock")
+        void query_PriceBandAndOutOfStock_Filters() {
+            assertThat(index.query(filter(null, null, Set.of(PriceBand.OVER_1000), null), 0, 10)
+                            .productIds())
+                    .containsExactly(2L);
+            assertThat(index.query(filter(null, null, null, false), 0, 10).productIds())
+                    .containsExactly(2L);
+        }
+
+        @Test
+        @DisplayName("Should return no hits for an unknown facet value")
+        void query_UnknownBrand_NoHits() {
+            assertThat(index.query(filter(Set.of("Acme"), null, null, null), 0, 10)
+                            .totalHits())
+                    .isZero();
+        }
+
+        @Test
+        @DisplayName("Should page through the matches")
+        void query_Pagination_ReturnsSlice() {
+            ProductFacetIndex.Result result = index.query(NO_FILTER, 2, 2);
+
+            assertThat(result.totalHits()).isEqualTo(4);
+            assertThat(result.productIds()).containsExactly(3L, 4L);
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // counts
+    // ─────────────────────────────────────────────
+    @Nested
+    @DisplayName("query() facet counts")
+    class CountTests {
+
+        @Test
+        @DisplayName("Should count every facet value over the active products")
+        void query_NoFilter_CountsAllValues() {
+            ProductFacetIndex.Result result = index.query(NO_FILTER, 0, 10);
+
+            assertThat(result.facetCounts().get(ProductFacetIndex.BRAND))
+                    .containsExactly(entry("Dell", 2L), entry("Lenovo", 1L), entry("Logitech", 1L));
+            assertThat(result.facetCounts().get(ProductFacetIndex.CATEGORY))
+                    .containsEntry("10", 3L)
+                    .containsEntry("20", 1L);
+            assertThat(result.facetCounts().get(ProductFacetIndex.PRICE_BAND))
+                    .containsOnlyKeys("UNDER_25", "FROM_500_TO_1000", "OVER_1000");
+            assertThat(result.facetCounts().get(ProductFacetIndex.IN_STOCK))
+                    .containsEntry("true", 3L)
+                    .containsEntry("false", 1L);
+        }
+
+        @Test
+        @DisplayName("Should ignore a facet's own selection when counting it")
+        void query_BrandSelected_OtherBrandsStillCounted() {
+            ProductFacetIndex.Result result = index.query(filter(Set.of("Dell"), null, null, true), 0, 10);
+
+            assertThat(result.productIds()).containsExactly(1L);
+            // Brand counts are restricted by the stock filter only
+            assertThat(result.facetCounts().get(ProductFacetIndex.BRAND))
+                    .containsEntry("Dell", 1L)
+                    .containsEntry("Lenovo", 1L)
+                    .containsEntry("Logitech", 1L);
+            // Stock counts are restricted by the brand filter only
+            assertThat(result.facetCounts().get(ProductFacetIndex.IN_STOCK))
+                    .containsEntry("true", 1L)
+                    .containsEntry("false", 1L);
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // incremental updates
+    // ─────────────────────────────────────────────
+    @Nested
+    @DisplayName("incremental updates")
+    class UpdateTests {
+
+        @Test
+        @DisplayName("Should move a product between facet values on update")
+        void indexProduct_Existing_MovesBits() {
+            index.indexProduct(1L, "Lenovo", 20L, new BigDecimal("99.00"), true);
+
+            assertThat(index.query(filter(Set.of("Dell"), null, null, null), 0, 10)
+                            .productIds())
+                    .containsExactly(2L);
+            assertThat(index.query(filter(Set.of("Lenovo"), Set.of(20L), Set.of(PriceBand.FROM_50_TO_100), true), 0, 10)
+                            .productIds())
+                    .containsExactly(1L);
+        }
+
+        @Test
+        @DisplayName("Should drop deactivated and removed products")
+        void indexProduct_Inactive_Removed() {
+            index.indexProduct(3L, "Lenovo", 10L, new BigDecimal("749.00"), false);
+            index.remove(4L);
+
+            assertThat(index.size()).isEqualTo(2);
+            assertThat(index.query(NO_FILTER, 0, 10).productIds()).containsExactly(1L, 2L);
+            assertThat(index.query(NO_FILTER, 0, 10).facetCounts().get(ProductFacetIndex.BRAND))
+                    .containsOnlyKeys("Dell");
+        }
+
+        @Test
+        @DisplayName("Should track stock changes")
+        void updateStock_OutOfStock_ClearsBit() {
+            index.updateStock(1L, false);
+            index.updateStock(2L, true);
+
+            assertThat(index.query(filter(null, null, null, true), 0, 10).productIds())
+                    .containsExactly(2L, 3L, 4L);
+        }
+    }
+}
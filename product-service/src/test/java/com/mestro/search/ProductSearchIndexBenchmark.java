@@ -0,0 +1,112 @@
+package com.mestro.search;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Search latency over a synthetic catalog (1M products by default).
+ * <p>
+ * Not part of the test run. After {@code mvn test-compile}, run {@link #main} from the IDE or
+ * {@code org.openjdk.jmh.Main ProductSearchIndexBenchmark} on the test classpath. Building the 1M
+ * catalog needs a couple of GB of heap ({@code -jvmArgs -Xmx4g}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProductSearchIndexBenchmark {
+
+    private static final String[] BRANDS = {
+        "Dell", "Lenovo", "Apple", "Samsung", "Sony", "Logitech", "Asus", "Acer", "Philips", "Bosch"
+    };
+    private static final String[] NOUNS = {
+        "laptop", "monitor", "keyboard", "mouse", "headphones", "speaker", "camera", "tablet", "charger", "router",
+        "printer", "drill", "kettle", "blender", "watch", "phone", "cable", "dock", "webcam", "microphone"
+    };
+    private static final String[] ADJECTIVES = {
+        "wireless", "portable", "compact", "professional", "gaming", "ergonomic", "smart", "ultra", "premium", "silent"
+    };
+
+    @Param({"1000000"})
+    private int catalogSize;
+
+    private ProductSearchIndex index;
+    private long nextProductId;
+    private final Random random = new Random(42);
+
+    @Setup
+    public void setUp() {
+        index = new ProductSearchIndex();
+        Random catalogRandom = new Random(7);
+        for (long id = 1; id <= catalogSize; id++) {
+            String brand = BRANDS[catalogRandom.nextInt(BRANDS.length)];
+            String noun = NOUNS[catalogRandom.nextInt(NOUNS.length)];
+            String adjective = ADJECTIVES[catalogRandom.nextInt(ADJECTIVES.length)];
+            String model = "m" + catalogRandom.nextInt(50_000);
+            index.index(
+                    id,
+                    brand + " " + adjective + " " + noun + " " + model,
+                    brand,
+                    "SKU-" + id,
+                    "A " + adjective + " " + noun + " by " + brand + ", model " + model);
+        }
+        nextProductId = catalogSize + 1L;
+    }
+
+    /** Common single-term query that matches ~5% of the catalog. */
+    @Benchmark
+    public ProductSearchIndex.SearchResult singleTerm() {
+        return index.search(NOUNS[random.nextInt(NOUNS.length)], 0, 20);
+    }
+
+    /** Three-term query, the typical search box case. */
+    @Benchmark
+    public ProductSearchIndex.SearchResult multiTerm() {
+        return index.search(
+                BRANDS[random.nextInt(BRANDS.length)] + " " + ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                        + NOUNS[random.nextInt(NOUNS.length)],
+                0,
+                20);
+    }
+
+    /** Keystroke query whose last term expands to many model numbers. */
+    @Benchmark
+    public ProductSearchIndex.SearchResult prefix() {
+        return index.search(NOUNS[random.nextInt(NOUNS.length)] + " m" + (1 + random.nextInt(9)), 0, 20);
+    }
+
+    @Benchmark
+    public ProductSearchIndex.SearchResult exactSku() {
+        return index.search("SKU-" + (1 + random.nextInt(catalogSize)), 0, 20);
+    }
+
+    /** Incremental update path as driven by product change events. */
+    @Benchmark
+    public void reindexProduct() {
+        long id = 1 + random.nextInt(catalogSize);
+        index.index(id, "Dell wireless laptop m" + id, "Dell", "SKU-" + id, "Updated listing");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                        .include(ProductSearchIndexBenchmark.class.getSimpleName())
+                        .build())
+                .run();
+    }
+}
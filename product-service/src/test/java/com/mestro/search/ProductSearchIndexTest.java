@@ -0,0 +1,162 @@
+package com.mestro.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ProductSearchIndex Tests")
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.index(1L, "Dell XPS 13 Laptop", "Dell", "LAP-001", "Compact ultrabook with 13 inch display");
+        index.index(2L, "Dell Inspiron Laptop", "Dell", "LAP-002", "Everyday laptop for home and office");
+        index.index(3L, "Lenovo ThinkPad Laptop", "Lenovo", "LAP-003", "Business laptop, Dell compatible dock");
+        index.index(4L, "Logitech Wireless Mouse", "Logitech", "MOU-001", "Quiet mouse for any laptop");
+    }
+
+    private List<Long> ids(ProductSearchIndex.SearchResult result) {
+        return result.hits().stream().map(ProductSearchIndex.Hit::productId).toList();
+    }
+
+    // ─────────────────────────────────────────────
+    // tokenize
+    // ─────────────────────────────────────────────
+    @Test
+    @DisplayName("Should lower-case and split on non-alphanumeric characters")
+    void tokenize_MixedText_SplitsIntoDistinctTerms() {
+        assertThat(ProductSearchIndex.tokenize("Dell XPS-13, dell!")).containsExactly("dell", "xps", "13");
+        assertThat(ProductSearchIndex.tokenize("  ")).isEmpty();
+        assertThat(ProductSearchIndex.tokenize(null)).isEmpty();
+    }
+
+    // ─────────────────────────────────────────────
+    // search
+    // ─────────────────────────────────────────────
+    @Nested
+    @DisplayName("search()")
+    class SearchTests {
+
+        @Test
+        @DisplayName("Should require every term to match")
+        void search_MultipleTerms_IntersectsMatches() {
+            assertThat(ids(index.search("dell laptop", 0, 10))).containsExactlyInAnyOrder(1L, 2L, 3L);
+            assertThat(ids(index.search("wireless laptop", 0, 10))).containsExactly(4L);
+            assertThat(index.search("dell mouse", 0, 10).totalHits()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should rank name and brand matches above description matches")
+        void search_FieldWeights_RankNameFirst() {
+            List<Long> ranked = ids(index.search("dell", 0, 10));
+
+            assertThat(ranked).hasSize(3);
+            assertThat(ranked.get(2)).isEqualTo(3L);
+        }
+
+        @Test
+        @DisplayName("Should expand the last term by prefix")
+        void search_PartialLastTerm_MatchesPrefix() {
+            assertThat(ids(index.search("lapt", 0, 10))).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+            assertThat(ids(index.search("logi", 0, 10))).containsExactly(4L);
+            assertThat(index.search("lapt dell", 0, 10).totalHits()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should find products by SKU with or without separators")
+        void search_Sku_MatchesCompactForm() {
+            assertThat(ids(index.search("LAP-002", 0, 10))).containsExactly(2L);
+            assertThat(ids(index.search("lap002", 0, 10))).containsExactly(2L);
+        }
+
+        @Test
+        @DisplayName("Should page through the ranked hits")
+        void search_Pagination_ReturnsRequestedSlice() {
+            ProductSearchIndex.SearchResult all = index.search("laptop", 0, 10);
+            ProductSearchIndex.SearchResult second = index.search("laptop", 2, 2);
+
+            assertThat(all.totalHits()).isEqualTo(4);
+            assertThat(second.totalHits()).isEqualTo(4);
+            assertThat(ids(second)).isEqualTo(ids(all).subList(2, 4));
+            assertThat(index.search("laptop", 4, 2).hits()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should return no hits for a blank query")
+        void search_BlankQuery_ReturnsNothing() {
+            assertThat(index.search(" - ", 0, 10).totalHits()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should drop filtered-out products before counting and paging")
+        void search_WithFilter_PagesOverAcceptedProducts() {
+            ProductSearchIndex.SearchResult result = index.search("laptop", 0, 1, productId -> productId % 2 == 0);
+
+            assertThat(result.totalHits()).isEqualTo(2);
+            assertThat(ids(result)).hasSize(1).allMatch(id -> id % 2 == 0);
+            assertThat(index.search("laptop", 0, 10).totalHits()).isEqualTo(4);
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // incremental updates
+    // ─────────────────────────────────────────────
+    @Nested
+    @DisplayName("index() / remove()")
+    class UpdateTests {
+
+        @Test
+        @DisplayName("Should replace the previous version of a product")
+        void index_ExistingProduct_ReplacesTerms() {
+            index.index(4L, "Logitech Keyboard", "Logitech", "KEY-001", null);
+
+            assertThat(index.size()).isEqualTo(4);
+            assertThat(index.search("mouse", 0, 10).totalHits()).isZero();
+            assertThat(ids(index.search("keyboard", 0, 10))).containsExactly(4L);
+        }
+
+        @Test
+        @DisplayName("Should drop a removed product and its unique terms")
+        void remove_Product_NoLongerFound() {
+            index.remove(3L);
+
+            assertThat(index.size()).isEqualTo(3);
+            assertThat(index.search("lenovo", 0, 10).totalHits()).isZero();
+            assertThat(index.search("thin", 0, 10).totalHits()).isZero();
+            assertThat(ids(index.search("laptop", 0, 10))).doesNotContain(3L);
+        }
+
+        @Test
+        @DisplayName("Should ignore removal of an unknown product")
+        void remove_UnknownProduct_NoChange() {
+            index.remove(99L);
+
+            assertThat(index.size()).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("Should compact removed documents once they outnumber the live ones")
+        void index_RepeatedUpdates_CompactsDocumentNumbers() {
+            List<Long> ranked = ids(index.search("dell", 0, 10));
+
+            for (int i = 0; i < 5_000; i++) {
+                index.index(4L, "Logitech Wireless Mouse " + i, "Logitech", "MOU-001", "Quiet mouse for any laptop");
+                index.index(2L, "Dell Inspiron Laptop", "Dell", "LAP-002", "Everyday laptop for home and office");
+            }
+
+            assertThat(index.size()).isEqualTo(4);
+            assertThat(index.documentNumbers()).isLessThan(2_100);
+            assertThat(ids(index.search("dell", 0, 10))).containsExactlyInAnyOrderElementsOf(ranked);
+            assertThat(ids(index.search("4999", 0, 10))).containsExactly(4L);
+            assertThat(index.search("4998", 0, 10).totalHits()).isZero();
+            assertThat(ids(index.search("lapt", 0, 10))).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.mestro.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.mestro.common.exception.ResourceNotFoundException;
+import com.mestro.dto.CatalogDeltaDTO;
+import com.mestro.dto.CatalogEntryDTO;
+import com.mestro.dto.CatalogSnapshotDTO;
+import com.mestro.model.Category;
+import com.mestro.model.Product;
+import com.mestro.repository.ProductInventoryRepository;
+import com.mestro.repository.ProductRepository;
+import com.mestro.snapshot.CatalogSnapshot;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CatalogSnapshotService Tests")
+class CatalogSnapshotServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductInventoryRepository productInventoryRepository;
+
+    @InjectMocks
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @TempDir
+    Path directory;
+
+    private Category electronics;
+    private Product laptop;
+    private Product mouse;
+    private Product cable;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(catalogSnapshotService, "directory", directory);
+        ReflectionTestUtils.setField(catalogSnapshotService, "retain", 5);
+        ReflectionTestUtils.setField(catalogSnapshotService, "batchSize", 2);
+
+        electronics = Category.builder().name("Electronics").build();
+        electronics.setId(1L);
+        laptop = product(10L, "LAP-001", "Dell XPS Laptop", "999.99");
+        laptop.setDiscountPercentage(new BigDecimal("10"));
+        laptop.setTaxRate(new BigDecimal("20"));
+        mouse = product(20L, "MOU-001", "Wireless Mouse", "19.99");
+        cable = product(30L, "CAB-001", "USB-C Cable", "9.50");
+        cable.setIsActive(false);
+    }
+
+    private Product product(Long id, String sku, String name, String price) {
+        Product product = Product.builder()
+                .category(electronics)
+                .sku(sku)
+                .name(name)
+                .brand("Generic")
+                .price(new BigDecimal(price))
+                .isActive(true)
+                .build();
+        product.setId(id);
+        return product;
+    }
+
+    private void givenCatalog(List<Product> products, List<Object[]> stock) {
+        when(productInventoryRepository.sumAvailableQuantityGroupByProduct()).thenReturn(new ArrayList<>(stock));
+        List<Product> firstBatch = products.subList(0, Math.min(2, products.size()));
+        List<Product> rest = products.subList(firstBatch.size(), products.size());
+        lenient().when(productRepository.findBatchAfterId(eq(0L), any())).thenReturn(firstBatch);
+        if (!firstBatch.isEmpty()) {
+            lenient()
+                    .when(productRepository.findBatchAfterId(
+                            eq(firstBatch.get(firstBatch.size() - 1).getId()), any()))
+                    .thenReturn(rest);
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // generate
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("generate")
+    class Generate {
+
+        @Test
+        @DisplayName("should write active products with prices and stock")
+        void shouldWriteActiveProducts() throws IOException {
+            givenCatalog(List.of(laptop, mouse, cable), List.<Object[]>of(new Object[] {10L, 7L}));
+
+            CatalogSnapshotDTO result = catalogSnapshotService.generate();
+
+            assertThat(result.getVersion()).isEqualTo(1L);
+            assertThat(result.getProductCount()).isEqualTo(2);
+            CatalogSnapshot snapshot = CatalogSnapshot.open(directory.resolve("catalog-1.snap"));
+            assertThat(snapshot.productId(0)).isEqualTo(10L);
+            assertThat(snapshot.priceMinor(0)).isEqualTo(99999L);
+            // 999.99 less 10% = 899.99, plus 20% tax = 1079.99
+            assertThat(snapshot.effectivePriceMinor(0)).isEqualTo(107999L);
+            assertThat(snapshot.availableQuantity(0)).isEqualTo(7);
+            assertThat(snapshot.availableQuantity(1)).isZero();
+            assertThat(snapshot.indexOf(30L)).isNegative();
+        }
+
+        @Test
+        @DisplayName("should not write a new version when the catalog is unchanged")
+        void shouldSkipUnchangedCatalog() {
+            givenCatalog(List.of(laptop, mouse), List.of());
+            catalogSnapshotService.generate();
+
+            CatalogSnapshotDTO second = catalogSnapshotService.generate();
+
+            assertThat(second.getVersion()).isEqualTo(1L);
+            assertThat(catalogSnapshotService.listSnapshots()).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("should keep only the configured number of snapshots")
+        void shouldPruneOldSnapshots() {
+            ReflectionTestUtils.setField(catalogSnapshotService, "retain", 2);
+            givenCatalog(List.of(laptop, mouse), List.of());
+            for (int i = 0; i < 4; i++) {
+                mouse.setPrice(new BigDecimal(20 + i));
+                catalogSnapshotService.generate();
+            }
+
+            assertThat(catalogSnapshotService.listSnapshots())
+                    .extracting(CatalogSnapshotDTO::getVersion)
+                    .containsExactly(3L, 4L);
+            assertThat(Files.exists(directory.resolve("catalog-1.snap"))).isFalse();
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // delta
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("getDelta")
+    class GetDelta {
+
+        @Test
+        @DisplayName("should report added, changed and removed products")
+        void shouldReportChanges() {
+            givenCatalog(List.of(laptop, mouse), List.of());
+            catalogSnapshotService.generate();
+
+            mouse.setPrice(new BigDecimal("24.99"));
+            cable.setIsActive(true);
+            givenCatalog(List.of(mouse, cable), List.of());
+            catalogSnapshotService.generate();
+
+            CatalogDeltaDTO delta = catalogSnapshotService.getDelta(1L, 2L);
+
+            assertThat(delta.getRemovedProductIds()).containsExactly(10L);
+            assertThat(delta.getUpserts())
+                    .extracting(CatalogEntryDTO::getProductId, CatalogEntryDTO::getPrice)
+                    .containsExactly(tuple(20L, new BigDecimal("24.99")), tuple(30L, new BigDecimal("9.50")));
+        }
+
+        @Test
+        @DisplayName("should reject a pruned or unknown version")
+        void shouldRejectUnknownVersion() {
+            givenCatalog(List.of(laptop), List.of());
+            catalogSnapshotService.generate();
+
+            assertThatThrownBy(() -> catalogSnapshotService.getDelta(1L, 9L))
+                    .isInstanceOf(ResourceNotFoundException.class)
+                    .hasMessage("Catalog snapshot not found with version: 9");
+        }
+
+        @Test
+        @DisplayName("should reject versions out of order")
+        void shouldRejectVersionsOutOfOrder() {
+            assertThatThrownBy(() -> catalogSnapshotService.getDelta(2L, 1L))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("getLatestVersion should fail when no snapshot exists")
+    void getLatestVersionShouldFailWithoutSnapshots() {
+        assertThatThrownBy(() -> catalogSnapshotService.getLatestVersion())
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+}
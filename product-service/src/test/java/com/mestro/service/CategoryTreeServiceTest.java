@@ -0,0 +1,83 @@
+package com.mestro.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.mestro.common.exception.ResourceNotFoundException;
+import com.mestro.dto.CategoryChangeEventDTO;
+import com.mestro.dto.CategoryTreeNodeDTO;
+import com.mestro.model.Category;
+import com.mestro.repository.CategoryRepository;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CategoryTreeService Tests")
+class CategoryTreeServiceTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @InjectMocks
+    private CategoryTreeService categoryTreeService;
+
+    @Test
+    @DisplayName("Should load the tree once and serve nested nodes")
+    void shouldLoadTreeOnce() {
+        when(categoryRepository.findAll())
+                .thenReturn(List.of(category(1L, "Electronics", null, true), category(2L, "Laptops", 1L, false)));
+
+        List<CategoryTreeNodeDTO> full = categoryTreeService.getFullTree(false);
+        List<CategoryTreeNodeDTO> active = categoryTreeService.getFullTree(true);
+
+        assertThat(full).hasSize(1);
+        assertThat(full.get(0).getChildren())
+                .extracting(CategoryTreeNodeDTO::getName)
+                .containsExactly("Laptops");
+        assertThat(active.get(0).getChildren()).isEmpty();
+        verify(categoryRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Should rebuild the tree after a category change")
+    void shouldRebuildAfterChange() {
+        when(categoryRepository.findAll())
+                .thenReturn(List.of(category(1L, "Electronics", null, true)))
+                .thenReturn(List.of(category(1L, "Electronics", null, true), category(2L, "Laptops", 1L, true)));
+
+        assertThat(categoryTreeService.getSubtreeIds(1L)).containsExactly(1L);
+
+        categoryTreeService.onCategoryChanged(
+                CategoryChangeEventDTO.builder().categoryId(2L).build());
+
+        assertThat(categoryTreeService.getSubtreeIds(1L)).containsExactly(1L, 2L);
+        assertThat(categoryTreeService.getBreadcrumbs(2L))
+                .extracting(CategoryTreeNodeDTO::getId)
+                .containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should throw when the category is not in the tree")
+    void shouldThrowForUnknownCategory() {
+        when(categoryRepository.findAll()).thenReturn(List.of());
+
+        assertThatThrownBy(() -> categoryTreeService.getSubtreeIds(99L))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("Category not found with ID: 99");
+    }
+
+    private static Category category(Long id, String name, Long parentId, boolean active) {
+        Category category = Category.builder()
+                .name(name)
+                .parentCategoryId(parentId)
+                .isActive(active)
+                .build();
+        category.setId(id);
+        return category;
+    }
+}
@@ -0,0 +1,125 @@
+package com.mestro.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.mestro.model.Category;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("CategoryTree Tests")
+class CategoryTreeTest {
+
+    private CategoryTree tree;
+
+    @BeforeEach
+    void setUp() {
+        // Electronics(1) -> Computers(2) -> Laptops(3), Tablets(4); Electronics(1) -> Audio(5); Books(6)
+        tree = CategoryTree.of(List.of(
+                category(3L, "Laptops", 2L),
+                category(5L, "Audio", 1L),
+                category(1L, "Electronics", null),
+                category(6L, "Books", null),
+                category(4L, "Tablets", 2L),
+                category(2L, "Computers", 1L)));
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    // Shape
+    // ─────────────────────────────────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("Shape")
+    class Shape {
+
+        @Test
+        @DisplayName("Should list roots and children in name order")
+        void shouldListRootsAndChildrenInNameOrder() {
+            assertThat(tree.roots()).extracting(CategoryTree.Node::name).containsExactly("Books", "Electronics");
+            assertThat(tree.children(1L)).extracting(CategoryTree.Node::name).containsExactly("Audio", "Computers");
+            assertThat(tree.children(2L)).extracting(CategoryTree.Node::id).containsExactly(3L, 4L);
+            assertThat(tree.size()).isEqualTo(6);
+        }
+
+        @Test
+        @DisplayName("Should treat categories with a missing parent as roots")
+        void shouldTreatOrphansAsRoots() {
+            CategoryTree orphaned = CategoryTree.of(List.of(category(1L, "Garden", 99L), category(2L, "Tools", 1L)));
+
+            assertThat(orphaned.roots()).extracting(CategoryTree.Node::id).containsExactly(1L);
+            assertThat(orphaned.find(1L))
+                    .get()
+                    .extracting(CategoryTree.Node::parentId)
+                    .isNull();
+            assertThat(orphaned.subtreeIds(1L)).containsExactly(1L, 2L);
+        }
+
+        @Test
+        @DisplayName("Should break parent cycles instead of looping")
+        void shouldBreakParentCycles() {
+            CategoryTree cyclic = CategoryTree.of(
+                    List.of(category(1L, "Alpha", 2L), category(2L, "Beta", 1L), category(3L, "Self", 3L)));
+
+            assertThat(cyclic.size()).isEqualTo(3);
+            assertThat(cyclic.roots()).extracting(CategoryTree.Node::id).containsExactly(3L, 1L);
+            assertThat(cyclic.subtreeIds(1L)).containsExactly(1L, 2L);
+            assertThat(cyclic.breadcrumbs(2L)).extracting(CategoryTree.Node::id).containsExactly(1L, 2L);
+        }
+
+        @Test
+        @DisplayName("Should handle an empty category list")
+        void shouldHandleEmptyList() {
+            assertThat(CategoryTree.of(List.of()).roots()).isEmpty();
+            assertThat(CategoryTree.EMPTY.subtreeIds(1L)).isEmpty();
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    // Lookups
+    // ─────────────────────────────────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("Lookups")
+    class Lookups {
+
+        @Test
+        @DisplayName("Should return breadcrumbs from the root down")
+        void shouldReturnBreadcrumbs() {
+            assertThat(tree.breadcrumbs(3L))
+                    .extracting(CategoryTree.Node::name)
+                    .containsExactly("Electronics", "Computers", "Laptops");
+            assertThat(tree.breadcrumbs(6L)).extracting(CategoryTree.Node::id).containsExactly(6L);
+            assertThat(tree.breadcrumbs(42L)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should return the precomputed subtree in depth-first order")
+        void shouldReturnSubtreeIds() {
+            assertThat(tree.subtreeIds(1L)).containsExactly(1L, 5L, 2L, 3L, 4L);
+            assertThat(tree.subtreeIds(2L)).containsExactly(2L, 3L, 4L);
+            assertThat(tree.subtreeIds(4L)).containsExactly(4L);
+            assertThat(tree.subtreeIds(42L)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should tell whether a category lies within a subtree")
+        void shouldTellSubtreeMembership() {
+            assertThat(tree.isInSubtree(1L, 3L)).isTrue();
+            assertThat(tree.isInSubtree(3L, 3L)).isTrue();
+            assertThat(tree.isInSubtree(2L, 5L)).isFalse();
+            assertThat(tree.isInSubtree(3L, 1L)).isFalse();
+        }
+    }
+
+    private static Category category(Long id, String name, Long parentId) {
+        Category category = Category.builder()
+                .name(name)
+                .parentCategoryId(parentId)
+                .isActive(true)
+                .build();
+        category.setId(id);
+        return category;
+    }
+}
@@ -0,0 +1,209 @@
+package com.mestro.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.mestro.dto.ProductInventoryDTO;
+import com.mestro.hotstock.HotStockDelta;
+import com.mestro.hotstock.HotStockJournal;
+import com.mestro.model.HotStockLease;
+import com.mestro.model.Product;
+import com.mestro.model.ProductInventory;
+import com.mestro.model.Warehouse;
+import com.mestro.repository.HotStockLeaseRepository;
+import com.mestro.repository.ProductInventoryRepository;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HotStockService Tests")
+class HotStockServiceTest {
+
+    @Mock
+    private ProductInventoryRepository inventoryRepository;
+
+    @Mock
+    private HotStockLeaseRepository leaseRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @TempDir
+    Path directory;
+
+    private HotStockService hotStockService;
+    private ProductInventory stock;
+
+    @BeforeEach
+    void setUp() {
+        hotStockService = new HotStockService(inventoryRepository, leaseRepository, transactionTemplate);
+        ReflectionTestUtils.setField(hotStockService, "enabled", true);
+        ReflectionTestUtils.setField(hotStockService, "instanceId", "node-1");
+        ReflectionTestUtils.setField(hotStockService, "journalDirectory", directory);
+        ReflectionTestUtils.setField(hotStockService, "stripes", 4);
+        ReflectionTestUtils.setField(hotStockService, "refillSize", 10);
+        ReflectionTestUtils.setField(hotStockService, "maxRows", 10);
+        ReflectionTestUtils.setField(hotStockService, "evaluationWindow", Duration.ofHours(1));
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation -> invocation
+                .<TransactionCallback<?>>getArgument(0)
+                .doInTransaction(null));
+        lenient()
+                .doAnswer(invocation -> {
+                    invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+                    return null;
+                })
+                .when(transactionTemplate)
+                .executeWithoutResult(any());
+
+        Product product = Product.builder().sku("LAP-001").name("Laptop").build();
+        product.setId(1L);
+        Warehouse east = Warehouse.builder().name("East").build();
+        east.setId(10L);
+        stock = ProductInventory.builder()
+                .product(product)
+                .warehouse(east)
+                .quantityAvailable(15)
+                .quantityReserved(0)
+                .build();
+        stock.setId(100L);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        hotStockService.close();
+    }
+
+    private void promote() {
+        when(leaseRepository.findByInstanceId("node-1")).thenReturn(List.of());
+        hotStockService.recover();
+        when(inventoryRepository.findById(100L)).thenReturn(Optional.of(stock));
+        when(inventoryRepository.claimHotAllotment(eq(100L), anyInt(), any())).thenAnswer(invocation -> {
+            stock.setHotAllotment(stock.getHotAllotment() + invocation.<Integer>getArgument(1));
+            return 1;
+        });
+        hotStockService.promote(100L);
+    }
+
+    // ─────────────────────────────────────────────
+    // reservations
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("reservations")
+    class Reservations {
+
+        @Test
+        @DisplayName("should reserve from the claimed allotment and queue the change for write-back")
+        void shouldReserveFromAllotment() {
+            promote();
+
+            ProductInventoryDTO reserved = hotStockService.tryReserve(100L, 4);
+
+            assertThat(reserved.getQuantityAvailable()).isEqualTo(11);
+            assertThat(reserved.getQuantityReserved()).isEqualTo(4);
+            assertThat(hotStockService.getHotInventoryId(1L, 10L)).isEqualTo(100L);
+            List<HotStockDelta> pending = hotStockService.drainPending();
+            assertThat(pending).hasSize(1);
+            assertThat(pending.get(0).delta()).isEqualTo(4);
+            assertThat(pending.get(0).lastSequence()).isEqualTo(1L);
+        }
+
+        @Test
+        @DisplayName("should claim the rest of the row and then refuse once nothing is left")
+        void shouldRefillThenRefuse() {
+            promote();
+
+            assertThat(hotStockService.tryReserve(100L, 8)).isNotNull();
+            assertThat(hotStockService.tryReserve(100L, 6)).isNotNull();
+            assertThatThrownBy(() -> hotStockService.tryReserve(100L, 2)).isInstanceOf(IllegalArgumentException.class);
+            verify(leaseRepository).addAllotment(eq("node-1"), eq(100L), eq(5), any());
+        }
+
+        @Test
+        @DisplayName("should leave releases of units it did not reserve to the row")
+        void shouldOnlyReleaseOwnReservations() {
+            promote();
+            hotStockService.tryReserve(100L, 3);
+
+            assertThat(hotStockService.tryRelease(100L, 5)).isNull();
+            assertThat(hotStockService.tryRelease(100L, 3).getQuantityReserved())
+                    .isZero();
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // demotion and recovery
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("demotion and recovery")
+    class DemotionAndRecovery {
+
+        @Test
+        @DisplayName("should return the rest of the allotment once a demoted row is written back")
+        void shouldReturnAllotmentAfterDemotion() {
+            promote();
+            hotStockService.tryReserve(100L, 4);
+            hotStockService.demote(100L);
+
+            hotStockService.maintain();
+            verify(inventoryRepository, never()).returnHotAllotment(anyLong(), anyInt(), any());
+
+            hotStockService.drainPending();
+            HotStockLease lease = HotStockLease.builder()
+                    .instanceId("node-1")
+                    .inventoryId(100L)
+                    .allotment(6)
+                    .build();
+            when(leaseRepository.findByInstanceIdAndInventoryId("node-1", 100L)).thenReturn(Optional.of(lease));
+            hotStockService.maintain();
+
+            verify(leaseRepository).delete(lease);
+            verify(inventoryRepository).returnHotAllotment(eq(100L), eq(6), any());
+            assertThat(hotStockService.isHot(100L)).isFalse();
+        }
+
+        @Test
+        @DisplayName("should queue journal entries past the lease watermark and demote the row")
+        void shouldReplayJournalOnRecovery() throws IOException {
+            Path path = directory.resolve("hot-stock-node-1.journal");
+            try (HotStockJournal journal = HotStockJournal.open(path, 0L, entries -> {})) {
+                journal.append(100L, 5).join();
+                journal.append(100L, 2).join();
+                journal.append(100L, -1).join();
+                journal.append(200L, 9).join();
+            }
+            when(leaseRepository.findByInstanceId("node-1"))
+                    .thenReturn(List.of(HotStockLease.builder()
+                            .instanceId("node-1")
+                            .inventoryId(100L)
+                            .allotment(20)
+                            .lastSequence(1L)
+                            .build()));
+
+            hotStockService.recover();
+
+            assertThat(hotStockService.drainPending()).containsExactly(new HotStockDelta(100L, 1, 3L));
+            assertThat(hotStockService.isHot(100L)).isTrue();
+            assertThat(hotStockService.tryReserve(100L, 1)).isNull();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.mestro.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.mestro.dto.InventoryChangeEventDTO;
+import com.mestro.dto.ProductChangeEventDTO;
+import com.mestro.repository.ProductInventoryRepository;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.LongPredicate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InStockIndexService Tests")
+class InStockIndexServiceTest {
+
+    @Mock
+    private ProductInventoryRepository inventoryRepository;
+
+    @InjectMocks
+    private InStockIndexService inStockIndexService;
+
+    @BeforeEach
+    void setUp() {
+        when(inventoryRepository.sumAvailableQuantityGroupByProduct())
+                .thenReturn(List.of(new Object[] {1L, 5L}, new Object[] {2L, 0L}, new Object[] {3L, null}));
+        inStockIndexService.rebuild();
+    }
+
+    @Test
+    @DisplayName("should build the bitmap from the inventory totals")
+    void shouldBuildFromTotals() {
+        assertThat(inStockIndexService.isReady()).isTrue();
+        assertThat(inStockIndexService.isInStock(1L)).isTrue();
+        assertThat(inStockIndexService.isInStock(2L)).isFalse();
+        assertThat(inStockIndexService.isInStock(3L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("should set a product's bit from a row with stock without a query")
+    void shouldSetFromEvent() {
+        inStockIndexService.onInventoryChanged(change(2L, 4, false));
+
+        assertThat(inStockIndexService.isInStock(2L)).isTrue();
+        verify(inventoryRepository, never()).getTotalAvailableQuantityByProductId(any());
+    }
+
+    @Test
+    @DisplayName("should clear a product's bit only when its rows together run out")
+    void shouldClearWhenAllRowsRunOut() {
+        when(inventoryRepository.getTotalAvailableQuantityByProductId(1L)).thenReturn(3, 0);
+
+        inStockIndexService.onInventoryChanged(change(1L, 0, false));
+        assertThat(inStockIndexService.isInStock(1L)).isTrue();
+
+        inStockIndexService.onInventoryChanged(change(1L, null, true));
+        assertThat(inStockIndexService.isInStock(1L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("should clear the bit of a deleted product")
+    void shouldClearDeletedProduct() {
+        inStockIndexService.onProductChanged(
+                ProductChangeEventDTO.builder().productId(1L).deleted(true).build());
+
+        assertThat(inStockIndexService.isInStock(1L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("should filter by stock either way, or not at all")
+    void shouldFilterByStock() {
+        LongPredicate inStock = inStockIndexService.filter(true);
+        LongPredicate outOfStock = inStockIndexService.filter(false);
+
+        assertThat(inStock.test(1L)).isTrue();
+        assertThat(inStock.test(2L)).isFalse();
+        assertThat(outOfStock.test(2L)).isTrue();
+        assertThat(inStockIndexService.filter(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("should serve the bitmap as bytes with a version that follows changes")
+    void shouldServeSnapshot() {
+        long version = inStockIndexService.getSnapshot().version();
+
+        inStockIndexService.onInventoryChanged(change(9L, 1, false));
+
+        var snapshot = inStockIndexService.getSnapshot();
+        assertThat(snapshot.version()).isGreaterThan(version);
+        assertThat(BitSet.valueOf(snapshot.bytes()).stream()).containsExactly(1, 9);
+    }
+
+    private static InventoryChangeEventDTO change(Long productId, Integer available, boolean deleted) {
+        return InventoryChangeEventDTO.builder()
+                .inventoryId(100L)
+                .productId(productId)
+                .warehouseId(10L)
+                .quantityAvailable(available)
+                .deleted(deleted)
+                .build();
+    }
+}
@@ -0,0 +1,192 @@
+package com.mestro.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.mestro.dto.InventoryBalanceDTO;
+import com.mestro.enums.InventoryMovementReason;
+import com.mestro.model.InventoryBalanceSnapshot;
+import com.mestro.model.InventoryMovement;
+import com.mestro.model.Product;
+import com.mestro.model.ProductInventory;
+import com.mestro.repository.InventoryBalanceSnapshotRepository;
+import com.mestro.repository.InventoryMovementRepository;
+import com.mestro.repository.ProductInventoryRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InventoryLedgerService Tests")
+class InventoryLedgerServiceTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Mock
+    private InventoryMovementRepository movementRepository;
+
+    @Mock
+    private InventoryBalanceSnapshotRepository snapshotRepository;
+
+    @Mock
+    private ProductInventoryRepository inventoryRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private InventoryLedgerService ledgerService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(ledgerService, "settleTime", Duration.ofMinutes(1));
+    }
+
+    private static InventoryBalanceSnapshot snapshot(
+            Long inventoryId, int available, int reserved, Long lastMovementId) {
+        return InventoryBalanceSnapshot.builder()
+                .inventoryId(inventoryId)
+                .quantityAvailable(available)
+                .quantityReserved(reserved)
+                .lastMovementId(lastMovementId)
+                .takenAt(NOON.minusHours(1))
+                .build();
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+
+    // ─────────────────────────────────────────────
+    // record
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("record")
+    class Record {
+
+        @Test
+        @DisplayName("should append a movement with the row's product and reference")
+        void shouldAppendMovement() {
+            Product product = Product.builder().sku("LAP-001").build();
+            product.setId(1L);
+            ProductInventory inventory =
+                    ProductInventory.builder().product(product).build();
+            inventory.setId(100L);
+
+            ledgerService.record(inventory, -5, 5, InventoryMovementReason.RESERVED, "ORD-1");
+
+            ArgumentCaptor<InventoryMovement> captor = ArgumentCaptor.forClass(InventoryMovement.class);
+            verify(movementRepository).save(captor.capture());
+            assertThat(captor.getValue())
+                    .extracting(
+                            InventoryMovement::getInventoryId,
+                            InventoryMovement::getProductId,
+                            InventoryMovement::getWarehouseId,
+                            InventoryMovement::getDeltaAvailable,
+                            InventoryMovement::getDeltaReserved,
+                            InventoryMovement::getReference)
+                    .containsExactly(100L, 1L, null, -5, 5, "ORD-1");
+        }
+
+        @Test
+        @DisplayName("should skip a change that moves nothing")
+        void shouldSkipZeroMovement() {
+            ledgerService.record(new ProductInventory(), 0, 0, InventoryMovementReason.UPDATED, null);
+
+            verifyNoInteractions(movementRepository);
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // getBalanceAt
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("getBalanceAt")
+    class GetBalanceAt {
+
+        @Test
+        @DisplayName("should add the movements after the latest snapshot to it")
+        void shouldAddMovementsToSnapshot() {
+            when(snapshotRepository.findFirstByInventoryIdAndTakenAtLessThanEqualOrderByTakenAtDesc(100L, NOON))
+                    .thenReturn(Optional.of(snapshot(100L, 40, 10, 500L)));
+            when(movementRepository.sumDeltasAfter(100L, 500L, NOON)).thenReturn(rows(new Object[] {-7L, 7L}));
+
+            InventoryBalanceDTO balance = ledgerService.getBalanceAt(100L, NOON);
+
+            assertThat(balance.getQuantityAvailable()).isEqualTo(33);
+            assertThat(balance.getQuantityReserved()).isEqualTo(17);
+        }
+
+        @Test
+        @DisplayName("should sum the whole history when no snapshot is old enough")
+        void shouldSumWholeHistoryWithoutSnapshot() {
+            when(snapshotRepository.findFirstByInventoryIdAndTakenAtLessThanEqualOrderByTakenAtDesc(100L, NOON))
+                    .thenReturn(Optional.empty());
+            when(movementRepository.sumDeltasAfter(100L, 0L, NOON)).thenReturn(rows(new Object[] {25L, 0L}));
+
+            InventoryBalanceDTO balance = ledgerService.getBalanceAt(100L, NOON);
+
+            assertThat(balance.getQuantityAvailable()).isEqualTo(25);
+            assertThat(balance.getQuantityReserved()).isZero();
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // snapshotBalances
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("snapshotBalances")
+    class SnapshotBalances {
+
+        @Test
+        @DisplayName("should fold new movements onto each row's previous snapshot")
+        @SuppressWarnings("unchecked")
+        void shouldFoldOntoPreviousSnapshot() {
+            when(snapshotRepository.findMaxLastMovementId()).thenReturn(500L);
+            when(movementRepository.findMaxIdBefore(any())).thenReturn(520L);
+            when(movementRepository.sumDeltasGroupByInventory(500L, 520L))
+                    .thenReturn(rows(new Object[] {100L, -3L, 3L, NOON}, new Object[] {200L, 8L, 0L, NOON}));
+            when(snapshotRepository.findLatestByInventoryIdIn(List.of(100L, 200L)))
+                    .thenReturn(List.of(snapshot(100L, 40, 10, 500L)));
+
+            assertThat(ledgerService.snapshotBalances()).isEqualTo(2);
+
+            ArgumentCaptor<List<InventoryBalanceSnapshot>> captor = ArgumentCaptor.forClass(List.class);
+            verify(snapshotRepository).saveAll(captor.capture());
+            assertThat(captor.getValue())
+                    .extracting(
+                            InventoryBalanceSnapshot::getInventoryId,
+                            InventoryBalanceSnapshot::getQuantityAvailable,
+                            InventoryBalanceSnapshot::getQuantityReserved,
+                            InventoryBalanceSnapshot::getLastMovementId)
+                    .containsExactly(tuple(100L, 37, 13, 520L), tuple(200L, 8, 0, 520L));
+        }
+
+        @Test
+        @DisplayName("should do nothing when no settled movement is newer than the last snapshot")
+        void shouldSkipWhenNothingNew() {
+            when(snapshotRepository.findMaxLastMovementId()).thenReturn(500L);
+            when(movementRepository.findMaxIdBefore(any())).thenReturn(500L);
+
+            assertThat(ledgerService.snapshotBalances()).isZero();
+            verify(snapshotRepository, never()).saveAll(any());
+        }
+    }
+}
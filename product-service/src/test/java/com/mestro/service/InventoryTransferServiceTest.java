@@ -0,0 +1,304 @@
+package com.mestro.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.mestro.dto.InventoryChangeEventDTO;
+import com.mestro.dto.InventoryTransferDTO;
+import com.mestro.dto.InventoryTransferErrorDTO;
+import com.mestro.dto.InventoryTransferEventDTO;
+import com.mestro.dto.InventoryTransferLineDTO;
+import com.mestro.dto.InventoryTransferResultDTO;
+import com.mestro.dto.LowStockEventDTO;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatcher;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InventoryTransferService Tests")
+class InventoryTransferServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private InventoryTransferService transferService;
+
+    private final List<Object[]> movements = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        transferService = new InventoryTransferService(jdbcTemplate, transactionTemplate, eventPublisher);
+        ReflectionTestUtils.setField(transferService, "maxLines", 100);
+        ReflectionTestUtils.setField(transferService, "maxReportedErrors", 10);
+
+        lenient()
+                .doAnswer(invocation -> {
+                    invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+                    return null;
+                })
+                .when(transactionTemplate)
+                .executeWithoutResult(any());
+        lenient()
+                .when(jdbcTemplate.batchUpdate(
+                        eq(InventoryTransferService.MOVEMENT_SQL),
+                        anyList(),
+                        anyInt(),
+                        any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    ParameterizedPreparedStatementSetter<Object> setter = invocation.getArgument(3);
+                    for (Object move : invocation.<List<?>>getArgument(1)) {
+                        Map<Integer, Object> values = new HashMap<>();
+                        setter.setValues(
+                                mock(PreparedStatement.class, set -> {
+                                    values.put(set.getArgument(0), set.getArgument(1));
+                                    return null;
+                                }),
+                                move);
+                        movements.add(new Object[] {values.get(1), values.get(4), values.get(5)});
+                    }
+                    return new int[0][];
+                });
+        stubQuery(InventoryTransferService.PRODUCTS_SQL, id(1L), id(2L));
+        stubQuery(InventoryTransferService.WAREHOUSES_SQL, id(10L), id(20L));
+    }
+
+    @Test
+    @DisplayName("should move every line and record a movement at each end")
+    void shouldMoveLines() {
+        stubQuery(
+                InventoryTransferService.LOCK_SQL,
+                locked(100L, 1L, 10L, false),
+                locked(200L, 2L, 10L, false),
+                locked(201L, 2L, 20L, true));
+        stubQuery(InventoryTransferService.WITHDRAW_SQL, row(100L, 1L, 10L, 15), row(200L, 2L, 10L, 0));
+        stubQuery(InventoryTransferService.DEPOSIT_SQL, row(101L, 1L, 20L, 5), row(201L, 2L, 20L, 3));
+
+        InventoryTransferResultDTO result =
+                transferService.transfer(request(line(1L, 10L, 20L, 5), line(2L, 10L, 20L, 3)));
+
+        assertThat(result.getTransferred()).isEqualTo(2);
+        assertThat(result.getFailed()).isZero();
+        assertThat(result.getQuantityMoved()).isEqualTo(8);
+        assertThat(movements)
+                .containsExactly(
+                        new Object[] {100L, -5, "TRANSFER_OUT"},
+                        new Object[] {101L, 5, "TRANSFER_IN"},
+                        new Object[] {200L, -3, "TRANSFER_OUT"},
+                        new Object[] {201L, 3, "TRANSFER_IN"});
+
+        InventoryTransferEventDTO transfer =
+                published(InventoryTransferEventDTO.class).get(0);
+        assertThat(transfer.getReference()).isEqualTo("REBALANCE-1");
+        assertThat(transfer.getChanges())
+                .extracting(InventoryChangeEventDTO::getInventoryId)
+                .containsExactlyInAnyOrder(100L, 101L, 200L, 201L);
+    }
+
+    @Test
+    @DisplayName("should count warehouses gaining or losing the product's last units")
+    void shouldAdjustWarehousesInStock() {
+        stubQuery(
+                InventoryTransferService.LOCK_SQL,
+                locked(100L, 1L, 10L, false),
+                locked(200L, 2L, 10L, false),
+                locked(201L, 2L, 20L, true));
+        stubQuery(InventoryTransferService.WITHDRAW_SQL, row(100L, 1L, 10L, 15), row(200L, 2L, 10L, 0));
+        stubQuery(InventoryTransferService.DEPOSIT_SQL, row(101L, 1L, 20L, 5), row(201L, 2L, 20L, 3));
+
+        transferService.transfer(request(line(1L, 10L, 20L, 5), line(2L, 10L, 20L, 3)));
+
+        // Product 1 gains a warehouse; product 2 loses one and gains one
+        ArgumentCaptor<PreparedStatementCreator> update = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate).update(update.capture());
+        InventoryTransferService.ArrayStatement statement = (InventoryTransferService.ArrayStatement) update.getValue();
+        assertThat(statement.sql()).isEqualTo(InventoryTransferService.WAREHOUSES_IN_STOCK_SQL);
+        assertThat(statement.params()[1]).isEqualTo(new Long[] {1L});
+        assertThat(statement.params()[2]).isEqualTo(new Integer[] {1});
+
+        // The new row and the emptied source entered the low-stock set; the other low row stayed in
+        assertThat(published(LowStockEventDTO.class))
+                .extracting(LowStockEventDTO::getInventoryId)
+                .containsExactlyInAnyOrder(101L, 200L);
+    }
+
+    @Test
+    @DisplayName("should report lines whose source is short and still move the rest")
+    void shouldReportShortSources() {
+        stubQuery(InventoryTransferService.LOCK_SQL, locked(100L, 1L, 10L, false), locked(200L, 2L, 10L, false));
+        stubQuery(InventoryTransferService.WITHDRAW_SQL, row(100L, 1L, 10L, 15));
+        stubQuery(InventoryTransferService.DEPOSIT_SQL, row(101L, 1L, 20L, 25));
+
+        InventoryTransferResultDTO result =
+                transferService.transfer(request(line(1L, 10L, 20L, 5), line(2L, 10L, 20L, 30)));
+
+        assertThat(result.getTransferred()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getLine()).isEqualTo(2);
+            assertThat(error.getMessage()).contains("Insufficient stock at warehouse ID: 10");
+        });
+
+        ArgumentCaptor<PreparedStatementCreator> deposit = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate, times(5)).query(deposit.capture(), any(RowMapper.class));
+        InventoryTransferService.ArrayStatement statement =
+                (InventoryTransferService.ArrayStatement) deposit.getAllValues().get(4);
+        assertThat(statement.params()[4]).isEqualTo(new Long[] {1L});
+        assertThat(statement.params()[6]).isEqualTo(new Integer[] {5});
+        assertThat(movements).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("should reject lines with unknown products, inactive warehouses or no move")
+    void shouldRejectInvalidLines() {
+        InventoryTransferResultDTO result =
+                transferService.transfer(request(line(9L, 10L, 20L, 1), line(1L, 10L, 30L, 1), line(1L, 10L, 10L, 1)));
+
+        assertThat(result.getFailed()).isEqualTo(3);
+        assertThat(result.getErrors())
+                .extracting(InventoryTransferErrorDTO::getMessage)
+                .containsExactly(
+                        "Product not found with ID: 9",
+                        "Warehouse not found or inactive with ID: 30",
+                        "Source and destination warehouse are the same");
+        verify(transactionTemplate, never()).executeWithoutResult(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("should look up products and warehouses with one array parameter each")
+    void shouldBindLookupIdsAsOneArray() {
+        transferService.transfer(request(line(9L, 10L, 30L, 1)));
+
+        ArgumentCaptor<PreparedStatementCreator> lookup = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate, times(2)).query(lookup.capture(), any(RowMapper.class));
+        assertThat(lookup.getAllValues())
+                .map(InventoryTransferService.ArrayStatement.class::cast)
+                .extracting(InventoryTransferService.ArrayStatement::params)
+                .containsExactly(new Object[] {new Long[] {9L}}, new Object[] {new Long[] {10L, 30L}});
+    }
+
+    @Test
+    @DisplayName("should reject a transfer over the line limit")
+    void shouldRejectTooManyLines() {
+        ReflectionTestUtils.setField(transferService, "maxLines", 1);
+
+        assertThatThrownBy(() -> transferService.transfer(request(line(1L, 10L, 20L, 1), line(2L, 10L, 20L, 1))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("more than 1 lines");
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    // ─────────────────────────────────────────────
+    // Helpers
+    // ─────────────────────────────────────────────
+
+    private void stubQuery(String sql, Map<?, ?>... rows) {
+        lenient()
+                .doAnswer(invocation -> {
+                    RowMapper<?> mapper = invocation.getArgument(1);
+                    List<Object> mapped = new ArrayList<>();
+                    for (int i = 0; i < rows.length; i++) {
+                        mapped.add(mapper.mapRow(resultSet(rows[i]), i));
+                    }
+                    return mapped;
+                })
+                .when(jdbcTemplate)
+                .query(argThat(sql(sql)), any(RowMapper.class));
+    }
+
+    private <T> List<T> published(Class<T> type) {
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, atLeastOnce()).publishEvent(events.capture());
+        return events.getAllValues().stream()
+                .filter(type::isInstance)
+                .map(type::cast)
+                .toList();
+    }
+
+    private static ArgumentMatcher<PreparedStatementCreator> sql(String sql) {
+        return statement -> statement instanceof InventoryTransferService.ArrayStatement array
+                && array.sql().equals(sql);
+    }
+
+    private static ResultSet resultSet(Map<?, ?> row) {
+        List<?> columns = new ArrayList<>(row.values());
+        return mock(ResultSet.class, invocation -> {
+            Object column = invocation.getArgument(0);
+            Object value = column instanceof Integer index ? columns.get(index - 1) : row.get(column);
+            return switch (invocation.getMethod().getName()) {
+                case "getLong" -> ((Number) value).longValue();
+                case "getInt" -> ((Number) value).intValue();
+                case "getBoolean" -> Boolean.TRUE.equals(value);
+                default -> value;
+            };
+        });
+    }
+
+    private static Map<String, Object> id(Long id) {
+        return Map.of("id", id);
+    }
+
+    private static Map<String, Object> locked(Long id, Long productId, Long warehouseId, boolean lowStock) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", id);
+        row.put("product_id", productId);
+        row.put("warehouse_id", warehouseId);
+        row.put("low_stock", lowStock);
+        return row;
+    }
+
+    private static Map<String, Object> row(Long id, Long productId, Long warehouseId, int available) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", id);
+        row.put("product_id", productId);
+        row.put("warehouse_id", warehouseId);
+        row.put("quantity_available", available);
+        row.put("quantity_reserved", 0);
+        row.put("reorder_level", 10);
+        return row;
+    }
+
+    private static InventoryTransferLineDTO line(Long productId, Long from, Long to, int quantity) {
+        return InventoryTransferLineDTO.builder()
+                .productId(productId)
+                .fromWarehouseId(from)
+                .toWarehouseId(to)
+                .quantity(quantity)
+                .build();
+    }
+
+    private static InventoryTransferDTO request(InventoryTransferLineDTO... lines) {
+        return InventoryTransferDTO.builder()
+                .reference("REBALANCE-1")
+                .lines(List.of(lines))
+                .build();
+    }
+}
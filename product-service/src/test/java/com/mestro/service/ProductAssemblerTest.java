@@ -0,0 +1,138 @@
+package com.mestro.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mestro.dto.ProductDTO;
+import com.mestro.model.Category;
+import com.mestro.model.Product;
+import com.mestro.model.ProductImage;
+import com.mestro.model.ProductInventory;
+import com.mestro.model.Warehouse;
+import com.mestro.repository.ProductRepository;
+import java.math.BigDecimal;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Verifies that assembling a page of products costs the same number of statements regardless of
+ * the page size.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(ProductAssembler.class)
+@DisplayName("ProductAssembler Tests")
+@ActiveProfiles("test")
+class ProductAssemblerTest {
+
+    private static final int PRODUCT_COUNT = 30;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductAssembler productAssembler;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Category category = entityManager.persist(
+                Category.builder().name("Electronics").isActive(true).build());
+        Warehouse east = entityManager.persist(
+                Warehouse.builder().name("East").isActive(true).build());
+        Warehouse west = entityManager.persist(
+                Warehouse.builder().name("West").isActive(true).build());
+
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            Product product = entityManager.persist(Product.builder()
+                    .category(category)
+                    .sku("SKU-" + i)
+                    .name("Product " + i)
+                    .price(new BigDecimal("19.99"))
+                    .build());
+            for (int order = 0; order < 2; order++) {
+                entityManager.persist(ProductImage.builder()
+                        .product(product)
+                        .imageUrl("https://cdn.example.com/" + i + "/" + order + ".jpg")
+                        .isPrimary(order == 0)
+                        .displayOrder(order)
+                        .build());
+            }
+            for (Warehouse warehouse : List.of(east, west)) {
+                entityManager.persist(ProductInventory.builder()
+                        .product(product)
+                        .warehouse(warehouse)
+                        .quantityAvailable(50)
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager
+                .getEntityManager()
+                .getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+    }
+
+    private long statementsForPage(int pageSize) {
+        entityManager.clear();
+        statistics.clear();
+
+        Page<Product> page = productRepository.findAll(PageRequest.of(0, pageSize, Sort.by("id")));
+        List<ProductDTO> dtos = productAssembler.toDTOs(page.getContent());
+
+        assertThat(dtos).hasSize(pageSize);
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    @DisplayName("Should issue a constant number of statements per page")
+    void toDTOs_AnyPageSize_ConstantStatementCount() {
+        long small = statementsForPage(5);
+        long large = statementsForPage(25);
+
+        // page + count + images + inventories
+        assertThat(small).isLessThanOrEqualTo(4);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    @DisplayName("Should attach category, images and inventories to each product")
+    void toDTOs_Page_MapsAssociations() {
+        Page<Product> page = productRepository.findAll(PageRequest.of(0, 3, Sort.by("id")));
+
+        List<ProductDTO> dtos = productAssembler.toDTOs(page.getContent());
+
+        ProductDTO first = dtos.get(0);
+        assertThat(first.getSku()).isEqualTo("SKU-0");
+        assertThat(first.getCategoryName()).isEqualTo("Electronics");
+        assertThat(first.getImages()).extracting("displayOrder").containsExactly(0, 1);
+        assertThat(first.getInventories()).extracting("warehouseName").containsExactlyInAnyOrder("East", "West");
+        assertThat(first.getInventories().get(0).getTotalQuantity()).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("Should return an empty list without querying for an empty page")
+    void toDTOs_Empty_NoQueries() {
+        statistics.clear();
+
+        assertThat(productAssembler.toDTOs(List.of())).isEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+}
@@ -0,0 +1,82 @@
+package com.mestro.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.mestro.service.ProductAvailabilityCache.Totals;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ProductAvailabilityCache Tests")
+class ProductAvailabilityCacheTest {
+
+    @Test
+    @DisplayName("should store, overwrite and remove totals")
+    void shouldStoreAndRemove() {
+        ProductAvailabilityCache cache = new ProductAvailabilityCache(100);
+
+        cache.putIfGeneration(7L, new Totals(10, 2, 1), cache.generation());
+        cache.putIfGeneration(7L, new Totals(8, 4, 1), cache.generation());
+
+        assertThat(cache.get(7L)).isEqualTo(new Totals(8, 4, 1));
+        assertThat(cache.size()).isEqualTo(1);
+
+        cache.remove(7L);
+
+        assertThat(cache.get(7L)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("should refuse a value loaded before a concurrent removal")
+    void shouldRefuseStaleLoad() {
+        ProductAvailabilityCache cache = new ProductAvailabilityCache(100);
+        long generation = cache.generation();
+
+        cache.remove(7L);
+
+        assertThat(cache.putIfGeneration(7L, new Totals(10, 0, 1), generation)).isFalse();
+        assertThat(cache.get(7L)).isNull();
+    }
+
+    @Test
+    @DisplayName("should keep every entry reachable through growth and removals")
+    void shouldMatchHashMapUnderRandomOperations() {
+        ProductAvailabilityCache cache = new ProductAvailabilityCache(1_000_000);
+        Map<Long, Totals> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 50_000; i++) {
+            long productId = 1 + random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                cache.remove(productId);
+                expected.remove(productId);
+            } else {
+                Totals totals = new Totals(random.nextInt(100), random.nextInt(10), random.nextInt(4));
+                cache.putIfGeneration(productId, totals, cache.generation());
+                expected.put(productId, totals);
+            }
+        }
+
+        assertThat(cache.size()).isEqualTo(expected.size());
+        for (long productId = 1; productId <= 5_000; productId++) {
+            assertThat(cache.get(productId)).isEqualTo(expected.get(productId));
+        }
+    }
+
+    @Test
+    @DisplayName("should start over instead of growing past its maximum size")
+    void shouldDropEverythingWhenFull() {
+        ProductAvailabilityCache cache = new ProductAvailabilityCache(2);
+
+        cache.putIfGeneration(1L, new Totals(1, 0, 1), cache.generation());
+        cache.putIfGeneration(2L, new Totals(2, 0, 1), cache.generation());
+        cache.putIfGeneration(3L, new Totals(3, 0, 1), cache.generation());
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.get(3L)).isEqualTo(new Totals(3, 0, 1));
+    }
+}
@@ -0,0 +1,167 @@
+package com.mestro.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.mestro.common.exception.ResourceNotFoundException;
+import com.mestro.dto.InventoryChangeEventDTO;
+import com.mestro.dto.ProductAvailabilityDTO;
+import com.mestro.model.ProductAvailability;
+import com.mestro.repository.ProductAvailabilityRepository;
+import com.mestro.repository.ProductInventoryRepository;
+import com.mestro.repository.ProductRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductAvailabilityService Tests")
+class ProductAvailabilityServiceTest {
+
+    @Mock
+    private ProductAvailabilityRepository availabilityRepository;
+
+    @Mock
+    private ProductInventoryRepository inventoryRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductAvailabilityService availabilityService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(availabilityService, "cacheMaxEntries", 100);
+        availabilityService.init();
+    }
+
+    private static ProductAvailability totals(Long productId, int available, int reserved, int warehouses) {
+        return ProductAvailability.builder()
+                .productId(productId)
+                .totalAvailable(available)
+                .totalReserved(reserved)
+                .warehousesInStock(warehouses)
+                .build();
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+
+    // ─────────────────────────────────────────────
+    // apply
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("apply")
+    class Apply {
+
+        @Test
+        @DisplayName("should count a warehouse out of stock when its last unit is reserved")
+        void shouldTrackWarehousesInStock() {
+            when(availabilityRepository.applyDelta(eq(1L), eq(-5), eq(5), eq(-1), any()))
+                    .thenReturn(1);
+
+            availabilityService.apply(1L, -5, 5, 0);
+
+            verify(availabilityRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("should seed the totals from the inventory rows on a product's first change")
+        void shouldSeedMissingTotals() {
+            when(availabilityRepository.applyDelta(eq(1L), eq(10), eq(0), eq(1), any()))
+                    .thenReturn(0);
+            when(inventoryRepository.sumAvailabilityByProductId(1L)).thenReturn(rows(new Object[] {25L, 3L, 2L}));
+
+            availabilityService.apply(1L, 10, 0, 10);
+
+            verify(availabilityRepository).seedOrApplyDelta(eq(1L), eq(25), eq(3), eq(2), eq(10), eq(0), eq(1), any());
+            verify(availabilityRepository, never()).save(any());
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // Queries
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("Queries")
+    class Queries {
+
+        @Test
+        @DisplayName("should serve repeated reads from memory until the product's inventory changes")
+        void shouldCacheUntilInventoryChanges() {
+            when(availabilityRepository.findByProductId(1L))
+                    .thenReturn(Optional.of(totals(1L, 40, 2, 3)))
+                    .thenReturn(Optional.of(totals(1L, 35, 7, 3)));
+
+            assertThat(availabilityService.getAvailability(1L).getTotalAvailable())
+                    .isEqualTo(40);
+            assertThat(availabilityService.getAvailability(1L).getTotalAvailable())
+                    .isEqualTo(40);
+
+            availabilityService.onInventoryChanged(
+                    InventoryChangeEventDTO.builder().productId(1L).build());
+
+            assertThat(availabilityService.getAvailability(1L).getTotalAvailable())
+                    .isEqualTo(35);
+            verify(availabilityRepository, times(2)).findByProductId(1L);
+        }
+
+        @Test
+        @DisplayName("should reject an unknown product")
+        void shouldRejectUnknownProduct() {
+            when(availabilityRepository.findByProductId(9L)).thenReturn(Optional.empty());
+            when(productRepository.existsById(9L)).thenReturn(false);
+
+            assertThatThrownBy(() -> availabilityService.getAvailability(9L))
+                    .isInstanceOf(ResourceNotFoundException.class);
+        }
+
+        @Test
+        @DisplayName("should answer a bulk request in request order with zeros for products without stock")
+        void shouldAnswerBulkRequest() {
+            when(availabilityRepository.findByProductIdIn(List.of(3L, 1L, 2L)))
+                    .thenReturn(List.of(totals(1L, 10, 0, 1), totals(3L, 30, 1, 2)));
+            when(inventoryRepository.sumAvailabilityGroupByProductIdIn(List.of(2L)))
+                    .thenReturn(List.of());
+
+            List<ProductAvailabilityDTO> result = availabilityService.getAvailabilities(List.of(3L, 1L, 2L, 3L));
+
+            assertThat(result)
+                    .extracting(ProductAvailabilityDTO::getProductId, ProductAvailabilityDTO::getTotalAvailable)
+                    .containsExactly(tuple(3L, 30), tuple(1L, 10), tuple(2L, 0));
+        }
+
+        @Test
+        @DisplayName("should sum the inventory of products without totals in a bulk request, as for a single one")
+        void shouldSumMissingTotalsInBulkRequest() {
+            when(availabilityRepository.findByProductIdIn(List.of(1L, 2L))).thenReturn(List.of(totals(1L, 10, 0, 1)));
+            when(inventoryRepository.sumAvailabilityGroupByProductIdIn(List.of(2L)))
+                    .thenReturn(rows(new Object[] {2L, 25L, 3L, 2L}));
+
+            List<ProductAvailabilityDTO> result = availabilityService.getAvailabilities(List.of(1L, 2L));
+
+            assertThat(result)
+                    .extracting(
+                            ProductAvailabilityDTO::getProductId,
+                            ProductAvailabilityDTO::getTotalAvailable,
+                            ProductAvailabilityDTO::getWarehousesInStock)
+                    .containsExactly(tuple(1L, 10, 1), tuple(2L, 25, 2));
+            assertThat(availabilityService.getAvailability(2L).getTotalAvailable())
+                    .isEqualTo(25);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.mestro.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mestro.dto.BulkRowErrorDTO;
+import com.mestro.dto.BulkUpsertResultDTO;
+import com.mestro.model.Product;
+import com.mestro.repository.CategoryRepository;
+import com.mestro.repository.ProductRepository;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductBulkUpsertService Tests")
+class ProductBulkUpsertServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private ProductSearchService productSearchService;
+
+    @Mock
+    private ProductFacetService productFacetService;
+
+    @Mock
+    private SecondLevelCacheService secondLevelCacheService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private ProductBulkUpsertService productBulkUpsertService;
+
+    private final List<List<String>> writtenBatches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        productBulkUpsertService = new ProductBulkUpsertService(
+                productRepository,
+                categoryRepository,
+                productSearchService,
+                productFacetService,
+                secondLevelCacheService,
+                jdbcTemplate,
+                transactionTemplate,
+                new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(productBulkUpsertService, "chunkSize", 2);
+        ReflectionTestUtils.setField(productBulkUpsertService, "maxReportedErrors", 10);
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation -> invocation
+                .<TransactionCallback<?>>getArgument(0)
+                .doInTransaction(null));
+        lenient().when(categoryRepository.findExistingIds(anyCollection())).thenReturn(List.of(1L));
+        lenient().when(productRepository.findExistingSkus(anyCollection())).thenReturn(List.of("LAP-001"));
+        lenient()
+                .when(jdbcTemplate.batchUpdate(
+                        eq(ProductBulkUpsertService.UPSERT_SQL),
+                        anyCollection(),
+                        anyInt(),
+                        any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    Collection<ProductFeedReader.Row> rows = invocation.getArgument(1);
+                    writtenBatches.add(
+                            rows.stream().map(row -> row.product().getSku()).toList());
+                    return new int[][] {new int[rows.size()]};
+                });
+    }
+
+    @Test
+    @DisplayName("Should write valid rows in chunks and count creates and updates")
+    void shouldWriteInChunks() {
+        BulkUpsertResultDTO result = upsert(row("LAP-001", 1L), row("MOU-001", 1L), row("KEY-001", 1L));
+
+        assertThat(writtenBatches).containsExactly(List.of("LAP-001", "MOU-001"), List.of("KEY-001"));
+        assertThat(result.getReceived()).isEqualTo(3);
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getFailed()).isZero();
+        verify(categoryRepository, times(2)).findExistingIds(anyCollection());
+        verify(secondLevelCacheService).evictAll(Product.class);
+        verify(productSearchService, timeout(1000)).rebuild();
+        verify(productFacetService, timeout(1000)).rebuild();
+    }
+
+    @Test
+    @DisplayName("Should report invalid rows, unknown categories and superseded SKUs by line")
+    void shouldReportRowErrors() {
+        ReflectionTestUtils.setField(productBulkUpsertService, "chunkSize", 10);
+
+        BulkUpsertResultDTO result = upsert(
+                "{\"sku\":\"BAD-001\",\"name\":\"No price\",\"categoryId\":1}",
+                row("MOU-001", 99L),
+                row("KEY-001", 1L),
+                row("KEY-001", 1L));
+
+        assertThat(result.getFailed()).isEqualTo(3);
+        assertThat(result.getErrors())
+                .extracting(BulkRowErrorDTO::getLine, BulkRowErrorDTO::getSku, BulkRowErrorDTO::getMessage)
+                .containsExactlyInAnyOrder(
+                        tuple(1L, "BAD-001", "Price is required"),
+                        tuple(2L, "MOU-001", "Category not found with ID: 99"),
+                        tuple(3L, "KEY-001", "Superseded by line 4 with the same SKU"));
+        assertThat(writtenBatches).containsExactly(List.of("KEY-001"));
+        assertThat(result.getCreated()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should retry a failed batch row by row and keep the good rows")
+    void shouldIsolateFailingRows() {
+        when(jdbcTemplate.batchUpdate(
+                        eq(ProductBulkUpsertService.UPSERT_SQL),
+                        anyCollection(),
+                        anyInt(),
+                        any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataIntegrityViolationException("batch failed"))
+                .thenReturn(new int[][] {{1}})
+                .thenThrow(new DataIntegrityViolationException("value too long for column name"));
+
+        BulkUpsertResultDTO result = upsert(row("LAP-001", 1L), row("MOU-001", 1L));
+
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getErrors().get(0).getSku()).isEqualTo("MOU-001");
+        assertThat(result.getErrors().get(0).getMessage()).isEqualTo("value too long for column name");
+    }
+
+    @Test
+    @DisplayName("Should not rebuild the indexes or evict the cache when nothing was written")
+    void shouldSkipReindexWhenNothingWritten() {
+        BulkUpsertResultDTO result = upsert(row("MOU-001", 99L));
+
+        assertThat(result.getFailed()).isEqualTo(1);
+        verifyNoInteractions(jdbcTemplate, productSearchService, productFacetService, secondLevelCacheService);
+    }
+
+    private BulkUpsertResultDTO upsert(String... lines) {
+        byte[] feed = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+        return productBulkUpsertService.upsert(new ByteArrayInputStream(feed), ProductFeedReader.Format.NDJSON);
+    }
+
+    private static String row(String sku, Long categoryId) {
+        return "{\"sku\":\"" + sku + "\",\"name\":\"Product " + sku + "\",\"price\":19.99,\"categoryId\":" + categoryId
+                + "}";
+    }
+}
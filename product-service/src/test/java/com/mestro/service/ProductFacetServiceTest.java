@@ -0,0 +1,162 @@
+package com.mestro.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.mestro.dto.FacetValueDTO;
+import com.mestro.dto.FacetedProductsDTO;
+import com.mestro.dto.InventoryChangeEventDTO;
+import com.mestro.dto.ProductChangeEventDTO;
+import com.mestro.dto.ProductDTO;
+import com.mestro.enums.PriceBand;
+import com.mestro.model.Category;
+import com.mestro.model.Product;
+import com.mestro.repository.CategoryRepository;
+import com.mestro.repository.ProductInventoryRepository;
+import com.mestro.repository.ProductRepository;
+import com.mestro.search.ProductFacetIndex;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductFacetService Tests")
+class ProductFacetServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductInventoryRepository productInventoryRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private ProductAssembler productAssembler;
+
+    @InjectMocks
+    private ProductFacetService productFacetService;
+
+    private Category electronics;
+    private Product laptop;
+    private Product mouse;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productFacetService, "rebuildBatchSize", 10);
+
+        electronics = Category.builder().name("Electronics").build();
+        electronics.setId(1L);
+        laptop = Product.builder()
+                .category(electronics)
+                .sku("LAP-001")
+                .name("Dell XPS Laptop")
+                .brand("Dell")
+                .price(new BigDecimal("999.99"))
+                .isActive(true)
+                .build();
+        laptop.setId(10L);
+        mouse = Product.builder()
+                .category(electronics)
+                .sku("MOU-001")
+                .name("Wireless Mouse")
+                .brand("Logitech")
+                .price(new BigDecimal("19.99"))
+                .isActive(true)
+                .build();
+        mouse.setId(20L);
+
+        when(productRepository.findBatchAfterId(eq(0L), any(Pageable.class))).thenReturn(List.of(laptop, mouse));
+        when(productInventoryRepository.sumAvailableQuantityGroupByProduct())
+                .thenReturn(List.<Object[]>of(new Object[] {10L, 5L}, new Object[] {20L, 0L}));
+        lenient().when(categoryRepository.findAllById(any())).thenReturn(List.of(electronics));
+        lenient().when(productAssembler.toDTOs(anyList())).thenAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            return products.stream()
+                    .map(product -> ProductDTO.builder().id(product.getId()).build())
+                    .toList();
+        });
+    }
+
+    @Test
+    @DisplayName("Should build the index on first use and return products with facet counts")
+    void browse_FirstRequest_BuildsIndexAndCounts() {
+        when(productRepository.findAllByIdWithCategory(anyCollection())).thenReturn(List.of(laptop));
+
+        FacetedProductsDTO result = productFacetService.browse(null, null, null, true, PageRequest.of(0, 20));
+
+        assertThat(productFacetService.isReady()).isTrue();
+        assertThat(result.getProducts().getContent())
+                .extracting(ProductDTO::getId)
+                .containsExactly(10L);
+        assertThat(result.getProducts().getTotalElements()).isEqualTo(1);
+        assertThat(result.getFacets().get(ProductFacetIndex.CATEGORY))
+                .extracting(FacetValueDTO::getLabel, FacetValueDTO::getCount)
+                .containsExactly(tuple("Electronics", 1L));
+        assertThat(result.getFacets().get(ProductFacetIndex.IN_STOCK))
+                .filteredOn(FacetValueDTO::isSelected)
+                .extracting(FacetValueDTO::getValue)
+                .containsExactly("true");
+    }
+
+    @Test
+    @DisplayName("Should apply product and inventory change events")
+    void onChanges_UpdateIndex() {
+        productFacetService.rebuild();
+        when(productInventoryRepository.getTotalAvailableQuantityByProductId(20L))
+                .thenReturn(3);
+        when(productRepository.findAllByIdWithCategory(anyCollection())).thenReturn(List.of(mouse));
+
+        productFacetService.onProductChanged(
+                ProductChangeEventDTO.builder().productId(10L).deleted(true).build());
+        productFacetService.onInventoryChanged(
+                InventoryChangeEventDTO.builder().productId(20L).build());
+
+        FacetedProductsDTO result =
+                productFacetService.browse(null, null, Set.of(PriceBand.UNDER_25), true, PageRequest.of(0, 20));
+
+        assertThat(result.getProducts().getContent())
+                .extracting(ProductDTO::getId)
+                .containsExactly(20L);
+        assertThat(result.getFacets().get(ProductFacetIndex.BRAND))
+                .extracting(FacetValueDTO::getValue)
+                .containsExactly("Logitech");
+        verify(productRepository, times(1)).findBatchAfterId(eq(0L), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should read stock outside the index lock and keep the latest read when events overlap")
+    void onInventoryChanged_OverlappingReads_KeepsLatest() {
+        productFacetService.rebuild();
+        InventoryChangeEventDTO change =
+                InventoryChangeEventDTO.builder().productId(20L).build();
+        when(productInventoryRepository.getTotalAvailableQuantityByProductId(20L))
+                .thenAnswer(invocation -> {
+                    assertThat(Thread.holdsLock(productFacetService)).isFalse();
+                    // A later event reads and applies its stock before this read returns
+                    productFacetService.onInventoryChanged(change);
+                    return 0;
+                })
+                .thenReturn(3);
+        when(productRepository.findAllByIdWithCategory(anyCollection())).thenReturn(List.of(mouse));
+
+        productFacetService.onInventoryChanged(change);
+
+        FacetedProductsDTO result = productFacetService.browse(null, null, null, true, PageRequest.of(0, 20));
+        assertThat(result.getProducts().getContent())
+                .extracting(ProductDTO::getId)
+                .containsExactly(20L);
+    }
+}
@@ -0,0 +1,131 @@
+package com.mestro.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ProductFeedReader Tests")
+class ProductFeedReaderTest {
+
+    private final ObjectMapper objectMapper =
+            new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    // ─────────────────────────────────────────────────────────────────────────
+    // NDJSON
+    // ─────────────────────────────────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("NDJSON")
+    class Ndjson {
+
+        @Test
+        @DisplayName("Should read one product per line and skip blank lines")
+        void shouldReadOneProductPerLine() throws IOException {
+            List<ProductFeedReader.Row> rows = readAll("""
+                    {"sku":"LAP-001","name":"Dell XPS Laptop","price":999.99,"categoryId":1}
+
+                    {"sku":"MOU-001","name":"Wireless Mouse","price":19.99,"categoryId":2,"isActive":false}
+                    """, ProductFeedReader.Format.NDJSON);
+
+            assertThat(rows).extracting(ProductFeedReader.Row::line).containsExactly(1L, 3L);
+            assertThat(rows.get(0).product().getPrice()).isEqualByComparingTo("999.99");
+            assertThat(rows.get(1).product().getIsActive()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should report an unreadable line and carry on")
+        void shouldReportUnreadableLine() throws IOException {
+            List<ProductFeedReader.Row> rows = readAll("""
+                    {"sku":"LAP-001",
+                    {"sku":"MOU-001","name":"Wireless Mouse","price":19.99,"categoryId":2}
+                    """, ProductFeedReader.Format.NDJSON);
+
+            assertThat(rows).hasSize(2);
+            assertThat(rows.get(0).product()).isNull();
+            assertThat(rows.get(0).error()).startsWith("Unreadable row");
+            assertThat(rows.get(1).product().getSku()).isEqualTo("MOU-001");
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────────────────
+    // CSV
+    // ─────────────────────────────────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("CSV")
+    class Csv {
+
+        @Test
+        @DisplayName("Should map columns by header name and unquote fields")
+        void shouldMapColumnsByHeader() throws IOException {
+            List<ProductFeedReader.Row> rows = readAll("""
+                    sku,name,price,categoryId,description,brand
+                    LAP-001,"Dell XPS 13, 2024",999.99,1,"The ""best"" laptop",
+                    """, ProductFeedReader.Format.CSV);
+
+            assertThat(rows).hasSize(1);
+            ProductFeedReader.Row row = rows.get(0);
+            assertThat(row.line()).isEqualTo(2L);
+            assertThat(row.product().getName()).isEqualTo("Dell XPS 13, 2024");
+            assertThat(row.product().getDescription()).isEqualTo("The \"best\" laptop");
+            assertThat(row.product().getPrice()).isEqualTo(new BigDecimal("999.99"));
+            assertThat(row.product().getCategoryId()).isEqualTo(1L);
+            assertThat(row.product().getBrand()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should report rows with the wrong number of fields or bad values")
+        void shouldReportMalformedRows() throws IOException {
+            List<ProductFeedReader.Row> rows = readAll("""
+                    sku,name,price,categoryId
+                    LAP-001,Laptop,999.99
+                    MOU-001,Mouse,cheap,2
+                    KEY-001,Keyboard,49.00,2
+                    """, ProductFeedReader.Format.CSV);
+
+            assertThat(rows).hasSize(3);
+            assertThat(rows.get(0).error()).contains("Expected 4 fields but found 3");
+            assertThat(rows.get(1).error()).startsWith("Unreadable row");
+            assertThat(rows.get(2).product().getSku()).isEqualTo("KEY-001");
+        }
+
+        @Test
+        @DisplayName("Should reject an unterminated quote")
+        void shouldRejectUnterminatedQuote() {
+            assertThatThrownBy(() -> ProductFeedReader.splitCsv("a,\"b")).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("Should resolve the feed format from the content type")
+    void shouldResolveFormat() {
+        assertThat(ProductFeedReader.Format.fromContentType("application/x-ndjson"))
+                .isEqualTo(ProductFeedReader.Format.NDJSON);
+        assertThat(ProductFeedReader.Format.fromContentType("text/csv; charset=UTF-8"))
+                .isEqualTo(ProductFeedReader.Format.CSV);
+        assertThatThrownBy(() -> ProductFeedReader.Format.fromContentType("application/json"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<ProductFeedReader.Row> readAll(String feed, ProductFeedReader.Format format) throws IOException {
+        List<ProductFeedReader.Row> rows = new ArrayList<>();
+        try (ProductFeedReader reader = new ProductFeedReader(
+                new ByteArrayInputStream(feed.getBytes(StandardCharsets.UTF_8)), format, objectMapper)) {
+            ProductFeedReader.Row row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,539 @@
+package com.mestro.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.mestro.allocation.FewestShipmentsStrategy;
+import com.mestro.common.exception.BusinessException;
+import com.mestro.common.exception.ResourceAlreadyExistsException;
+import com.mestro.dto.InventoryAllocationDTO;
+import com.mestro.dto.InventoryChangeEventDTO;
+import com.mestro.dto.LowStockEventDTO;
+import com.mestro.dto.ProductInventoryDTO;
+import com.mestro.dto.WarehouseAllocationDTO;
+import com.mestro.enums.AllocationStrategyType;
+import com.mestro.enums.InventoryMovementReason;
+import com.mestro.enums.ProductErrorCode;
+import com.mestro.hotstock.HotStockDelta;
+import com.mestro.model.Product;
+import com.mestro.model.ProductInventory;
+import com.mestro.model.Warehouse;
+import com.mestro.repository.ProductInventoryRepository;
+import com.mestro.repository.ProductRepository;
+import com.mestro.repository.WarehouseRepository;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductInventoryService Tests")
+class ProductInventoryServiceTest {
+
+    @Mock
+    private ProductInventoryRepository inventoryRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private WarehouseRepository warehouseRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private InventoryLedgerService ledgerService;
+
+    @Mock
+    private ProductAvailabilityService availabilityService;
+
+    @Mock
+    private HotStockService hotStockService;
+
+    @Mock
+    private ReservationAdmissionService admissionService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private ProductInventoryService inventoryService;
+
+    private Product product;
+    private Warehouse east;
+    private Warehouse west;
+
+    @BeforeEach
+    void setUp() {
+        inventoryService = new ProductInventoryService(
+                inventoryRepository,
+                productRepository,
+                warehouseRepository,
+                eventPublisher,
+                new ModelMapper(),
+                List.of(new FewestShipmentsStrategy()),
+                ledgerService,
+                availabilityService,
+                hotStockService,
+                admissionService,
+                transactionTemplate);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation -> invocation
+                .<TransactionCallback<?>>getArgument(0)
+                .doInTransaction(null));
+        lenient()
+                .when(admissionService.admit(any(), any(), any(), anyInt(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(4).get());
+
+        product = Product.builder().sku("LAP-001").name("Laptop").build();
+        product.setId(1L);
+        east = Warehouse.builder().name("East").city("Boston").build();
+        east.setId(10L);
+        west = Warehouse.builder().name("West").city("Denver").build();
+        west.setId(20L);
+    }
+
+    private ProductInventory inventory(Long id, Warehouse warehouse, int available, int reserved) {
+        ProductInventory inventory = ProductInventory.builder()
+                .product(product)
+                .warehouse(warehouse)
+                .quantityAvailable(available)
+                .quantityReserved(reserved)
+                .build();
+        inventory.setId(id);
+        return inventory;
+    }
+
+    // ─────────────────────────────────────────────
+    // One row per product and warehouse
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("One row per product and warehouse")
+    class UniquePair {
+
+        @Test
+        @DisplayName("should refuse a second row for a product at the same warehouse")
+        void shouldRejectDuplicateOnCreate() {
+            when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+            when(inventoryRepository.existsByProductIdAndWarehouseId(1L, 10L)).thenReturn(true);
+
+            assertThatThrownBy(() -> inventoryService.createInventory(ProductInventoryDTO.builder()
+                            .productId(1L)
+                            .warehouseId(10L)
+                            .quantityAvailable(5)
+                            .quantityReserved(0)
+                            .build()))
+                    .isInstanceOf(ResourceAlreadyExistsException.class);
+            verify(inventoryRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("should refuse to move a row to a warehouse that already stocks the product")
+        void shouldRejectDuplicateOnUpdate() {
+            ProductInventory stock = inventory(100L, east, 30, 0);
+            when(inventoryRepository.findByIdForUpdate(100L)).thenReturn(Optional.of(stock));
+            when(warehouseRepository.findById(20L)).thenReturn(Optional.of(west));
+            when(inventoryRepository.existsByProductIdAndWarehouseId(1L, 20L)).thenReturn(true);
+
+            assertThatThrownBy(() -> inventoryService.updateInventory(
+                            100L,
+                            ProductInventoryDTO.builder()
+                                    .warehouseId(20L)
+                                    .quantityAvailable(30)
+                                    .quantityReserved(0)
+                                    .reorderLevel(10)
+                                    .build()))
+                    .isInstanceOf(ResourceAlreadyExistsException.class);
+            verify(inventoryRepository, never()).save(any());
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // allocateByProductId
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("allocateByProductId")
+    class AllocateByProductId {
+
+        @Test
+        @DisplayName("should split the quantity across warehouses and report each part")
+        void shouldSplitAcrossWarehouses() {
+            when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+            when(inventoryRepository.findAllocatableByProductId(1L))
+                    .thenReturn(List.of(inventory(100L, east, 30, 0), inventory(200L, west, 30, 0)));
+            when(inventoryRepository.reserveIfAvailable(anyLong(), anyInt(), any()))
+                    .thenReturn(1);
+            when(inventoryRepository.findAllById(any()))
+                    .thenReturn(List.of(inventory(100L, east, 0, 30), inventory(200L, west, 10, 20)));
+
+            InventoryAllocationDTO result = inventoryService.allocateByProductId(
+                    1L, 50, AllocationStrategyType.FEWEST_SHIPMENTS, null, "ORD-1");
+
+            assertThat(result.getAllocations())
+                    .extracting(
+                            WarehouseAllocationDTO::getWarehouseId,
+                            WarehouseAllocationDTO::getQuantity,
+                            WarehouseAllocationDTO::getQuantityAvailable)
+                    .containsExactly(tuple(10L, 30, 0), tuple(20L, 20, 10));
+            verify(inventoryRepository).reserveIfAvailable(eq(100L), eq(30), any());
+            verify(inventoryRepository).reserveIfAvailable(eq(200L), eq(20), any());
+            verify(eventPublisher, times(2)).publishEvent(any(InventoryChangeEventDTO.class));
+            verify(ledgerService)
+                    .record(
+                            any(ProductInventory.class),
+                            eq(-30),
+                            eq(30),
+                            eq(InventoryMovementReason.RESERVED),
+                            eq("ORD-1"));
+            verify(ledgerService)
+                    .record(
+                            any(ProductInventory.class),
+                            eq(-20),
+                            eq(20),
+                            eq(InventoryMovementReason.RESERVED),
+                            eq("ORD-1"));
+        }
+
+        @Test
+        @DisplayName("should replan the rest when a conditional update loses a race")
+        void shouldReplanAfterConflict() {
+            when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+            when(inventoryRepository.findAllocatableByProductId(1L))
+                    .thenReturn(List.of(inventory(100L, east, 30, 0), inventory(200L, west, 30, 0)))
+                    .thenReturn(List.of(inventory(200L, west, 25, 5)));
+            // East sells out between the read and the update
+            when(inventoryRepository.reserveIfAvailable(eq(100L), eq(25), any()))
+                    .thenReturn(0);
+            when(inventoryRepository.reserveIfAvailable(eq(200L), eq(25), any()))
+                    .thenReturn(1);
+            when(inventoryRepository.findAllById(any())).thenReturn(List.of(inventory(200L, west, 0, 30)));
+
+            InventoryAllocationDTO result =
+                    inventoryService.allocateByProductId(1L, 25, AllocationStrategyType.FEWEST_SHIPMENTS, null, null);
+
+            assertThat(result.getAllocations())
+                    .extracting(WarehouseAllocationDTO::getWarehouseId, WarehouseAllocationDTO::getQuantity)
+                    .containsExactly(tuple(20L, 25));
+        }
+
+        @Test
+        @DisplayName("should reject a quantity larger than the total stock")
+        void shouldRejectInsufficientStock() {
+            when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+            when(inventoryRepository.findAllocatableByProductId(1L))
+                    .thenReturn(List.of(inventory(100L, east, 30, 0), inventory(200L, west, 30, 0)));
+
+            assertThatThrownBy(() -> inventoryService.allocateByProductId(
+                            1L, 61, AllocationStrategyType.FEWEST_SHIPMENTS, null, null))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessage("Insufficient stock to reserve for product ID: 1. Available: 60, Requested: 61");
+            verify(inventoryRepository, never()).reserveIfAvailable(anyLong(), anyInt(), any());
+            verifyNoInteractions(ledgerService);
+        }
+
+        @Test
+        @DisplayName("should reject a strategy with no registered implementation")
+        void shouldRejectUnknownStrategy() {
+            when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+            assertThatThrownBy(() ->
+                            inventoryService.allocateByProductId(1L, 5, AllocationStrategyType.BALANCED, null, null))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // Ledger
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("Ledger movements")
+    class LedgerMovements {
+
+        @Test
+        @DisplayName("should record a reservation against its reference")
+        void shouldRecordReservation() {
+            ProductInventory stock = inventory(100L, east, 25, 5);
+            when(inventoryRepository.findByProductIdAndWarehouseId(1L, 10L))
+                    .thenReturn(Optional.of(inventory(100L, east, 30, 0)));
+            when(inventoryRepository.reserveIfAvailable(eq(100L), eq(5), any())).thenReturn(1);
+            when(inventoryRepository.findById(100L)).thenReturn(Optional.of(stock));
+
+            inventoryService.reserveByProductAndWarehouse(1L, 10L, 5, "ORD-7", 42L);
+
+            verify(ledgerService).record(stock, -5, 5, InventoryMovementReason.RESERVED, "ORD-7");
+            verify(availabilityService).apply(1L, -5, 5, 25);
+        }
+
+        @Test
+        @DisplayName("should release what a reference still holds reserved on each row")
+        void shouldReleaseByReference() {
+            ProductInventory eastStock = inventory(100L, east, 20, 10);
+            ProductInventory westStock = inventory(200L, west, 5, 3);
+            when(ledgerService.getInventoryIdsByReference("intake-1")).thenReturn(List.of(100L, 200L));
+            when(inventoryRepository.findByIdForUpdate(100L)).thenReturn(Optional.of(eastStock));
+            when(inventoryRepository.findByIdForUpdate(200L)).thenReturn(Optional.of(westStock));
+            when(ledgerService.getReservedByReference(100L, "intake-1")).thenReturn(4);
+            // Already released by an earlier call
+            when(ledgerService.getReservedByReference(200L, "intake-1")).thenReturn(0);
+            when(inventoryRepository.save(eastStock)).thenReturn(eastStock);
+
+            List<ProductInventoryDTO> released = inventoryService.releaseByReference("intake-1");
+
+            assertThat(released).extracting(ProductInventoryDTO::getId).containsExactly(100L);
+            assertThat(eastStock.getQuantityAvailable()).isEqualTo(24);
+            assertThat(eastStock.getQuantityReserved()).isEqualTo(6);
+            verify(ledgerService).record(eastStock, 4, -4, InventoryMovementReason.RELEASED, "intake-1");
+            verify(inventoryRepository, never()).save(westStock);
+        }
+
+        @Test
+        @DisplayName("should record the difference when balances are overwritten")
+        void shouldRecordUpdateAsDelta() {
+            ProductInventory stock = inventory(100L, null, 30, 4);
+            when(inventoryRepository.findByIdForUpdate(100L)).thenReturn(Optional.of(stock));
+            when(inventoryRepository.save(stock)).thenReturn(stock);
+
+            inventoryService.updateInventory(
+                    100L,
+                    ProductInventoryDTO.builder()
+                            .quantityAvailable(22)
+                            .quantityReserved(6)
+                            .reorderLevel(5)
+                            .build());
+
+            verify(ledgerService).record(stock, -8, 2, InventoryMovementReason.UPDATED, null);
+        }
+
+        @Test
+        @DisplayName("should reverse the remaining balances when a row is deleted")
+        void shouldRecordDeletion() {
+            ProductInventory stock = inventory(100L, east, 12, 3);
+            when(inventoryRepository.findByIdForUpdate(100L)).thenReturn(Optional.of(stock));
+
+            inventoryService.deleteInventory(100L);
+
+            verify(ledgerService).record(stock, -12, -3, InventoryMovementReason.DELETED, null);
+            verify(availabilityService).apply(1L, -12, -3, 0);
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // Low stock
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("Low stock flag")
+    class LowStockFlag {
+
+        @Test
+        @DisplayName("should flag the row and announce it when a reservation crosses the reorder level")
+        void shouldAnnounceCrossing() {
+            ProductInventory stock = inventory(100L, east, 12, 0);
+            stock.setReorderLevel(10);
+            stock.setLowStockFlag(false);
+            when(inventoryRepository.findByIdForUpdate(100L)).thenReturn(Optional.of(stock));
+            when(inventoryRepository.save(stock)).thenReturn(stock);
+
+            inventoryService.reserveQuantity(100L, 5, null);
+
+            assertThat(stock.getLowStockFlag()).isTrue();
+            verify(eventPublisher)
+                    .publishEvent(LowStockEventDTO.builder()
+                            .inventoryId(100L)
+                            .productId(1L)
+                            .warehouseId(10L)
+                            .quantityAvailable(7)
+                            .reorderLevel(10)
+                            .lowStock(true)
+                            .build());
+        }
+
+        @Test
+        @DisplayName("should stay quiet while the row stays on the same side of the reorder level")
+        void shouldNotAnnounceWithoutCrossing() {
+            ProductInventory stock = inventory(100L, east, 40, 0);
+            stock.setReorderLevel(10);
+            stock.setLowStockFlag(false);
+            when(inventoryRepository.findByIdForUpdate(100L)).thenReturn(Optional.of(stock));
+            when(inventoryRepository.save(stock)).thenReturn(stock);
+
+            inventoryService.reserveQuantity(100L, 5, null);
+
+            assertThat(stock.getLowStockFlag()).isFalse();
+            verify(eventPublisher, never()).publishEvent(any(LowStockEventDTO.class));
+        }
+
+        @Test
+        @DisplayName("should announce the row leaving the set when released stock lifts it back up")
+        void shouldAnnounceRecovery() {
+            ProductInventory stock = inventory(100L, east, 8, 5);
+            stock.setReorderLevel(10);
+            stock.setLowStockFlag(true);
+            when(inventoryRepository.findByIdForUpdate(100L)).thenReturn(Optional.of(stock));
+            when(inventoryRepository.save(stock)).thenReturn(stock);
+
+            inventoryService.releaseReservedQuantity(100L, 5, null);
+
+            assertThat(stock.getLowStockFlag()).isFalse();
+            verify(eventPublisher)
+                    .publishEvent(argThat(
+                            (Object event) -> event instanceof LowStockEventDTO lowStock && !lowStock.isLowStock()));
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // Admission
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("Admission")
+    class Admission {
+
+        @Test
+        @DisplayName("should admit a warehouse reservation under its customer")
+        void shouldAdmitUnderCustomer() {
+            when(inventoryRepository.findByProductIdAndWarehouseId(1L, 10L))
+                    .thenReturn(Optional.of(inventory(100L, east, 30, 0)));
+            when(inventoryRepository.reserveIfAvailable(eq(100L), eq(5), any())).thenReturn(1);
+            when(inventoryRepository.findById(100L)).thenReturn(Optional.of(inventory(100L, east, 25, 5)));
+
+            ProductInventoryDTO reserved = inventoryService.reserveByProductAndWarehouse(1L, 10L, 5, "ORD-7", 42L);
+
+            assertThat(reserved.getQuantityAvailable()).isEqualTo(25);
+            verify(admissionService).admit(eq(1L), eq(10L), eq(42L), eq(5), any());
+        }
+
+        @Test
+        @DisplayName("should reject an admitted reservation whose conditional update finds the stock gone")
+        void shouldRejectWhenUpdateLoses() {
+            when(inventoryRepository.findByProductIdAndWarehouseId(1L, 10L))
+                    .thenReturn(Optional.of(inventory(100L, east, 30, 0)));
+            // Other admitted reservations took the stock after the read
+            when(inventoryRepository.reserveIfAvailable(eq(100L), eq(5), any())).thenReturn(0);
+            when(inventoryRepository.findById(100L)).thenReturn(Optional.of(inventory(100L, east, 2, 28)));
+
+            assertThatThrownBy(() -> inventoryService.reserveByProductAndWarehouse(1L, 10L, 5, "ORD-7", 42L))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("Available: 2")
+                    .extracting(e -> ((BusinessException) e).getErrorCode())
+                    .isEqualTo(ProductErrorCode.INSUFFICIENT_STOCK);
+            verifyNoInteractions(ledgerService);
+        }
+
+        @Test
+        @DisplayName("should not open a transaction for a reservation the gate rejects")
+        void shouldRejectWithoutTransaction() {
+            doThrow(new BusinessException(ProductErrorCode.INSUFFICIENT_STOCK, "Insufficient stock"))
+                    .when(admissionService)
+                    .admit(eq(1L), eq(10L), eq(42L), eq(5), any());
+
+            assertThatThrownBy(() -> inventoryService.reserveByProductAndWarehouse(1L, 10L, 5, "ORD-7", 42L))
+                    .isInstanceOf(BusinessException.class);
+            verifyNoInteractions(inventoryRepository, transactionTemplate, ledgerService);
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // Hot stock
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("Hot stock")
+    class HotStock {
+
+        @Test
+        @DisplayName("should serve a hot row's reservation from memory without touching the row")
+        void shouldReserveFromMemory() {
+            ProductInventoryDTO served =
+                    ProductInventoryDTO.builder().id(100L).quantityAvailable(7).build();
+            when(hotStockService.tryReserve(100L, 5)).thenReturn(served);
+
+            assertThat(inventoryService.reserveQuantity(100L, 5, null)).isSameAs(served);
+            verifyNoInteractions(inventoryRepository, ledgerService, transactionTemplate);
+        }
+
+        @Test
+        @DisplayName("should take a reservation with a reference from the row so it can be released by reference")
+        void shouldReserveReferencedFromRow() {
+            ProductInventory stock = inventory(100L, east, 30, 0);
+            when(inventoryRepository.findByIdForUpdate(100L)).thenReturn(Optional.of(stock));
+            when(inventoryRepository.save(stock)).thenReturn(stock);
+
+            inventoryService.reserveQuantity(100L, 5, "ORD-1");
+
+            verify(hotStockService, never()).tryReserve(any(), anyInt());
+            verify(ledgerService).record(stock, -5, 5, InventoryMovementReason.RESERVED, "ORD-1");
+        }
+
+        @Test
+        @DisplayName("should leave units held by hot stock counters out of other reservations")
+        void shouldNotReserveAllottedUnits() {
+            ProductInventory stock = inventory(100L, east, 30, 0);
+            stock.setHotAllotment(28);
+            when(inventoryRepository.findByIdForUpdate(100L)).thenReturn(Optional.of(stock));
+
+            assertThatThrownBy(() -> inventoryService.reserveQuantity(100L, 5, null))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Available: 2");
+        }
+
+        @Test
+        @DisplayName("should write back the net change of a hot row as one movement")
+        void shouldWriteBackNetChange() {
+            HotStockDelta delta = new HotStockDelta(100L, 12, 40L);
+            ProductInventory stock = inventory(100L, east, 18, 12);
+            when(hotStockService.drainPending()).thenReturn(List.of(delta));
+            when(inventoryRepository.findById(100L)).thenReturn(Optional.of(stock));
+
+            inventoryService.writeBackHotStock();
+
+            verify(hotStockService).recordWriteBack(delta);
+            verify(inventoryRepository).applyHotStockDelta(eq(100L), eq(12), any());
+            verify(ledgerService).record(stock, -12, 12, InventoryMovementReason.RESERVED, null);
+            verify(hotStockService)
+                    .completeWriteBack(eq(List.of(delta)), argThat(written -> written.containsKey(100L)));
+            verify(hotStockService).maintain();
+        }
+
+        @Test
+        @DisplayName("should keep the changes for the next run when the write-back fails")
+        void shouldRestoreFailedWriteBack() {
+            HotStockDelta delta = new HotStockDelta(100L, 3, 41L);
+            when(hotStockService.drainPending()).thenReturn(List.of(delta));
+            when(inventoryRepository.applyHotStockDelta(eq(100L), eq(3), any()))
+                    .thenThrow(new IllegalStateException("connection lost"));
+
+            inventoryService.writeBackHotStock();
+
+            verify(hotStockService).restorePending(List.of(delta));
+            verify(hotStockService, never()).completeWriteBack(any(), any(Map.class));
+            verify(hotStockService, never()).maintain();
+        }
+
+        @Test
+        @DisplayName("should refuse to delete a row while hot stock counters hold part of it")
+        void shouldNotDeleteAllottedRow() {
+            ProductInventory stock = inventory(100L, east, 30, 0);
+            stock.setHotAllotment(10);
+            when(inventoryRepository.findByIdForUpdate(100L)).thenReturn(Optional.of(stock));
+
+            assertThatThrownBy(() -> inventoryService.deleteInventory(100L))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verify(inventoryRepository, never()).delete(any());
+        }
+    }
+}
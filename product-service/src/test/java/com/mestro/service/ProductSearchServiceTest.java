@@ -0,0 +1,136 @@
+package com.mestro.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.mestro.common.dto.PageResponseDTO;
+import com.mestro.dto.ProductChangeEventDTO;
+import com.mestro.dto.ProductDTO;
+import com.mestro.model.Category;
+import com.mestro.model.Product;
+import com.mestro.repository.ProductRepository;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductSearchService Tests")
+class ProductSearchServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductAssembler productAssembler;
+
+    @InjectMocks
+    private ProductSearchService productSearchService;
+
+    private Product laptop;
+    private Product mouse;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productSearchService, "rebuildBatchSize", 1);
+        ReflectionTestUtils.setField(productSearchService, "maxResultWindow", 100);
+
+        Category category = Category.builder().name("Electronics").build();
+        category.setId(1L);
+        laptop = Product.builder()
+                .category(category)
+                .sku("LAP-001")
+                .name("Dell XPS Laptop")
+                .brand("Dell")
+                .price(new BigDecimal("999.99"))
+                .build();
+        laptop.setId(10L);
+        mouse = Product.builder()
+                .category(category)
+                .sku("MOU-001")
+                .name("Wireless Mouse")
+                .description("Pairs with any laptop")
+                .price(new BigDecimal("19.99"))
+                .build();
+        mouse.setId(20L);
+
+        lenient().when(productAssembler.toDTOs(anyList())).thenAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            return products.stream()
+                    .map(product -> ProductDTO.builder().id(product.getId()).build())
+                    .toList();
+        });
+    }
+
+    private void rebuild() {
+        when(productRepository.findBatchAfterId(eq(0L), any(Pageable.class))).thenReturn(List.of(laptop));
+        when(productRepository.findBatchAfterId(eq(10L), any(Pageable.class))).thenReturn(List.of(mouse));
+        when(productRepository.findBatchAfterId(eq(20L), any(Pageable.class))).thenReturn(List.of());
+        productSearchService.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should fall back to the LIKE query until the index is built")
+    void search_IndexNotReady_UsesRepository() {
+        Pageable pageable = PageRequest.of(0, 20);
+        when(productRepository.searchByName("laptop", pageable))
+                .thenReturn(new PageImpl<>(List.of(laptop), pageable, 1));
+
+        PageResponseDTO<ProductDTO> result = productSearchService.search("laptop", pageable);
+
+        assertThat(result.getContent()).extracting(ProductDTO::getId).containsExactly(10L);
+        verify(productRepository, never()).findAllByIdWithCategory(any());
+    }
+
+    @Test
+    @DisplayName("Should return indexed hits in rank order after a rebuild")
+    void search_AfterRebuild_ReturnsRankedPage() {
+        rebuild();
+        when(productRepository.findAllByIdWithCategory(anyCollection())).thenReturn(List.of(mouse, laptop));
+
+        PageResponseDTO<ProductDTO> result = productSearchService.search("laptop", PageRequest.of(0, 20));
+
+        assertThat(productSearchService.isReady()).isTrue();
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(result.getContent()).extracting(ProductDTO::getId).containsExactly(10L, 20L);
+        verify(productRepository, never()).searchByName(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Should apply product change events to the index")
+    void onProductChanged_UpdateAndDelete_KeepsIndexCurrent() {
+        rebuild();
+
+        productSearchService.onProductChanged(ProductChangeEventDTO.builder()
+                .productId(10L)
+                .sku("LAP-001")
+                .name("Dell XPS Notebook")
+                .build());
+        productSearchService.onProductChanged(
+                ProductChangeEventDTO.builder().productId(20L).deleted(true).build());
+
+        PageResponseDTO<ProductDTO> result = productSearchService.search("laptop", PageRequest.of(0, 20));
+        assertThat(result.getTotalElements()).isZero();
+        assertThat(result.getContent()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject blank keywords and pages beyond the result window")
+    void search_InvalidRequest_ThrowsIllegalArgumentException() {
+        assertThatThrownBy(() -> productSearchService.search(" ", PageRequest.of(0, 20)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> productSearchService.search("laptop", PageRequest.of(5, 20)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("first 100 hits");
+    }
+}
@@ -0,0 +1,146 @@
+package com.mestro.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.mestro.common.dto.CursorPageResponseDTO;
+import com.mestro.dto.ProductDTO;
+import com.mestro.model.Product;
+import com.mestro.repository.CategoryRepository;
+import com.mestro.repository.ProductRepository;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductService Tests")
+class ProductServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private CategoryTreeService categoryTreeService;
+
+    @Mock
+    private ProductAssembler productAssembler;
+
+    @Mock
+    private ProductSearchService productSearchService;
+
+    @Mock
+    private ProductFacetService productFacetService;
+
+    @Mock
+    private InStockIndexService inStockIndexService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private ProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        productService = new ProductService(
+                productRepository,
+                categoryRepository,
+                categoryTreeService,
+                productAssembler,
+                productSearchService,
+                productFacetService,
+                inStockIndexService,
+                eventPublisher,
+                new ModelMapper(),
+                transactionTemplate);
+        lenient()
+                .when(productAssembler.toDTOs(any()))
+                .thenAnswer(invocation -> invocation.<List<Product>>getArgument(0).stream()
+                        .map(product -> ProductDTO.builder().id(product.getId()).build())
+                        .toList());
+    }
+
+    /** The next {@code size + 1} products after the cursor, out of {@code total} with IDs 1 to total. */
+    private void catalogOf(long total) {
+        when(productRepository.findActivePageAfterId(anyLong(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    long cursor = invocation.getArgument(0);
+                    int limit = invocation.<Pageable>getArgument(1).getPageSize();
+                    return LongStream.rangeClosed(cursor + 1, Math.min(cursor + limit, total))
+                            .mapToObj(id -> {
+                                Product product = Product.builder().build();
+                                product.setId(id);
+                                return product;
+                            })
+                            .toList();
+                });
+    }
+
+    // ─────────────────────────────────────────────
+    // Keyset pages filtered by stock
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("Stock-filtered keyset pages")
+    class StockFilteredPages {
+
+        @Test
+        @DisplayName("should read further batches until the page fills")
+        void shouldFillPageAcrossBatches() {
+            catalogOf(1_000);
+            when(inStockIndexService.filter(true)).thenReturn(id -> id % 4 == 0);
+
+            CursorPageResponseDTO<ProductDTO> page = productService.getActiveProducts(null, 10, true);
+
+            assertThat(page.getContent())
+                    .extracting(ProductDTO::getId)
+                    .hasSize(10)
+                    .endsWith(40L);
+            assertThat(page.getNextAfterId()).isEqualTo(40L);
+            assertThat(page.getLast()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should stop after a bounded number of batches and continue from the last row scanned")
+        void shouldCapScanForSparseFilter() {
+            catalogOf(1_000_000);
+            when(inStockIndexService.filter(true)).thenReturn(id -> id == 7 || id == 900_000);
+
+            CursorPageResponseDTO<ProductDTO> page = productService.getActiveProducts(null, 10, true);
+
+            assertThat(page.getContent()).extracting(ProductDTO::getId).containsExactly(7L);
+            assertThat(page.getNextAfterId()).isEqualTo(55L);
+            assertThat(page.getLast()).isFalse();
+            verify(productRepository, times(5)).findActivePageAfterId(anyLong(), any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("should report the last page when the rows run out before the cap")
+        void shouldEndWhenRowsRunOut() {
+            catalogOf(30);
+            when(inStockIndexService.filter(true)).thenReturn(id -> id == 3);
+
+            CursorPageResponseDTO<ProductDTO> page = productService.getActiveProducts(null, 10, true);
+
+            assertThat(page.getContent()).extracting(ProductDTO::getId).containsExactly(3L);
+            assertThat(page.getNextAfterId()).isNull();
+            assertThat(page.getLast()).isTrue();
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.mestro.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.mestro.common.exception.BusinessException;
+import com.mestro.dto.InventoryChangeEventDTO;
+import com.mestro.enums.ProductErrorCode;
+import com.mestro.model.ProductInventory;
+import com.mestro.repository.ProductInventoryRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReservationAdmissionService Tests")
+class ReservationAdmissionServiceTest {
+
+    @Mock
+    private ProductInventoryRepository inventoryRepository;
+
+    private ReservationAdmissionService admissionService;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<Thread> threads = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        admissionService = new ReservationAdmissionService(inventoryRepository);
+        ReflectionTestUtils.setField(admissionService, "enabled", true);
+        ReflectionTestUtils.setField(admissionService, "maxInFlight", 1);
+        ReflectionTestUtils.setField(admissionService, "maxQueued", 10);
+        ReflectionTestUtils.setField(admissionService, "maxWait", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(admissionService, "stockTtl", Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // Tokens
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("Tokens")
+    class Tokens {
+
+        @Test
+        @DisplayName("should reject a reservation the stock cannot cover without running it")
+        void shouldRejectFast() {
+            stockOf(3);
+
+            assertThatThrownBy(() -> admissionService.admit(1L, 10L, 42L, 5, () -> fail("should not run")))
+                    .isInstanceOf(BusinessException.class)
+                    .extracting(e -> ((BusinessException) e).getErrorCode())
+                    .isEqualTo(ProductErrorCode.INSUFFICIENT_STOCK);
+        }
+
+        @Test
+        @DisplayName("should count units of reservations still running against the stock")
+        void shouldCountHeldUnits() throws InterruptedException {
+            stockOf(4);
+            Thread running =
+                    start(() -> admissionService.admit(1L, 10L, 1L, 3, ReservationAdmissionServiceTest.this::block));
+            awaitParked(running);
+
+            assertThatThrownBy(() -> admissionService.admit(1L, 10L, 2L, 2, () -> "reserved"))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("Available: 1");
+        }
+
+        @Test
+        @DisplayName("should give the units of a failed reservation back")
+        void shouldReturnUnitsOnFailure() {
+            stockOf(4);
+
+            assertThatThrownBy(() -> admissionService.admit(1L, 10L, 1L, 4, () -> {
+                        throw new IllegalArgumentException("Insufficient stock");
+                    }))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThat(admissionService.admit(1L, 10L, 1L, 4, () -> "reserved")).isEqualTo("reserved");
+        }
+
+        @Test
+        @DisplayName("should follow committed changes of the row")
+        void shouldFollowCommittedChanges() {
+            stockOf(4);
+
+            admissionService.admit(1L, 10L, 1L, 3, () -> {
+                admissionService.onInventoryChange(change(1));
+                return "reserved";
+            });
+
+            assertThatThrownBy(() -> admissionService.admit(1L, 10L, 1L, 2, () -> "reserved"))
+                    .isInstanceOf(BusinessException.class);
+            admissionService.onInventoryChange(change(6));
+            assertThat(admissionService.admit(1L, 10L, 1L, 2, () -> "reserved")).isEqualTo("reserved");
+            verify(inventoryRepository, times(1)).findByProductIdAndWarehouseId(1L, 10L);
+        }
+
+        @Test
+        @DisplayName("should skip a change reported after a later one")
+        void shouldSkipOutOfOrderChanges() {
+            stockOf(4);
+            admissionService.admit(1L, 10L, 1L, 1, () -> "reserved");
+            LocalDateTime now = LocalDateTime.now();
+
+            admissionService.onInventoryChange(change(10, now));
+            admissionService.onInventoryChange(change(1, now.minusSeconds(1)));
+
+            assertThat(admissionService.admit(1L, 10L, 1L, 8, () -> "reserved")).isEqualTo("reserved");
+        }
+
+        @Test
+        @DisplayName("should read the row again before turning a reservation away on stale stock")
+        void shouldRereadStaleStock() {
+            ReflectionTestUtils.setField(admissionService, "stockTtl", Duration.ZERO);
+            // Restocked on another instance after the first read
+            when(inventoryRepository.findByProductIdAndWarehouseId(1L, 10L))
+                    .thenReturn(Optional.of(
+                            ProductInventory.builder().quantityAvailable(3).build()))
+                    .thenReturn(Optional.of(
+                            ProductInventory.builder().quantityAvailable(10).build()));
+
+            assertThat(admissionService.admit(1L, 10L, 1L, 5, () -> "reserved")).isEqualTo("reserved");
+            verify(inventoryRepository, times(2)).findByProductIdAndWarehouseId(1L, 10L);
+        }
+
+        @Test
+        @DisplayName("should run reservations for rows it does not know unchecked")
+        void shouldPassUnknownRows() {
+            when(inventoryRepository.findByProductIdAndWarehouseId(1L, 10L)).thenReturn(Optional.empty());
+
+            assertThat(admissionService.admit(1L, 10L, 1L, 5, () -> "not found"))
+                    .isEqualTo("not found");
+        }
+
+        @Test
+        @DisplayName("should run every reservation when disabled")
+        void shouldPassWhenDisabled() {
+            ReflectionTestUtils.setField(admissionService, "enabled", false);
+
+            assertThat(admissionService.admit(1L, 10L, 1L, 5, () -> "reserved")).isEqualTo("reserved");
+            verifyNoInteractions(inventoryRepository);
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // Queue
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("Queue")
+    class Queue {
+
+        @Test
+        @DisplayName("should let waiting customers in by turns, each in arrival order")
+        void shouldQueueFairly() throws InterruptedException {
+            stockOf(100);
+            List<String> order = Collections.synchronizedList(new ArrayList<>());
+            Thread running =
+                    start(() -> admissionService.admit(1L, 10L, 1L, 1, ReservationAdmissionServiceTest.this::block));
+            awaitParked(running);
+
+            for (String name : List.of("1a", "1b", "1c", "2a")) {
+                Long customer = Long.valueOf(name.substring(0, 1));
+                awaitParked(start(() -> admissionService.admit(1L, 10L, customer, 1, () -> order.add(name))));
+            }
+            release.countDown();
+            for (Thread thread : threads) {
+                thread.join(5000);
+            }
+
+            assertThat(order).containsExactly("1a", "2a", "1b", "1c");
+        }
+
+        @Test
+        @DisplayName("should reject a reservation that waits longer than allowed")
+        void shouldTimeOut() throws InterruptedException {
+            stockOf(100);
+            ReflectionTestUtils.setField(admissionService, "maxWait", Duration.ofMillis(50));
+            Thread running =
+                    start(() -> admissionService.admit(1L, 10L, 1L, 1, ReservationAdmissionServiceTest.this::block));
+            awaitParked(running);
+
+            assertThatThrownBy(() -> admissionService.admit(1L, 10L, 2L, 99, () -> "reserved"))
+                    .isInstanceOf(BusinessException.class)
+                    .extracting(e -> ((BusinessException) e).getErrorCode())
+                    .isEqualTo(ProductErrorCode.RESERVATION_TIMED_OUT);
+            release.countDown();
+            running.join(5000);
+            assertThat(admissionService.admit(1L, 10L, 2L, 99, () -> "reserved"))
+                    .isEqualTo("reserved");
+        }
+
+        @Test
+        @DisplayName("should reject a reservation when the queue is full")
+        void shouldRejectWhenFull() throws InterruptedException {
+            stockOf(100);
+            ReflectionTestUtils.setField(admissionService, "maxQueued", 0);
+            Thread running =
+                    start(() -> admissionService.admit(1L, 10L, 1L, 1, ReservationAdmissionServiceTest.this::block));
+            awaitParked(running);
+
+            assertThatThrownBy(() -> admissionService.admit(1L, 10L, 2L, 1, () -> "reserved"))
+                    .isInstanceOf(BusinessException.class)
+                    .extracting(e -> ((BusinessException) e).getErrorCode())
+                    .isEqualTo(ProductErrorCode.RESERVATION_QUEUE_FULL);
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // Helpers
+    // ─────────────────────────────────────────────
+
+    private void stockOf(int available) {
+        ProductInventory stock =
+                ProductInventory.builder().quantityAvailable(available).build();
+        when(inventoryRepository.findByProductIdAndWarehouseId(1L, 10L)).thenReturn(Optional.of(stock));
+    }
+
+    private InventoryChangeEventDTO change(int available) {
+        return change(available, null);
+    }
+
+    private InventoryChangeEventDTO change(int available, LocalDateTime updatedAt) {
+        return InventoryChangeEventDTO.builder()
+                .inventoryId(100L)
+                .productId(1L)
+                .warehouseId(10L)
+                .quantityAvailable(available)
+                .updatedAt(updatedAt)
+                .build();
+    }
+
+    private String block() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "reserved";
+    }
+
+    private Thread start(Runnable task) {
+        Thread thread = new Thread(task);
+        threads.add(thread);
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitParked(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.TIMED_WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+}
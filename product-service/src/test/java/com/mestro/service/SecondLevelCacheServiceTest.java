@@ -0,0 +1,126 @@
+package com.mestro.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.mestro.cache.BoundedRegionFactory;
+import com.mestro.cache.BoundedStorageAccess;
+import com.mestro.cache.CacheInvalidation;
+import com.mestro.cache.ClusterCacheInvalidator;
+import com.mestro.dto.CacheRegionStatsDTO;
+import com.mestro.dto.CategoryChangeEventDTO;
+import com.mestro.dto.WarehouseChangeEventDTO;
+import com.mestro.model.Category;
+import com.mestro.model.Product;
+import com.mestro.model.Warehouse;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SecondLevelCacheService Tests")
+class SecondLevelCacheServiceTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private BoundedRegionFactory regionFactory;
+
+    @Mock
+    private ObjectProvider<ClusterCacheInvalidator> invalidators;
+
+    @Mock
+    private ClusterCacheInvalidator invalidator;
+
+    private SecondLevelCacheService cacheService;
+
+    @BeforeEach
+    void setUp() {
+        cacheService = new SecondLevelCacheService(entityManagerFactory, regionFactory, invalidators);
+        lenient().when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        lenient().when(sessionFactory.getCache()).thenReturn(cache);
+        lenient().when(invalidators.orderedStream()).thenAnswer(invocation -> Stream.of(invalidator));
+    }
+
+    @Test
+    @DisplayName("should send committed category and warehouse changes to the other instances")
+    void shouldSendChanges() {
+        cacheService.onCategoryChanged(
+                CategoryChangeEventDTO.builder().categoryId(3L).build());
+        cacheService.onWarehouseChanged(
+                WarehouseChangeEventDTO.builder().warehouseId(5L).deleted(true).build());
+
+        verify(invalidator).send(new CacheInvalidation(Category.class.getName(), 3L));
+        verify(invalidator).send(new CacheInvalidation(Warehouse.class.getName(), 5L));
+        verifyNoInteractions(cache);
+    }
+
+    @Test
+    @DisplayName("should evict the entity and all query results on a received invalidation without resending it")
+    void shouldApplyReceivedInvalidation() {
+        cacheService.receive(new CacheInvalidation(Category.class.getName(), 3L));
+
+        verify(cache).evictEntityData(Category.class.getName(), 3L);
+        verify(cache).evictQueryRegions();
+        verifyNoInteractions(invalidator);
+    }
+
+    @Test
+    @DisplayName("should evict a whole entity region here and on the other instances")
+    void shouldEvictAll() {
+        cacheService.evictAll(Product.class);
+
+        verify(cache).evictEntityData(Product.class.getName());
+        verify(cache).evictQueryRegions();
+        verify(invalidator).send(new CacheInvalidation(Product.class.getName(), null));
+    }
+
+    @Test
+    @DisplayName("should keep going when a transport fails")
+    void shouldSurviveTransportFailure() {
+        doThrow(new IllegalStateException("broker down")).when(invalidator).send(any());
+
+        assertThatCode(() -> cacheService.evictAll(Product.class)).doesNotThrowAnyException();
+        verify(cache).evictEntityData(Product.class.getName());
+    }
+
+    @Test
+    @DisplayName("should report region counters sorted by name")
+    void shouldReportStatistics() {
+        BoundedStorageAccess products = new BoundedStorageAccess("products", 10);
+        products.putIntoCache("a", 1, null);
+        products.getFromCache("a", null);
+        products.getFromCache("a", null);
+        products.getFromCache("b", null);
+        BoundedStorageAccess timestamps =
+                new BoundedStorageAccess("default-update-timestamps-region", Integer.MAX_VALUE);
+        when(regionFactory.getRegions()).thenReturn(List.of(products, timestamps));
+
+        List<CacheRegionStatsDTO> regions = cacheService.getRegionStatistics();
+
+        assertThat(regions)
+                .extracting(CacheRegionStatsDTO::getRegion)
+                .containsExactly("default-update-timestamps-region", "products");
+        assertThat(regions.get(0).getMaxEntries()).isNull();
+        assertThat(regions.get(0).getHitRatio()).isNull();
+        assertThat(regions.get(1).getEntries()).isEqualTo(1);
+        assertThat(regions.get(1).getHits()).isEqualTo(2);
+        assertThat(regions.get(1).getHitRatio()).isCloseTo(2.0 / 3, within(1e-9));
+    }
+}
@@ -0,0 +1,112 @@
+package com.mestro.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.mestro.model.Warehouse;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("WarehouseGeoIndex Tests")
+class WarehouseGeoIndexTest {
+
+    @Test
+    @DisplayName("should find the same nearest sites as a scan over all of them")
+    void shouldMatchLinearScan() {
+        Random random = new Random(7);
+        List<Warehouse> warehouses = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            warehouses.add(warehouse(id, random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180));
+        }
+        WarehouseGeoIndex index = WarehouseGeoIndex.of(warehouses);
+
+        for (int query = 0; query < 50; query++) {
+            double latitude = random.nextDouble() * 180 - 90;
+            double longitude = random.nextDouble() * 360 - 180;
+            List<Long> expected = warehouses.stream()
+                    .filter(warehouse -> warehouse.getId() % 2 == 0)
+                    .sorted(Comparator.comparingDouble(warehouse ->
+                            haversineKm(latitude, longitude, warehouse.getLatitude(), warehouse.getLongitude())))
+                    .limit(7)
+                    .map(Warehouse::getId)
+                    .toList();
+
+            assertThat(index.nearest(latitude, longitude, 7, id -> id % 2 == 0))
+                    .extracting(hit -> hit.site().warehouseId())
+                    .containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("should measure great-circle distance across the antimeridian")
+    void shouldHandleAntimeridian() {
+        WarehouseGeoIndex index =
+                WarehouseGeoIndex.of(List.of(warehouse(1L, 0, 170), warehouse(2L, 0, 179.5), warehouse(3L, 0, -170)));
+
+        List<WarehouseGeoIndex.Hit> hits = index.nearest(0, -179.5, 2, null);
+
+        assertThat(hits).extracting(hit -> hit.site().warehouseId()).containsExactly(2L, 3L);
+        assertThat(hits.get(0).distanceKm()).isCloseTo(111.2, within(0.5));
+    }
+
+    @Test
+    @DisplayName("should keep the lower warehouse ID among co-located sites")
+    void shouldBreakTiesByWarehouseId() {
+        WarehouseGeoIndex forward =
+                WarehouseGeoIndex.of(List.of(warehouse(1L, 48.85, 2.35), warehouse(2L, 48.85, 2.35)));
+        WarehouseGeoIndex backward =
+                WarehouseGeoIndex.of(List.of(warehouse(2L, 48.85, 2.35), warehouse(1L, 48.85, 2.35)));
+
+        assertThat(forward.nearest(50, 3, 1, null))
+                .extracting(hit -> hit.site().warehouseId())
+                .containsExactly(1L);
+        assertThat(backward.nearest(50, 3, 1, null))
+                .extracting(hit -> hit.site().warehouseId())
+                .containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("should report distances in kilometres")
+    void shouldReportKilometres() {
+        WarehouseGeoIndex index = WarehouseGeoIndex.of(List.of(warehouse(1L, 51.5074, -0.1278)));
+
+        assertThat(index.nearest(40.7128, -74.0060, 1, null).get(0).distanceKm())
+                .isCloseTo(5570, within(10.0));
+    }
+
+    @Test
+    @DisplayName("should leave out warehouses without coordinates")
+    void shouldSkipUnlocated() {
+        Warehouse unlocated = warehouse(2L, 0, 0);
+        unlocated.setLongitude(null);
+
+        WarehouseGeoIndex index = WarehouseGeoIndex.of(List.of(warehouse(1L, 10, 10), unlocated));
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.nearest(0, 0, 5, null))
+                .extracting(hit -> hit.site().warehouseId())
+                .containsExactly(1L);
+        assertThat(WarehouseGeoIndex.EMPTY.nearest(0, 0, 5, null)).isEmpty();
+    }
+
+    private static Warehouse warehouse(Long id, double latitude, double longitude) {
+        Warehouse warehouse = Warehouse.builder()
+                .name("Warehouse " + id)
+                .latitude(latitude)
+                .longitude(longitude)
+                .build();
+        warehouse.setId(id);
+        return warehouse;
+    }
+
+    private static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.pow(Math.sin(dLat / 2), 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2), 2);
+        return 2 * Math.asin(Math.sqrt(a)) * WarehouseGeoIndex.EARTH_RADIUS_KM;
+    }
+}
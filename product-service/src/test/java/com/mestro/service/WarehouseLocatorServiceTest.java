@@ -0,0 +1,98 @@
+package com.mestro.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.mestro.common.exception.ResourceNotFoundException;
+import com.mestro.dto.NearestWarehouseDTO;
+import com.mestro.dto.WarehouseChangeEventDTO;
+import com.mestro.model.Warehouse;
+import com.mestro.repository.ProductInventoryRepository;
+import com.mestro.repository.ProductRepository;
+import com.mestro.repository.WarehouseRepository;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WarehouseLocatorService Tests")
+class WarehouseLocatorServiceTest {
+
+    @Mock
+    private WarehouseRepository warehouseRepository;
+
+    @Mock
+    private ProductInventoryRepository inventoryRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private WarehouseLocatorService locatorService;
+
+    @Test
+    @DisplayName("should return the nearest warehouses holding the quantity")
+    void shouldFindNearestStocked() {
+        when(warehouseRepository.findActiveWithCoordinates())
+                .thenReturn(List.of(
+                        warehouse(1L, "Newark", 40.7357, -74.1724),
+                        warehouse(2L, "Philadelphia", 39.9526, -75.1652),
+                        warehouse(3L, "Boston", 42.3601, -71.0589)));
+        when(inventoryRepository.findStockedWarehousesByProductId(7L))
+                .thenReturn(List.of(new Object[] {1L, 2}, new Object[] {2L, 50}, new Object[] {3L, 80}));
+
+        List<NearestWarehouseDTO> nearest = locatorService.findNearestStocked(7L, 40.7128, -74.0060, 10, 5);
+
+        // Newark is closest but holds only 2 units
+        assertThat(nearest).extracting(NearestWarehouseDTO::getName).containsExactly("Philadelphia", "Boston");
+        assertThat(nearest.get(0).getQuantityAvailable()).isEqualTo(50);
+        assertThat(nearest.get(0).getDistanceKm()).isCloseTo(129.6, within(1.0));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("should load the index once and reload it after a warehouse change")
+    void shouldReloadOnChange() {
+        when(warehouseRepository.findActiveWithCoordinates()).thenReturn(List.of(warehouse(1L, "Newark", 40.7, -74.2)));
+
+        locatorService.getIndex();
+        locatorService.getIndex();
+        locatorService.onWarehouseChanged(
+                WarehouseChangeEventDTO.builder().warehouseId(1L).build());
+
+        verify(warehouseRepository, times(2)).findActiveWithCoordinates();
+    }
+
+    @Test
+    @DisplayName("should throw when the product does not exist")
+    void shouldRejectUnknownProduct() {
+        when(inventoryRepository.findStockedWarehousesByProductId(99L)).thenReturn(List.of());
+        when(productRepository.existsById(99L)).thenReturn(false);
+
+        assertThatThrownBy(() -> locatorService.findNearestStocked(99L, 0, 0, 1, 5))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("should reject coordinates out of range")
+    void shouldRejectBadCoordinates() {
+        assertThatThrownBy(() -> locatorService.findNearestStocked(7L, 91, 0, 1, 5))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(inventoryRepository);
+    }
+
+    private static Warehouse warehouse(Long id, String name, double latitude, double longitude) {
+        Warehouse warehouse = Warehouse.builder()
+                .name(name)
+                .city(name)
+                .latitude(latitude)
+                .longitude(longitude)
+                .build();
+        warehouse.setId(id);
+        return warehouse;
+    }
+}
@@ -0,0 +1,155 @@
+package com.mestro.snapshot;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("CatalogSnapshot Tests")
+class CatalogSnapshotTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2024-05-01T10:15:30Z");
+
+    @TempDir
+    Path directory;
+
+    private CatalogSnapshot write(String name, CatalogSnapshotWriter writer, long version) throws IOException {
+        Path path = directory.resolve(name);
+        writer.writeTo(path, version, CREATED_AT);
+        return CatalogSnapshot.open(path);
+    }
+
+    private static CatalogSnapshotWriter sample() {
+        CatalogSnapshotWriter writer = new CatalogSnapshotWriter();
+        writer.add(3L, "LAP-001", "Dell XPS Laptop", 1L, 99999L, 107999L, 12);
+        writer.add(7L, "MOU-001", "Wireless Mouse", 1L, 1999L, 1999L, 0);
+        writer.add(11L, "CAF-001", "Café au lait mug ☕", 2L, 850L, 918L, 40);
+        return writer;
+    }
+
+    // ─────────────────────────────────────────────
+    // round trip
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("round trip")
+    class RoundTrip {
+
+        @Test
+        @DisplayName("should read back header and every column")
+        void shouldReadBackHeaderAndColumns() throws IOException {
+            CatalogSnapshot snapshot = write("sample.snap", sample(), 42L);
+
+            assertThat(snapshot.version()).isEqualTo(42L);
+            assertThat(snapshot.createdAt()).isEqualTo(CREATED_AT);
+            assertThat(snapshot.size()).isEqualTo(3);
+            assertThat(snapshot.productId(1)).isEqualTo(7L);
+            assertThat(snapshot.sku(1)).isEqualTo("MOU-001");
+            assertThat(snapshot.name(2)).isEqualTo("Café au lait mug ☕");
+            assertThat(snapshot.categoryId(2)).isEqualTo(2L);
+            assertThat(snapshot.priceMinor(0)).isEqualTo(99999L);
+            assertThat(snapshot.effectivePriceMinor(0)).isEqualTo(107999L);
+            assertThat(snapshot.availableQuantity(2)).isEqualTo(40);
+        }
+
+        @Test
+        @DisplayName("should write an empty catalog")
+        void shouldWriteEmptyCatalog() throws IOException {
+            CatalogSnapshot snapshot = write("empty.snap", new CatalogSnapshotWriter(), 1L);
+
+            assertThat(snapshot.size()).isZero();
+            assertThat(snapshot.indexOf(5L)).isNegative();
+        }
+
+        @Test
+        @DisplayName("should grow past the initial capacity")
+        void shouldGrowPastInitialCapacity() throws IOException {
+            CatalogSnapshotWriter writer = new CatalogSnapshotWriter();
+            for (int i = 1; i <= 5000; i++) {
+                writer.add(i, "SKU-" + i, "Product " + i, 1L, i * 100L, i * 100L, i);
+            }
+            CatalogSnapshot snapshot = write("large.snap", writer, 1L);
+
+            assertThat(snapshot.size()).isEqualTo(5000);
+            assertThat(snapshot.sku(4999)).isEqualTo("SKU-5000");
+            assertThat(snapshot.availableQuantity(2047)).isEqualTo(2048);
+        }
+
+        @Test
+        @DisplayName("should start every column block on an 8-byte boundary")
+        void shouldAlignColumnBlocks() throws IOException {
+            write("sample.snap", sample(), 1L);
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(directory.resolve("sample.snap")));
+
+            int columns = buffer.getInt(28);
+            assertThat(columns).isEqualTo(CatalogSnapshot.Column.values().length);
+            for (int i = 0; i < columns; i++) {
+                long offset =
+                        buffer.getLong(CatalogSnapshot.HEADER_BYTES + i * CatalogSnapshot.DIRECTORY_ENTRY_BYTES + 8);
+                assertThat(offset % 8).isZero();
+            }
+        }
+
+        @Test
+        @DisplayName("should reject rows out of product ID order")
+        void shouldRejectUnorderedRows() {
+            CatalogSnapshotWriter writer = new CatalogSnapshotWriter();
+            writer.add(5L, "A", "A", 1L, 100L, 100L, 1);
+
+            assertThatThrownBy(() -> writer.add(5L, "B", "B", 1L, 100L, 100L, 1))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("should reject a file that is not a snapshot")
+        void shouldRejectForeignFile() throws IOException {
+            Path path = directory.resolve("foreign.snap");
+            Files.write(path, new byte[64]);
+
+            assertThatThrownBy(() -> CatalogSnapshot.open(path))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Not a catalog snapshot");
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // lookups
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("lookups")
+    class Lookups {
+
+        @Test
+        @DisplayName("indexOf should find rows by product ID")
+        void indexOfShouldFindRows() throws IOException {
+            CatalogSnapshot snapshot = write("sample.snap", sample(), 1L);
+
+            assertThat(snapshot.indexOf(3L)).isZero();
+            assertThat(snapshot.indexOf(11L)).isEqualTo(2);
+            assertThat(snapshot.indexOf(8L)).isNegative();
+        }
+
+        @Test
+        @DisplayName("sameRow should compare every column")
+        void sameRowShouldCompareEveryColumn() throws IOException {
+            CatalogSnapshot original = write("a.snap", sample(), 1L);
+            CatalogSnapshotWriter changed = new CatalogSnapshotWriter();
+            changed.add(3L, "LAP-001", "Dell XPS Laptop", 1L, 99999L, 107999L, 12);
+            changed.add(7L, "MOU-001", "Wireless Mouse", 1L, 1999L, 1999L, 5);
+            changed.add(11L, "CAF-001", "Cafe au lait mug", 2L, 850L, 918L, 40);
+            CatalogSnapshot other = write("b.snap", changed, 2L);
+
+            assertThat(original.sameRow(0, other, 0)).isTrue();
+            assertThat(original.sameRow(1, other, 1)).isFalse();
+            assertThat(original.sameRow(2, other, 2)).isFalse();
+        }
+    }
+}